@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal.util;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.PopupDialog;
+import org.eclipse.jface.dialogs.TitleAreaDialog;
+import org.eclipse.jface.internal.JFaceActivator;
+import org.eclipse.jface.preference.PreferenceDialog;
+import org.eclipse.jface.resource.DataFormatException;
+import org.eclipse.jface.resource.FontRegistry;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.resource.StringConverter;
+import org.eclipse.jface.wizard.Wizard;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.swt.graphics.FontData;
+import org.osgi.framework.Bundle;
+
+
+/**
+ * Application scoped, read-only defaults of the session scoped JFace registries.
+ * <p>
+ * The image descriptors of the default JFace images and the font data read from font resource
+ * bundles are the same for all sessions. They are resolved once per application context and
+ * copied into the registries of each session. Sessions can still replace or add entries in their
+ * own registries without affecting other sessions.
+ * </p>
+ */
+public final class SharedResourceDefaults {
+
+  private static final String ICONS_PATH = "$nl$/icons/full/"; //$NON-NLS-1$
+
+  private final Map<String, ImageDescriptor> imageDescriptors;
+  private final Map<String, Map<String, FontData>> fontDataByLocation;
+
+  public static SharedResourceDefaults getInstance() {
+    return SingletonUtil.getUniqueInstance( SharedResourceDefaults.class,
+                                            RWT.getApplicationContext() );
+  }
+
+  private SharedResourceDefaults() {
+    imageDescriptors = Collections.unmodifiableMap( createDefaultImageDescriptors() );
+    fontDataByLocation = new ConcurrentHashMap<String, Map<String, FontData>>();
+  }
+
+  /**
+   * Returns the descriptors of the default JFace images in the order of their declaration. The
+   * returned map must not be modified.
+   */
+  public Map<String, ImageDescriptor> getImageDescriptors() {
+    return imageDescriptors;
+  }
+
+  /**
+   * Returns a copy of the font data declared in the resource bundle at the given location, mapped
+   * by the keys of the bundle in their order of enumeration. Indexed keys are not merged, this is
+   * left to the font registry that owns the merged arrays. The bundle is read only once per
+   * application context.
+   */
+  public Map<String, FontData> getFontData( String location ) throws MissingResourceException {
+    Map<String, FontData> fontData = fontDataByLocation.get( location );
+    if( fontData == null ) {
+      fontData = readFontData( location );
+      fontDataByLocation.put( location, fontData );
+    }
+    Map<String, FontData> result = new LinkedHashMap<String, FontData>();
+    for( Map.Entry<String, FontData> entry : fontData.entrySet() ) {
+      result.put( entry.getKey(), copy( entry.getValue() ) );
+    }
+    return result;
+  }
+
+  private static Map<String, FontData> readFontData( String location ) {
+    ResourceBundle bundle = ResourceBundle.getBundle( location );
+    Map<String, FontData> result = new LinkedHashMap<String, FontData>();
+    Enumeration<String> keys = bundle.getKeys();
+    while( keys.hasMoreElements() ) {
+      String key = keys.nextElement();
+      result.put( key, makeFontData( bundle.getString( key ) ) );
+    }
+    return result;
+  }
+
+  private static FontData makeFontData( String value ) throws MissingResourceException {
+    try {
+      return StringConverter.asFontData( value.trim() );
+    } catch( @SuppressWarnings( "unused" ) DataFormatException exception ) {
+      throw new MissingResourceException( "Wrong font data format. Value is: \"" //$NON-NLS-1$
+                                          + value
+                                          + "\"", //$NON-NLS-1$
+                                          FontRegistry.class.getName(),
+                                          value );
+    }
+  }
+
+  private static FontData copy( FontData fontData ) {
+    return new FontData( fontData.getName(), fontData.getHeight(), fontData.getStyle() );
+  }
+
+  private static Map<String, ImageDescriptor> createDefaultImageDescriptors() {
+    Object bundle = null;
+    try {
+      bundle = JFaceActivator.getBundle();
+    } catch( @SuppressWarnings( "unused" ) NoClassDefFoundError exception ) {
+      // Test to see if OSGI is present
+    }
+    Map<String, ImageDescriptor> result = new LinkedHashMap<String, ImageDescriptor>();
+    declareImage( result,
+                  bundle,
+                  Wizard.DEFAULT_IMAGE,
+                  ICONS_PATH + "page.gif", //$NON-NLS-1$
+                  Wizard.class,
+                  "images/page.gif" ); //$NON-NLS-1$
+    // register default images for dialogs
+    declareImage( result,
+                  bundle,
+                  Dialog.DLG_IMG_MESSAGE_INFO,
+                  ICONS_PATH + "message_info.gif", //$NON-NLS-1$
+                  Dialog.class,
+                  "images/message_info.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  Dialog.DLG_IMG_MESSAGE_WARNING,
+                  ICONS_PATH + "message_warning.gif", //$NON-NLS-1$
+                  Dialog.class,
+                  "images/message_warning.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  Dialog.DLG_IMG_MESSAGE_ERROR,
+                  ICONS_PATH + "message_error.gif", //$NON-NLS-1$
+                  Dialog.class,
+                  "images/message_error.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  Dialog.DLG_IMG_HELP,
+                  ICONS_PATH + "help.gif", //$NON-NLS-1$
+                  Dialog.class,
+                  "images/help.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  TitleAreaDialog.DLG_IMG_TITLE_BANNER,
+                  ICONS_PATH + "title_banner.png", //$NON-NLS-1$
+                  TitleAreaDialog.class,
+                  "images/title_banner.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  PreferenceDialog.PREF_DLG_TITLE_IMG,
+                  ICONS_PATH + "pref_dialog_title.gif", //$NON-NLS-1$
+                  PreferenceDialog.class,
+                  "images/pref_dialog_title.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  PopupDialog.POPUP_IMG_MENU,
+                  ICONS_PATH + "popup_menu.gif", //$NON-NLS-1$
+                  PopupDialog.class,
+                  "images/popup_menu.gif" ); //$NON-NLS-1$
+    declareImage( result,
+                  bundle,
+                  PopupDialog.POPUP_IMG_MENU_DISABLED,
+                  ICONS_PATH + "popup_menu_disabled.gif", //$NON-NLS-1$
+                  PopupDialog.class,
+                  "images/popup_menu_disabled.gif" ); //$NON-NLS-1$
+    return result;
+  }
+
+  /*
+   * Declares a JFace image given the path of the image file (relative to the JFace plug-in). If the
+   * bundle is null or does not contain the file, the image is loaded relative to the fallback class.
+   */
+  private static void declareImage( Map<String, ImageDescriptor> descriptors,
+                                    Object bundle,
+                                    String key,
+                                    String path,
+                                    Class<?> fallback,
+                                    String fallbackPath )
+  {
+    ImageDescriptor descriptor = null;
+    if( bundle != null ) {
+      URL url = FileLocator.find( ( Bundle )bundle, new Path( path ), null );
+      if( url != null ) {
+        descriptor = ImageDescriptor.createFromURL( url );
+      }
+    }
+    // If we failed then load from the backup file
+    if( descriptor == null ) {
+      descriptor = ImageDescriptor.createFromFile( fallback, fallbackPath );
+    }
+    descriptors.put( key, descriptor );
+  }
+
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal.util;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
+import org.eclipse.rap.rwt.service.UISession;
+
+
+/**
+ * Application scoped executor for the background sorting of deferred content providers.
+ * <p>
+ * All sessions of an application share a bounded pool of daemon threads. The size of the pool
+ * defaults to the number of available processors and can be changed with the system property
+ * <code>org.eclipse.rap.jface.deferredSortThreads</code>.
+ * </p>
+ * <p>
+ * The tasks of a session are executed one after another, hence a session never occupies more than
+ * one thread and cannot starve other sessions. Since every content provider submits at most one
+ * task at a time and coalesces further changes into it, the number of queued tasks is bounded by
+ * the number of content providers. Queued tasks are discarded once their session is no longer
+ * bound, the pool is shut down when the application context is destroyed.
+ * </p>
+ * <p>
+ * The executor does not register anything with the sessions, sessions that sorted remain
+ * serializable. A session is only known to the executor while it has running or queued tasks.
+ * </p>
+ */
+public final class SortExecutor {
+
+  static final String THREAD_COUNT = "org.eclipse.rap.jface.deferredSortThreads"; //$NON-NLS-1$
+
+  private final ThreadPoolExecutor executor;
+  private final Map<UISession, SessionQueue> queues;
+
+  public static SortExecutor getInstance() {
+    return SingletonUtil.getUniqueInstance( SortExecutor.class, RWT.getApplicationContext() );
+  }
+
+  private SortExecutor() {
+    this( Integer.getInteger( THREAD_COUNT, Runtime.getRuntime().availableProcessors() ).intValue() );
+    RWT.getApplicationContext().addApplicationContextListener( new ApplicationContextListener() {
+      public void beforeDestroy( ApplicationContextEvent event ) {
+        shutdown();
+      }
+    } );
+  }
+
+  /**
+   * Creates an executor that is not bound to an application context, used in tests.
+   */
+  public SortExecutor( int threadCount ) {
+    int poolSize = Math.max( 1, threadCount );
+    executor = new ThreadPoolExecutor( poolSize,
+                                       poolSize,
+                                       60,
+                                       TimeUnit.SECONDS,
+                                       new LinkedBlockingQueue<Runnable>(),
+                                       new SortThreadFactory() );
+    executor.allowCoreThreadTimeOut( true );
+    queues = new HashMap<UISession, SessionQueue>();
+  }
+
+  /**
+   * Schedules the given task for execution on behalf of the given session.
+   *
+   * @return <code>false</code> if the task was rejected because the executor has been shut down
+   */
+  public boolean execute( UISession uiSession, Runnable task ) {
+    synchronized( queues ) {
+      SessionQueue queue = queues.get( uiSession );
+      if( queue == null ) {
+        queue = new SessionQueue( uiSession );
+        queues.put( uiSession, queue );
+      }
+      if( queue.running ) {
+        queue.pending.add( task );
+        return true;
+      }
+      queue.running = true;
+      return submit( queue, task );
+    }
+  }
+
+  /**
+   * Removes the given task from the queue of the session if it has not been started yet.
+   */
+  public void cancel( UISession uiSession, Runnable task ) {
+    synchronized( queues ) {
+      SessionQueue queue = queues.get( uiSession );
+      if( queue != null ) {
+        queue.pending.remove( task );
+      }
+    }
+  }
+
+  public int getQueuedTaskCount( UISession uiSession ) {
+    synchronized( queues ) {
+      SessionQueue queue = queues.get( uiSession );
+      return queue == null ? 0 : queue.pending.size();
+    }
+  }
+
+  /**
+   * Returns the number of sessions with running or queued tasks.
+   */
+  public int getSessionCount() {
+    synchronized( queues ) {
+      return queues.size();
+    }
+  }
+
+  public void shutdown() {
+    synchronized( queues ) {
+      queues.clear();
+    }
+    executor.shutdownNow();
+  }
+
+  private boolean submit( final SessionQueue queue, final Runnable task ) {
+    try {
+      executor.execute( new Runnable() {
+        public void run() {
+          try {
+            task.run();
+          } finally {
+            scheduleNext( queue );
+          }
+        }
+      } );
+      return true;
+    } catch( @SuppressWarnings( "unused" ) RejectedExecutionException exception ) {
+      release( queue );
+      return false;
+    }
+  }
+
+  private void scheduleNext( SessionQueue queue ) {
+    synchronized( queues ) {
+      Runnable next = null;
+      if( queues.get( queue.uiSession ) == queue && queue.uiSession.isBound() ) {
+        next = queue.pending.poll();
+      }
+      if( next == null ) {
+        release( queue );
+      } else {
+        submit( queue, next );
+      }
+    }
+  }
+
+  private void release( SessionQueue queue ) {
+    queue.running = false;
+    queue.pending.clear();
+    if( queues.get( queue.uiSession ) == queue ) {
+      queues.remove( queue.uiSession );
+    }
+  }
+
+  private static final class SessionQueue {
+
+    final UISession uiSession;
+    final LinkedList<Runnable> pending;
+    boolean running;
+
+    SessionQueue( UISession uiSession ) {
+      this.uiSession = uiSession;
+      pending = new LinkedList<Runnable>();
+    }
+
+  }
+
+  private static final class SortThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Thread newThread( Runnable runnable ) {
+      String name = "JFace Deferred Sort Thread " + count.incrementAndGet(); //$NON-NLS-1$
+      Thread result = new Thread( runnable, name );
+      result.setDaemon( true );
+      result.setPriority( Thread.NORM_PRIORITY - 1 );
+      return result;
+    }
+
+  }
+
+}
@@ -14,17 +14,16 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.MissingResourceException;
-import java.util.ResourceBundle;
 import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.internal.util.SerializableRunnable;
+import org.eclipse.jface.internal.util.SharedResourceDefaults;
 import org.eclipse.jface.util.Policy;
 import org.eclipse.jface.util.Util;
 import org.eclipse.swt.SWT;
@@ -366,8 +365,9 @@ public class FontRegistry extends ResourceRegistry {
         stringToFontData.put( JFaceResources.HEADER_FONT,
                               new FontData[] { makeFontData( headerFont ) } );
 
-        ResourceBundle bundle = ResourceBundle.getBundle(location);
-        readResourceBundle(bundle, location);
+        // RAP [rst]: the bundle is read and parsed once per application
+        readResourceBundle(SharedResourceDefaults.getInstance().getFontData(
+                location), location);
 
     	// RAPEND: [bm] 
 
@@ -857,15 +857,17 @@ public class FontRegistry extends ResourceRegistry {
      * in the mapping table.  These will lazily be turned into
      * real Font objects when requested.
      */
-    private void readResourceBundle(ResourceBundle bundle, String bundleName)
+    // RAP [rst]: merges the font data that is shared per application instead
+    // of reading the bundle
+    private void readResourceBundle(Map bundle, String bundleName)
             throws MissingResourceException {
-        Enumeration keys = bundle.getKeys();
-        while (keys.hasMoreElements()) {
-            String key = (String) keys.nextElement();
+        Iterator keys = bundle.keySet().iterator();
+        while (keys.hasNext()) {
+            String key = (String) keys.next();
             int pos = key.lastIndexOf('.');
             if (pos == -1) {
-                stringToFontData.put(key, new FontData[] { makeFontData(bundle
-                        .getString(key)) });
+                stringToFontData.put(key, new FontData[] { (FontData) bundle
+                        .get(key) });
             } else {
                 String name = key.substring(0, pos);
                 int i = 0;
@@ -888,7 +890,7 @@ public class FontRegistry extends ResourceRegistry {
                     elements = na;
                     stringToFontData.put(name, elements);
                 }
-                elements[i] = makeFontData(bundle.getString(key));
+                elements[i] = (FontData) bundle.get(key);
             }
         }
     }
@@ -10,23 +10,19 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
-import java.net.URL;
 import java.text.MessageFormat;
 import java.util.*;
 
 import org.eclipse.core.runtime.*;
 import org.eclipse.jface.dialogs.*;
-import org.eclipse.jface.internal.JFaceActivator;
+import org.eclipse.jface.internal.util.SharedResourceDefaults;
 import org.eclipse.jface.preference.JFacePreferences;
-import org.eclipse.jface.preference.PreferenceDialog;
-import org.eclipse.jface.wizard.Wizard;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.SingletonUtil;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
-import org.osgi.framework.Bundle;
 
 /**
  * Utility methods to access JFace-specific resources.
@@ -48,11 +44,6 @@ import org.osgi.framework.Bundle;
  */
 public class JFaceResources {
 
-	/**
-	 * The path to the icons in the resources.
-	 */
-	private final static String ICONS_PATH = "$nl$/icons/full/";//$NON-NLS-1$
-
 	/**
 	 * Map of Display onto DeviceResourceManager. Holds all the resources for
 	 * the associated display.
@@ -103,6 +94,9 @@ public class JFaceResources {
 	 * Initialize any JFace colors that may not be initialized via a client.
 	 */
 	private void initializeDefaultColors() {
+		// RAP [rst]: unlike fonts and images, the default colors are not shared
+		// per application. They are taken from the system colors of the
+		// session's display, which depend on the theme of the session.
 		// TODO This is temporary.
 		// These should be initialized by the workbench theme, but not yet.
 		// see https://bugs.eclipse.org/bugs/show_bug.cgi?id=133731
@@ -180,79 +174,14 @@ public class JFaceResources {
 	 * 
 	 */
 	private void initializeDefaultImages() {
-
-		Object bundle = null;
-		try {
-			bundle = JFaceActivator.getBundle();
-		} catch (NoClassDefFoundError exception) {
-			// Test to see if OSGI is present
+		// RAP [rst]: the descriptors are resolved once per application
+		Map descriptors = SharedResourceDefaults.getInstance().getImageDescriptors();
+		Iterator iterator = descriptors.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry entry = (Map.Entry) iterator.next();
+			imageRegistry.put((String) entry.getKey(),
+					(ImageDescriptor) entry.getValue());
 		}
-		declareImage(bundle, Wizard.DEFAULT_IMAGE, ICONS_PATH + "page.gif", //$NON-NLS-1$
-				Wizard.class, "images/page.gif"); //$NON-NLS-1$
-
-		// register default images for dialogs
-		declareImage(bundle, Dialog.DLG_IMG_MESSAGE_INFO, ICONS_PATH
-				+ "message_info.gif", Dialog.class, "images/message_info.gif"); //$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(bundle, Dialog.DLG_IMG_MESSAGE_WARNING, ICONS_PATH
-				+ "message_warning.gif", Dialog.class, //$NON-NLS-1$
-				"images/message_warning.gif"); //$NON-NLS-1$
-		declareImage(bundle, Dialog.DLG_IMG_MESSAGE_ERROR, ICONS_PATH
-				+ "message_error.gif", Dialog.class, "images/message_error.gif");//$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(bundle, Dialog.DLG_IMG_HELP,
-				ICONS_PATH + "help.gif", Dialog.class, "images/help.gif");//$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(
-				bundle,
-				TitleAreaDialog.DLG_IMG_TITLE_BANNER,
-				ICONS_PATH + "title_banner.png", TitleAreaDialog.class, "images/title_banner.gif");//$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(
-				bundle,
-				PreferenceDialog.PREF_DLG_TITLE_IMG,
-				ICONS_PATH + "pref_dialog_title.gif", PreferenceDialog.class, "images/pref_dialog_title.gif");//$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(bundle, PopupDialog.POPUP_IMG_MENU, ICONS_PATH
-				+ "popup_menu.gif", PopupDialog.class, "images/popup_menu.gif");//$NON-NLS-1$ //$NON-NLS-2$
-		declareImage(
-				bundle,
-				PopupDialog.POPUP_IMG_MENU_DISABLED,
-				ICONS_PATH + "popup_menu_disabled.gif", PopupDialog.class, "images/popup_menu_disabled.gif");//$NON-NLS-1$ //$NON-NLS-2$
-	}
-	
-	/**
-	 * Declares a JFace image given the path of the image file (relative to the
-	 * JFace plug-in). This is a helper method that creates the image descriptor
-	 * and passes it to the main <code>declareImage</code> method.
-	 * 
-	 * @param bundle
-	 *            the {@link Bundle} or <code>null</code> of the Bundle cannot
-	 *            be found
-	 * @param key
-	 *            the symbolic name of the image
-	 * @param path
-	 *            the path of the image file relative to the base of the
-	 *            workbench plug-ins install directory
-	 * @param fallback
-	 *            the {@link Class} where the fallback implementation of the
-	 *            image is relative to
-	 * @param fallbackPath
-	 *            the path relative to the fallback {@link Class}
-	 * 
-	 */
-	private final void declareImage(Object bundle, String key,
-			String path, Class fallback, String fallbackPath) {
-
-		ImageDescriptor descriptor = null;
-
-		if (bundle != null) {
-			URL url = FileLocator.find((Bundle) bundle, new Path(path), null);
-			if (url != null)
-				descriptor = ImageDescriptor.createFromURL(url);
-		}
-
-		// If we failed then load from the backup file
-		if (descriptor == null)
-			descriptor = ImageDescriptor.createFromFile(fallback, fallbackPath);
-
-		imageRegistry.put(key, descriptor);
-
 	}
   }
 
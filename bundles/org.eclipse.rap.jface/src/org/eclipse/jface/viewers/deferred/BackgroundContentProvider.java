@@ -17,9 +17,12 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.jface.internal.util.SortExecutor;
 import org.eclipse.jface.viewers.AcceptAllFilter;
 import org.eclipse.jface.viewers.IFilter;
 import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.service.UISession;
 
 /**
  * Contains the algorithm for performing background sorting and filtering in a virtual
@@ -127,7 +130,11 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
     private ConcurrentTableUpdator updator;
     
     private IProgressMonitor sortingProgressMonitor = new NullProgressMonitor();
-    private Thread sortThread = null;
+    // RAP [rst]: sorting runs on an executor shared by all sessions instead of a
+    //            thread per content provider
+    private transient SortExecutor sortExecutor;
+    private transient UISession uiSession;
+    private final SortJob sortJob = new SortJob();
 
 	private volatile FastProgressReporter sortMon = new FastProgressReporter();
 
@@ -146,6 +153,13 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
         updator = new ConcurrentTableUpdator(table);
         this.model = model;
         this.sortOrder = sortOrder;
+        // RAP [rst]: obtain the shared executor while the UI thread is current
+        try {
+            sortExecutor = SortExecutor.getInstance();
+            uiSession = RWT.getUISession();
+        } catch (IllegalStateException exception) {
+            // no application context, sort in a dedicated thread
+        }
         model.addListener(listener);
     }
     
@@ -455,11 +469,8 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
      */
     private boolean sortScheduled = false;
     
-	private final class SortThread extends Thread {
-		private SortThread(String name) {
-			super(name);
-		}
-
+	// RAP [rst]: the job has no state, it is serializable like the provider
+	private final class SortJob implements Runnable, Serializable {
 		public void run() {
 			loop: while (true) {
 				synchronized (lock) {
@@ -493,10 +504,16 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
 			sortScheduled = true;
 			if (!sortThreadStarted) {
 				sortThreadStarted = true;
-				sortThread = new SortThread(SORTING);
-				sortThread.setDaemon(true);
-				sortThread.setPriority(Thread.NORM_PRIORITY - 1);
-				sortThread.start();
+				if (sortExecutor != null) {
+					if (!sortExecutor.execute(uiSession, sortJob)) {
+						sortThreadStarted = false;
+					}
+				} else {
+					Thread sortThread = new Thread(sortJob, SORTING);
+					sortThread.setDaemon(true);
+					sortThread.setPriority(Thread.NORM_PRIORITY - 1);
+					sortThread.start();
+				}
 			}
 		}
 	}
@@ -510,6 +527,9 @@ import org.eclipse.jface.viewers.deferred.ConcurrentTableUpdator.Range;
     private void cancelSortJob() {
         sortMon.cancel();
         sortingProgressMonitor.setCanceled(true);
+        if (sortExecutor != null) {
+            sortExecutor.cancel(uiSession, sortJob);
+        }
     }
     
     /**
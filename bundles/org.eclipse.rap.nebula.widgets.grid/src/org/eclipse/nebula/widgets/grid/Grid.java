@@ -16,8 +16,11 @@ import static org.eclipse.swt.internal.widgets.MarkupUtil.MarkupTarget.TEXT;
 
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.eclipse.nebula.widgets.grid.internal.FenwickTree;
 import org.eclipse.nebula.widgets.grid.internal.IGridAdapter;
 import org.eclipse.nebula.widgets.grid.internal.IScrollBarProxy;
 import org.eclipse.nebula.widgets.grid.internal.NullScrollBarProxy;
@@ -72,7 +75,7 @@ public class Grid extends Composite {
 
   private List<GridItem> items = new ArrayList<GridItem>();
   private List<GridItem> rootItems = new ArrayList<GridItem>();
-  private List<GridItem> selectedItems = new ArrayList<GridItem>();
+  private Set<GridItem> selectedItems = new LinkedHashSet<GridItem>();
   private List<Point> selectedCells = new ArrayList<Point>();
   private List<GridColumn> columns = new ArrayList<GridColumn>();
   private List<GridColumn> displayOrderedColumns = new ArrayList<GridColumn>();
@@ -87,6 +90,7 @@ public class Grid extends Composite {
   private boolean linesVisible = true;
   private boolean autoHeight;
   private int currentVisibleItems;
+  private transient FenwickTree visibleItemTree;
   private int selectionType = SWT.SINGLE;
   private boolean selectionEnabled = true;
   private boolean cellSelectionEnabled;
@@ -446,7 +450,7 @@ public class Grid extends Composite {
     if( item == null ) {
       SWT.error( SWT.ERROR_NULL_ARGUMENT );
     }
-    return item.getParent() == this ? items.indexOf( item ) : -1;
+    return item.getParent() == this ? internalIndexOf( item ) : -1;
   }
 
   /**
@@ -514,7 +518,7 @@ public class Grid extends Composite {
   public GridItem getNextVisibleItem( GridItem item ) {
     checkWidget();
     GridItem result = null;
-    int index = items.indexOf( item );
+    int index = internalIndexOf( item );
     if( index != items.size() - 1 ) {
       result = items.get( index + 1 );
       while( result != null && !result.isVisible() ) {
@@ -549,7 +553,7 @@ public class Grid extends Composite {
     if( item == null ) {
       index = items.size();
     } else {
-      index = items.indexOf( item );
+      index = internalIndexOf( item );
     }
     if( index > 0 ) {
       result = items.get( index - 1 );
@@ -1770,7 +1774,7 @@ public class Grid extends Composite {
           if( item.isDisposed() ) {
             SWT.error( SWT.ERROR_INVALID_ARGUMENT );
           }
-          internalSelect( this.items.indexOf( item ) );
+          internalSelect( internalIndexOf( item ) );
         }
       }
     }
@@ -1798,17 +1802,8 @@ public class Grid extends Composite {
   public GridItem[] getSelection() {
     checkWidget();
     if( cellSelectionEnabled ) {
-      List<GridItem> items = new ArrayList<>();
-      int itemCount = getItemCount();
-      for( Point cell : selectedCells ) {
-        if( cell.y >= 0 && cell.y < itemCount ) {
-          GridItem item = getItem( cell.y );
-          if( !items.contains( item ) ) {
-            items.add( item );
-          }
-        }
-      }
-      return items.toArray( new GridItem[] {} );
+      Set<GridItem> items = getItemsOfSelectedCells();
+      return items.toArray( new GridItem[ items.size() ] );
     }
     return selectedItems.toArray( new GridItem[ selectedItems.size() ] );
   }
@@ -1828,14 +1823,7 @@ public class Grid extends Composite {
   public int getSelectionCount() {
     checkWidget();
     if( cellSelectionEnabled ) {
-      List<GridItem> items = new ArrayList<>();
-      for( Point cell : selectedCells ) {
-        GridItem item = getItem( cell.y );
-        if( !items.contains( item ) ) {
-          items.add( item );
-        }
-      }
-      return items.size();
+      return getItemsOfSelectedCells().size();
     }
     return selectedItems.size();
   }
@@ -1986,7 +1974,7 @@ public class Grid extends Composite {
       }
     } else {
       if( selectedItems.size() != 0 ) {
-        result = items.indexOf( selectedItems.get( 0 ) );
+        result = internalIndexOf( selectedItems.iterator().next() );
       }
     }
     return result;
@@ -2025,13 +2013,13 @@ public class Grid extends Composite {
       result = new int[ selectedRows.size() ];
       for( int i = 0; i < result.length; i++ ) {
         GridItem item = selectedRows.get( i );
-        result[ i ] = items.indexOf( item );
+        result[ i ] = internalIndexOf( item );
       }
     } else {
       result = new int[ selectedItems.size() ];
-      for( int i = 0; i < result.length; i++ ) {
-        GridItem item = selectedItems.get( i );
-        result[ i ] = items.indexOf( item );
+      int i = 0;
+      for( GridItem item : selectedItems ) {
+        result[ i++ ] = internalIndexOf( item );
       }
     }
     return result;
@@ -2093,7 +2081,7 @@ public class Grid extends Composite {
     }
     boolean result = false;
     if( cellSelectionEnabled ) {
-      int index = items.indexOf( item );
+      int index = internalIndexOf( item );
       if( index != -1 ) {
         for( Point cell : selectedCells ) {
           if( cell.y == index ) {
@@ -2654,13 +2642,7 @@ public class Grid extends Composite {
       updateScrollBars();
       GridItem item = items.get( index );
       if( item.isVisible() && vScroll.getVisible() ) {
-        int vScrollAmount = 0;
-        for( int i = 0; i < index; i++ ) {
-          if( items.get( i ).isVisible() ) {
-            vScrollAmount++;
-          }
-        }
-        vScroll.setSelection( vScrollAmount );
+        vScroll.setSelection( getVisibleItemTree().sum( index ) );
         invalidateTopBottomIndex();
         redraw();
       }
@@ -2687,16 +2669,9 @@ public class Grid extends Composite {
       if( vScroll.getVisible() ) {
         int firstVisibleIndex = vScroll.getSelection();
         if( isTree ) {
-          Iterator<GridItem> iterator = items.iterator();
-          int row = firstVisibleIndex + 1;
-          while( row > 0 && iterator.hasNext() ) {
-            GridItem item = iterator.next();
-            if( item.isVisible() ) {
-              row--;
-              if( row == 0 ) {
-                firstVisibleIndex = items.indexOf( item );
-              }
-            }
+          int flatIndex = getVisibleItemTree().find( firstVisibleIndex + 1 );
+          if( flatIndex != -1 ) {
+            firstVisibleIndex = flatIndex;
           }
         }
         topIndex = firstVisibleIndex;
@@ -2742,7 +2717,7 @@ public class Grid extends Composite {
           parent = parent.getParentItem();
         }
         if( !isShown( item ) ) {
-          setTopIndex( items.indexOf( item ) );
+          setTopIndex( internalIndexOf( item ) );
         }
       }
     }
@@ -2818,7 +2793,7 @@ public class Grid extends Composite {
       }
     } else {
       if( selectedItems.size() != 0 ) {
-        item = selectedItems.get( 0 );
+        item = selectedItems.iterator().next();
         showItem( item );
       }
     }
@@ -2904,7 +2879,7 @@ public class Grid extends Composite {
       if( index >= rootItems.size() ) {
         flatIndex = -1;
       } else {
-        flatIndex = items.indexOf( rootItems.get( index ) );
+        flatIndex = internalIndexOf( rootItems.get( index ) );
       }
     } else if( !root ) {
       if( index >= parentItem.getItemCount() || index == -1 ) {
@@ -2913,9 +2888,9 @@ public class Grid extends Composite {
           int lastChildIndex = rightMostDescendent.getItemCount() - 1;
           rightMostDescendent = rightMostDescendent.getItem( lastChildIndex );
         }
-        flatIndex = items.indexOf( rightMostDescendent ) + 1;
+        flatIndex = internalIndexOf( rightMostDescendent ) + 1;
       } else {
-        flatIndex = items.indexOf( parentItem.getItem( index ) );
+        flatIndex = internalIndexOf( parentItem.getItem( index ) );
       }
     }
     if( flatIndex == -1 ) {
@@ -2925,6 +2900,8 @@ public class Grid extends Composite {
       items.add( flatIndex, item );
       row = flatIndex;
     }
+    updateFlatIndices( row );
+    visibleItemTree = null;
     updateVisibleItems( 1 );
     scheduleRedraw();
     return row;
@@ -2932,7 +2909,10 @@ public class Grid extends Composite {
 
   void removeItem( int index ) {
     GridItem item = items.remove( index );
+    item.flatIndex = -1;
     if( !disposing ) {
+      updateFlatIndices( index );
+      visibleItemTree = null;
       selectedItems.remove (item );
       Point[] cells = getCells( item );
       for( int i = 0; i < cells.length; i++ ) {
@@ -3031,6 +3011,41 @@ public class Grid extends Composite {
     currentVisibleItems += amount;
   }
 
+  private Set<GridItem> getItemsOfSelectedCells() {
+    Set<GridItem> result = new LinkedHashSet<>();
+    int itemCount = getItemCount();
+    for( Point cell : selectedCells ) {
+      if( cell.y >= 0 && cell.y < itemCount ) {
+        result.add( getItem( cell.y ) );
+      }
+    }
+    return result;
+  }
+
+  void updateVisibleItems( GridItem item, int amount ) {
+    updateVisibleItems( amount );
+    if( visibleItemTree != null && item.flatIndex != -1 ) {
+      visibleItemTree.add( item.flatIndex, amount );
+    }
+  }
+
+  private FenwickTree getVisibleItemTree() {
+    if( visibleItemTree == null ) {
+      int[] visible = new int[ items.size() ];
+      for( int i = 0; i < visible.length; i++ ) {
+        visible[ i ] = items.get( i ).isVisible() ? 1 : 0;
+      }
+      visibleItemTree = new FenwickTree( visible );
+    }
+    return visibleItemTree;
+  }
+
+  private void updateFlatIndices( int start ) {
+    for( int i = start; i < items.size(); i++ ) {
+      items.get( i ).flatIndex = i;
+    }
+  }
+
   GridColumn[] getColumnsInOrder() {
     checkWidget();
     return displayOrderedColumns.toArray( new GridColumn[ columns.size() ] );
@@ -3077,10 +3092,16 @@ public class Grid extends Composite {
         y += getHeaderHeight();
       }
       int topIndex = getTopIndex();
-      int itemIndex = items.indexOf( item );
+      int itemIndex = internalIndexOf( item );
       if( itemIndex == -1 ) {
         SWT.error( SWT.ERROR_INVALID_ARGUMENT );
       }
+      if( !hasDifferingHeights ) {
+        FenwickTree visibleItemTree = getVisibleItemTree();
+        int visibleItems = visibleItemTree.sum( itemIndex ) - visibleItemTree.sum( topIndex );
+        y += visibleItems * getItemHeight();
+        topIndex = itemIndex;
+      }
       while( topIndex != itemIndex ) {
         if( topIndex < itemIndex ) {
           GridItem currentItem = items.get( topIndex );
@@ -3104,7 +3125,7 @@ public class Grid extends Composite {
     checkWidget();
     boolean result = false;
     if( item.isVisible() ) {
-      int itemIndex = items.indexOf( item );
+      int itemIndex = internalIndexOf( item );
       if( itemIndex == -1 ) {
         SWT.error( SWT.ERROR_INVALID_ARGUMENT );
       }
@@ -3296,7 +3317,7 @@ public class Grid extends Composite {
       GridItem item = items.get( index );
       if( cellSelectionEnabled ) {
         selectCells( getCells( item ) );
-      } else if( !selectedItems.contains( item ) ) {
+      } else {
         selectedItems.add( item );
       }
     }
@@ -3313,7 +3334,7 @@ public class Grid extends Composite {
       GridItem item = items.get( index );
       if( cellSelectionEnabled ) {
         deselectCells( getCells( item ) );
-      } else if( selectedItems.contains( item ) ) {
+      } else {
         selectedItems.remove( item );
       }
     }
@@ -3329,7 +3350,7 @@ public class Grid extends Composite {
 
   private Point[] getCells( GridItem item ) {
     List<Point> cells = new ArrayList<>();
-    int itemIndex = items.indexOf( item );
+    int itemIndex = internalIndexOf( item );
     int span = 0;
     for( GridColumn nextCol : displayOrderedColumns ) {
       if( span > 0 ) {
@@ -3814,7 +3835,8 @@ public class Grid extends Composite {
   }
 
   int internalIndexOf( GridItem item ) {
-    return items.indexOf( item );
+    int index = item.flatIndex;
+    return index != -1 && index < items.size() && items.get( index ) == item ? index : -1;
   }
 
   void scheduleRedraw() {
@@ -59,6 +59,7 @@ public class GridItem extends Item {
   private boolean cached;
   private transient IGridItemAdapter gridItemAdapter;
   int index;
+  int flatIndex = -1;
 
   /**
    * Creates a new instance of this class and places the item at the end of
@@ -1366,7 +1367,7 @@ public class GridItem extends Item {
   void setVisible( boolean visible ) {
     if( this.visible != visible ) {
       this.visible = visible;
-      parent.updateVisibleItems( visible ? 1 : -1 );
+      parent.updateVisibleItems( this, visible ? 1 : -1 );
       if( hasChildren ) {
         for( GridItem item : getItemData().getChildren() ) {
           item.setVisible( visible && isExpanded() );
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.grid.internal;
+
+
+/**
+ * A binary indexed tree over a fixed number of non-negative int values. Updating a value, computing
+ * a prefix sum and finding the position of a given prefix sum take O(log n) time.
+ */
+public class FenwickTree {
+
+  private final int[] tree;
+
+  public FenwickTree( int[] values ) {
+    tree = new int[ values.length + 1 ];
+    for( int i = 1; i < tree.length; i++ ) {
+      tree[ i ] += values[ i - 1 ];
+      int parent = i + ( i & -i );
+      if( parent < tree.length ) {
+        tree[ parent ] += tree[ i ];
+      }
+    }
+  }
+
+  public int size() {
+    return tree.length - 1;
+  }
+
+  /**
+   * Adds the given delta to the value at the given zero-relative index.
+   */
+  public void add( int index, int delta ) {
+    for( int i = index + 1; i < tree.length; i += i & -i ) {
+      tree[ i ] += delta;
+    }
+  }
+
+  /**
+   * Returns the sum of the values in the range [0, end).
+   */
+  public int sum( int end ) {
+    int result = 0;
+    for( int i = Math.min( end, size() ); i > 0; i -= i & -i ) {
+      result += tree[ i ];
+    }
+    return result;
+  }
+
+  /**
+   * Returns the smallest zero-relative index at which the sum of the values in the range
+   * [0, index] reaches the given positive amount, or -1 if the sum of all values is less than the
+   * amount.
+   */
+  public int find( int amount ) {
+    if( amount <= 0 ) {
+      return -1;
+    }
+    int position = 0;
+    int remaining = amount;
+    for( int step = Integer.highestOneBit( Math.max( 1, size() ) ); step > 0; step >>= 1 ) {
+      int next = position + step;
+      if( next < tree.length && tree[ next ] < remaining ) {
+        position = next;
+        remaining -= tree[ next ];
+      }
+    }
+    return position < size() ? position : -1;
+  }
+
+}
@@ -105,9 +105,23 @@ rwt.remote.HandlerRegistry.add( "rwt.widgets.Grid", {
       var applySelection = function( item ) {
         widget.selectItem( item );
       };
-      for( var i = 0; i < value.length; i++ ) {
-        rwt.remote.HandlerUtil.callWithTarget( value[ i ], applySelection );
-      }
+      var applyRange = function( parentItem, start, end ) {
+        for( var index = start; index <= end; index++ ) {
+          widget.selectItem( parentItem.getChild( index ) );
+        }
+      };
+      // Entries are either item ids or ranges [ start, end ] / [ parentItemId, start, end ]
+      value.forEach( function( entry ) {
+        if( typeof entry === "string" ) {
+          rwt.remote.HandlerUtil.callWithTarget( entry, applySelection );
+        } else if( entry.length === 2 ) {
+          applyRange( widget.getRootItem(), entry[ 0 ], entry[ 1 ] );
+        } else {
+          rwt.remote.HandlerUtil.callWithTarget( entry[ 0 ], function( parentItem ) {
+            applyRange( parentItem, entry[ 1 ], entry[ 2 ] );
+          } );
+        }
+      } );
     },
     "cellSelectionEnabled" : function( widget, value ) {
       widget.getRenderConfig().cellSelection = value;
@@ -144,6 +158,35 @@ rwt.remote.HandlerRegistry.add( "rwt.widgets.Grid", {
     }
   } ),
 
+  methods : [ "setItemData" ],
+
+  methodHandler : {
+    "setItemData" : function( widget, properties ) {
+      var items = properties.items;
+      for( var row = 0; row < items.length; row++ ) {
+        var item = rwt.remote.ObjectRegistry.getObject( items[ row ] );
+        if( item ) {
+          var texts = [];
+          for( var i = 0; i < properties.texts.length; i++ ) {
+            var textIndex = properties.texts[ i ][ row ];
+            texts[ i ] = textIndex === -1 ? null : properties.strings[ textIndex ];
+          }
+          var images = [];
+          for( var j = 0; j < properties.images.length; j++ ) {
+            var imageIndex = properties.images[ j ][ row ];
+            images[ j ] = imageIndex === -1 ? null : properties.imageList[ imageIndex ];
+          }
+          item.setTexts( texts );
+          item.setImages( images );
+          if( properties.checked ) {
+            item.setChecked( properties.checked[ row ] );
+            item.setGrayed( properties.grayed[ row ] );
+          }
+        }
+      }
+    }
+  },
+
   events : [ "Selection", "DefaultSelection", "Expand", "Collapse", "SetData" ],
 
   listeners : rwt.remote.HandlerUtil.extendControlListeners( [] ),
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2016 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,25 @@ public final class RWTProperties {
   public static final String SERVICE_HANDLER_BASE_URL = "org.eclipse.rap.rwt.serviceHandlerBaseURL";
   public static final String DEVELOPMEMT_MODE = "org.eclipse.rap.rwt.developmentMode";
   public static final String TEXT_SIZE_STORE_SIZE = "org.eclipse.rap.rwt.textSizeStoreSize";
+  public static final String TEXT_SIZE_STORE_FILE = "org.eclipse.rap.rwt.textSizeStoreFile";
+  public static final String CHANGE_TRACKING = "org.eclipse.rap.rwt.changeTracking";
+  public static final String ASYNC_SERVER_PUSH = "org.eclipse.rap.rwt.asyncServerPush";
+  public static final String VIRTUAL_UI_THREADS = "org.eclipse.rap.rwt.virtualUIThreads";
+  public static final String INCREMENTAL_REPLICATION
+    = "org.eclipse.rap.rwt.incrementalReplication";
+  public static final String PRECOMPRESS_RESOURCES = "org.eclipse.rap.rwt.precompressResources";
+  public static final String BULK_ITEM_RENDERING = "org.eclipse.rap.rwt.bulkItemRendering";
+  public static final String METRICS = "org.eclipse.rap.rwt.metrics";
+  public static final String METRICS_TOKEN = "org.eclipse.rap.rwt.metricsToken";
+  public static final String SLOW_REQUEST_THRESHOLD = "org.eclipse.rap.rwt.slowRequestThreshold";
+  public static final String MARKUP_VALIDATION_CACHE_SIZE
+    = "org.eclipse.rap.rwt.markupValidationCacheSize";
+  public static final String RESPONSE_COMPRESSION = "org.eclipse.rap.rwt.responseCompression";
+  public static final String RESPONSE_COMPRESSION_THRESHOLD
+    = "org.eclipse.rap.rwt.responseCompressionThreshold";
+  public static final String IMAGE_CACHE_SIZE = "org.eclipse.rap.rwt.imageCacheSize";
+  public static final String SERVER_TEXT_MEASUREMENT
+    = "org.eclipse.rap.rwt.serverTextMeasurement";
 
   /*
    * Used in conjunction with <code>WidgetUtil#CUSTOM_WIDGET_ID</code>,
@@ -40,6 +59,66 @@ public final class RWTProperties {
     return getIntProperty( TEXT_SIZE_STORE_SIZE, defaultValue );
   }
 
+  public static String getTextSizeStoreFile() {
+    return System.getProperty( TEXT_SIZE_STORE_FILE );
+  }
+
+  public static boolean isChangeTrackingEnabled() {
+    return getBooleanProperty( CHANGE_TRACKING, false );
+  }
+
+  public static boolean isAsyncServerPushEnabled() {
+    return getBooleanProperty( ASYNC_SERVER_PUSH, true );
+  }
+
+  public static boolean isVirtualUIThreadsEnabled() {
+    return getBooleanProperty( VIRTUAL_UI_THREADS, false );
+  }
+
+  public static boolean isIncrementalReplicationEnabled() {
+    return getBooleanProperty( INCREMENTAL_REPLICATION, false );
+  }
+
+  public static boolean isPrecompressResourcesEnabled() {
+    return getBooleanProperty( PRECOMPRESS_RESOURCES, false );
+  }
+
+  public static boolean isBulkItemRenderingEnabled() {
+    return getBooleanProperty( BULK_ITEM_RENDERING, false );
+  }
+
+  public static boolean isMetricsEnabled() {
+    return getBooleanProperty( METRICS, false );
+  }
+
+  public static String getMetricsToken() {
+    return System.getProperty( METRICS_TOKEN );
+  }
+
+  public static int getSlowRequestThreshold() {
+    return getIntProperty( SLOW_REQUEST_THRESHOLD, 0 );
+  }
+
+  public static int getMarkupValidationCacheSize( int defaultValue ) {
+    return getIntProperty( MARKUP_VALIDATION_CACHE_SIZE, defaultValue );
+  }
+
+  public static boolean isResponseCompressionEnabled() {
+    return getBooleanProperty( RESPONSE_COMPRESSION, true );
+  }
+
+  public static int getResponseCompressionThreshold( int defaultValue ) {
+    return getIntProperty( RESPONSE_COMPRESSION_THRESHOLD, defaultValue );
+  }
+
+  public static int getImageCacheSize( int defaultValue ) {
+    return getIntProperty( IMAGE_CACHE_SIZE, defaultValue );
+  }
+
+  public static boolean isServerTextMeasurementEnabled() {
+    return getBooleanProperty( SERVER_TEXT_MEASUREMENT, false );
+  }
+
   public static boolean getBooleanProperty( String name, boolean defaultValue ) {
     String value = System.getProperty( name );
     return value == null ? defaultValue : value.equalsIgnoreCase( "true" );
@@ -11,6 +11,14 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.application;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -23,10 +31,13 @@ import javax.servlet.ServletContext;
 
 import org.eclipse.rap.rwt.application.ApplicationConfiguration;
 import org.eclipse.rap.rwt.application.ExceptionHandler;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.client.ClientSelector;
 import org.eclipse.rap.rwt.internal.lifecycle.EntryPointManager;
 import org.eclipse.rap.rwt.internal.lifecycle.LifeCycleFactory;
 import org.eclipse.rap.rwt.internal.lifecycle.PhaseListenerManager;
+import org.eclipse.rap.rwt.internal.metrics.Metrics;
+import org.eclipse.rap.rwt.internal.metrics.MetricsServiceHandler;
 import org.eclipse.rap.rwt.internal.remote.MessageChainElement;
 import org.eclipse.rap.rwt.internal.remote.MessageChainReference;
 import org.eclipse.rap.rwt.internal.remote.MessageFilter;
@@ -35,11 +46,13 @@ import org.eclipse.rap.rwt.internal.resources.ClientResources;
 import org.eclipse.rap.rwt.internal.resources.ResourceDirectory;
 import org.eclipse.rap.rwt.internal.resources.ResourceManagerImpl;
 import org.eclipse.rap.rwt.internal.resources.ResourceRegistry;
+import org.eclipse.rap.rwt.internal.resources.ResourceServiceHandler;
 import org.eclipse.rap.rwt.internal.serverpush.ServerPushServiceHandler;
 import org.eclipse.rap.rwt.internal.service.ApplicationStoreImpl;
 import org.eclipse.rap.rwt.internal.service.LifeCycleServiceHandler;
 import org.eclipse.rap.rwt.internal.service.RWTMessageHandler;
 import org.eclipse.rap.rwt.internal.service.ServiceManagerImpl;
+import org.eclipse.rap.rwt.internal.service.ServletLog;
 import org.eclipse.rap.rwt.internal.service.SettingStoreManager;
 import org.eclipse.rap.rwt.internal.service.StartupPage;
 import org.eclipse.rap.rwt.internal.textsize.ProbeStore;
@@ -61,6 +74,7 @@ import org.eclipse.swt.internal.graphics.ImageFactory;
 import org.eclipse.swt.internal.graphics.InternalImageFactory;
 import org.eclipse.swt.internal.graphics.ResourceFactory;
 import org.eclipse.swt.internal.widgets.DisplaysHolder;
+import org.eclipse.swt.internal.widgets.TimerExecExecutor;
 
 
 public class ApplicationContextImpl implements ApplicationContext {
@@ -99,8 +113,10 @@ public class ApplicationContextImpl implements ApplicationContext {
   private final FontDataFactory fontDataFactory;
   private final StartupPage startupPage;
   private final DisplaysHolder displaysHolder;
+  private final TimerExecExecutor timerExecExecutor;
   private final TextSizeStorage textSizeStorage;
   private final ProbeStore probeStore;
+  private final Metrics metrics;
   private final ServletContext servletContext;
   private final ClientSelector clientSelector;
   private final Set<ApplicationContextListener> appContextListeners;
@@ -125,16 +141,18 @@ public class ApplicationContextImpl implements ApplicationContext {
     themeManager = createThemeManager();
     resourceFactory = new ResourceFactory();
     imageFactory = new ImageFactory();
-    internalImageFactory = new InternalImageFactory();
     imageDataFactory = new ImageDataFactory( resourceManager );
+    internalImageFactory = new InternalImageFactory( resourceManager, imageDataFactory );
     fontDataFactory = new FontDataFactory();
     settingStoreManager = new SettingStoreManager();
     resourceRegistry = new ResourceRegistry( getResourceManager() );
     startupPage = new StartupPage( this );
     serviceManager = createServiceManager();
     displaysHolder = new DisplaysHolder();
+    timerExecExecutor = new TimerExecExecutor();
     textSizeStorage = new TextSizeStorage();
     probeStore = new ProbeStore( textSizeStorage );
+    metrics = createMetrics();
     clientSelector = new ClientSelector();
     appContextListeners = new HashSet<>();
     listenersLock = new SerializableLock();
@@ -332,6 +350,10 @@ public class ApplicationContextImpl implements ApplicationContext {
     return displaysHolder;
   }
 
+  public TimerExecExecutor getTimerExecExecutor() {
+    return timerExecExecutor;
+  }
+
   public TextSizeStorage getTextSizeStorage() {
     return textSizeStorage;
   }
@@ -340,6 +362,10 @@ public class ApplicationContextImpl implements ApplicationContext {
     return probeStore;
   }
 
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
   public ClientSelector getClientSelector() {
     return clientSelector;
   }
@@ -382,9 +408,13 @@ public class ApplicationContextImpl implements ApplicationContext {
     }
     resourceRegistry.registerResources();
     clientSelector.activate();
+    loadTextSizes();
+    metrics.register( getMetricsContextName() );
   }
 
   void doDeactivate() {
+    metrics.unregister();
+    saveTextSizes();
     startupPage.deactivate();
     lifeCycleFactory.deactivate();
     serviceManager.clear();
@@ -398,12 +428,24 @@ public class ApplicationContextImpl implements ApplicationContext {
     settingStoreManager.deregisterFactory();
     resourceDirectory.reset();
     applicationStore.reset();
+    timerExecExecutor.shutdown();
   }
 
   private ServiceManagerImpl createServiceManager() {
     return new ServiceManagerImpl( new LifeCycleServiceHandler( messageChainReference ) );
   }
 
+  private Metrics createMetrics() {
+    return new Metrics( RWTProperties.isMetricsEnabled(),
+                        RWTProperties.getSlowRequestThreshold(),
+                        textSizeStorage );
+  }
+
+  private String getMetricsContextName() {
+    String name = servletContext.getServletContextName();
+    return name == null ? "default" : name;
+  }
+
   private String getContextDirectory() {
     String location
       = ( String )servletContext.getAttribute( ApplicationConfiguration.RESOURCE_ROOT_LOCATION );
@@ -416,6 +458,57 @@ public class ApplicationContextImpl implements ApplicationContext {
   private void addInternalServiceHandlers() {
     serviceManager.registerServiceHandler( ServerPushServiceHandler.HANDLER_ID,
                                            new ServerPushServiceHandler() );
+    if( resourceManager instanceof ResourceManagerImpl ) {
+      ResourceManagerImpl resourceManagerImpl = ( ResourceManagerImpl )resourceManager;
+      if( resourceManagerImpl.isPrecompressEnabled() ) {
+        serviceManager.registerServiceHandler( ResourceServiceHandler.HANDLER_ID,
+                                               new ResourceServiceHandler( resourceManagerImpl ) );
+      }
+    }
+    String metricsToken = RWTProperties.getMetricsToken();
+    if(    metrics.isEnabled()
+        && MetricsServiceHandler.isAccessible( metricsToken, RWTProperties.isDevelopmentMode() ) )
+    {
+      serviceManager.registerServiceHandler( MetricsServiceHandler.HANDLER_ID,
+                                             new MetricsServiceHandler( metrics, metricsToken ) );
+    }
+  }
+
+  private void loadTextSizes() {
+    File file = getTextSizeStoreFile();
+    if( file != null && file.isFile() ) {
+      try {
+        InputStream inputStream = new BufferedInputStream( new FileInputStream( file ) );
+        try {
+          textSizeStorage.load( inputStream );
+        } finally {
+          inputStream.close();
+        }
+      } catch( IOException exception ) {
+        ServletLog.log( "Failed to load text sizes from " + file, exception );
+      }
+    }
+  }
+
+  private void saveTextSizes() {
+    File file = getTextSizeStoreFile();
+    if( file != null ) {
+      try {
+        OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( file ) );
+        try {
+          textSizeStorage.save( outputStream );
+        } finally {
+          outputStream.close();
+        }
+      } catch( IOException exception ) {
+        ServletLog.log( "Failed to save text sizes to " + file, exception );
+      }
+    }
+  }
+
+  private static File getTextSizeStoreFile() {
+    String path = RWTProperties.getTextSizeStoreFile();
+    return path == null ? null : new File( path );
   }
 
   private void setInternalSettingStoreFactory() {
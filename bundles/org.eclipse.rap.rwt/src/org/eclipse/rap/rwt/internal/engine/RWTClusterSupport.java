@@ -22,6 +22,7 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.protocol.ClientMessageConst;
 import org.eclipse.rap.rwt.internal.service.UISessionImpl;
@@ -88,11 +89,17 @@ public class RWTClusterSupport implements Filter {
     // See also: J2EE clustering, Part 2, section Session-storage guidelines
     // http://java.sun.com/developer/technicalArticles/J2EE/clustering/
     UISessionImpl uiSession = UISessionImpl.getInstanceFromSession( httpSession, connectionId );
-    if( uiSession != null ) {
+    if( uiSession != null && needsReplication( uiSession ) ) {
       uiSession.attachToHttpSession();
     }
   }
 
+  private static boolean needsReplication( UISessionImpl uiSession ) {
+    // In incremental mode, requests that did not change the UI session (e.g. server push requests,
+    // resource downloads or duplicate UI requests) do not trigger a replication.
+    return !RWTProperties.isIncrementalReplicationEnabled() || uiSession.isChanged();
+  }
+
   private static HttpSession getHttpSession( ServletRequest request ) {
     return ( ( HttpServletRequest )request ).getSession( false );
   }
@@ -17,6 +17,7 @@ import java.text.MessageFormat;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.eclipse.rap.rwt.internal.metrics.RequestTrace;
 import org.eclipse.rap.rwt.internal.service.ServletLog;
 import org.eclipse.rap.rwt.internal.util.ParamCheck;
 
@@ -56,6 +57,10 @@ public class PhaseListenerManager {
     if( PhaseId.PROCESS_ACTION.equals( phase ) ) {
       getApplicationContext().notifyEnterUIThread( getUISession() );
     }
+    RequestTrace trace = RequestTrace.getCurrent();
+    if( trace != null ) {
+      trace.beforePhase( phase );
+    }
     PhaseListener[] phaseListeners = getPhaseListeners();
     PhaseEvent event = new PhaseEvent( eventSource, phase );
     for( int i = 0; i < phaseListeners.length; i++ ) {
@@ -74,6 +79,10 @@ public class PhaseListenerManager {
     if( PhaseId.PROCESS_ACTION.equals( phase ) ) {
       getApplicationContext().notifyLeaveUIThread( getUISession() );
     }
+    RequestTrace trace = RequestTrace.getCurrent();
+    if( trace != null ) {
+      trace.afterPhase( phase );
+    }
     PhaseListener[] phaseListeners = getPhaseListeners();
     PhaseEvent event = new PhaseEvent( eventSource, phase );
     for( int i = 0; i < phaseListeners.length; i++ ) {
@@ -12,10 +12,12 @@
 package org.eclipse.rap.rwt.internal.lifecycle;
 
 import java.io.IOException;
+import java.util.concurrent.locks.Lock;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.rap.rwt.application.EntryPoint;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.lifecycle.IPhase.IInterruptible;
 import org.eclipse.rap.rwt.internal.lifecycle.UIThread.UIThreadTerminatedError;
@@ -187,10 +189,14 @@ public class RWTLifeCycle extends LifeCycle {
       uiThread = createUIThread();
       // The serviceContext MUST be set before thread.start() is called
       uiThread.setServiceContext( context );
-      synchronized( uiThread.getLock() ) {
-        uiThread.getThread().start();
-        uiThread.switchThread();
-      }
+      final IUIThreadHolder newUIThread = uiThread;
+      runLocked( uiThread, new Runnable() {
+        @Override
+        public void run() {
+          newUIThread.getThread().start();
+          newUIThread.switchThread();
+        }
+      } );
     } else {
       uiThread.setServiceContext( context );
       // See bug 354368
@@ -237,9 +243,15 @@ public class RWTLifeCycle extends LifeCycle {
 
   private IUIThreadHolder createUIThread() {
     UISession uiSession = ContextProvider.getUISession();
-    IUIThreadHolder result = new UIThread( uiRunnable );
-    result.getThread().setDaemon( true );
-    result.getThread().setName( "UIThread [" + uiSession.getId() + "]" );
+    String name = "UIThread [" + uiSession.getId() + "]";
+    IUIThreadHolder result;
+    if( RWTProperties.isVirtualUIThreadsEnabled() ) {
+      result = new VirtualUIThread( uiRunnable, name );
+    } else {
+      result = new UIThread( uiRunnable );
+      result.getThread().setDaemon( true );
+      result.getThread().setName( name );
+    }
     LifeCycleUtil.setUIThread( uiSession, result );
     setShutdownAdapter( ( ISessionShutdownAdapter )result );
     return result;
@@ -270,6 +282,31 @@ public class RWTLifeCycle extends LifeCycle {
     return LifeCycleUtil.getUIThread( ContextProvider.getUISession() );
   }
 
+  private static IUIThreadHolder getCurrentUIThreadHolder() {
+    Thread currentThread = Thread.currentThread();
+    if( currentThread instanceof IUIThreadHolder ) {
+      return ( IUIThreadHolder )currentThread;
+    }
+    return VirtualUIThread.getCurrent();
+  }
+
+  private static void runLocked( IUIThreadHolder uiThread, Runnable runnable ) {
+    Object lock = uiThread.getLock();
+    if( lock instanceof Lock ) {
+      // Virtual threads must not wait while holding a monitor, see VirtualUIThread
+      ( ( Lock )lock ).lock();
+      try {
+        runnable.run();
+      } finally {
+        ( ( Lock )lock ).unlock();
+      }
+    } else {
+      synchronized( lock ) {
+        runnable.run();
+      }
+    }
+  }
+
   private static final class PhaseExecutionError extends ThreadDeath {
     public PhaseExecutionError( Throwable cause ) {
       initCause( cause );
@@ -279,36 +316,43 @@ public class RWTLifeCycle extends LifeCycle {
   private final class UIThreadController implements Runnable {
     @Override
     public void run() {
-      IUIThreadHolder uiThread = ( IUIThreadHolder )Thread.currentThread();
+      final IUIThreadHolder uiThread = getCurrentUIThreadHolder();
       try {
         // [rh] sync exception handling and switchThread (see bug 316676)
-        synchronized( uiThread.getLock() ) {
-          try {
-            uiThread.updateServiceContext();
-            ServerPushManager.getInstance().notifyUIThreadStart();
-            continueLifeCycle();
-            createUI();
-            continueLifeCycle();
-            ServerPushManager.getInstance().notifyUIThreadEnd();
-          } catch( UIThreadTerminatedError thr ) {
-            throw thr;
-          } catch( Throwable thr ) {
-            ServiceStore serviceStore = ContextProvider.getServiceStore();
-            serviceStore.setAttribute( UI_THREAD_THROWABLE, thr );
+        runLocked( uiThread, new Runnable() {
+          @Override
+          public void run() {
+            runUIThread( uiThread );
           }
-          // We have to prevent the ui thread from waking up at that point, otherwise
-          // processShutdown would never be executed and session store would not be cleared.
-          // See bug 354368
-          UISession uiSession = ContextProvider.getUISession();
-          uiSession.setAttribute( UI_THREAD_WAITING_FOR_TERMINATION, Boolean.TRUE );
-          // In any case: wait for the thread to be terminated by session timeout
-          uiThread.switchThread();
-        }
+        } );
       } catch( @SuppressWarnings( "unused" ) UIThreadTerminatedError e ) {
         // If we get here, the session is being invalidated, see UIThread#terminateThread()
         ( ( ISessionShutdownAdapter )uiThread ).processShutdown();
       }
     }
+
+    private void runUIThread( IUIThreadHolder uiThread ) {
+      try {
+        uiThread.updateServiceContext();
+        ServerPushManager.getInstance().notifyUIThreadStart();
+        continueLifeCycle();
+        createUI();
+        continueLifeCycle();
+        ServerPushManager.getInstance().notifyUIThreadEnd();
+      } catch( UIThreadTerminatedError thr ) {
+        throw thr;
+      } catch( Throwable thr ) {
+        ServiceStore serviceStore = ContextProvider.getServiceStore();
+        serviceStore.setAttribute( UI_THREAD_THROWABLE, thr );
+      }
+      // We have to prevent the ui thread from waking up at that point, otherwise
+      // processShutdown would never be executed and session store would not be cleared.
+      // See bug 354368
+      UISession uiSession = ContextProvider.getUISession();
+      uiSession.setAttribute( UI_THREAD_WAITING_FOR_TERMINATION, Boolean.TRUE );
+      // In any case: wait for the thread to be terminated by session timeout
+      uiThread.switchThread();
+    }
   }
 
 }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.lifecycle;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/*
+ * A UI thread holder that hands over control between request thread and UI thread with a
+ * ReentrantLock instead of an object monitor. On Java 21 and later, the UI thread is a virtual
+ * thread. A virtual thread that waits on a Condition releases its carrier thread, so a sleeping UI
+ * session does not occupy a platform thread. On older Java versions, a platform thread is used.
+ * The handshake itself is implemented by UIThreadHolder.
+ */
+final class VirtualUIThread extends UIThreadHolder {
+
+  private static final ThreadLocal<VirtualUIThread> CURRENT = new ThreadLocal<>();
+
+  private final ReentrantLock lock;
+  private final Condition condition;
+  private final Thread thread;
+
+  VirtualUIThread( final Runnable runnable, String name ) {
+    lock = new ReentrantLock();
+    condition = lock.newCondition();
+    thread = createThread( new Runnable() {
+      @Override
+      public void run() {
+        CURRENT.set( VirtualUIThread.this );
+        try {
+          runnable.run();
+        } finally {
+          CURRENT.remove();
+        }
+      }
+    }, name );
+  }
+
+  static VirtualUIThread getCurrent() {
+    return CURRENT.get();
+  }
+
+  @Override
+  public Thread getThread() {
+    return thread;
+  }
+
+  @Override
+  public Object getLock() {
+    return lock;
+  }
+
+  @Override
+  void runLocked( Runnable runnable ) {
+    lock.lock();
+    try {
+      runnable.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  void signalAll() {
+    condition.signalAll();
+  }
+
+  @Override
+  void await() throws InterruptedException {
+    condition.await();
+  }
+
+  private static Thread createThread( Runnable runnable, String name ) {
+    Thread result = createVirtualThread( runnable );
+    if( result == null ) {
+      result = new Thread( runnable );
+      result.setDaemon( true );
+    }
+    result.setName( name );
+    return result;
+  }
+
+  private static Thread createVirtualThread( Runnable runnable ) {
+    // Thread.ofVirtual() requires Java 21, use reflection to keep compatibility with Java 8
+    try {
+      Method ofVirtual = Thread.class.getMethod( "ofVirtual" );
+      Object builder = ofVirtual.invoke( null );
+      Class<?> builderClass = Class.forName( "java.lang.Thread$Builder" );
+      Method unstarted = builderClass.getMethod( "unstarted", Runnable.class );
+      return ( Thread )unstarted.invoke( builder, runnable );
+    } catch( @SuppressWarnings( "unused" ) ReflectiveOperationException exception ) {
+      return null;
+    }
+  }
+
+}
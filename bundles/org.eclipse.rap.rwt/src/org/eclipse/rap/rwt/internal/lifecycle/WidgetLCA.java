@@ -55,6 +55,17 @@ public abstract class WidgetLCA<T extends Widget>  {
 
   public abstract void preserveValues( T widget );
 
+  /**
+   * Returns whether the widgets handled by this LCA preserve their values on the first change
+   * within a request. If change tracking is enabled, such widgets are neither preserved nor
+   * rendered unless they have been changed. LCAs that don't opt in are always preserved and
+   * compared. Widgets handled by an LCA that opts in must call
+   * <code>WidgetRemoteAdapter#markDirty(Widget)</code> before a preserved value is changed.
+   */
+  public boolean supportsChangeTracking() {
+    return false;
+  }
+
   public abstract void renderInitialization( T widget ) throws IOException;
 
   public abstract void renderChanges( T widget ) throws IOException;
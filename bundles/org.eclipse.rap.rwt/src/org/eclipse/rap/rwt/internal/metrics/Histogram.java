@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.rap.json.JsonObject;
+
+
+/**
+ * A fixed size, lock-free histogram of non-negative long values.
+ * <p>
+ * Values are counted in logarithmic buckets, every power of two is divided into four linear
+ * sub-buckets. Percentiles are reported as the upper bound of the bucket that contains them,
+ * hence they overestimate the exact value by at most 25%. Recording a value takes constant time
+ * and does not allocate.
+ * </p>
+ */
+public class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 2;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = ( 64 - SUB_BUCKET_BITS ) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray buckets;
+  private final AtomicLong count;
+  private final AtomicLong sum;
+  private final AtomicLong max;
+
+  public Histogram() {
+    buckets = new AtomicLongArray( BUCKET_COUNT );
+    count = new AtomicLong();
+    sum = new AtomicLong();
+    max = new AtomicLong();
+  }
+
+  public void record( long value ) {
+    long recorded = Math.max( 0, value );
+    buckets.incrementAndGet( getBucketIndex( recorded ) );
+    count.incrementAndGet();
+    sum.addAndGet( recorded );
+    long currentMax = max.get();
+    while( recorded > currentMax && !max.compareAndSet( currentMax, recorded ) ) {
+      currentMax = max.get();
+    }
+  }
+
+  public long getCount() {
+    return count.get();
+  }
+
+  public long getSum() {
+    return sum.get();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long currentCount = count.get();
+    return currentCount == 0 ? 0 : ( double )sum.get() / currentCount;
+  }
+
+  /**
+   * Returns an upper bound of the value below which the given fraction (e.g. <code>0.99</code>)
+   * of all recorded values fall, or zero if no values have been recorded.
+   */
+  public long getPercentile( double percentile ) {
+    long total = 0;
+    long[] counts = new long[ BUCKET_COUNT ];
+    for( int i = 0; i < BUCKET_COUNT; i++ ) {
+      counts[ i ] = buckets.get( i );
+      total += counts[ i ];
+    }
+    long rank = Math.max( 1, ( long )Math.ceil( percentile * total ) );
+    long seen = 0;
+    for( int i = 0; i < BUCKET_COUNT; i++ ) {
+      seen += counts[ i ];
+      if( seen >= rank ) {
+        return Math.min( getBucketUpperBound( i ), max.get() );
+      }
+    }
+    return 0;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+      .add( "count", getCount() )
+      .add( "mean", getMean() )
+      .add( "p50", getPercentile( 0.5 ) )
+      .add( "p90", getPercentile( 0.9 ) )
+      .add( "p99", getPercentile( 0.99 ) )
+      .add( "p999", getPercentile( 0.999 ) )
+      .add( "max", getMax() );
+  }
+
+  static int getBucketIndex( long value ) {
+    if( value < SUB_BUCKET_COUNT ) {
+      return ( int )value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros( value );
+    long mantissa = value >>> ( exponent - SUB_BUCKET_BITS );
+    int subBucket = ( int )( mantissa & ( SUB_BUCKET_COUNT - 1 ) );
+    return ( exponent - SUB_BUCKET_BITS + 1 ) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long getBucketUpperBound( int index ) {
+    if( index < SUB_BUCKET_COUNT ) {
+      return index;
+    }
+    int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    int subBucket = index % SUB_BUCKET_COUNT;
+    int shift = exponent - SUB_BUCKET_BITS;
+    long lowerBound = ( long )( SUB_BUCKET_COUNT + subBucket ) << shift;
+    return lowerBound + ( 1L << shift ) - 1;
+  }
+
+}
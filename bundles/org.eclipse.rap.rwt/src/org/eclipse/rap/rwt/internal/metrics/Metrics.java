@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
+import org.eclipse.rap.rwt.internal.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.internal.service.ServletLog;
+import org.eclipse.rap.rwt.internal.textsize.TextSizeStorage;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.UISession;
+import org.eclipse.rap.rwt.service.UISessionEvent;
+import org.eclipse.rap.rwt.service.UISessionListener;
+
+
+/**
+ * Collects the runtime metrics of an application context. Metrics are only recorded when enabled,
+ * when disabled all record methods return immediately. Durations are recorded in microseconds.
+ * <p>
+ * The metrics are exposed as an MBean and, in JSON format, by the {@link MetricsServiceHandler}.
+ * Outside of development mode, the service handler requires an access token.
+ * </p>
+ */
+@SuppressWarnings( "deprecation" )
+public class Metrics implements MetricsMBean {
+
+  private static final String OBJECT_NAME = "org.eclipse.rap.rwt:type=Metrics,context=";
+  private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger();
+
+  private final boolean enabled;
+  private final long slowRequestThreshold;
+  private final TextSizeStorage textSizeStorage;
+  private final Histogram requestTime;
+  private final Histogram readDataTime;
+  private final Histogram processActionTime;
+  private final Histogram renderTime;
+  private final Histogram requestBytes;
+  private final Histogram responseBytes;
+  private final Histogram requestOperations;
+  private final Histogram responseOperations;
+  private final Histogram widgetsVisited;
+  private final Histogram pushWaitTime;
+  private final AtomicInteger activeUISessions;
+  private final AtomicInteger requestsInProcessAction;
+  private final AtomicLong slowRequestCount;
+  private ObjectName objectName;
+
+  /**
+   * @param slowRequestThreshold the duration in milliseconds above which a request is logged
+   *          together with its heaviest widgets, zero to disable slow request logging
+   */
+  public Metrics( boolean enabled, long slowRequestThreshold, TextSizeStorage textSizeStorage ) {
+    this.enabled = enabled;
+    this.slowRequestThreshold = slowRequestThreshold;
+    this.textSizeStorage = textSizeStorage;
+    requestTime = new Histogram();
+    readDataTime = new Histogram();
+    processActionTime = new Histogram();
+    renderTime = new Histogram();
+    requestBytes = new Histogram();
+    responseBytes = new Histogram();
+    requestOperations = new Histogram();
+    responseOperations = new Histogram();
+    widgetsVisited = new Histogram();
+    pushWaitTime = new Histogram();
+    activeUISessions = new AtomicInteger();
+    requestsInProcessAction = new AtomicInteger();
+    slowRequestCount = new AtomicLong();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getSlowRequestThreshold() {
+    return slowRequestThreshold;
+  }
+
+  public void recordPhase( PhaseId phaseId, long duration ) {
+    Histogram histogram = getPhaseHistogram( phaseId );
+    if( enabled && histogram != null ) {
+      histogram.record( duration );
+    }
+  }
+
+  public void recordRequest( RequestTrace trace ) {
+    if( enabled ) {
+      requestTime.record( trace.getDuration() );
+      requestBytes.record( trace.getRequestBytes() );
+      responseBytes.record( trace.getResponseBytes() );
+      requestOperations.record( trace.getRequestOperations() );
+      responseOperations.record( trace.getResponseOperations() );
+      widgetsVisited.record( trace.getWidgetsVisited() );
+    }
+  }
+
+  public void recordSlowRequest() {
+    if( enabled ) {
+      slowRequestCount.incrementAndGet();
+    }
+  }
+
+  public void recordPushWait( long duration ) {
+    if( enabled ) {
+      pushWaitTime.record( duration );
+    }
+  }
+
+  /**
+   * Counts the given UI session as active until it is destroyed.
+   */
+  public void uiSessionCreated( UISession uiSession ) {
+    if( enabled && uiSession.addUISessionListener( new UISessionCounter() ) ) {
+      activeUISessions.incrementAndGet();
+    }
+  }
+
+  void uiSessionDestroyed() {
+    if( enabled ) {
+      activeUISessions.decrementAndGet();
+    }
+  }
+
+  /**
+   * Counts the current request as being in the PROCESS_ACTION phase, i.e. while it is handed over
+   * to the UI thread of its session.
+   */
+  public void enterProcessAction() {
+    if( enabled ) {
+      requestsInProcessAction.incrementAndGet();
+    }
+  }
+
+  public void leaveProcessAction() {
+    if( enabled ) {
+      requestsInProcessAction.decrementAndGet();
+    }
+  }
+
+  /**
+   * Registers the MBean under the given context name. A unique id is appended to the object name
+   * since several application contexts may share the same name, e.g. if none is configured.
+   */
+  public void register( String contextName ) {
+    if( enabled ) {
+      try {
+        ObjectName name = new ObjectName( OBJECT_NAME
+                                          + ObjectName.quote( contextName )
+                                          + ",id="
+                                          + INSTANCE_COUNT.incrementAndGet() );
+        getMBeanServer().registerMBean( this, name );
+        objectName = name;
+      } catch( JMException exception ) {
+        ServletLog.log( "Failed to register metrics MBean for context " + contextName, exception );
+      }
+    }
+  }
+
+  public void unregister() {
+    if( objectName != null ) {
+      try {
+        getMBeanServer().unregisterMBean( objectName );
+      } catch( JMException exception ) {
+        ServletLog.log( "Failed to unregister metrics MBean " + objectName, exception );
+      }
+      objectName = null;
+    }
+  }
+
+  ObjectName getObjectName() {
+    return objectName;
+  }
+
+  public JsonObject toJson() {
+    JsonObject phases = new JsonObject()
+      .add( "readData", readDataTime.toJson() )
+      .add( "processAction", processActionTime.toJson() )
+      .add( "render", renderTime.toJson() );
+    JsonObject result = new JsonObject()
+      .add( "activeUISessions", getActiveUISessions() )
+      .add( "requestsInProcessAction", getRequestsInProcessAction() )
+      .add( "slowRequests", getSlowRequestCount() )
+      .add( "requestTime", requestTime.toJson() )
+      .add( "phaseTime", phases )
+      .add( "requestBytes", requestBytes.toJson() )
+      .add( "responseBytes", responseBytes.toJson() )
+      .add( "requestOperations", requestOperations.toJson() )
+      .add( "responseOperations", responseOperations.toJson() )
+      .add( "widgetsVisited", widgetsVisited.toJson() )
+      .add( "pushWaitTime", pushWaitTime.toJson() );
+    if( textSizeStorage != null ) {
+      result.add( "textSizeStorage", new JsonObject()
+        .add( "size", textSizeStorage.getSize() )
+        .add( "hits", textSizeStorage.getHitCount() )
+        .add( "misses", textSizeStorage.getMissCount() )
+        .add( "evictions", textSizeStorage.getEvictionCount() ) );
+    }
+    return result;
+  }
+
+  @Override
+  public int getActiveUISessions() {
+    return activeUISessions.get();
+  }
+
+  @Override
+  public int getRequestsInProcessAction() {
+    return requestsInProcessAction.get();
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestTime.getCount();
+  }
+
+  @Override
+  public long getRequestTimeP50() {
+    return requestTime.getPercentile( 0.5 );
+  }
+
+  @Override
+  public long getRequestTimeP99() {
+    return requestTime.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getRequestTimeMax() {
+    return requestTime.getMax();
+  }
+
+  @Override
+  public long getReadDataTimeP99() {
+    return readDataTime.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getProcessActionTimeP99() {
+    return processActionTime.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getRenderTimeP99() {
+    return renderTime.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getRequestBytesP99() {
+    return requestBytes.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getResponseBytesP99() {
+    return responseBytes.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getResponseOperationsP99() {
+    return responseOperations.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getWidgetsVisitedP99() {
+    return widgetsVisited.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getPushWaitTimeP99() {
+    return pushWaitTime.getPercentile( 0.99 );
+  }
+
+  @Override
+  public long getSlowRequestCount() {
+    return slowRequestCount.get();
+  }
+
+  @Override
+  public String getJson() {
+    return toJson().toString();
+  }
+
+  private Histogram getPhaseHistogram( PhaseId phaseId ) {
+    if( PhaseId.READ_DATA.equals( phaseId ) ) {
+      return readDataTime;
+    } else if( PhaseId.PROCESS_ACTION.equals( phaseId ) ) {
+      return processActionTime;
+    } else if( PhaseId.RENDER.equals( phaseId ) ) {
+      return renderTime;
+    }
+    return null;
+  }
+
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+  private static final class UISessionCounter implements UISessionListener {
+
+    @Override
+    public void beforeDestroy( UISessionEvent event ) {
+      ApplicationContext applicationContext = event.getUISession().getApplicationContext();
+      if( applicationContext instanceof ApplicationContextImpl ) {
+        ( ( ApplicationContextImpl )applicationContext ).getMetrics().uiSessionDestroyed();
+      }
+    }
+
+  }
+
+}
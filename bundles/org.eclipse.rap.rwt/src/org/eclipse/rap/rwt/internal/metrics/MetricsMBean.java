@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+
+/**
+ * The management interface of {@link Metrics}. Durations are in microseconds.
+ */
+public interface MetricsMBean {
+
+  int getActiveUISessions();
+  int getRequestsInProcessAction();
+
+  long getRequestCount();
+  long getRequestTimeP50();
+  long getRequestTimeP99();
+  long getRequestTimeMax();
+
+  long getReadDataTimeP99();
+  long getProcessActionTimeP99();
+  long getRenderTimeP99();
+
+  long getRequestBytesP99();
+  long getResponseBytesP99();
+  long getResponseOperationsP99();
+  long getWidgetsVisitedP99();
+
+  long getPushWaitTimeP99();
+
+  long getSlowRequestCount();
+
+  String getJson();
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
+import static org.eclipse.rap.rwt.internal.util.HTTP.CHARSET_UTF_8;
+import static org.eclipse.rap.rwt.internal.util.HTTP.CONTENT_TYPE_JSON;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.rwt.service.ServiceHandler;
+
+
+/**
+ * Serves a snapshot of the application metrics in JSON format.
+ * <p>
+ * The metrics describe all sessions of the application, hence the handler must not be
+ * accessible to every client. It is only registered when metrics are enabled and either an
+ * access token is configured with <code>-Dorg.eclipse.rap.rwt.metricsToken=&lt;token&gt;</code>
+ * or the application runs in development mode. When a token is configured, requests have to
+ * send it in the <code>X-RAP-Metrics-Token</code> header, otherwise they are answered with
+ * status 403 (forbidden).
+ * </p>
+ */
+public class MetricsServiceHandler implements ServiceHandler {
+
+  public final static String HANDLER_ID = "org.eclipse.rap.metrics";
+  public final static String TOKEN_HEADER = "X-RAP-Metrics-Token";
+
+  private final Metrics metrics;
+  private final String token;
+
+  /**
+   * @param metrics the metrics to serve
+   * @param token the token that requests must send, or <code>null</code> to grant access to
+   *          every request
+   */
+  public MetricsServiceHandler( Metrics metrics, String token ) {
+    this.metrics = metrics;
+    this.token = token;
+  }
+
+  /**
+   * Returns whether the handler should be registered at all, i.e. whether access is either
+   * restricted by a token or the application runs in development mode.
+   */
+  public static boolean isAccessible( String token, boolean developmentMode ) {
+    return token != null || developmentMode;
+  }
+
+  @Override
+  public void service( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    if( !isAuthorized( request ) ) {
+      response.sendError( SC_FORBIDDEN );
+      return;
+    }
+    response.setContentType( CONTENT_TYPE_JSON );
+    response.setCharacterEncoding( CHARSET_UTF_8 );
+    response.setHeader( "Cache-Control", "no-store" );
+    metrics.toJson().writeTo( response.getWriter() );
+  }
+
+  private boolean isAuthorized( HttpServletRequest request ) {
+    if( token == null ) {
+      return true;
+    }
+    String sentToken = request.getHeader( TOKEN_HEADER );
+    // constant time comparison, to not reveal the token by response times
+    return sentToken != null && MessageDigest.isEqual( getBytes( token ), getBytes( sentToken ) );
+  }
+
+  private static byte[] getBytes( String string ) {
+    return string.getBytes( StandardCharsets.UTF_8 );
+  }
+
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.eclipse.rap.rwt.internal.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.internal.service.ServiceStore;
+import org.eclipse.rap.rwt.internal.service.ServletLog;
+
+
+/**
+ * Traces a single UI request. The trace is kept in the service store of the request, it is only
+ * created when metrics are enabled. When slow request logging is enabled, the render time of
+ * every widget is measured and the heaviest widgets are reported for requests that exceed the
+ * threshold.
+ */
+@SuppressWarnings( "deprecation" )
+public final class RequestTrace {
+
+  private static final String ATTR_TRACE = RequestTrace.class.getName() + "#instance";
+  static final int HEAVIEST_WIDGETS_COUNT = 10;
+
+  private final Metrics metrics;
+  private final long startTime;
+  private final long[] phaseStartTimes;
+  private final long[] phaseDurations;
+  private final WidgetTiming[] heaviestWidgets;
+  private int heaviestWidgetsCount;
+  private boolean insideProcessAction;
+  private long duration;
+  private long requestBytes;
+  private long responseBytes;
+  private int requestOperations;
+  private int responseOperations;
+  private int widgetsVisited;
+
+  /**
+   * Creates a trace for the current request and attaches it to the service store. Returns
+   * <code>null</code> if metrics are not available or disabled.
+   */
+  public static RequestTrace start( Metrics metrics ) {
+    RequestTrace result = null;
+    if( metrics != null && metrics.isEnabled() ) {
+      result = new RequestTrace( metrics, System.nanoTime() );
+      ContextProvider.getServiceStore().setAttribute( ATTR_TRACE, result );
+    }
+    return result;
+  }
+
+  /**
+   * Returns the trace of the current request or <code>null</code> if the request is not traced.
+   */
+  public static RequestTrace getCurrent() {
+    if( ContextProvider.hasContext() ) {
+      ServiceStore serviceStore = ContextProvider.getServiceStore();
+      return ( RequestTrace )serviceStore.getAttribute( ATTR_TRACE );
+    }
+    return null;
+  }
+
+  RequestTrace( Metrics metrics, long startTime ) {
+    this.metrics = metrics;
+    this.startTime = startTime;
+    phaseStartTimes = new long[ PhaseId.VALUES.size() ];
+    phaseDurations = new long[ PhaseId.VALUES.size() ];
+    heaviestWidgets = isWidgetTimingEnabled() ? new WidgetTiming[ HEAVIEST_WIDGETS_COUNT ] : null;
+  }
+
+  public void beforePhase( PhaseId phaseId ) {
+    if( PhaseId.PROCESS_ACTION.equals( phaseId ) && !insideProcessAction ) {
+      insideProcessAction = true;
+      metrics.enterProcessAction();
+    }
+    phaseStartTimes[ phaseId.getOrdinal() ] = System.nanoTime();
+  }
+
+  public void afterPhase( PhaseId phaseId ) {
+    int ordinal = phaseId.getOrdinal();
+    if( phaseStartTimes[ ordinal ] != 0 ) {
+      long phaseDuration = toMicros( System.nanoTime() - phaseStartTimes[ ordinal ] );
+      phaseStartTimes[ ordinal ] = 0;
+      phaseDurations[ ordinal ] += phaseDuration;
+      metrics.recordPhase( phaseId, phaseDuration );
+    }
+    if( PhaseId.PROCESS_ACTION.equals( phaseId ) ) {
+      leaveProcessAction();
+    }
+  }
+
+  /**
+   * Returns whether the render time of every widget should be measured and reported with
+   * {@link #widgetRendered(Object, String, long)}.
+   */
+  public boolean isWidgetTimingEnabled() {
+    return metrics.getSlowRequestThreshold() > 0;
+  }
+
+  public void widgetVisited() {
+    widgetsVisited++;
+  }
+
+  /**
+   * Records the render time of a widget in nanoseconds. The description of the widget is only
+   * computed for the heaviest widgets.
+   */
+  public void widgetRendered( Object widget, String id, long renderTime ) {
+    if( heaviestWidgets == null ) {
+      return;
+    }
+    int position = heaviestWidgetsCount;
+    while( position > 0 && heaviestWidgets[ position - 1 ].renderTime < renderTime ) {
+      position--;
+    }
+    if( position < HEAVIEST_WIDGETS_COUNT ) {
+      int last = Math.min( heaviestWidgetsCount, HEAVIEST_WIDGETS_COUNT - 1 );
+      System.arraycopy( heaviestWidgets, position, heaviestWidgets, position + 1, last - position );
+      heaviestWidgets[ position ] = new WidgetTiming( widget + " [" + id + "]", renderTime );
+      heaviestWidgetsCount = last + 1;
+    }
+  }
+
+  public void setRequest( long bytes, int operations ) {
+    requestBytes = bytes;
+    requestOperations = operations;
+  }
+
+  public void setResponse( long bytes, int operations ) {
+    responseBytes = bytes;
+    responseOperations = operations;
+  }
+
+  /**
+   * Completes the trace, records its values and logs the request if it exceeded the slow request
+   * threshold.
+   */
+  public void finish() {
+    leaveProcessAction();
+    duration = toMicros( System.nanoTime() - startTime );
+    metrics.recordRequest( this );
+    long threshold = metrics.getSlowRequestThreshold();
+    if( threshold > 0 && duration > MILLISECONDS.toMicros( threshold ) ) {
+      metrics.recordSlowRequest();
+      ServletLog.log( createSlowRequestMessage(), null );
+    }
+  }
+
+  long getDuration() {
+    return duration;
+  }
+
+  long getRequestBytes() {
+    return requestBytes;
+  }
+
+  long getResponseBytes() {
+    return responseBytes;
+  }
+
+  int getRequestOperations() {
+    return requestOperations;
+  }
+
+  int getResponseOperations() {
+    return responseOperations;
+  }
+
+  int getWidgetsVisited() {
+    return widgetsVisited;
+  }
+
+  String createSlowRequestMessage() {
+    StringBuilder result = new StringBuilder();
+    result.append( "Slow request: " ).append( formatMicros( duration ) );
+    result.append( " (read data " );
+    result.append( formatMicros( phaseDurations[ PhaseId.READ_DATA.getOrdinal() ] ) );
+    result.append( ", process action " );
+    result.append( formatMicros( phaseDurations[ PhaseId.PROCESS_ACTION.getOrdinal() ] ) );
+    result.append( ", render " );
+    result.append( formatMicros( phaseDurations[ PhaseId.RENDER.getOrdinal() ] ) );
+    result.append( "), " ).append( requestOperations ).append( " request operations, " );
+    result.append( responseOperations ).append( " response operations, " );
+    result.append( responseBytes ).append( " response bytes, " );
+    result.append( widgetsVisited ).append( " widgets visited" );
+    if( heaviestWidgetsCount > 0 ) {
+      result.append( "\nHeaviest widgets:" );
+      for( int i = 0; i < heaviestWidgetsCount; i++ ) {
+        WidgetTiming timing = heaviestWidgets[ i ];
+        result.append( "\n  " ).append( formatMicros( toMicros( timing.renderTime ) ) );
+        result.append( ' ' ).append( timing.description );
+      }
+    }
+    return result.toString();
+  }
+
+  private void leaveProcessAction() {
+    if( insideProcessAction ) {
+      insideProcessAction = false;
+      metrics.leaveProcessAction();
+    }
+  }
+
+  private static long toMicros( long nanos ) {
+    return NANOSECONDS.toMicros( nanos );
+  }
+
+  private static String formatMicros( long micros ) {
+    return String.format( "%.1f ms", Double.valueOf( micros / 1000d ) );
+  }
+
+  private static final class WidgetTiming {
+
+    final String description;
+    final long renderTime;
+
+    WidgetTiming( String description, long renderTime ) {
+      this.description = description;
+      this.renderTime = renderTime;
+    }
+
+  }
+
+}
@@ -12,7 +12,9 @@ package org.eclipse.rap.rwt.internal.protocol;
 
 import static org.eclipse.rap.rwt.internal.protocol.OperationReader.readOperation;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,6 +61,26 @@ public class Message implements Serializable {
     return new JsonObject().add( HEAD, head ).add( OPERATIONS, operationsArray );
   }
 
+  /**
+   * Writes the JSON representation of this message to the given writer. Unlike
+   * <code>toJson().writeTo( writer )</code>, the operations are converted and written one by one,
+   * so that the JSON representation of the entire message is never held in memory.
+   */
+  public void writeTo( Writer writer ) throws IOException {
+    writer.write( "{\"" + HEAD + "\":" );
+    head.writeTo( writer );
+    writer.write( ",\"" + OPERATIONS + "\":[" );
+    boolean first = true;
+    for( Operation operation : operations ) {
+      if( !first ) {
+        writer.write( ',' );
+      }
+      operation.toJson().writeTo( writer );
+      first = false;
+    }
+    writer.write( "]}" );
+  }
+
   @Override
   public String toString() {
     return toJson().toString();
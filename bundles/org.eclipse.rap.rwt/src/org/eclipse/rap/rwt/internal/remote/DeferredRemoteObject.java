@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2015 EclipseSource and others.
+ * Copyright (c) 2013, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,7 +12,10 @@ package org.eclipse.rap.rwt.internal.remote;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
@@ -23,128 +26,205 @@ import org.eclipse.rap.rwt.internal.protocol.ProtocolMessageWriter;
  * A remote object implementation that does not write operations directly, but keeps them in a
  * render queue. The {@link RemoteObjectLifeCycleAdapter} will write the operations by calling the
  * <code>render</code> method.
+ * <p>
+ * Redundant operations are removed from the queue: when a property is set or a listener is
+ * changed more than once, only the last value is rendered, in the position of the last change.
+ * Calls are rendered in order and act as a barrier, operations issued after a call are not merged
+ * with those before it.
+ * </p>
  */
 public class DeferredRemoteObject extends RemoteObjectImpl {
 
-  private final List<RenderRunnable> renderQueue;
+  private final String createType;
+  private final List<PendingOperation> renderQueue;
+  // the pending set and listen operations since the last call, by property name or event type
+  private final Map<String, PendingSet> pendingSets;
+  private final Map<String, PendingListen> pendingListens;
   private boolean created;
 
-  public DeferredRemoteObject( final String id, final String createType ) {
+  public DeferredRemoteObject( String id, String createType ) {
     super( id );
+    this.createType = createType;
     renderQueue = new ArrayList<>();
-    if( createType != null ) {
-      renderQueue.add( new RenderRunnable() {
-        @Override
-        public void render( ProtocolMessageWriter writer ) {
-          writer.appendCreate( id, createType );
-        }
-      } );
-    }
+    pendingSets = new HashMap<>();
+    pendingListens = new HashMap<>();
   }
 
   @Override
-  public void set( final String name, final int value ) {
+  public void set( String name, int value ) {
     super.set( name, value );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendSet( getId(), name, value );
-      }
-    } );
+    addSet( name, Integer.valueOf( value ) );
   }
 
   @Override
-  public void set( final String name, final double value ) {
+  public void set( String name, double value ) {
     super.set( name, value );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendSet( getId(), name, value );
-      }
-    } );
+    addSet( name, Double.valueOf( value ) );
   }
 
   @Override
-  public void set( final String name, final boolean value ) {
+  public void set( String name, boolean value ) {
     super.set( name, value );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendSet( getId(), name, value );
-      }
-    } );
+    addSet( name, Boolean.valueOf( value ) );
   }
 
   @Override
-  public void set( final String name, final String value ) {
+  public void set( String name, String value ) {
     super.set( name, value );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendSet( getId(), name, value );
-      }
-    } );
+    addSet( name, value );
   }
 
   @Override
-  public void set( final String name, final JsonValue value ) {
+  public void set( String name, JsonValue value ) {
     super.set( name, value );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendSet( getId(), name, value );
-      }
-    } );
+    addSet( name, value );
   }
 
   @Override
-  public void listen( final String eventType, final boolean listen ) {
+  public void listen( String eventType, boolean listen ) {
     super.listen( eventType, listen );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendListen( getId(), eventType, listen );
-      }
-    } );
+    PendingListen pendingListen = new PendingListen( eventType, listen );
+    // the last change moves to the end of the queue, it may depend on operations queued before
+    PendingListen replacedListen = pendingListens.put( eventType, pendingListen );
+    if( replacedListen != null ) {
+      renderQueue.remove( replacedListen );
+    }
+    renderQueue.add( pendingListen );
   }
 
   @Override
-  public void call( final String method, final JsonObject parameters ) {
+  public void call( String method, JsonObject parameters ) {
     super.call( method, parameters );
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendCall( getId(), method, parameters );
-      }
-    } );
+    renderQueue.add( new PendingCall( method, parameters ) );
+    pendingSets.clear();
+    pendingListens.clear();
   }
 
   @Override
   public void destroy() {
     super.destroy();
-    renderQueue.add( new RenderRunnable() {
-      @Override
-      public void render( ProtocolMessageWriter writer ) {
-        writer.appendDestroy( getId() );
-      }
-    } );
+    // properties and listeners of a destroyed object are of no interest to the client, unless a
+    // call that is still to be rendered depends on them
+    ListIterator<PendingOperation> iterator = renderQueue.listIterator( renderQueue.size() );
+    while( iterator.hasPrevious() && !( iterator.previous() instanceof PendingCall ) ) {
+      iterator.remove();
+    }
+    pendingSets.clear();
+    pendingListens.clear();
+    renderQueue.add( PendingDestroy.INSTANCE );
   }
 
   public void render( ProtocolMessageWriter writer ) {
     if( isDestroyed() && !created ) {
       // skip rendering for objects that are disposed just after creation (see bug 395272)
     } else {
-      for( RenderRunnable runnable : renderQueue ) {
-        runnable.render( writer );
+      String id = getId();
+      if( !created && createType != null ) {
+        writer.appendCreate( id, createType );
+      }
+      for( PendingOperation operation : renderQueue ) {
+        operation.render( id, writer );
       }
       created = true;
     }
     renderQueue.clear();
+    pendingSets.clear();
+    pendingListens.clear();
+  }
+
+  int getPendingOperationCount() {
+    return renderQueue.size();
+  }
+
+  private void addSet( String name, Object value ) {
+    PendingSet pendingSet = new PendingSet( name, value );
+    // the last change moves to the end of the queue, it may depend on operations queued before
+    PendingSet replacedSet = pendingSets.put( name, pendingSet );
+    if( replacedSet != null ) {
+      renderQueue.remove( replacedSet );
+    }
+    renderQueue.add( pendingSet );
+  }
+
+  private static interface PendingOperation extends Serializable {
+
+    void render( String id, ProtocolMessageWriter writer );
+
+  }
+
+  private static final class PendingSet implements PendingOperation {
+
+    private final String name;
+    private final Object value;
+
+    PendingSet( String name, Object value ) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public void render( String id, ProtocolMessageWriter writer ) {
+      if( value instanceof Integer ) {
+        writer.appendSet( id, name, ( ( Integer )value ).intValue() );
+      } else if( value instanceof Double ) {
+        writer.appendSet( id, name, ( ( Double )value ).doubleValue() );
+      } else if( value instanceof Boolean ) {
+        writer.appendSet( id, name, ( ( Boolean )value ).booleanValue() );
+      } else if( value instanceof JsonValue ) {
+        writer.appendSet( id, name, ( JsonValue )value );
+      } else {
+        writer.appendSet( id, name, ( String )value );
+      }
+    }
+
+  }
+
+  private static final class PendingListen implements PendingOperation {
+
+    private final String eventType;
+    private final boolean listen;
+
+    PendingListen( String eventType, boolean listen ) {
+      this.eventType = eventType;
+      this.listen = listen;
+    }
+
+    @Override
+    public void render( String id, ProtocolMessageWriter writer ) {
+      writer.appendListen( id, eventType, listen );
+    }
+
   }
 
-  private static interface RenderRunnable extends Serializable {
+  private static final class PendingCall implements PendingOperation {
 
-    void render( ProtocolMessageWriter writer );
+    private final String method;
+    private final JsonObject parameters;
+
+    PendingCall( String method, JsonObject parameters ) {
+      this.method = method;
+      this.parameters = parameters;
+    }
+
+    @Override
+    public void render( String id, ProtocolMessageWriter writer ) {
+      writer.appendCall( id, method, parameters );
+    }
+
+  }
+
+  private static final class PendingDestroy implements PendingOperation {
+
+    static final PendingDestroy INSTANCE = new PendingDestroy();
+
+    @Override
+    public void render( String id, ProtocolMessageWriter writer ) {
+      writer.appendDestroy( id );
+    }
+
+    private Object readResolve() {
+      return INSTANCE;
+    }
 
   }
 
@@ -144,8 +144,18 @@ public final class ClientResources {
     } finally {
       inputStream.close();
     }
-    String location = resourceManager.getLocation( name );
-    applicationContext.getStartupPage().setClientJsLibrary( location );
+    applicationContext.getStartupPage().setClientJsLibrary( getClientJsLocation( name ) );
+  }
+
+  private String getClientJsLocation( String name ) {
+    // With precompression, the client library is served compressed and cached as immutable
+    if( resourceManager instanceof ResourceManagerImpl ) {
+      String contentHash = ( ( ResourceManagerImpl )resourceManager ).getContentHash( name );
+      if( contentHash != null ) {
+        return ResourceServiceHandler.getLocation( name, contentHash );
+      }
+    }
+    return resourceManager.getLocation( name );
   }
 
   private InputStream openResourceStream( String name ) {
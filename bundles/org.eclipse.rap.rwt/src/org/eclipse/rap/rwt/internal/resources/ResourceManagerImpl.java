@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -21,10 +21,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.util.ParamCheck;
 import org.eclipse.rap.rwt.internal.util.StreamUtil;
 import org.eclipse.rap.rwt.service.ResourceLoader;
@@ -46,12 +54,27 @@ import org.eclipse.rap.rwt.service.ResourceManager;
  */
 public class ResourceManagerImpl implements ResourceManager {
 
+  static final String GZIP_SUFFIX = ".gz";
+  private static final String[] COMPRESSIBLE_EXTENSIONS = {
+    ".js", ".css", ".html", ".htm", ".json", ".svg", ".txt", ".xml"
+  };
+
   private final ResourceDirectory resourceDirectory;
   private final Set<String> resources;
+  private final boolean precompress;
+  private final Map<String, String> contentHashes;
+  private final Set<String> compressedResources;
 
   public ResourceManagerImpl( ResourceDirectory resourceDirectory ) {
+    this( resourceDirectory, RWTProperties.isPrecompressResourcesEnabled() );
+  }
+
+  public ResourceManagerImpl( ResourceDirectory resourceDirectory, boolean precompress ) {
     this.resourceDirectory = resourceDirectory;
+    this.precompress = precompress;
     resources = Collections.synchronizedSet( new HashSet<String>() );
+    contentHashes = new ConcurrentHashMap<>();
+    compressedResources = Collections.synchronizedSet( new HashSet<String>() );
   }
 
   /////////////////////////////
@@ -92,6 +115,8 @@ public class ResourceManagerImpl implements ResourceManager {
       result = true;
       File file = getDiskLocation( name );
       file.delete();
+      deleteCompressedVariant( name, file );
+      contentHashes.remove( name );
     }
     return result;
   }
@@ -126,6 +151,48 @@ public class ResourceManagerImpl implements ResourceManager {
     return result;
   }
 
+  /**
+   * Returns whether registered resources are stored with a content hash and, if compressible, with
+   * a gzip compressed variant.
+   */
+  public boolean isPrecompressEnabled() {
+    return precompress;
+  }
+
+  /**
+   * Returns the hash of the content of a registered resource, or <code>null</code> if the resource
+   * is not registered or precompression is disabled.
+   */
+  public String getContentHash( String name ) {
+    ParamCheck.notNull( name, "name" );
+    return contentHashes.get( name );
+  }
+
+  /**
+   * Returns the file that contains the content of a registered resource, or <code>null</code> if
+   * the resource is not registered.
+   */
+  public File getFile( String name ) {
+    ParamCheck.notNull( name, "name" );
+    return resources.contains( name ) ? getDiskLocation( name ) : null;
+  }
+
+  /**
+   * Returns the file that contains the gzip compressed content of a registered resource, or
+   * <code>null</code> if there is no compressed variant.
+   */
+  public File getGzipFile( String name ) {
+    ParamCheck.notNull( name, "name" );
+    File result = null;
+    if( compressedResources.contains( name ) ) {
+      File file = getCompressedFile( getDiskLocation( name ) );
+      if( file.exists() ) {
+        result = file;
+      }
+    }
+    return result;
+  }
+
   //////////////////
   // helping methods
 
@@ -139,30 +206,105 @@ public class ResourceManagerImpl implements ResourceManager {
 
   private void internalRegister( String name, InputStream inputStream ) {
     File location = getDiskLocation( name );
+    if( name.endsWith( GZIP_SUFFIX ) ) {
+      // the resource replaces a compressed variant that was generated for another resource
+      compressedResources.remove( name.substring( 0, name.length() - GZIP_SUFFIX.length() ) );
+    }
     try {
       createDirectories( location );
-      writeResource( inputStream, location );
+      if( precompress ) {
+        MessageDigest digest = createDigest();
+        OutputStream outputStream = new FileOutputStream( location );
+        writeResource( inputStream, new DigestOutputStream( outputStream, digest ) );
+        contentHashes.put( name, toHex( digest.digest() ) );
+        writeCompressedVariant( name, location );
+      } else {
+        writeResource( inputStream, new FileOutputStream( location ) );
+      }
     } catch ( IOException ioe ) {
       throw new RuntimeException( "Failed to register resource: " + name, ioe );
     }
     resources.add( name );
   }
 
-  private static void writeResource( InputStream inputStream, File location )
+  private static void writeResource( InputStream inputStream, OutputStream outputStream )
     throws IOException
   {
     BufferedInputStream bufferedStream = new BufferedInputStream( inputStream );
-    OutputStream outputStream = new BufferedOutputStream( new FileOutputStream( location ) );
+    OutputStream bufferedOutputStream = new BufferedOutputStream( outputStream );
     try {
       byte[] buffer = new byte[ 256 ];
       int read = bufferedStream.read( buffer );
       while( read != -1 ) {
-        outputStream.write( buffer, 0, read );
+        bufferedOutputStream.write( buffer, 0, read );
         read = bufferedStream.read( buffer );
       }
     } finally {
-      outputStream.close();
+      bufferedOutputStream.close();
+    }
+  }
+
+  private void writeCompressedVariant( String name, File location ) throws IOException {
+    deleteCompressedVariant( name, location );
+    // Never overwrite a resource that is registered with the name of the compressed variant
+    if( isCompressible( name ) && !resources.contains( name + GZIP_SUFFIX ) ) {
+      File compressedFile = getCompressedFile( location );
+      InputStream inputStream = new FileInputStream( location );
+      try {
+        OutputStream outputStream = new GZIPOutputStream( new FileOutputStream( compressedFile ) );
+        writeResource( inputStream, outputStream );
+      } finally {
+        inputStream.close();
+      }
+      // Serving a compressed variant that is not smaller than the original is pointless
+      if( compressedFile.length() < location.length() ) {
+        compressedResources.add( name );
+      } else {
+        compressedFile.delete();
+      }
+    }
+  }
+
+  /*
+   * Deletes the compressed variant of the given resource only if it has been generated by this
+   * resource manager. Other files with the same name may belong to the application.
+   */
+  private void deleteCompressedVariant( String name, File location ) {
+    if( compressedResources.remove( name ) ) {
+      getCompressedFile( location ).delete();
+    }
+  }
+
+  private static boolean isCompressible( String name ) {
+    String lowerCaseName = name.toLowerCase( Locale.ENGLISH );
+    for( String extension : COMPRESSIBLE_EXTENSIONS ) {
+      if( lowerCaseName.endsWith( extension ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static File getCompressedFile( File file ) {
+    return new File( file.getPath() + GZIP_SUFFIX );
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance( "SHA-256" );
+    } catch( NoSuchAlgorithmException exception ) {
+      throw new IllegalStateException( "SHA-256 not supported", exception );
+    }
+  }
+
+  private static String toHex( byte[] bytes ) {
+    // 64 bits of the hash are sufficient to identify a version of a resource
+    StringBuilder result = new StringBuilder();
+    for( int i = 0; i < 8; i++ ) {
+      result.append( Character.forDigit( ( bytes[ i ] >> 4 ) & 0xF, 16 ) );
+      result.append( Character.forDigit( bytes[ i ] & 0xF, 16 ) );
     }
+    return result.toString();
   }
 
   private static void createDirectories( File file ) throws IOException {
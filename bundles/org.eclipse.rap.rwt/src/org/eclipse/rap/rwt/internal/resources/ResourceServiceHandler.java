@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.resources;
+
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static javax.servlet.http.HttpServletResponse.SC_PARTIAL_CONTENT;
+import static javax.servlet.http.HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+import static org.eclipse.rap.rwt.internal.util.HTTP.acceptsGzip;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.internal.service.ServiceManagerImpl;
+import org.eclipse.rap.rwt.service.ServiceHandler;
+
+
+/**
+ * Serves the resources registered with a {@link ResourceManagerImpl} that has precompression
+ * enabled. Resources requested with their current content hash are served with an immutable cache
+ * control header. The gzip compressed variant is served to clients that accept it. Conditional
+ * requests are answered by comparing the ETag of the served variant, which is the content hash for
+ * the uncompressed and the content hash with a "-gzip" suffix for the compressed variant. Single
+ * byte ranges are supported for uncompressed content, honoring If-Range.
+ */
+public class ResourceServiceHandler implements ServiceHandler {
+
+  public final static String HANDLER_ID = "org.eclipse.rap.resource";
+
+  static final String PARAM_NAME = "name";
+  static final String PARAM_VERSION = "v";
+
+  private static final String CACHE_CONTROL_IMMUTABLE = "public, max-age=31536000, immutable";
+  private static final String CACHE_CONTROL_REVALIDATE = "no-cache";
+  private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+  private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+  private final ResourceManagerImpl resourceManager;
+
+  public ResourceServiceHandler( ResourceManagerImpl resourceManager ) {
+    this.resourceManager = resourceManager;
+  }
+
+  /**
+   * Returns a URL for the given resource that is relative to the URL of the RWT servlet. The URL
+   * contains the content hash, it changes when the resource changes.
+   */
+  public static String getLocation( String name, String contentHash ) {
+    return new StringBuilder()
+      .append( '?' )
+      .append( ServiceManagerImpl.REQUEST_PARAM )
+      .append( '=' )
+      .append( encode( HANDLER_ID ) )
+      .append( '&' )
+      .append( PARAM_NAME )
+      .append( '=' )
+      .append( encode( name ) )
+      .append( '&' )
+      .append( PARAM_VERSION )
+      .append( '=' )
+      .append( contentHash )
+      .toString();
+  }
+
+  @Override
+  public void service( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    String name = request.getParameter( PARAM_NAME );
+    File file = name == null ? null : resourceManager.getFile( name );
+    String contentHash = name == null ? null : resourceManager.getContentHash( name );
+    if( file == null || contentHash == null || !file.exists() ) {
+      response.sendError( SC_NOT_FOUND );
+    } else {
+      serveResource( request, response, name, file, contentHash );
+    }
+  }
+
+  private void serveResource( HttpServletRequest request,
+                              HttpServletResponse response,
+                              String name,
+                              File file,
+                              String contentHash )
+    throws IOException
+  {
+    String range = getRange( request, contentHash );
+    File gzipFile = resourceManager.getGzipFile( name );
+    // Ranges always refer to the identity encoding
+    boolean gzip = range == null && gzipFile != null && acceptsGzip( request );
+    String etag = gzip ? createETag( contentHash + GZIP_ETAG_SUFFIX ) : createETag( contentHash );
+    response.setHeader( "ETag", etag );
+    response.setHeader( "Cache-Control", getCacheControl( request, contentHash ) );
+    response.setHeader( "Accept-Ranges", "bytes" );
+    response.setHeader( "Vary", "Accept-Encoding" );
+    response.setContentType( getContentType( name ) );
+    if( matchesETag( request.getHeader( "If-None-Match" ), etag ) ) {
+      response.setStatus( SC_NOT_MODIFIED );
+    } else if( gzip ) {
+      response.setHeader( "Content-Encoding", "gzip" );
+      transfer( response, gzipFile, 0, gzipFile.length() );
+    } else if( range != null ) {
+      serveRange( response, file, range );
+    } else {
+      transfer( response, file, 0, file.length() );
+    }
+  }
+
+  /*
+   * Returns the requested range, or null if the full content has to be served. A range that is
+   * conditional on a different version of the resource is ignored (RFC 7233, section 3.2).
+   */
+  private static String getRange( HttpServletRequest request, String contentHash ) {
+    String range = request.getHeader( "Range" );
+    String ifRange = request.getHeader( "If-Range" );
+    if( range != null && ifRange != null && !ifRange.trim().equals( createETag( contentHash ) ) ) {
+      return null;
+    }
+    return range;
+  }
+
+  private static void serveRange( HttpServletResponse response, File file, String range )
+    throws IOException
+  {
+    long length = file.length();
+    long[] bounds = parseRange( range, length );
+    if( bounds == null ) {
+      transfer( response, file, 0, length );
+    } else if( bounds[ 0 ] >= length || bounds[ 0 ] > bounds[ 1 ] ) {
+      response.setHeader( "Content-Range", "bytes */" + length );
+      response.sendError( SC_REQUESTED_RANGE_NOT_SATISFIABLE );
+    } else {
+      long end = Math.min( bounds[ 1 ], length - 1 );
+      response.setStatus( SC_PARTIAL_CONTENT );
+      response.setHeader( "Content-Range", "bytes " + bounds[ 0 ] + "-" + end + "/" + length );
+      transfer( response, file, bounds[ 0 ], end - bounds[ 0 ] + 1 );
+    }
+  }
+
+  /*
+   * Parses a single byte range of the form "bytes=first-last", "bytes=first-" or "bytes=-suffix".
+   * Returns null if the header is not a single byte range, in which case it is ignored.
+   */
+  static long[] parseRange( String range, long length ) {
+    if( !range.startsWith( "bytes=" ) || range.indexOf( ',' ) != -1 ) {
+      return null;
+    }
+    String spec = range.substring( "bytes=".length() ).trim();
+    int dash = spec.indexOf( '-' );
+    if( dash == -1 ) {
+      return null;
+    }
+    try {
+      String first = spec.substring( 0, dash ).trim();
+      String last = spec.substring( dash + 1 ).trim();
+      if( first.isEmpty() ) {
+        if( last.isEmpty() ) {
+          return null;
+        }
+        long suffix = Long.parseLong( last );
+        return new long[] { Math.max( 0, length - suffix ), length - 1 };
+      }
+      long end = last.isEmpty() ? length - 1 : Long.parseLong( last );
+      return new long[] { Long.parseLong( first ), end };
+    } catch( @SuppressWarnings( "unused" ) NumberFormatException exception ) {
+      return null;
+    }
+  }
+
+  private static void transfer( HttpServletResponse response, File file, long position, long count )
+    throws IOException
+  {
+    response.setContentLength( ( int )count );
+    FileInputStream inputStream = new FileInputStream( file );
+    try {
+      FileChannel channel = inputStream.getChannel();
+      WritableByteChannel target = Channels.newChannel( response.getOutputStream() );
+      long transferred = 0;
+      while( transferred < count ) {
+        long result = channel.transferTo( position + transferred, count - transferred, target );
+        if( result <= 0 ) {
+          break;
+        }
+        transferred += result;
+      }
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static String getCacheControl( HttpServletRequest request, String contentHash ) {
+    // Only a URL that contains the current content hash never changes its content
+    boolean versioned = contentHash.equals( request.getParameter( PARAM_VERSION ) );
+    return versioned ? CACHE_CONTROL_IMMUTABLE : CACHE_CONTROL_REVALIDATE;
+  }
+
+  private static String getContentType( String name ) {
+    ServletContext servletContext = ContextProvider.getApplicationContext().getServletContext();
+    String result = servletContext.getMimeType( name );
+    return result != null ? result : DEFAULT_CONTENT_TYPE;
+  }
+
+  private static String createETag( String value ) {
+    return '"' + value + '"';
+  }
+
+  static boolean matchesETag( String ifNoneMatch, String etag ) {
+    if( ifNoneMatch == null ) {
+      return false;
+    }
+    for( String candidate : ifNoneMatch.split( "," ) ) {
+      String value = candidate.trim();
+      if( value.startsWith( "W/" ) ) {
+        value = value.substring( 2 );
+      }
+      if( value.equals( "*" ) || value.equals( etag ) ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String encode( String value ) {
+    try {
+      return URLEncoder.encode( value, "UTF-8" ).replace( "+", "%20" );
+    } catch( UnsupportedEncodingException exception ) {
+      throw new RuntimeException( exception );
+    }
+  }
+
+}
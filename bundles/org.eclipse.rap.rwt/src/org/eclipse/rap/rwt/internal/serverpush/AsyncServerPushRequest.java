@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.serverpush;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.rwt.internal.RWTProperties;
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
+import org.eclipse.rap.rwt.internal.metrics.Metrics;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+
+
+/*
+ * A server push request that is suspended using the Servlet 3 async API instead of blocking the
+ * request thread. The request is completed with an empty response when the client should send a
+ * new UI request.
+ *
+ * Instances are only referenced by the ServerPushManager (transiently) and by the container, they
+ * are never serialized with the UI session.
+ *
+ * Note: this class must only be loaded if the servlet container supports Servlet 3.
+ */
+final class AsyncServerPushRequest implements AsyncListener {
+
+  private final ServerPushManager manager;
+  private final AsyncContext asyncContext;
+  private final Metrics metrics;
+  private final long startTime;
+  private boolean completed;
+
+  static boolean isSupported( HttpServletRequest request ) {
+    ApplicationContextImpl applicationContext = ContextProvider.getApplicationContext();
+    // the application context is null once it has been deactivated
+    if( RWTProperties.isAsyncServerPushEnabled() && applicationContext != null ) {
+      ServletContext servletContext = applicationContext.getServletContext();
+      // Calling isAsyncSupported() on a Servlet 2.x container would fail
+      return servletContext.getMajorVersion() >= 3 && request.isAsyncSupported();
+    }
+    return false;
+  }
+
+  AsyncServerPushRequest( ServerPushManager manager,
+                          HttpServletRequest request,
+                          HttpServletResponse response,
+                          long timeout )
+  {
+    this.manager = manager;
+    metrics = ServerPushManager.getMetrics();
+    startTime = System.nanoTime();
+    asyncContext = request.startAsync( request, response );
+    asyncContext.setTimeout( timeout );
+    asyncContext.addListener( this );
+  }
+
+  void complete() {
+    synchronized( this ) {
+      if( completed ) {
+        return;
+      }
+      completed = true;
+    }
+    ServerPushManager.recordPushWait( metrics, startTime );
+    try {
+      asyncContext.complete();
+    } catch( @SuppressWarnings( "unused" ) IllegalStateException exception ) {
+      // the request has already been completed or recycled by the container
+    }
+  }
+
+  @Override
+  public void onComplete( AsyncEvent event ) {
+    manager.asyncRequestFinished( this );
+  }
+
+  @Override
+  public void onTimeout( AsyncEvent event ) {
+    manager.asyncRequestFinished( this );
+  }
+
+  @Override
+  public void onError( AsyncEvent event ) {
+    manager.asyncRequestFinished( this );
+  }
+
+  @Override
+  public void onStartAsync( AsyncEvent event ) {
+    // nothing to do
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2007, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,15 +11,21 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.serverpush;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 import java.io.IOException;
 import java.io.PrintWriter;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
 import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
+import org.eclipse.rap.rwt.internal.metrics.Metrics;
 import org.eclipse.rap.rwt.internal.service.ContextProvider;
 import org.eclipse.rap.rwt.internal.service.ServiceStore;
+import org.eclipse.rap.rwt.internal.service.UISessionImpl;
 import org.eclipse.rap.rwt.internal.util.SerializableLock;
 import org.eclipse.rap.rwt.service.UISession;
 import org.eclipse.rap.rwt.service.UISessionEvent;
@@ -34,6 +40,7 @@ public final class ServerPushManager implements SerializableCompatibility {
 
   private final ServerPushActivationTracker serverPushActivationTracker;
   private final SerializableLock lock;
+  private final AsyncRequestTerminationListener asyncRequestTerminationListener;
   // Flag that indicates whether a request is processed. In that case no
   // notifications are sent to the client.
   private boolean uiThreadRunning;
@@ -41,6 +48,8 @@ public final class ServerPushManager implements SerializableCompatibility {
   private boolean hasRunnables;
   private int requestCheckInterval;
   private transient ServerPushRequestTracker serverPushRequestTracker;
+  // the suspended request if the container supports asynchronous processing
+  private transient AsyncServerPushRequest asyncRequest;
 
   private ServerPushManager() {
     lock = new SerializableLock();
@@ -48,6 +57,7 @@ public final class ServerPushManager implements SerializableCompatibility {
     uiThreadRunning = false;
     requestCheckInterval = DEFAULT_REQUEST_CHECK_INTERVAL;
     serverPushRequestTracker = new ServerPushRequestTracker();
+    asyncRequestTerminationListener = new AsyncRequestTerminationListener( this );
   }
 
   public static ServerPushManager getInstance() {
@@ -56,22 +66,28 @@ public final class ServerPushManager implements SerializableCompatibility {
 
   public boolean isCallBackRequestBlocked() {
     synchronized( lock ) {
-      return !serverPushRequestTracker.hasActive();
+      return !serverPushRequestTracker.hasActive() || asyncRequest != null;
     }
   }
 
   public void wakeClient() {
+    AsyncServerPushRequest releasedRequest = null;
     synchronized( lock ) {
       if( !uiThreadRunning ) {
-        releaseBlockedRequest();
+        lock.notifyAll();
+        releasedRequest = takeAsyncRequest();
       }
     }
+    complete( releasedRequest );
   }
 
   public void releaseBlockedRequest() {
+    AsyncServerPushRequest releasedRequest;
     synchronized( lock ) {
       lock.notifyAll();
+      releasedRequest = takeAsyncRequest();
     }
+    complete( releasedRequest );
   }
 
   public void setHasRunnables( boolean hasRunnables ) {
@@ -95,20 +111,26 @@ public final class ServerPushManager implements SerializableCompatibility {
   }
 
   public void notifyUIThreadEnd() {
+    AsyncServerPushRequest releasedRequest = null;
     synchronized( lock ) {
       uiThreadRunning = false;
       if( hasRunnables ) {
-        wakeClient();
+        lock.notifyAll();
+        releasedRequest = takeAsyncRequest();
       }
     }
+    complete( releasedRequest );
   }
 
   public void activateServerPushFor( Object handle ) {
     serverPushActivationTracker.activate( handle );
+    markSessionChanged();
   }
 
   public void deactivateServerPushFor( Object handle ) {
     serverPushActivationTracker.deactivate( handle );
+    // may be called from a background thread, outside of a UI request
+    markSessionChanged();
     if( !serverPushActivationTracker.isActive() ) {
       releaseBlockedRequest();
     }
@@ -124,6 +146,14 @@ public final class ServerPushManager implements SerializableCompatibility {
     return isServerPushActive() || forceServerPushForPendingRunnables();
   }
 
+  void processRequest( HttpServletRequest request, HttpServletResponse response ) {
+    if( AsyncServerPushRequest.isSupported( request ) ) {
+      suspendRequest( request, response );
+    } else {
+      processRequest( response );
+    }
+  }
+
   void processRequest( HttpServletResponse response ) {
     synchronized( lock ) {
       if( isCallBackRequestBlocked() ) {
@@ -131,6 +161,9 @@ public final class ServerPushManager implements SerializableCompatibility {
       }
       if( mustBlockCallBackRequest() ) {
         long requestStartTime = System.currentTimeMillis();
+        // the context may be disposed while waiting
+        Metrics metrics = getMetrics();
+        long waitStartTime = System.nanoTime();
         serverPushRequestTracker.activate( Thread.currentThread() );
         TerminationListener listener = attachTerminationListener();
         try {
@@ -144,11 +177,57 @@ public final class ServerPushManager implements SerializableCompatibility {
         } finally {
           listener.detach();
           serverPushRequestTracker.deactivate( Thread.currentThread() );
+          recordPushWait( metrics, waitStartTime );
         }
       }
     }
   }
 
+  private void suspendRequest( HttpServletRequest request, HttpServletResponse response ) {
+    AsyncServerPushRequest releasedRequest;
+    AsyncServerPushRequest suspendedRequest = null;
+    synchronized( lock ) {
+      lock.notifyAll();
+      releasedRequest = takeAsyncRequest();
+      if( mustBlockCallBackRequest() ) {
+        suspendedRequest = new AsyncServerPushRequest( this, request, response, getAsyncTimeout() );
+        asyncRequest = suspendedRequest;
+      }
+    }
+    complete( releasedRequest );
+    if( suspendedRequest != null && !attachAsyncRequestTerminationListener() ) {
+      // the UI session is about to be destroyed
+      asyncRequestFinished( suspendedRequest );
+    }
+  }
+
+  private boolean attachAsyncRequestTerminationListener() {
+    // the listener is serialized with the UI session and stays valid after deserialization
+    UISession uiSession = ContextProvider.getUISession();
+    return uiSession.addUISessionListener( asyncRequestTerminationListener );
+  }
+
+  void asyncRequestFinished( AsyncServerPushRequest request ) {
+    synchronized( lock ) {
+      if( asyncRequest == request ) {
+        asyncRequest = null;
+      }
+    }
+    request.complete();
+  }
+
+  private AsyncServerPushRequest takeAsyncRequest() {
+    AsyncServerPushRequest result = asyncRequest;
+    asyncRequest = null;
+    return result;
+  }
+
+  private static void complete( AsyncServerPushRequest request ) {
+    if( request != null ) {
+      request.complete();
+    }
+  }
+
   private boolean canReleaseBlockedRequest( HttpServletResponse response, long requestStartTime ) {
     boolean result = false;
     if( !mustBlockCallBackRequest() ) {
@@ -176,6 +255,29 @@ public final class ServerPushManager implements SerializableCompatibility {
     return this;
   }
 
+  static Metrics getMetrics() {
+    ApplicationContextImpl applicationContext = ContextProvider.getApplicationContext();
+    return applicationContext == null ? null : applicationContext.getMetrics();
+  }
+
+  static void recordPushWait( Metrics metrics, long waitStartTime ) {
+    if( metrics != null ) {
+      metrics.recordPushWait( NANOSECONDS.toMicros( System.nanoTime() - waitStartTime ) );
+    }
+  }
+
+  private static long getAsyncTimeout() {
+    UISession uiSession = ContextProvider.getUISession();
+    int maxInactiveInterval = uiSession.getHttpSession().getMaxInactiveInterval();
+    return maxInactiveInterval > 0 ? maxInactiveInterval * 1000L : 0;
+  }
+
+  private static void markSessionChanged() {
+    if( ContextProvider.hasContext() ) {
+      ( ( UISessionImpl )ContextProvider.getUISession() ).markChanged();
+    }
+  }
+
   private static TerminationListener attachTerminationListener() {
     UISession uiSession = ContextProvider.getUISession();
     TerminationListener result = new TerminationListener( uiSession );
@@ -219,6 +321,21 @@ public final class ServerPushManager implements SerializableCompatibility {
     return result;
   }
 
+  private static class AsyncRequestTerminationListener implements UISessionListener {
+
+    private final ServerPushManager manager;
+
+    private AsyncRequestTerminationListener( ServerPushManager manager ) {
+      this.manager = manager;
+    }
+
+    @Override
+    public void beforeDestroy( UISessionEvent event ) {
+      manager.releaseBlockedRequest();
+    }
+
+  }
+
   private static class TerminationListener implements UISessionListener {
 
     private transient final Thread currentThread;
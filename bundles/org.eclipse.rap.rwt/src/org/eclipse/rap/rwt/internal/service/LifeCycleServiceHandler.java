@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,13 +15,17 @@ import static javax.servlet.http.HttpServletResponse.SC_FORBIDDEN;
 import static javax.servlet.http.HttpServletResponse.SC_PRECONDITION_FAILED;
 import static org.eclipse.rap.rwt.internal.protocol.ClientMessageConst.REQUEST_COUNTER;
 import static org.eclipse.rap.rwt.internal.protocol.ClientMessageConst.SHUTDOWN;
+import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
 import static org.eclipse.rap.rwt.internal.service.ContextProvider.getUISession;
 import static org.eclipse.rap.rwt.internal.util.HTTP.CHARSET_UTF_8;
 import static org.eclipse.rap.rwt.internal.util.HTTP.CONTENT_TYPE_JSON;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -29,12 +33,16 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.lifecycle.RequestCounter;
+import org.eclipse.rap.rwt.internal.metrics.RequestTrace;
 import org.eclipse.rap.rwt.internal.protocol.ClientMessage;
+import org.eclipse.rap.rwt.internal.protocol.Message;
 import org.eclipse.rap.rwt.internal.protocol.ProtocolMessageWriter;
 import org.eclipse.rap.rwt.internal.protocol.RequestMessage;
 import org.eclipse.rap.rwt.internal.protocol.ResponseMessage;
 import org.eclipse.rap.rwt.internal.remote.MessageChainReference;
+import org.eclipse.rap.rwt.internal.service.ResponseCompressor.ResponseStream;
 import org.eclipse.rap.rwt.service.ServiceHandler;
 import org.eclipse.rap.rwt.service.UISession;
 
@@ -44,11 +52,20 @@ public class LifeCycleServiceHandler implements ServiceHandler {
   private static final String PROP_ERROR = "error";
   private static final String ATTR_LAST_RESPONSE_MESSAGE
     = LifeCycleServiceHandler.class.getName() + "#lastResponseMessage";
+  private static final int RESPONSE_BUFFER_SIZE = 8192;
 
   private final MessageChainReference messageChainReference;
+  private final ResponseCompressor responseCompressor;
 
   public LifeCycleServiceHandler( MessageChainReference messageChainReference ) {
+    this( messageChainReference, createResponseCompressor() );
+  }
+
+  LifeCycleServiceHandler( MessageChainReference messageChainReference,
+                           ResponseCompressor responseCompressor )
+  {
     this.messageChainReference = messageChainReference;
+    this.responseCompressor = responseCompressor;
   }
 
   @Override
@@ -58,7 +75,7 @@ public class LifeCycleServiceHandler implements ServiceHandler {
     UISessionImpl uiSession = ( UISessionImpl )getUISession();
     if( uiSession == null ) {
       setJsonResponseHeaders( response );
-      writeSessionTimeoutError( response );
+      writeSessionTimeoutError( request, response );
     } else {
       // Do not use uiSession itself as a lock
       // see bug https://bugs.eclipse.org/bugs/show_bug.cgi?id=372946
@@ -84,22 +101,46 @@ public class LifeCycleServiceHandler implements ServiceHandler {
 
   private void processUIRequest( HttpServletRequest request, HttpServletResponse response )
     throws IOException
+  {
+    RequestTrace trace = RequestTrace.start( getApplicationContext().getMetrics() );
+    try {
+      processUIRequest( request, response, trace );
+    } finally {
+      if( trace != null ) {
+        trace.finish();
+      }
+    }
+  }
+
+  private void processUIRequest( HttpServletRequest request,
+                                 HttpServletResponse response,
+                                 RequestTrace trace )
+    throws IOException
   {
     RequestMessage requestMessage = readRequestMessage( request );
+    if( trace != null ) {
+      int contentLength = Math.max( 0, request.getContentLength() );
+      trace.setRequest( contentLength, requestMessage.getOperations().size() );
+    }
     setJsonResponseHeaders( response );
     if( isSessionShutdown( requestMessage ) ) {
       shutdownUISession();
-      writeEmptyMessage( response );
+      writeEmptyMessage( request, response );
     } else if( !isRequestCounterValid( requestMessage ) ) {
       if( isDuplicateRequest( requestMessage ) ) {
-        writeBufferedResponse( response );
+        writeBufferedResponse( request, response );
       } else {
-        writeInvalidRequestCounterError( response );
+        writeInvalidRequestCounterError( request, response );
       }
     } else {
       ResponseMessage responseMessage = processMessage( requestMessage );
-      writeResponseMessage( responseMessage, response );
+      int contentLength = writeResponseMessage( responseMessage, request, response );
+      if( trace != null ) {
+        trace.setResponse( contentLength, responseMessage.getOperations().size() );
+      }
       RequestCounter.getInstance().nextRequestId();
+      // processing the message may have changed the widget tree
+      ( ( UISessionImpl )getUISession() ).markChanged();
     }
   }
 
@@ -148,24 +189,28 @@ public class LifeCycleServiceHandler implements ServiceHandler {
     uiSession.shutdown();
   }
 
-  private static void writeInvalidRequestCounterError( HttpServletResponse response )
+  private void writeInvalidRequestCounterError( HttpServletRequest request,
+                                                HttpServletResponse response )
     throws IOException
   {
-    writeError( response, SC_PRECONDITION_FAILED, "invalid request counter" );
+    writeError( request, response, SC_PRECONDITION_FAILED, "invalid request counter" );
   }
 
-  private static void writeSessionTimeoutError( HttpServletResponse response ) throws IOException {
-    writeError( response, SC_FORBIDDEN, "session timeout" );
+  private void writeSessionTimeoutError( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    writeError( request, response, SC_FORBIDDEN, "session timeout" );
   }
 
-  private static void writeError( HttpServletResponse response,
-                                  int statusCode,
-                                  String errorType ) throws IOException
+  private void writeError( HttpServletRequest request,
+                           HttpServletResponse response,
+                           int statusCode,
+                           String errorType ) throws IOException
   {
     response.setStatus( statusCode );
     ProtocolMessageWriter writer = new ProtocolMessageWriter();
     writer.appendHead( PROP_ERROR, JsonValue.valueOf( errorType ) );
-    writer.createMessage().toJson().writeTo( response.getWriter() );
+    writeMessage( writer.createMessage(), request, response );
   }
 
   private static boolean isSessionShutdown( RequestMessage requestMessage ) {
@@ -177,20 +222,43 @@ public class LifeCycleServiceHandler implements ServiceHandler {
     response.setCharacterEncoding( CHARSET_UTF_8 );
   }
 
-  private static void writeEmptyMessage( ServletResponse response ) throws IOException {
-    new ProtocolMessageWriter().createMessage().toJson().writeTo( response.getWriter() );
+  private void writeEmptyMessage( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    writeMessage( new ProtocolMessageWriter().createMessage(), request, response );
   }
 
-  private static void writeResponseMessage( ResponseMessage responseMessage,
-                                            ServletResponse response )
+  private int writeResponseMessage( ResponseMessage responseMessage,
+                                    HttpServletRequest request,
+                                    HttpServletResponse response )
     throws IOException
   {
     bufferMessage( responseMessage );
-    responseMessage.toJson().writeTo( response.getWriter() );
+    return writeMessage( responseMessage, request, response );
   }
 
-  private static void writeBufferedResponse( HttpServletResponse response ) throws IOException {
-    getBufferedMessage().toJson().writeTo( response.getWriter() );
+  private void writeBufferedResponse( HttpServletRequest request, HttpServletResponse response )
+    throws IOException
+  {
+    writeMessage( getBufferedMessage(), request, response );
+  }
+
+  /*
+   * The message is written operation by operation as UTF-8 directly to the response, compressed
+   * if the client accepts it. Returns the uncompressed length of the message in bytes.
+   */
+  private int writeMessage( Message message,
+                            HttpServletRequest request,
+                            HttpServletResponse response )
+    throws IOException
+  {
+    ResponseStream stream = responseCompressor.createStream( request, response );
+    Writer writer = new BufferedWriter( new OutputStreamWriter( stream, CHARSET_UTF_8 ),
+                                        RESPONSE_BUFFER_SIZE );
+    message.writeTo( writer );
+    writer.flush();
+    stream.finish();
+    return stream.getSize();
   }
 
   private static void bufferMessage( ResponseMessage responseMessage ) {
@@ -204,4 +272,10 @@ public class LifeCycleServiceHandler implements ServiceHandler {
     return ( ResponseMessage )getUISession().getAttribute( ATTR_LAST_RESPONSE_MESSAGE );
   }
 
+  private static ResponseCompressor createResponseCompressor() {
+    int threshold
+      = RWTProperties.getResponseCompressionThreshold( ResponseCompressor.DEFAULT_THRESHOLD );
+    return new ResponseCompressor( RWTProperties.isResponseCompressionEnabled(), threshold );
+  }
+
 }
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.service;
+
+import static org.eclipse.rap.rwt.internal.util.HTTP.acceptsGzip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+
+/**
+ * Compresses protocol responses in gzip format for clients that accept it. Responses smaller
+ * than the threshold are sent as is, compressing them would not pay off. The native deflaters are
+ * pooled since creating and releasing them for every response is expensive.
+ */
+final class ResponseCompressor {
+
+  static final int DEFAULT_THRESHOLD = 1024;
+  private static final int POOL_SIZE = 16;
+  private static final int BUFFER_SIZE = 8192;
+  private static final byte[] GZIP_HEADER = new byte[] {
+    ( byte )0x1f, ( byte )0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, ( byte )0xff
+  };
+
+  private final boolean enabled;
+  private final int threshold;
+  private final BlockingQueue<Deflater> deflaters;
+
+  ResponseCompressor( boolean enabled, int threshold ) {
+    this.enabled = enabled;
+    this.threshold = threshold;
+    deflaters = new ArrayBlockingQueue<>( POOL_SIZE );
+  }
+
+  /**
+   * Returns whether the response to the given request may be compressed.
+   */
+  boolean canCompress( HttpServletRequest request ) {
+    return enabled && acceptsGzip( request );
+  }
+
+  /**
+   * Returns a stream that writes to the output stream of the given response. If the response may
+   * be compressed, the content is buffered until it reaches the threshold and compressed from then
+   * on. The stream must be finished with {@link ResponseStream#finish()}.
+   */
+  ResponseStream createStream( HttpServletRequest request, HttpServletResponse response ) {
+    if( enabled ) {
+      response.setHeader( "Vary", "Accept-Encoding" );
+    }
+    return new ResponseStream( response, canCompress( request ) );
+  }
+
+  int getPooledDeflaterCount() {
+    return deflaters.size();
+  }
+
+  private Deflater acquireDeflater() {
+    Deflater deflater = deflaters.poll();
+    return deflater != null ? deflater : new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+  }
+
+  private void releaseDeflater( Deflater deflater ) {
+    deflater.reset();
+    if( !deflaters.offer( deflater ) ) {
+      deflater.end();
+    }
+  }
+
+  final class ResponseStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private final boolean compressible;
+    private byte[] buffer;
+    private int bufferSize;
+    private int size;
+    private OutputStream target;
+    private GzipOutputStream gzipStream;
+
+    private ResponseStream( HttpServletResponse response, boolean compressible ) {
+      this.response = response;
+      this.compressible = compressible;
+    }
+
+    @Override
+    public void write( int value ) throws IOException {
+      write( new byte[] { ( byte )value }, 0, 1 );
+    }
+
+    @Override
+    public void write( byte[] bytes, int offset, int length ) throws IOException {
+      if( target == null && compressible && bufferSize + length < threshold ) {
+        if( buffer == null ) {
+          buffer = new byte[ threshold ];
+        }
+        System.arraycopy( bytes, offset, buffer, bufferSize, length );
+        bufferSize += length;
+      } else {
+        getTarget().write( bytes, offset, length );
+      }
+      size += length;
+    }
+
+    /**
+     * Writes the remaining content to the response. Does not close the response output stream.
+     */
+    void finish() throws IOException {
+      if( target == null ) {
+        // the content is below the threshold
+        response.setContentLength( bufferSize );
+        if( bufferSize > 0 ) {
+          response.getOutputStream().write( buffer, 0, bufferSize );
+        }
+      } else if( gzipStream != null ) {
+        try {
+          gzipStream.finish();
+        } finally {
+          releaseDeflater( gzipStream.getDeflater() );
+          gzipStream = null;
+        }
+      }
+    }
+
+    /**
+     * Returns the number of bytes written to this stream before compression.
+     */
+    int getSize() {
+      return size;
+    }
+
+    private OutputStream getTarget() throws IOException {
+      if( target == null ) {
+        if( compressible ) {
+          response.setHeader( "Content-Encoding", "gzip" );
+          gzipStream = new GzipOutputStream( response.getOutputStream(), acquireDeflater() );
+          target = gzipStream;
+        } else {
+          target = response.getOutputStream();
+        }
+        if( bufferSize > 0 ) {
+          target.write( buffer, 0, bufferSize );
+        }
+        buffer = null;
+      }
+      return target;
+    }
+
+  }
+
+  /*
+   * Writes the gzip format (RFC 1952) with a given deflater, java.util.zip.GZIPOutputStream would
+   * create a new one for every response.
+   */
+  private static final class GzipOutputStream extends DeflaterOutputStream {
+
+    private final CRC32 checksum;
+
+    GzipOutputStream( OutputStream out, Deflater deflater ) throws IOException {
+      super( out, deflater, BUFFER_SIZE );
+      checksum = new CRC32();
+      out.write( GZIP_HEADER );
+    }
+
+    @Override
+    public void write( byte[] bytes, int offset, int length ) throws IOException {
+      super.write( bytes, offset, length );
+      checksum.update( bytes, offset, length );
+    }
+
+    @Override
+    public void finish() throws IOException {
+      super.finish();
+      writeInt( ( int )checksum.getValue() );
+      writeInt( ( int )def.getBytesRead() );
+    }
+
+    Deflater getDeflater() {
+      return def;
+    }
+
+    private void writeInt( int value ) throws IOException {
+      out.write( value & 0xff );
+      out.write( ( value >> 8 ) & 0xff );
+      out.write( ( value >> 16 ) & 0xff );
+      out.write( ( value >> 24 ) & 0xff );
+    }
+
+  }
+
+}
@@ -20,6 +20,7 @@ import javax.servlet.http.HttpSession;
 import org.eclipse.rap.rwt.internal.SingletonManager;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.client.ClientMessages;
+import org.eclipse.rap.rwt.internal.metrics.Metrics;
 import org.eclipse.rap.rwt.internal.textsize.MeasurementUtil;
 import org.eclipse.rap.rwt.internal.theme.ThemeUtil;
 
@@ -46,6 +47,7 @@ public class UISessionBuilder {
     selectClient();
     updateClientMessages();
     renderConnectionId();
+    countUISession();
     return uiSession;
   }
 
@@ -71,6 +73,13 @@ public class UISessionBuilder {
     serviceContext.getProtocolWriter().appendHead( CONNECTION_ID, connectionId );
   }
 
+  private void countUISession() {
+    Metrics metrics = uiSession.getApplicationContext().getMetrics();
+    if( metrics != null ) {
+      metrics.uiSessionCreated( uiSession );
+    }
+  }
+
   private static String generateConnectionId() {
     return UUID.randomUUID().toString().substring( 0, 8 );
   }
@@ -58,6 +58,7 @@ public class UISessionImpl
   private Connection connection;
   private boolean bound;
   private boolean inDestroy;
+  private transient volatile boolean changed;
   private transient HttpSession httpSession;
   private transient ISessionShutdownAdapter shutdownAdapter;
   private transient ApplicationContextImpl applicationContext;
@@ -88,9 +89,25 @@ public class UISessionImpl
   }
 
   public void attachToHttpSession() {
+    changed = false;
     httpSession.setAttribute( getUISessionAttributeName( connectionId ), this );
   }
 
+  /**
+   * Marks this UI session as changed. In a cluster, a changed UI session has to be replicated after
+   * the current request.
+   */
+  public void markChanged() {
+    changed = true;
+  }
+
+  /**
+   * Returns whether the UI session has been changed since it was last attached to the HTTP session.
+   */
+  public boolean isChanged() {
+    return changed;
+  }
+
   public void setApplicationContext( ApplicationContextImpl applicationContext ) {
     if( this.applicationContext != null ) {
       this.applicationContext.removeApplicationContextListener( this );
@@ -157,6 +174,7 @@ public class UISessionImpl
       if( bound ) {
         result = true;
         attributes.put( name, value );
+        changed = true;
       }
     }
     return result;
@@ -170,6 +188,7 @@ public class UISessionImpl
       if( bound ) {
         result = true;
         attributes.remove( name );
+        changed = true;
       }
     }
     return result;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Frank Appel and others.
+ * Copyright (c) 2011, 2020 Frank Appel and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,8 +19,12 @@ import static org.eclipse.rap.rwt.internal.textsize.MeasurementUtil.getId;
 import static org.eclipse.rap.rwt.remote.JsonMapping.readPoint;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.rap.json.JsonArray;
@@ -35,6 +39,7 @@ import org.eclipse.rap.rwt.remote.RemoteObject;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.internal.SerializableCompatibility;
+import org.eclipse.swt.widgets.Widget;
 
 
 class MeasurementOperator implements SerializableCompatibility {
@@ -48,6 +53,8 @@ class MeasurementOperator implements SerializableCompatibility {
   private final RemoteObject remoteObject;
   private final Set<Probe> probes;
   private final Set<MeasurementItem> items;
+  // the widgets that depend on an item, a null element stands for an unknown dependant
+  private final Map<MeasurementItem, Set<Widget>> itemOwners;
 
   MeasurementOperator() {
     ConnectionImpl connection = ( ConnectionImpl )RWT.getUISession().getConnection();
@@ -55,6 +62,7 @@ class MeasurementOperator implements SerializableCompatibility {
     remoteObject.setHandler( new MeasurementOperatorHandler() );
     probes = new HashSet<>();
     items = new HashSet<>();
+    itemOwners = new HashMap<>();
     addStartupProbesToBuffer();
   }
 
@@ -88,7 +96,22 @@ class MeasurementOperator implements SerializableCompatibility {
   }
 
   void addItemToMeasure( MeasurementItem newItem ) {
+    addItemToMeasure( newItem, null );
+  }
+
+  void addItemToMeasure( MeasurementItem newItem, Widget owner ) {
     items.add( newItem );
+    Set<Widget> owners = itemOwners.get( newItem );
+    if( owners == null ) {
+      owners = new LinkedHashSet<>();
+      itemOwners.put( newItem, owners );
+    }
+    owners.add( owner );
+  }
+
+  Set<Widget> getItemOwners( MeasurementItem item ) {
+    Set<Widget> owners = itemOwners.get( item );
+    return owners != null ? owners : Collections.<Widget>emptySet();
   }
 
   void renderMeasurementItems() {
@@ -123,8 +146,11 @@ class MeasurementOperator implements SerializableCompatibility {
             @Override
             public void run() {
               handleMeasuredFontProbeSizes( results );
-              if( handleMeasuredTextSizes( results ) ) {
+              Set<Widget> owners = handleMeasuredTextSizes( results );
+              if( owners.contains( null ) ) {
                 TextSizeRecalculation.execute();
+              } else if( !owners.isEmpty() ) {
+                TextSizeRecalculation.execute( owners );
               }
             }
           } );
@@ -144,8 +170,11 @@ class MeasurementOperator implements SerializableCompatibility {
       }
     }
 
-    private boolean handleMeasuredTextSizes( JsonObject results ) {
-      int originalItemsSize = items.size();
+    /*
+     * Returns the owners of all measured items, i.e. the widgets that have to be recalculated.
+     */
+    private Set<Widget> handleMeasuredTextSizes( JsonObject results ) {
+      Set<Widget> result = new LinkedHashSet<>();
       Iterator<MeasurementItem> itemList = items.iterator();
       while( itemList.hasNext() ) {
         MeasurementItem item = itemList.next();
@@ -153,9 +182,15 @@ class MeasurementOperator implements SerializableCompatibility {
         if( size != null ) {
           storeTextMeasurement( item, size );
           itemList.remove();
+          Set<Widget> owners = itemOwners.remove( item );
+          if( owners != null ) {
+            result.addAll( owners );
+          } else {
+            result.add( null );
+          }
         }
       }
-      return originalItemsSize != items.size();
+      return result;
     }
 
     private Point readMeasuredSize( JsonObject results, String id ) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 Frank Appel and others.
+ * Copyright (c) 2011, 2020 Frank Appel and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -61,7 +61,7 @@ public class MeasurementUtil {
   static void addItemToMeasure( String toMeasure, Font font, int wrapWidth, int mode ) {
     FontData fontData = FontUtil.getData( font );
     MeasurementItem newItem = new MeasurementItem( toMeasure, fontData, wrapWidth, mode );
-    getMeasurementOperator().addItemToMeasure( newItem );
+    getMeasurementOperator().addItemToMeasure( newItem, TextSizeUtil.getCurrentOwner() );
   }
 
   public static MeasurementOperator getMeasurementOperator() {
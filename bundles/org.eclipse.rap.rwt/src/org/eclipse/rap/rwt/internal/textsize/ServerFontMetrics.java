@@ -0,0 +1,265 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.textsize;
+
+import static org.eclipse.rap.rwt.internal.protocol.ProtocolUtil.parseFontName;
+import static org.eclipse.rap.rwt.internal.util.EncodingUtil.splitNewLines;
+
+import java.awt.Font;
+import java.awt.GraphicsEnvironment;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.rap.rwt.internal.RWTProperties;
+import org.eclipse.rap.rwt.internal.service.ServletLog;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Point;
+
+
+/**
+ * Measures texts on the server using the font metrics of <code>java.awt</code>. Only fonts whose
+ * first family is installed on the server can be measured, texts in any other font are still
+ * measured by the client. The glyph advances of the Latin-1 characters are computed once per font
+ * and kept in a table.
+ * <p>
+ * Server-side measurement is only correct if the client renders the same fonts as the server,
+ * e.g. when the theme uses web fonts that are installed on the server as well. It is therefore
+ * disabled by default.
+ * </p>
+ */
+final class ServerFontMetrics {
+
+  static final int MAX_CACHED_FONTS = 128;
+  private static final int TABLE_SIZE = 256;
+  // at 72 dpi, 1 pt == 1 px
+  private static final FontRenderContext RENDER_CONTEXT = new FontRenderContext( null, true, true );
+  // logical java.awt fonts, these are mapped to other physical fonts than in the browser
+  private static final List<String> LOGICAL_FAMILIES
+    = Arrays.asList( "dialog", "dialoginput", "monospaced", "sansserif", "serif" );
+
+  private final Set<String> families;
+  private final Map<FontData, GlyphMetrics> metrics;
+
+  /**
+   * Returns the shared instance or <code>null</code> if server-side text measurement is
+   * disabled.
+   */
+  static ServerFontMetrics getInstance() {
+    return RWTProperties.isServerTextMeasurementEnabled() ? InstanceHolder.INSTANCE : null;
+  }
+
+  ServerFontMetrics( Collection<String> families ) {
+    this.families = new HashSet<>();
+    for( String family : families ) {
+      this.families.add( family.toLowerCase( Locale.ENGLISH ) );
+    }
+    metrics = new ConcurrentHashMap<>();
+  }
+
+  boolean canMeasure( FontData fontData ) {
+    return getFamily( fontData ) != null;
+  }
+
+  int getCharHeight( FontData fontData ) {
+    return getMetrics( fontData ).lineHeight;
+  }
+
+  float getAvgCharWidth( FontData fontData ) {
+    String probeText = Probe.DEFAULT_PROBE_STRING;
+    float width = getMetrics( fontData ).getWidth( probeText, 0, probeText.length() );
+    return Math.round( width * 100 / probeText.length() ) / 100f;
+  }
+
+  /**
+   * Returns the size of the given string, line breaks are not respected.
+   */
+  Point stringExtent( FontData fontData, String string ) {
+    GlyphMetrics glyphMetrics = getMetrics( fontData );
+    int width = ceil( glyphMetrics.getWidth( string, 0, string.length() ) );
+    return new Point( width, glyphMetrics.lineHeight );
+  }
+
+  /**
+   * Returns the size of the given text, respecting line breaks and wrapping at spaces.
+   *
+   * @param wrapWidth the width to wrap at in pixels, 0 or negative stands for no wrapping
+   */
+  Point textExtent( FontData fontData, String text, int wrapWidth ) {
+    GlyphMetrics glyphMetrics = getMetrics( fontData );
+    int lineCount = 0;
+    float maxWidth = 0;
+    for( String line : splitNewLines( text ) ) {
+      int start = 0;
+      do {
+        int end = findLineEnd( glyphMetrics, line, start, wrapWidth );
+        maxWidth = Math.max( maxWidth, glyphMetrics.getWidth( line, start, end ) );
+        lineCount++;
+        start = skipSpaces( line, end );
+      } while( start < line.length() );
+    }
+    return new Point( ceil( maxWidth ), glyphMetrics.lineHeight * lineCount );
+  }
+
+  int getCachedFontCount() {
+    return metrics.size();
+  }
+
+  private GlyphMetrics getMetrics( FontData fontData ) {
+    GlyphMetrics result = metrics.get( fontData );
+    if( result == null ) {
+      String family = getFamily( fontData );
+      if( family == null ) {
+        throw new IllegalArgumentException( "Font family not available: " + fontData.getName() );
+      }
+      result = new GlyphMetrics( createFont( family, fontData ) );
+      if( metrics.size() >= MAX_CACHED_FONTS ) {
+        metrics.clear();
+      }
+      metrics.put( fontData, result );
+    }
+    return result;
+  }
+
+  private String getFamily( FontData fontData ) {
+    String[] names = parseFontName( fontData.getName() );
+    if( names.length > 0 ) {
+      String family = names[ 0 ].trim();
+      if( families.contains( family.toLowerCase( Locale.ENGLISH ) ) ) {
+        return family;
+      }
+    }
+    return null;
+  }
+
+  /*
+   * Returns the end of the line that starts at the given index. Lines are wrapped at the last
+   * space that fits, a single word that is wider than the wrap width is not broken.
+   */
+  private static int findLineEnd( GlyphMetrics glyphMetrics,
+                                  String line,
+                                  int start,
+                                  int wrapWidth )
+  {
+    int length = line.length();
+    if( wrapWidth <= 0 ) {
+      return length;
+    }
+    float width = 0;
+    int lastSpace = -1;
+    for( int i = start; i < length; i++ ) {
+      char ch = line.charAt( i );
+      if( ch == ' ' ) {
+        if( width > wrapWidth ) {
+          return i;
+        }
+        lastSpace = i;
+      }
+      width += glyphMetrics.getAdvance( ch );
+      if( width > wrapWidth && lastSpace != -1 ) {
+        return lastSpace;
+      }
+    }
+    return length;
+  }
+
+  private static int skipSpaces( String line, int index ) {
+    int result = index;
+    while( result < line.length() && line.charAt( result ) == ' ' ) {
+      result++;
+    }
+    return result;
+  }
+
+  private static Font createFont( String family, FontData fontData ) {
+    int style = Font.PLAIN;
+    if( ( fontData.getStyle() & SWT.BOLD ) != 0 ) {
+      style |= Font.BOLD;
+    }
+    if( ( fontData.getStyle() & SWT.ITALIC ) != 0 ) {
+      style |= Font.ITALIC;
+    }
+    return new Font( family, style, fontData.getHeight() );
+  }
+
+  private static int ceil( float value ) {
+    return ( int )Math.ceil( value );
+  }
+
+  private static Set<String> getInstalledFamilies() {
+    Set<String> result = new HashSet<>();
+    try {
+      GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+      for( String family : environment.getAvailableFontFamilyNames( Locale.ENGLISH ) ) {
+        if( !LOGICAL_FAMILIES.contains( family.toLowerCase( Locale.ENGLISH ) ) ) {
+          result.add( family );
+        }
+      }
+    } catch( RuntimeException | LinkageError exception ) {
+      ServletLog.log( "Failed to load server fonts, texts are measured by the client", exception );
+    }
+    return Collections.unmodifiableSet( result );
+  }
+
+  private static final class InstanceHolder {
+    static final ServerFontMetrics INSTANCE = new ServerFontMetrics( getInstalledFamilies() );
+  }
+
+  private static final class GlyphMetrics {
+
+    final Font font;
+    final float[] advances;
+    final int lineHeight;
+
+    GlyphMetrics( Font font ) {
+      this.font = font;
+      advances = new float[ TABLE_SIZE ];
+      char[] chars = new char[ 1 ];
+      for( int i = 0; i < TABLE_SIZE; i++ ) {
+        chars[ 0 ] = ( char )i;
+        advances[ i ] = ( float )font.getStringBounds( chars, 0, 1, RENDER_CONTEXT ).getWidth();
+      }
+      LineMetrics lineMetrics = font.getLineMetrics( "Hg", RENDER_CONTEXT );
+      lineHeight = ceil( lineMetrics.getHeight() );
+    }
+
+    float getAdvance( char ch ) {
+      if( ch < TABLE_SIZE ) {
+        return advances[ ch ];
+      }
+      return ( float )font.getStringBounds( String.valueOf( ch ), RENDER_CONTEXT ).getWidth();
+    }
+
+    float getWidth( String string, int start, int end ) {
+      float result = 0;
+      for( int i = start; i < end; i++ ) {
+        char ch = string.charAt( i );
+        if( ch >= TABLE_SIZE ) {
+          // let java.awt lay out texts with other scripts as a whole
+          return ( float )font.getStringBounds( string, start, end, RENDER_CONTEXT ).getWidth();
+        }
+        result += advances[ ch ];
+      }
+      return result;
+    }
+
+  }
+
+}
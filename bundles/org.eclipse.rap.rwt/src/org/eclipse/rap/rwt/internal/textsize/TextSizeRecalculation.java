@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 Frank Appel and others.
+ * Copyright (c) 2011, 2020 Frank Appel and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,16 +11,30 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.textsize;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.eclipse.rap.rwt.internal.lifecycle.LifeCycleUtil;
 import org.eclipse.rap.rwt.internal.service.ContextProvider;
 import org.eclipse.rap.rwt.internal.service.ServiceStore;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.ScrolledComposite;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.internal.widgets.ControlUtil;
+import org.eclipse.swt.internal.widgets.IControlAdapter;
 import org.eclipse.swt.internal.widgets.IDisplayAdapter;
 import org.eclipse.swt.internal.widgets.IShellAdapter;
 import org.eclipse.swt.internal.widgets.WidgetTreeUtil;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TreeColumn;
+import org.eclipse.swt.widgets.Widget;
 
 
 class TextSizeRecalculation {
@@ -37,6 +51,108 @@ class TextSizeRecalculation {
     }
   }
 
+  /**
+   * Recalculates only the given widgets, i.e. the widgets that depend on the measured text sizes,
+   * and re-layouts their ancestors. Shells that contain none of the widgets are left untouched.
+   * Shells in which a widget is nested in a scrolled composite are recalculated as a whole, as the
+   * content size of a scrolled composite is usually maintained by application code.
+   */
+  static void execute( Collection<Widget> owners ) {
+    for( Map.Entry<Shell, List<Widget>> entry : groupByShell( owners ).entrySet() ) {
+      Shell shell = entry.getKey();
+      if( containsScrolledContent( entry.getValue() ) ) {
+        forceShellRecalculations( shell );
+      } else {
+        recalculateOwners( shell, entry.getValue() );
+      }
+    }
+  }
+
+  private static void recalculateOwners( Shell shell, List<Widget> owners ) {
+    for( Widget owner : owners ) {
+      // clears e.g. the buffered item widths of tables and trees in the owner's subtree
+      WidgetTreeUtil.accept( getControl( owner ), new ClearLayoutBuffersVisitor() );
+    }
+    RePackVisitor rePackVisitor = new RePackVisitor();
+    List<Control> changed = new ArrayList<>();
+    for( Widget owner : owners ) {
+      if( owner != shell ) {
+        rePackVisitor.visit( owner );
+      }
+      if( owner instanceof Composite ) {
+        ( ( Composite )owner ).layout( true, true );
+      }
+      if( owner instanceof Control && owner != shell ) {
+        changed.add( ( Control )owner );
+      }
+    }
+    for( Widget owner : owners ) {
+      rePackAncestors( shell, getControl( owner ), rePackVisitor );
+    }
+    if( !changed.isEmpty() ) {
+      shell.layout( changed.toArray( new Control[ changed.size() ] ), SWT.NONE );
+    }
+    IControlAdapter shellAdapter = ControlUtil.getControlAdapter( shell );
+    if( shellAdapter.isPacked() ) {
+      shell.pack();
+      shellAdapter.clearPacked();
+    }
+  }
+
+  /*
+   * A packed composite between an owner and the shell is not resized by the layout of the shell,
+   * e.g. if its parent has no layout. Innermost ancestors are re-packed first, as their size
+   * contributes to the size of the outer ones.
+   */
+  private static void rePackAncestors( Shell shell, Control control, RePackVisitor visitor ) {
+    Control current = control;
+    while( current != null && current != shell ) {
+      visitor.visit( current );
+      current = current.getParent();
+    }
+  }
+
+  private static Map<Shell, List<Widget>> groupByShell( Collection<Widget> owners ) {
+    Map<Shell, List<Widget>> result = new LinkedHashMap<>();
+    for( Widget owner : owners ) {
+      Control control = owner.isDisposed() ? null : getControl( owner );
+      if( control != null ) {
+        Shell shell = control.getShell();
+        List<Widget> shellOwners = result.get( shell );
+        if( shellOwners == null ) {
+          shellOwners = new ArrayList<>();
+          result.put( shell, shellOwners );
+        }
+        shellOwners.add( owner );
+      }
+    }
+    return result;
+  }
+
+  private static boolean containsScrolledContent( List<Widget> owners ) {
+    for( Widget owner : owners ) {
+      Control control = getControl( owner );
+      while( control != null ) {
+        if( control instanceof ScrolledComposite ) {
+          return true;
+        }
+        control = control.getParent();
+      }
+    }
+    return false;
+  }
+
+  private static Control getControl( Widget owner ) {
+    if( owner instanceof Control ) {
+      return ( Control )owner;
+    } else if( owner instanceof TableColumn ) {
+      return ( ( TableColumn )owner ).getParent();
+    } else if( owner instanceof TreeColumn ) {
+      return ( ( TreeColumn )owner ).getParent();
+    }
+    return null;
+  }
+
   private static void forceShellRecalculations( Shell shell ) {
     boolean isPacked = ControlUtil.getControlAdapter( shell ).isPacked();
     Rectangle boundsBuffer = shell.getBounds();
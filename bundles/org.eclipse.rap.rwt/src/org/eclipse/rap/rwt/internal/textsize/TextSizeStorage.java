@@ -13,13 +13,16 @@ package org.eclipse.rap.rwt.internal.textsize;
 
 import static org.eclipse.rap.rwt.internal.RWTProperties.getTextSizeStoreSize;
 
-import java.io.Serializable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -32,39 +35,23 @@ public final class TextSizeStorage {
   public static final int MIN_STORE_SIZE = 1000;
   public static final int DEFAULT_STORE_SIZE = 10000;
 
+  private static final int FORMAT_VERSION = 1;
+
   private final Object lock;
   // access is guarded by 'lock'
   private final Set<FontData> fontDatas;
-  // access is guarded by 'lock'
-  private final Map<Integer,Entry> data;
+  // access is guarded by 'lock', iteration order is least recently used first
+  private final LinkedHashMap<Integer,Point> data;
   private int maximumStoreSize;
   private int clearRange;
-  private long clock;
-
-
-  private static class Entry {
-    private Point point;
-    private long timeStamp;
-  }
-
-  private static class EntryComparator implements Comparator<Entry>, Serializable {
-
-    @Override
-    public int compare( Entry entry1, Entry entry2 ) {
-      int result = 0;
-      if( entry1.timeStamp > entry2.timeStamp ) {
-        result = 1;
-      } else if( entry1.timeStamp < entry2.timeStamp ) {
-        result = -1;
-      }
-      return result;
-    }
-  }
-
+  // access is guarded by 'lock'
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
 
   public TextSizeStorage() {
     lock = new Object();
-    data = new HashMap<>();
+    data = new LinkedHashMap<>( 16, 0.75f, true );
     fontDatas = new HashSet<>();
     setMaximumStoreSize( getTextSizeStoreSize( DEFAULT_STORE_SIZE ) );
   }
@@ -85,12 +72,14 @@ public final class TextSizeStorage {
   }
 
   Point lookupTextSize( Integer key ) {
-    Point result = null;
+    Point result;
     synchronized( lock ) {
-      Entry entry = data.get( key );
-      if( entry != null ) {
-        updateTimestamp( entry );
-        result = entry.point;
+      // get() on an access ordered map moves the entry to the end of the LRU order
+      result = data.get( key );
+      if( result == null ) {
+        missCount++;
+      } else {
+        hitCount++;
       }
     }
     result = defensiveCopy( result );
@@ -98,15 +87,94 @@ public final class TextSizeStorage {
   }
 
   void storeTextSize( Integer key, Point size ) {
-    Entry entry = new Entry();
-    entry.point = defensiveCopy( size );
-    updateTimestamp( entry );
+    Point point = defensiveCopy( size );
     synchronized( lock ) {
-      data.put( key, entry );
+      data.put( key, point );
       handleOverFlow();
     }
   }
 
+  /////////////
+  // statistics
+
+  public long getHitCount() {
+    synchronized( lock ) {
+      return hitCount;
+    }
+  }
+
+  public long getMissCount() {
+    synchronized( lock ) {
+      return missCount;
+    }
+  }
+
+  public long getEvictionCount() {
+    synchronized( lock ) {
+      return evictionCount;
+    }
+  }
+
+  public int getSize() {
+    synchronized( lock ) {
+      return data.size();
+    }
+  }
+
+  //////////////
+  // persistence
+
+  /**
+   * Writes the probed fonts and the stored text sizes to the given stream, in least recently used
+   * order. The stream is not closed.
+   */
+  public void save( OutputStream outputStream ) throws IOException {
+    DataOutputStream output = new DataOutputStream( outputStream );
+    FontData[] fontList;
+    Integer[] keys;
+    Point[] sizes;
+    synchronized( lock ) {
+      fontList = fontDatas.toArray( new FontData[ fontDatas.size() ] );
+      keys = data.keySet().toArray( new Integer[ data.size() ] );
+      sizes = data.values().toArray( new Point[ data.size() ] );
+    }
+    output.writeInt( FORMAT_VERSION );
+    output.writeInt( fontList.length );
+    for( FontData fontData : fontList ) {
+      output.writeUTF( fontData.getName() );
+      output.writeInt( fontData.getHeight() );
+      output.writeInt( fontData.getStyle() );
+    }
+    output.writeInt( keys.length );
+    for( int i = 0; i < keys.length; i++ ) {
+      output.writeInt( keys[ i ].intValue() );
+      output.writeInt( sizes[ i ].x );
+      output.writeInt( sizes[ i ].y );
+    }
+    output.flush();
+  }
+
+  /**
+   * Reads fonts and text sizes that were written by {@link #save(OutputStream)} and adds them to
+   * this storage. The stream is not closed.
+   */
+  public void load( InputStream inputStream ) throws IOException {
+    DataInputStream input = new DataInputStream( inputStream );
+    int version = input.readInt();
+    if( version != FORMAT_VERSION ) {
+      throw new IOException( "Unsupported text size storage format: " + version );
+    }
+    int fontCount = input.readInt();
+    for( int i = 0; i < fontCount; i++ ) {
+      storeFont( new FontData( input.readUTF(), input.readInt(), input.readInt() ) );
+    }
+    int entryCount = input.readInt();
+    for( int i = 0; i < entryCount; i++ ) {
+      Integer key = Integer.valueOf( input.readInt() );
+      storeTextSize( key, new Point( input.readInt(), input.readInt() ) );
+    }
+  }
+
   ////////////////////
   // overflow handling
 
@@ -121,22 +189,17 @@ public final class TextSizeStorage {
   }
 
   private void handleOverFlow() {
+    // Evicting a range of entries at once keeps the amortized cost per insert constant
     if( data.size() >= maximumStoreSize ) {
-      Entry[] entries = sortEntries();
-      for( int i = 0; i < clearRange; i++ ) {
-        data.values().remove( entries[ i ] );
+      Iterator<Map.Entry<Integer,Point>> iterator = data.entrySet().iterator();
+      for( int i = 0; i < clearRange && iterator.hasNext(); i++ ) {
+        iterator.next();
+        iterator.remove();
+        evictionCount++;
       }
     }
   }
 
-  private Entry[] sortEntries() {
-    Entry[] result = new Entry[ data.size() ];
-    data.values().toArray( result );
-    Arrays.sort( result, new EntryComparator() );
-    return result;
-  }
-
-
   //////////////////
   // helping methods
 
@@ -152,10 +215,6 @@ public final class TextSizeStorage {
     return point == null ? null : new Point( point.x, point.y );
   }
 
-  private void updateTimestamp( Entry entry ) {
-    entry.timeStamp = clock++;
-  }
-
   private void calculateClearRange( int maximumStoreSize ) {
     BigDecimal ten = new BigDecimal( 10 );
     BigDecimal bdStoreSize = new BigDecimal( maximumStoreSize );
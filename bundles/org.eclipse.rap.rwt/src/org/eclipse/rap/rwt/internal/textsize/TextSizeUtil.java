@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2007, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,6 +20,7 @@ import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.internal.graphics.FontUtil;
+import org.eclipse.swt.widgets.Widget;
 
 
 public class TextSizeUtil {
@@ -28,6 +29,8 @@ public class TextSizeUtil {
   static final int TEXT_EXTENT = 1;
   static final int MARKUP_EXTENT = 2;
 
+  private static final ThreadLocal<Widget> CURRENT_OWNER = new ThreadLocal<>();
+
   public static Point stringExtent( Font font, String string, boolean markup ) {
     if( markup ) {
       return determineTextSize( font, string, SWT.DEFAULT, MARKUP_EXTENT );
@@ -55,7 +58,10 @@ public class TextSizeUtil {
 
   public static int getCharHeight( Font font ) {
     int result;
-    if( containsProbeResult( font ) ) {
+    ServerFontMetrics serverFontMetrics = getServerFontMetrics( font );
+    if( serverFontMetrics != null ) {
+      result = serverFontMetrics.getCharHeight( FontUtil.getData( font ) );
+    } else if( containsProbeResult( font ) ) {
       result = lookupCharHeight( font );
     } else {
       result = estimateCharHeight( font );
@@ -66,7 +72,10 @@ public class TextSizeUtil {
 
   public static float getAvgCharWidth( Font font ) {
     float result;
-    if( containsProbeResult( font ) ) {
+    ServerFontMetrics serverFontMetrics = getServerFontMetrics( font );
+    if( serverFontMetrics != null ) {
+      result = serverFontMetrics.getAvgCharWidth( FontUtil.getData( font ) );
+    } else if( containsProbeResult( font ) ) {
       result = lookupAvgCharWidth( font );
     } else {
       result = estimateAvgCharWidth( font );
@@ -75,6 +84,35 @@ public class TextSizeUtil {
     return result;
   }
 
+  /**
+   * Sets the widget whose size or layout depends on the text sizes that are determined from now
+   * on. When the estimated sizes are replaced by measured ones, only the recorded owners are
+   * recalculated. Callers must restore the returned previous owner when done:
+   *
+   * <pre>
+   * Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+   * try {
+   *   ...
+   * } finally {
+   *   TextSizeUtil.setCurrentOwner( previousOwner );
+   * }
+   * </pre>
+   *
+   * @param owner the widget that depends on subsequent text sizes or <code>null</code>
+   * @return the previous owner, may be <code>null</code>
+   */
+  public static Widget setCurrentOwner( Widget owner ) {
+    Widget result = CURRENT_OWNER.get();
+    if( owner != result ) {
+      CURRENT_OWNER.set( owner );
+    }
+    return result;
+  }
+
+  static Widget getCurrentOwner() {
+    return CURRENT_OWNER.get();
+  }
+
   public static boolean isTemporaryResize() {
     ServiceStore serviceStore = ContextProvider.getServiceStore();
     Object attribute = serviceStore.getAttribute( TextSizeRecalculation.TEMPORARY_RESIZE );
@@ -94,7 +132,10 @@ public class TextSizeUtil {
 
   private static Point determineTextSize( Font font, String string, int wrapWidth, int mode ) {
     int normalizedWrapWidth = normalizeWrapWidth( wrapWidth );
-    Point result = lookup( font, string, normalizedWrapWidth, mode );
+    Point result = measureOnServer( font, string, normalizedWrapWidth, mode );
+    if( result == null ) {
+      result = lookup( font, string, normalizedWrapWidth, mode );
+    }
     if( result == null ) {
       result = estimate( font, string, normalizedWrapWidth, mode );
       if( !isTemporaryResize() ) {
@@ -124,6 +165,36 @@ public class TextSizeUtil {
     return TextSizeStorageUtil.lookup( fontData, measurementString, wrapWidth, mode );
   }
 
+  /*
+   * Returns null if the text cannot be measured on the server. Markup texts are always measured
+   * by the client as they may contain other fonts.
+   */
+  private static Point measureOnServer( Font font, String string, int wrapWidth, int mode ) {
+    Point result = null;
+    ServerFontMetrics serverFontMetrics = getServerFontMetrics( font );
+    if( serverFontMetrics != null ) {
+      FontData fontData = FontUtil.getData( font );
+      if( mode == STRING_EXTENT ) {
+        String measurementString = createMeasurementString( string, mode );
+        result = serverFontMetrics.stringExtent( fontData, measurementString );
+      } else if( mode == TEXT_EXTENT ) {
+        result = serverFontMetrics.textExtent( fontData, string, wrapWidth );
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Returns the server font metrics if they are enabled and can measure the given font.
+   */
+  private static ServerFontMetrics getServerFontMetrics( Font font ) {
+    ServerFontMetrics result = ServerFontMetrics.getInstance();
+    if( result != null && result.canMeasure( FontUtil.getData( font ) ) ) {
+      return result;
+    }
+    return null;
+  }
+
   private static Point estimate( Font font, String string, int wrapWidth, int mode ) {
     Point result;
     switch( mode ) {
@@ -11,6 +11,8 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.theme;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -26,12 +28,16 @@ public final class WidgetMatcher implements ValueSelector {
   }
 
   private final Map<String, Constraint> constraintMap;
+  private final Map<ConditionalValue[], CompiledValues> compiledValuesMap;
 
   public WidgetMatcher() {
     // This map is accessed by all UI sessions simultaneously. However, We don't need to
     // synchronize get and put since constraints are deterministic, i.e. in case of concurrent
     // insertions one constraint overwriting the other is not critical.
     constraintMap = new ConcurrentHashMap<>();
+    // The values arrays are provided by the CssValuesMap of a theme and don't change, therefore
+    // they can be used as keys (by identity)
+    compiledValuesMap = new ConcurrentHashMap<>();
   }
 
   public void addStyle( String string, int style ) {
@@ -44,6 +50,15 @@ public final class WidgetMatcher implements ValueSelector {
 
   @Override
   public CssValue select( Widget widget, ConditionalValue... values ) {
+    CompiledValues compiledValues = compiledValuesMap.get( values );
+    if( compiledValues == null ) {
+      compiledValues = new CompiledValues( values );
+      compiledValuesMap.put( values, compiledValues );
+    }
+    return compiledValues.select( widget );
+  }
+
+  private CssValue selectUncached( Widget widget, ConditionalValue... values ) {
     CssValue result = null;
     for( int i = 0; i < values.length && result == null; i++ ) {
       ConditionalValue condValue = values[ i ];
@@ -74,6 +89,82 @@ public final class WidgetMatcher implements ValueSelector {
     return constraint;
   }
 
+  /*
+   * The constraints used by the values of a single property are evaluated once per widget. The
+   * resulting bit mask covers style bits, variant and states of the widget, the selected value
+   * is cached for every mask.
+   */
+  private final class CompiledValues {
+
+    private static final int NO_VALUE = -1;
+    private static final long NEVER = -1L;
+
+    private final ConditionalValue[] values;
+    private final Constraint[] constraints;
+    private final long[] requiredMasks;
+    private final Map<Long, Integer> selectedIndexes;
+
+    CompiledValues( ConditionalValue[] values ) {
+      this.values = values;
+      List<String> constraintNames = new ArrayList<>();
+      List<Constraint> constraintList = new ArrayList<>();
+      requiredMasks = new long[ values.length ];
+      for( int i = 0; i < values.length; i++ ) {
+        for( String string : values[ i ].constraints ) {
+          Constraint constraint = getConstraint( string );
+          int index = constraintNames.indexOf( string );
+          if( constraint == null ) {
+            requiredMasks[ i ] = NEVER;
+          } else if( index == -1 ) {
+            index = constraintNames.size();
+            constraintNames.add( string );
+            constraintList.add( constraint );
+          }
+          if( requiredMasks[ i ] != NEVER && index < Long.SIZE ) {
+            requiredMasks[ i ] |= 1L << index;
+          }
+        }
+      }
+      boolean cacheable = constraintList.size() < Long.SIZE;
+      constraints = cacheable ? constraintList.toArray( new Constraint[ 0 ] ) : null;
+      selectedIndexes = cacheable ? new ConcurrentHashMap<Long, Integer>() : null;
+    }
+
+    CssValue select( Widget widget ) {
+      if( constraints == null ) {
+        return selectUncached( widget, values );
+      }
+      Long mask = Long.valueOf( getMask( widget ) );
+      Integer index = selectedIndexes.get( mask );
+      if( index == null ) {
+        index = Integer.valueOf( findIndex( mask.longValue() ) );
+        selectedIndexes.put( mask, index );
+      }
+      return index.intValue() == NO_VALUE ? null : values[ index.intValue() ].value;
+    }
+
+    private long getMask( Widget widget ) {
+      long result = 0;
+      for( int i = 0; i < constraints.length; i++ ) {
+        if( constraints[ i ].matches( widget ) ) {
+          result |= 1L << i;
+        }
+      }
+      return result;
+    }
+
+    private int findIndex( long mask ) {
+      for( int i = 0; i < values.length; i++ ) {
+        long required = requiredMasks[ i ];
+        if( required != NEVER && ( required & mask ) == required ) {
+          return i;
+        }
+      }
+      return NO_VALUE;
+    }
+
+  }
+
   private static Constraint createStyleConstraint( final int style ) {
     return new Constraint() {
       @Override
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,9 +11,10 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.util;
 
+import javax.servlet.http.HttpServletRequest;
 
 /**
- * Constant utility class which provides commonly used strings for HTTP.
+ * Utility class which provides commonly used strings and helper methods for HTTP.
  */
 public final class HTTP {
 
@@ -25,9 +26,47 @@ public final class HTTP {
   public static final String METHOD_GET = "GET";
   public static final String METHOD_POST = "POST";
   public static final String HEADER_ACCEPT = "Accept";
+  public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
 
   private HTTP() {
     // prevent instantiation
   }
 
+  /**
+   * Returns whether the client accepts responses in gzip encoding, i.e. whether the
+   * <code>Accept-Encoding</code> header of the request lists gzip with a quality above zero.
+   */
+  public static boolean acceptsGzip( HttpServletRequest request ) {
+    String acceptEncoding = request.getHeader( HEADER_ACCEPT_ENCODING );
+    if( acceptEncoding == null ) {
+      return false;
+    }
+    for( String candidate : acceptEncoding.split( "," ) ) {
+      String[] parts = candidate.trim().split( ";" );
+      if( "gzip".equalsIgnoreCase( parts[ 0 ].trim() ) ) {
+        return parts.length == 1 || !isZeroQuality( parts[ 1 ] );
+      }
+    }
+    return false;
+  }
+
+  /*
+   * Checks for "q=0", "q=0." or "q=0.000" without compiling a regular expression on every request.
+   */
+  private static boolean isZeroQuality( String parameter ) {
+    String value = parameter.replace( " ", "" );
+    if( !value.startsWith( "q=0" ) ) {
+      return false;
+    }
+    if( value.length() > 3 && value.charAt( 3 ) != '.' ) {
+      return false;
+    }
+    for( int i = 4; i < value.length(); i++ ) {
+      if( value.charAt( i ) != '0' ) {
+        return false;
+      }
+    }
+    return true;
+  }
+
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 EclipseSource and others.
+ * Copyright (c) 2011, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,15 +11,32 @@
 package org.eclipse.rap.rwt.widgets;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.rap.rwt.internal.service.ServletLog;
+import org.eclipse.rap.rwt.internal.service.UISessionImpl;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
 import org.eclipse.rap.rwt.service.ServiceHandler;
+import org.eclipse.rap.rwt.service.UISession;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Synchronizer;
 
@@ -32,6 +49,13 @@ import org.eclipse.swt.widgets.Synchronizer;
  * is required, then this synchronizer should be used. Call <code>setSynchronizer()</code> right
  * after the display was constructed.
  * </p>
+ * <p>
+ * Adding a runnable sends a request to the session in order to have the modified session
+ * replicated. The requests are sent in the background by a small pool of threads shared by all
+ * sessions of the application, the pool is shut down when the application context is destroyed.
+ * At most one request per session is pending at a time, runnables that are added while a request
+ * is pending are covered by a single follow-up request.
+ * </p>
  *
  * @see Synchronizer
  * @see org.eclipse.swt.widgets.Display#setSynchronizer
@@ -41,19 +65,43 @@ import org.eclipse.swt.widgets.Synchronizer;
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class ClusteredSynchronizer extends Synchronizer {
+
+  private static final int MAX_CONCURRENT_REQUESTS = 4;
+  private static final int CONNECT_TIMEOUT = 10000;
+  private static final int READ_TIMEOUT = 30000;
+
+  private final Display display;
   private final String requestUrl;
   private final String cookies;
+  private transient Executor executor;
+  private transient AtomicBoolean requestPending;
+  private transient AtomicBoolean runnablesAdded;
 
   public ClusteredSynchronizer( Display display ) {
+    this( display, getRequestExecutor( display ) );
+  }
+
+  ClusteredSynchronizer( Display display, Executor executor ) {
     super( display );
+    this.display = display;
     requestUrl = AsyncExecServiceHandler.createRequestUrl( RWT.getRequest() );
     cookies = extractRequestCookies( RWT.getRequest() );
     AsyncExecServiceHandler.register();
+    initialize( executor );
   }
 
   @Override
   protected void runnableAdded( Runnable runnable ) {
-    notifyAsyncExecServiceHandler();
+    // in incremental replication mode, only UI sessions that are marked as changed are replicated
+    markChanged( RWT.getUISession( display ) );
+    runnablesAdded.set( true );
+    scheduleRequest();
+  }
+
+  private static void markChanged( UISession uiSession ) {
+    if( uiSession != null ) {
+      ( ( UISessionImpl )uiSession ).markChanged();
+    }
   }
 
   static String extractRequestCookies( HttpServletRequest request ) {
@@ -70,11 +118,55 @@ public class ClusteredSynchronizer extends Synchronizer {
     return result;
   }
 
-  private void notifyAsyncExecServiceHandler() {
+  /*
+   * The flag is reset before the request is sent, a runnable that is added while the request is
+   * in progress may not be part of the replicated session and requires another request.
+   */
+  private void sendPendingRequests() {
+    try {
+      while( runnablesAdded.getAndSet( false ) ) {
+        notifyAsyncExecServiceHandler();
+      }
+    } finally {
+      requestPending.set( false );
+    }
+    if( runnablesAdded.get() ) {
+      scheduleRequest();
+    }
+  }
+
+  private void scheduleRequest() {
+    if( requestPending.compareAndSet( false, true ) ) {
+      try {
+        getExecutor().execute( new Runnable() {
+          @Override
+          public void run() {
+            sendPendingRequests();
+          }
+        } );
+      } catch( @SuppressWarnings( "unused" ) RejectedExecutionException exception ) {
+        // the application context has been destroyed, the session will not be replicated anymore
+        requestPending.set( false );
+      }
+    }
+  }
+
+  /*
+   * The executor is resolved lazily after deserialization, the display may not be fully
+   * deserialized when readObject is called.
+   */
+  private Executor getExecutor() {
+    if( executor == null ) {
+      executor = getRequestExecutor( display );
+    }
+    return executor;
+  }
+
+  void notifyAsyncExecServiceHandler() {
     try {
       sendAsyncExecServiceHandlerRequest();
     } catch( IOException ioe ) {
-      throw new RuntimeException( ioe );
+      ServletLog.log( "Failed to send asyncExec service request to " + requestUrl, ioe );
     }
   }
 
@@ -82,6 +174,7 @@ public class ClusteredSynchronizer extends Synchronizer {
     HttpURLConnection connection = createConnection();
     connection.connect();
     int responseCode = connection.getResponseCode();
+    consumeResponse( connection );
     if( responseCode != HttpURLConnection.HTTP_OK ) {
       String msg = "AsyncExec service request returned response code " + responseCode;
       throw new IOException( msg );
@@ -91,12 +184,121 @@ public class ClusteredSynchronizer extends Synchronizer {
   private HttpURLConnection createConnection() throws IOException {
     URL url = new URL( requestUrl );
     HttpURLConnection result = ( HttpURLConnection )url.openConnection();
+    result.setConnectTimeout( CONNECT_TIMEOUT );
+    result.setReadTimeout( READ_TIMEOUT );
     if( cookies.length() > 0 ) {
       result.setRequestProperty( "Cookie", cookies );
     }
     return result;
   }
 
+  /*
+   * The connection is only returned to the keep-alive cache and reused for subsequent requests if
+   * the response has been read completely.
+   */
+  private static void consumeResponse( HttpURLConnection connection ) throws IOException {
+    InputStream stream = connection.getResponseCode() < 400
+                       ? connection.getInputStream()
+                       : connection.getErrorStream();
+    if( stream != null ) {
+      try {
+        byte[] buffer = new byte[ 256 ];
+        while( stream.read( buffer ) != -1 ) {
+          // discard
+        }
+      } finally {
+        stream.close();
+      }
+    }
+  }
+
+  private void initialize( Executor executor ) {
+    this.executor = executor;
+    requestPending = new AtomicBoolean();
+    runnablesAdded = new AtomicBoolean();
+  }
+
+  private void readObject( ObjectInputStream stream ) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    initialize( null );
+  }
+
+  static RequestExecutor getRequestExecutor( Display display ) {
+    ApplicationContext applicationContext = RWT.getUISession( display ).getApplicationContext();
+    RequestExecutor result = SingletonUtil.getUniqueInstance( RequestExecutor.class,
+                                                              applicationContext );
+    result.bindTo( applicationContext );
+    return result;
+  }
+
+  /*
+   * Application scoped pool of the threads that send the requests. Only referenced by transient
+   * fields, the pool is not serialized with the sessions.
+   */
+  static final class RequestExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+    private boolean bound;
+
+    private RequestExecutor() {
+      executor = new ThreadPoolExecutor( MAX_CONCURRENT_REQUESTS,
+                                         MAX_CONCURRENT_REQUESTS,
+                                         60,
+                                         TimeUnit.SECONDS,
+                                         new LinkedBlockingQueue<Runnable>(),
+                                         new RequestThreadFactory() );
+      executor.allowCoreThreadTimeOut( true );
+    }
+
+    /*
+     * The executor may be created on a background thread without a service context, hence the
+     * application context is passed in instead of being obtained in the constructor.
+     */
+    synchronized void bindTo( ApplicationContext applicationContext ) {
+      if( !bound ) {
+        bound = true;
+        ApplicationContextListener listener = new ApplicationContextListener() {
+          @Override
+          public void beforeDestroy( ApplicationContextEvent event ) {
+            shutdown();
+          }
+        };
+        if( !applicationContext.addApplicationContextListener( listener ) ) {
+          // the application context is already about to be destroyed
+          shutdown();
+        }
+      }
+    }
+
+    @Override
+    public void execute( Runnable command ) {
+      executor.execute( command );
+    }
+
+    void shutdown() {
+      executor.shutdownNow();
+    }
+
+    boolean isShutdown() {
+      return executor.isShutdown();
+    }
+
+  }
+
+  private static final class RequestThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread( Runnable runnable ) {
+      String name = "ClusteredSynchronizer-" + threadCount.incrementAndGet();
+      Thread result = new Thread( runnable, name );
+      result.setDaemon( true );
+      return result;
+    }
+
+  }
+
   static class AsyncExecServiceHandler implements ServiceHandler {
     static final String ID = "asyncExecServiceHandler";
 
@@ -115,7 +317,8 @@ public class ClusteredSynchronizer extends Synchronizer {
 
     @Override
     public void service( HttpServletRequest request, HttpServletResponse response ) {
-      // do nothing
+      // the request only triggers the replication of the UI session after it has been processed
+      markChanged( RWT.getUISession() );
     }
   }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -116,6 +116,7 @@ public class Image extends Resource {
       SWT.error( SWT.ERROR_NULL_ARGUMENT );
     }
     internalImage = findInternalImage( stream );
+    addReference();
   }
 
   /**
@@ -152,6 +153,7 @@ public class Image extends Resource {
       SWT.error( SWT.ERROR_NULL_ARGUMENT );
     }
     internalImage = findInternalImage( fileName );
+    addReference();
   }
 
   /**
@@ -339,6 +341,7 @@ public class Image extends Resource {
         SWT.error( SWT.ERROR_INVALID_ARGUMENT );
       break;
     }
+    addReference();
   }
 
   /**
@@ -364,6 +367,7 @@ public class Image extends Resource {
       SWT.error( SWT.ERROR_NULL_ARGUMENT );
     }
     internalImage = findInternalImage( imageData );
+    addReference();
   }
 
   /**
@@ -406,6 +410,7 @@ public class Image extends Resource {
     PaletteData palette = new PaletteData( new RGB[] { white.getRGB() } );
     ImageData imageData = new ImageData( width, height, 8, palette );
     internalImage = findInternalImage( imageData );
+    addReference();
   }
 
   /**
@@ -532,6 +537,17 @@ public class Image extends Resource {
     return null;
   }
 
+  @Override
+  void destroy() {
+    if( internalImage != null ) {
+      getApplicationContext().getInternalImageFactory().removeReference( this );
+    }
+  }
+
+  private void addReference() {
+    getInternalImageFactory().addReference( this );
+  }
+
   private void writeObject( ObjectOutputStream stream ) throws IOException {
     if( device == null ) {
       throw new NotSerializableException( getClass().getName() );
@@ -19,6 +19,7 @@ import java.io.ObjectInputValidation;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.engine.PostDeserialization;
 import org.eclipse.rap.rwt.internal.resources.ResourceUtil;
 import org.eclipse.rap.rwt.internal.util.StreamUtil;
@@ -51,6 +52,7 @@ class ImageSerializer {
         public void run() {
           InputStream inputStream = new ByteArrayInputStream( imageBytes.data );
           getResourceManager().register( image.internalImage.getResourceName(), inputStream );
+          getApplicationContext().getInternalImageFactory().addReference( image );
         }
       } );
     }
@@ -94,4 +96,8 @@ class ImageSerializer {
   private ResourceManager getResourceManager() {
     return getUISession().getApplicationContext().getResourceManager();
   }
+
+  private ApplicationContextImpl getApplicationContext() {
+    return ( ApplicationContextImpl )getUISession().getApplicationContext();
+  }
 }
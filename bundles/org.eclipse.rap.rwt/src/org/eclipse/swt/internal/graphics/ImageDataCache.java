@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2008, 2012 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2008, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -53,4 +53,11 @@ final class ImageDataCache {
       }
     }
   }
+
+  void removeImageData( InternalImage internalImage ) {
+    ParamCheck.notNull( internalImage, "internalImage" );
+    synchronized( cacheLock ) {
+      cache.remove( internalImage );
+    }
+  }
 }
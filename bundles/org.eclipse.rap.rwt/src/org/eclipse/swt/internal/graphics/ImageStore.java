@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.graphics;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.Image;
+
+
+/**
+ * Keeps the internal images of an application by their resource name and tracks which
+ * <code>Image</code> instances use them. An internal image that is no longer used by any image,
+ * because the images are disposed or garbage collected, is kept in a least recently used list of
+ * limited size. Images that drop out of this list are evicted and returned to the caller, which
+ * is responsible for releasing their resources. Pinned internal images are never evicted.
+ * <p>
+ * An internal image that is returned by <code>get</code> or added by <code>put</code> is not
+ * evicted until an image that references it is released, callers are expected to add a
+ * reference right away.
+ * </p>
+ * <p>
+ * Images are tracked by weak references, so that images of terminated sessions that were never
+ * disposed do not keep their internal images alive.
+ * </p>
+ */
+final class ImageStore {
+
+  private final int maxUnusedImages;
+  private final Map<String, Entry> entries;
+  // unused entries in the order they were released, the least recently used first
+  private final LinkedHashMap<String, Entry> unusedEntries;
+  private final ReferenceQueue<Image> collectedImages;
+
+  ImageStore( int maxUnusedImages ) {
+    this.maxUnusedImages = maxUnusedImages;
+    entries = new HashMap<>();
+    unusedEntries = new LinkedHashMap<>();
+    collectedImages = new ReferenceQueue<>();
+  }
+
+  synchronized InternalImage get( String resourceName ) {
+    processCollectedImages();
+    Entry entry = entries.get( resourceName );
+    if( entry == null ) {
+      return null;
+    }
+    // reserve the entry, it must not be evicted before the image that requested it is tracked
+    unusedEntries.remove( resourceName );
+    return entry.internalImage;
+  }
+
+  /**
+   * Adds an internal image that is about to be used by an image.
+   *
+   * @return the internal images that were evicted to make room, never <code>null</code>
+   */
+  synchronized List<InternalImage> put( InternalImage internalImage ) {
+    processCollectedImages();
+    entries.put( internalImage.getResourceName(), new Entry( internalImage ) );
+    return evict();
+  }
+
+  /**
+   * Marks the internal image as permanent, it will never be evicted.
+   */
+  synchronized void pin( InternalImage internalImage ) {
+    Entry entry = getOrCreateEntry( internalImage );
+    entry.pinned = true;
+    unusedEntries.remove( internalImage.getResourceName() );
+  }
+
+  synchronized void addReference( Image image ) {
+    processCollectedImages();
+    Entry entry = getOrCreateEntry( image.internalImage );
+    String resourceName = entry.internalImage.getResourceName();
+    entry.references.add( new ImageReference( image, resourceName, collectedImages ) );
+    unusedEntries.remove( resourceName );
+  }
+
+  /**
+   * Stops tracking the given image.
+   *
+   * @return the internal images that were evicted because they are no longer used, never
+   *         <code>null</code>
+   */
+  synchronized List<InternalImage> removeReference( Image image ) {
+    processCollectedImages();
+    String resourceName = image.internalImage.getResourceName();
+    Entry entry = entries.get( resourceName );
+    if( entry != null ) {
+      Iterator<ImageReference> iterator = entry.references.iterator();
+      while( iterator.hasNext() ) {
+        ImageReference reference = iterator.next();
+        if( reference.get() == image ) {
+          reference.clear();
+          iterator.remove();
+        }
+      }
+      markUnusedIfUnreferenced( entry );
+    }
+    return evict();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized int getUnusedCount() {
+    processCollectedImages();
+    return unusedEntries.size();
+  }
+
+  private Entry getOrCreateEntry( InternalImage internalImage ) {
+    String resourceName = internalImage.getResourceName();
+    Entry result = entries.get( resourceName );
+    if( result == null ) {
+      result = new Entry( internalImage );
+      entries.put( resourceName, result );
+    }
+    return result;
+  }
+
+  private void processCollectedImages() {
+    Reference<? extends Image> reference = collectedImages.poll();
+    while( reference != null ) {
+      ImageReference imageReference = ( ImageReference )reference;
+      Entry entry = entries.get( imageReference.resourceName );
+      if( entry != null && entry.references.remove( imageReference ) ) {
+        markUnusedIfUnreferenced( entry );
+      }
+      reference = collectedImages.poll();
+    }
+  }
+
+  private void markUnusedIfUnreferenced( Entry entry ) {
+    if( entry.references.isEmpty() && !entry.pinned ) {
+      unusedEntries.put( entry.internalImage.getResourceName(), entry );
+    }
+  }
+
+  private List<InternalImage> evict() {
+    if( unusedEntries.size() <= maxUnusedImages ) {
+      return Collections.emptyList();
+    }
+    List<InternalImage> result = new ArrayList<>();
+    Iterator<Entry> iterator = unusedEntries.values().iterator();
+    while( unusedEntries.size() > maxUnusedImages ) {
+      Entry entry = iterator.next();
+      iterator.remove();
+      entries.remove( entry.internalImage.getResourceName() );
+      result.add( entry.internalImage );
+    }
+    return result;
+  }
+
+  private static final class Entry {
+
+    final InternalImage internalImage;
+    final List<ImageReference> references;
+    boolean pinned;
+
+    Entry( InternalImage internalImage ) {
+      this.internalImage = internalImage;
+      references = new ArrayList<>( 1 );
+    }
+
+  }
+
+  private static final class ImageReference extends WeakReference<Image> {
+
+    final String resourceName;
+
+    ImageReference( Image image, String resourceName, ReferenceQueue<Image> queue ) {
+      super( image, queue );
+      this.resourceName = resourceName;
+    }
+
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2015 EclipseSource and others.
+ * Copyright (c) 2010, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,66 +17,113 @@ import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.CRC32;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
 
-import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.util.SharedInstanceBuffer;
 import org.eclipse.rap.rwt.internal.util.SharedInstanceBuffer.InstanceCreator;
+import org.eclipse.rap.rwt.service.ResourceManager;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.RGB;
 
 
+/**
+ * Creates the internal images of an application. Internal images created from image data or
+ * input streams are shared by content and released when no image uses them anymore, see
+ * {@link ImageStore}. Internal images created from a file name or a key are kept permanently.
+ * <p>
+ * Images may be released on any thread, e.g. when an image is disposed in a background thread.
+ * Therefore the factory works with the resource manager and image data factory of its
+ * application context instead of looking them up in the context of the current thread.
+ * </p>
+ */
 public class InternalImageFactory {
 
+  static final int DEFAULT_CACHE_SIZE = 256;
+
+  private final ResourceManager resourceManager;
+  private final ImageDataFactory imageDataFactory;
   private final SharedInstanceBuffer<String, InternalImage> cache;
+  private final ImageStore store;
+  private final Object creationLock;
+
+  public InternalImageFactory( ResourceManager resourceManager,
+                               ImageDataFactory imageDataFactory )
+  {
+    this( resourceManager,
+          imageDataFactory,
+          RWTProperties.getImageCacheSize( DEFAULT_CACHE_SIZE ) );
+  }
 
-  public InternalImageFactory() {
+  /**
+   * @param cacheSize the number of unused internal images to keep before they are evicted
+   */
+  InternalImageFactory( ResourceManager resourceManager,
+                        ImageDataFactory imageDataFactory,
+                        int cacheSize )
+  {
+    this.resourceManager = resourceManager;
+    this.imageDataFactory = imageDataFactory;
     cache = new SharedInstanceBuffer<String, InternalImage>();
+    store = new ImageStore( cacheSize );
+    creationLock = new Object();
   }
 
   public InternalImage findInternalImage( final String fileName ) {
     return cache.get( fileName, new InstanceCreator<String, InternalImage>() {
       public InternalImage createInstance( String fileName ) {
-        return createInternalImage( fileName );
+        return pin( createInternalImage( fileName ) );
       }
     } );
   }
 
   public InternalImage findInternalImage( InputStream stream ) {
-    final BufferedInputStream bufferedStream = new BufferedInputStream( stream );
-    final ImageData imageData = readImageData( bufferedStream );
-    final String path = createGeneratedImagePath( imageData );
-    return cache.get( path, new InstanceCreator<String, InternalImage>() {
-      public InternalImage createInstance( String path ) {
-        return createInternalImage( path, bufferedStream, imageData );
-      }
-    } );
+    BufferedInputStream bufferedStream = new BufferedInputStream( stream );
+    ImageData imageData = readImageData( bufferedStream );
+    String path = createGeneratedImagePath( imageData );
+    return findGeneratedImage( path, bufferedStream, imageData );
   }
 
-  public InternalImage findInternalImage( final ImageData imageData ) {
-    final String path = createGeneratedImagePath( imageData );
-    return cache.get( path, new InstanceCreator<String, InternalImage>() {
-      public InternalImage createInstance( String path ) {
-        InputStream stream = createInputStream( imageData );
-        return createInternalImage( path, stream, imageData );
-      }
-    } );
+  public InternalImage findInternalImage( ImageData imageData ) {
+    String path = createGeneratedImagePath( imageData );
+    return findGeneratedImage( path, null, imageData );
   }
 
   InternalImage findInternalImage( String key, final InputStream inputStream ) {
     return cache.get( key, new InstanceCreator<String, InternalImage>() {
       public InternalImage createInstance( String key ) {
-        BufferedInputStream bufferedStream = new BufferedInputStream( inputStream );
-        ImageData imageData = readImageData( bufferedStream );
-        String path = createGeneratedImagePath( imageData );
-        return createInternalImage( path, bufferedStream, imageData );
+        return pin( createInternalImage( inputStream ) );
       }
     } );
   }
 
+  /**
+   * Tracks the given image as a user of its internal image. Must be called for every image that
+   * uses an internal image of this factory.
+   */
+  public void addReference( Image image ) {
+    store.addReference( image );
+  }
+
+  /**
+   * Stops tracking the given image, its internal image may be evicted if no other image uses it.
+   */
+  public void removeReference( Image image ) {
+    synchronized( creationLock ) {
+      release( store.removeReference( image ) );
+    }
+  }
+
+  ImageStore getStore() {
+    return store;
+  }
+
   static ImageData readImageData( InputStream stream ) throws SWTException {
     ////////////////////////////////////////////////////////////////////////////
     // TODO: [fappel] Image size calculation and resource registration both
@@ -107,7 +154,7 @@ public class InternalImageFactory {
     return new ByteArrayInputStream( bytes );
   }
 
-  private static InternalImage createInternalImage( String fileName ) {
+  private InternalImage createInternalImage( String fileName ) {
     InternalImage result;
     try {
       FileInputStream stream = new FileInputStream( fileName );
@@ -122,18 +169,49 @@ public class InternalImageFactory {
     return result;
   }
 
-  private static InternalImage createInternalImage( InputStream stream ) {
+  private InternalImage createInternalImage( InputStream stream ) {
     InputStream bufferedStream = new BufferedInputStream( stream );
     ImageData imageData = readImageData( bufferedStream );
     String path = createGeneratedImagePath( imageData );
-    return createInternalImage( path, bufferedStream, imageData );
+    return findGeneratedImage( path, bufferedStream, imageData );
   }
 
-  private static InternalImage createInternalImage( String path,
-                                                    InputStream stream,
-                                                    ImageData imageData )
+  /*
+   * Creation and eviction are serialized to prevent that the resource of an evicted image is
+   * unregistered after it has been registered again.
+   */
+  private InternalImage findGeneratedImage( String path, InputStream stream, ImageData imageData ) {
+    InternalImage result = store.get( path );
+    if( result == null ) {
+      synchronized( creationLock ) {
+        result = store.get( path );
+        if( result == null ) {
+          InputStream inputStream = stream != null ? stream : createInputStream( imageData );
+          result = createInternalImage( path, inputStream, imageData );
+          release( store.put( result ) );
+        }
+      }
+    }
+    return result;
+  }
+
+  private InternalImage pin( InternalImage internalImage ) {
+    store.pin( internalImage );
+    return internalImage;
+  }
+
+  private void release( List<InternalImage> internalImages ) {
+    for( InternalImage internalImage : internalImages ) {
+      resourceManager.unregister( internalImage.getResourceName() );
+      imageDataFactory.removeImageData( internalImage );
+    }
+  }
+
+  private InternalImage createInternalImage( String path,
+                                             InputStream stream,
+                                             ImageData imageData )
   {
-    RWT.getResourceManager().register( path, stream );
+    resourceManager.register( path, stream );
     return new InternalImage( path, imageData.width, imageData.height, false );
   }
 
@@ -175,57 +253,80 @@ public class InternalImageFactory {
   }
 
   /*
-   * [cm] Compute a CRC32 value using all of the parts of the ImageData. For
-   * parts that may be null, a unique salt is added to avoid collisions in rare
-   * cases. There is a possibility that, for instance, the alphaData is set in
-   * one image but not the maskData. Then in a second image, the maskData is set
-   * to the same thing as the previous image, but no alphaData is set. In this
-   * case there would be a collision if no other information is added.
+   * Computes a 128 bit hash from all of the parts of the ImageData. For parts that may be null, a
+   * unique salt is added to avoid collisions in rare cases. There is a possibility that, for
+   * instance, the alphaData is set in one image but not the maskData. Then in a second image, the
+   * maskData is set to the same thing as the previous image, but no alphaData is set. In this case
+   * there would be a collision if no other information is added.
    */
   private static String getHash( ImageData imageData ) {
-    CRC32 crc32 = new CRC32();
+    MessageDigest digest = createDigest();
     if( imageData.data != null ) {
-      crc32.update( 1 );
-      crc32.update( imageData.data );
+      digest.update( ( byte )1 );
+      digest.update( imageData.data );
     }
     if( imageData.alphaData != null ) {
-      crc32.update( 2 );
-      crc32.update( imageData.alphaData );
+      digest.update( ( byte )2 );
+      digest.update( imageData.alphaData );
     }
     if( imageData.maskData != null ) {
-      crc32.update( 3 );
-      crc32.update( imageData.maskData );
+      digest.update( ( byte )3 );
+      digest.update( imageData.maskData );
     }
     if( imageData.palette != null ) {
-      crc32.update( 4 );
+      digest.update( ( byte )4 );
       if( imageData.palette.isDirect ) {
-        crc32.update( 5 );
-        crc32.update( imageData.palette.redMask );
-        crc32.update( imageData.palette.greenMask );
-        crc32.update( imageData.palette.blueMask );
+        digest.update( ( byte )5 );
+        update( digest, imageData.palette.redMask );
+        update( digest, imageData.palette.greenMask );
+        update( digest, imageData.palette.blueMask );
       } else {
-        crc32.update( 6 );
+        digest.update( ( byte )6 );
         RGB[] rgb = imageData.palette.getRGBs();
         for( int i = 0; i < rgb.length; i++ ) {
-          crc32.update( rgb[ i ].red );
-          crc32.update( rgb[ i ].green );
-          crc32.update( rgb[ i ].blue );
+          digest.update( ( byte )rgb[ i ].red );
+          digest.update( ( byte )rgb[ i ].green );
+          digest.update( ( byte )rgb[ i ].blue );
         }
       }
     }
-    crc32.update( imageData.alpha );
-    crc32.update( imageData.transparentPixel );
-    crc32.update( imageData.type );
-    crc32.update( imageData.bytesPerLine );
-    crc32.update( imageData.scanlinePad );
-    crc32.update( imageData.maskPad );
-    crc32.update( imageData.x );
-    crc32.update( imageData.y );
-    crc32.update( imageData.width );
-    crc32.update( imageData.height );
-    crc32.update( imageData.depth );
-    crc32.update( imageData.delayTime );
-    crc32.update( imageData.disposalMethod );
-    return Long.toHexString( crc32.getValue() );
+    update( digest, imageData.alpha );
+    update( digest, imageData.transparentPixel );
+    update( digest, imageData.type );
+    update( digest, imageData.bytesPerLine );
+    update( digest, imageData.scanlinePad );
+    update( digest, imageData.maskPad );
+    update( digest, imageData.x );
+    update( digest, imageData.y );
+    update( digest, imageData.width );
+    update( digest, imageData.height );
+    update( digest, imageData.depth );
+    update( digest, imageData.delayTime );
+    update( digest, imageData.disposalMethod );
+    return toHex( digest.digest(), 16 );
+  }
+
+  private static void update( MessageDigest digest, int value ) {
+    digest.update( ( byte )( value >>> 24 ) );
+    digest.update( ( byte )( value >>> 16 ) );
+    digest.update( ( byte )( value >>> 8 ) );
+    digest.update( ( byte )value );
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance( "SHA-256" );
+    } catch( NoSuchAlgorithmException exception ) {
+      throw new IllegalStateException( "SHA-256 not supported", exception );
+    }
+  }
+
+  private static String toHex( byte[] bytes, int length ) {
+    StringBuilder result = new StringBuilder( length * 2 );
+    for( int i = 0; i < length; i++ ) {
+      result.append( Character.forDigit( ( bytes[ i ] >> 4 ) & 0xF, 16 ) );
+      result.append( Character.forDigit( bytes[ i ] & 0xF, 16 ) );
+    }
+    return result.toString();
   }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2012 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -42,4 +42,10 @@ public interface ITreeAdapter {
 
   int getFixedColumns();
   boolean isFixedColumn( TreeColumn column );
+
+  /**
+   * Returns a number that changes whenever an item is created or destroyed. Selecting another
+   * item at the index of a replaced item leaves the selected indices unchanged.
+   */
+  int getItemsVersion();
 }
\ No newline at end of file
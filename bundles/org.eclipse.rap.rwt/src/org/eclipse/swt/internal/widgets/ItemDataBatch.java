@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.widgets;
+
+import static org.eclipse.rap.rwt.internal.protocol.RemoteObjectFactory.getRemoteObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.RWTProperties;
+import org.eclipse.rap.rwt.internal.lifecycle.WidgetUtil;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.internal.service.ServiceStore;
+import org.eclipse.rap.rwt.remote.JsonMapping;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Widget;
+
+
+/**
+ * Collects the texts, images and check states of the items of a grid (Table or Tree) that changed
+ * during a request and renders them as a single call on the grid.
+ * <p>
+ * The values are transferred in column-major arrays. Texts and images are replaced by indices into
+ * dictionaries that are shared by all items of the call, an index of <code>-1</code> denotes a
+ * missing value.
+ * </p>
+ */
+public final class ItemDataBatch {
+
+  static final String METHOD_SET_ITEM_DATA = "setItemData";
+  static final String PARAM_ITEMS = "items";
+  static final String PARAM_STRINGS = "strings";
+  static final String PARAM_TEXTS = "texts";
+  static final String PARAM_IMAGE_LIST = "imageList";
+  static final String PARAM_IMAGES = "images";
+  static final String PARAM_CHECKED = "checked";
+  static final String PARAM_GRAYED = "grayed";
+
+  private static final String ATTR_BATCHES = ItemDataBatch.class.getName() + "#batches";
+
+  private final Widget grid;
+  private final List<Row> rows;
+
+  public static boolean isEnabled() {
+    return RWTProperties.isBulkItemRenderingEnabled();
+  }
+
+  public static void add( Widget grid,
+                          Item item,
+                          String[] texts,
+                          Image[] images,
+                          boolean checked,
+                          boolean grayed )
+  {
+    Map<Widget, ItemDataBatch> batches = getBatches( true );
+    ItemDataBatch batch = batches.get( grid );
+    if( batch == null ) {
+      batch = new ItemDataBatch( grid );
+      batches.put( grid, batch );
+    }
+    batch.rows.add( new Row( WidgetUtil.getId( item ), texts, images, checked, grayed ) );
+  }
+
+  public static void render() {
+    Map<Widget, ItemDataBatch> batches = getBatches( false );
+    if( batches != null ) {
+      ContextProvider.getServiceStore().removeAttribute( ATTR_BATCHES );
+      for( ItemDataBatch batch : batches.values() ) {
+        if( !batch.grid.isDisposed() ) {
+          getRemoteObject( batch.grid ).call( METHOD_SET_ITEM_DATA, batch.toJson() );
+        }
+      }
+    }
+  }
+
+  private ItemDataBatch( Widget grid ) {
+    this.grid = grid;
+    rows = new ArrayList<>();
+  }
+
+  JsonObject toJson() {
+    JsonArray items = new JsonArray();
+    int columnCount = 0;
+    for( Row row : rows ) {
+      items.add( row.id );
+      columnCount = Math.max( columnCount, getLength( row.texts ) );
+      columnCount = Math.max( columnCount, getLength( row.images ) );
+    }
+    JsonObject result = new JsonObject()
+      .add( PARAM_ITEMS, items );
+    renderTexts( result, columnCount );
+    renderImages( result, columnCount );
+    if( ( grid.getStyle() & SWT.CHECK ) != 0 ) {
+      renderCheckStates( result );
+    }
+    return result;
+  }
+
+  private void renderTexts( JsonObject result, int columnCount ) {
+    Map<String, Integer> dictionary = new HashMap<>();
+    JsonArray strings = new JsonArray();
+    JsonArray columns = new JsonArray();
+    for( int column = 0; column < columnCount; column++ ) {
+      JsonArray indices = new JsonArray();
+      for( Row row : rows ) {
+        String text = column < getLength( row.texts ) ? row.texts[ column ] : null;
+        int index = -1;
+        if( text != null ) {
+          Integer known = dictionary.get( text );
+          if( known == null ) {
+            known = Integer.valueOf( dictionary.size() );
+            dictionary.put( text, known );
+            strings.add( text );
+          }
+          index = known.intValue();
+        }
+        indices.add( index );
+      }
+      columns.add( indices );
+    }
+    result.add( PARAM_STRINGS, strings ).add( PARAM_TEXTS, columns );
+  }
+
+  private void renderImages( JsonObject result, int columnCount ) {
+    Map<Image, Integer> dictionary = new IdentityHashMap<>();
+    JsonArray imageList = new JsonArray();
+    JsonArray columns = new JsonArray();
+    for( int column = 0; column < columnCount; column++ ) {
+      JsonArray indices = new JsonArray();
+      for( Row row : rows ) {
+        Image image = column < getLength( row.images ) ? row.images[ column ] : null;
+        int index = -1;
+        if( image != null ) {
+          Integer known = dictionary.get( image );
+          if( known == null ) {
+            known = Integer.valueOf( dictionary.size() );
+            dictionary.put( image, known );
+            imageList.add( JsonMapping.toJson( image ) );
+          }
+          index = known.intValue();
+        }
+        indices.add( index );
+      }
+      columns.add( indices );
+    }
+    result.add( PARAM_IMAGE_LIST, imageList ).add( PARAM_IMAGES, columns );
+  }
+
+  private void renderCheckStates( JsonObject result ) {
+    JsonArray checked = new JsonArray();
+    JsonArray grayed = new JsonArray();
+    for( Row row : rows ) {
+      checked.add( row.checked );
+      grayed.add( row.grayed );
+    }
+    result.add( PARAM_CHECKED, checked ).add( PARAM_GRAYED, grayed );
+  }
+
+  @SuppressWarnings( "unchecked" )
+  private static Map<Widget, ItemDataBatch> getBatches( boolean create ) {
+    ServiceStore serviceStore = ContextProvider.getServiceStore();
+    Map<Widget, ItemDataBatch> result
+      = ( Map<Widget, ItemDataBatch> )serviceStore.getAttribute( ATTR_BATCHES );
+    if( result == null && create ) {
+      result = new LinkedHashMap<>();
+      serviceStore.setAttribute( ATTR_BATCHES, result );
+    }
+    return result;
+  }
+
+  private static int getLength( Object[] array ) {
+    return array == null ? 0 : array.length;
+  }
+
+  private static final class Row {
+
+    final String id;
+    final String[] texts;
+    final Image[] images;
+    final boolean checked;
+    final boolean grayed;
+
+    Row( String id, String[] texts, Image[] images, boolean checked, boolean grayed ) {
+      this.id = id;
+      this.texts = texts;
+      this.images = images;
+      this.checked = checked;
+      this.grayed = grayed;
+    }
+
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 EclipseSource and others.
+ * Copyright (c) 2012, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,55 +10,72 @@
  ******************************************************************************/
 package org.eclipse.swt.internal.widgets;
 
-import java.io.StringReader;
+import static org.eclipse.rap.rwt.internal.RWTProperties.getMarkupValidationCacheSize;
+
 import java.text.MessageFormat;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-
+import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.SingletonUtil;
-import org.eclipse.swt.internal.SerializableCompatibility;
 import org.eclipse.swt.widgets.Widget;
-import org.xml.sax.Attributes;
-import org.xml.sax.InputSource;
-import org.xml.sax.helpers.DefaultHandler;
 
 
-public class MarkupValidator implements SerializableCompatibility {
+/**
+ * Validates markup texts against the supported subset of HTML. The markup is scanned in a single
+ * pass, it has to be well-formed XML that only uses the supported elements, attributes and
+ * entities.
+ * <p>
+ * The validator is shared by all UI sessions of an application. Markup texts that passed the
+ * validation are remembered in a bounded cache, so that repeated texts are not scanned again.
+ * </p>
+ */
+public class MarkupValidator {
 
   // Used by Eclipse Scout project
   public static final String MARKUP_VALIDATION_DISABLED
     = "org.eclipse.rap.rwt.markupValidationDisabled";
 
-  private static final String DTD = createDTD();
+  public static final int DEFAULT_CACHE_SIZE = 10000;
+  // Longer texts are validated every time to keep the memory consumption of the cache bounded
+  static final int MAX_CACHED_LENGTH = 1024;
+
   private static final Map<String, String[]> SUPPORTED_ELEMENTS = createSupportedElementsMap();
-  private transient final SAXParser saxParser;
+  private static final String[] SUPPORTED_ELEMENT_NAMES
+    = SUPPORTED_ELEMENTS.keySet().toArray( new String[ 0 ] );
+  private static final String[] ENTITY_NAMES = {
+    "quot", "amp", "apos", "lt", "gt", "nbsp", "ensp", "emsp", "ndash", "mdash"
+  };
+  private static final char[] ENTITY_VALUES = {
+    '"', '&', '\'', '<', '>', '\u00A0', '\u2002', '\u2003', '\u2013', '\u2014'
+  };
+
+  private final Set<String> validatedTexts;
+  private final int cacheSize;
+  private final int clearRange;
 
   public static MarkupValidator getInstance() {
-    return SingletonUtil.getSessionInstance( MarkupValidator.class );
+    return SingletonUtil.getUniqueInstance( MarkupValidator.class,
+                                            RWT.getUISession().getApplicationContext() );
   }
 
   public MarkupValidator() {
-    saxParser = createSAXParser();
+    this( getMarkupValidationCacheSize( DEFAULT_CACHE_SIZE ) );
+  }
+
+  MarkupValidator( int cacheSize ) {
+    this.cacheSize = Math.max( 0, cacheSize );
+    clearRange = Math.max( 1, this.cacheSize / 10 );
+    validatedTexts = ConcurrentHashMap.newKeySet();
   }
 
   public void validate( String text ) {
-    StringBuilder markup = new StringBuilder();
-    markup.append( DTD );
-    markup.append( "<html>" );
-    markup.append( text );
-    markup.append( "</html>" );
-    InputSource inputSource = new InputSource( new StringReader( markup.toString() ) );
-    try {
-      saxParser.parse( inputSource, new MarkupHandler() );
-    } catch( RuntimeException exception ) {
-      throw exception;
-    } catch( Exception exception ) {
-      throw new IllegalArgumentException( "Failed to parse markup text", exception );
+    if( text != null && !validatedTexts.contains( text ) ) {
+      new MarkupScanner( text ).scan();
+      remember( text );
     }
   }
 
@@ -66,32 +83,22 @@ public class MarkupValidator implements SerializableCompatibility {
     return Boolean.TRUE.equals( widget.getData( MARKUP_VALIDATION_DISABLED ) );
   }
 
-  private static SAXParser createSAXParser() {
-    SAXParser result = null;
-    SAXParserFactory parserFactory = SAXParserFactory.newInstance();
-    try {
-      result = parserFactory.newSAXParser();
-    } catch( Exception exception ) {
-      throw new RuntimeException( "Failed to create SAX parser", exception );
-    }
-    return result;
+  boolean isCached( String text ) {
+    return validatedTexts.contains( text );
   }
 
-  private static String createDTD() {
-    StringBuilder result = new StringBuilder();
-    result.append( "<!DOCTYPE html [" );
-    result.append( "<!ENTITY quot \"&#34;\">" );
-    result.append( "<!ENTITY amp \"&#38;\">" );
-    result.append( "<!ENTITY apos \"&#39;\">" );
-    result.append( "<!ENTITY lt \"&#60;\">" );
-    result.append( "<!ENTITY gt \"&#62;\">" );
-    result.append( "<!ENTITY nbsp \"&#160;\">" );
-    result.append( "<!ENTITY ensp \"&#8194;\">" );
-    result.append( "<!ENTITY emsp \"&#8195;\">" );
-    result.append( "<!ENTITY ndash \"&#8211;\">" );
-    result.append( "<!ENTITY mdash \"&#8212;\">" );
-    result.append( "]>" );
-    return result.toString();
+  private void remember( String text ) {
+    if( cacheSize > 0 && text.length() <= MAX_CACHED_LENGTH ) {
+      // Evicting a range of entries at once keeps the amortized cost per insert constant
+      if( validatedTexts.size() >= cacheSize ) {
+        Iterator<String> iterator = validatedTexts.iterator();
+        for( int i = 0; i < clearRange && iterator.hasNext(); i++ ) {
+          iterator.next();
+          iterator.remove();
+        }
+      }
+      validatedTexts.add( text );
+    }
   }
 
   private static Map<String, String[]> createSupportedElementsMap() {
@@ -123,50 +130,272 @@ public class MarkupValidator implements SerializableCompatibility {
     return result;
   }
 
-  private static class MarkupHandler extends DefaultHandler {
+  /*
+   * Scans a markup text as the content of an XML element. Element and attribute names are not
+   * copied, they are compared in place with the supported names. The scanner fails with the same
+   * messages as the former SAX based validation.
+   */
+  private static final class MarkupScanner {
+
+    private static final String PARSE_ERROR = "Failed to parse markup text";
+    // Every attribute is recorded as name start, name end, value start and value end
+    private static final int ATTRIBUTE_SLOTS = 4;
+
+    private final String text;
+    private final int length;
+    private int position;
+    private int[] openElements;
+    private int openElementCount;
+    private int[] attributes;
+    private int attributeCount;
+
+    MarkupScanner( String text ) {
+      this.text = text;
+      length = text.length();
+    }
+
+    void scan() {
+      while( position < length ) {
+        char ch = text.charAt( position );
+        if( ch == '<' ) {
+          scanMarkup();
+        } else if( ch == '&' ) {
+          scanReference();
+        } else {
+          if( ch == ']' && text.startsWith( "]]>", position ) ) {
+            fail();
+          }
+          skipChar();
+        }
+      }
+      if( openElementCount > 0 ) {
+        fail();
+      }
+    }
 
-    @Override
-    public void startElement( String uri, String localName, String name, Attributes attributes ) {
-      checkSupportedElements( name );
-      checkSupportedAttributes( name, attributes );
-      checkMandatoryAttributes( name, attributes );
+    private void scanMarkup() {
+      if( text.startsWith( "<!--", position ) ) {
+        scanComment();
+      } else if( text.startsWith( "<![CDATA[", position ) ) {
+        position += 9;
+        skipUntil( "]]>" );
+      } else if( text.startsWith( "<?", position ) ) {
+        scanProcessingInstruction();
+      } else if( text.startsWith( "</", position ) ) {
+        scanEndTag();
+      } else {
+        scanStartTag();
+      }
     }
 
-    private static void checkSupportedElements( String elementName ) {
-      if( !SUPPORTED_ELEMENTS.containsKey( elementName ) ) {
-        throw new IllegalArgumentException( "Unsupported element in markup text: " + elementName );
+    private void scanComment() {
+      position += 4;
+      int end = text.indexOf( "--", position );
+      if( end == -1 || !text.startsWith( "-->", end ) ) {
+        fail();
+      }
+      while( position < end ) {
+        skipChar();
       }
+      position = end + 3;
     }
 
-    private static void checkSupportedAttributes( String elementName, Attributes attributes ) {
-      if( attributes.getLength() > 0 ) {
-        List<String> supportedAttributes = Arrays.asList( SUPPORTED_ELEMENTS.get( elementName ) );
-        int index = 0;
-        String attributeName = attributes.getQName( index );
-        while( attributeName != null ) {
-          if( !supportedAttributes.contains( attributeName ) ) {
-            String message = "Unsupported attribute \"{0}\" for element \"{1}\" in markup text";
-            message = MessageFormat.format( message, new Object[] { attributeName, elementName } );
-            throw new IllegalArgumentException( message );
+    private void scanProcessingInstruction() {
+      position += 2;
+      int nameStart = position;
+      int nameEnd = scanName();
+      if( nameEnd - nameStart == 3 && text.regionMatches( true, nameStart, "xml", 0, 3 ) ) {
+        fail();
+      }
+      if( !text.startsWith( "?>", position ) && !skipWhitespace() ) {
+        fail();
+      }
+      skipUntil( "?>" );
+    }
+
+    private void scanStartTag() {
+      position++;
+      int nameStart = position;
+      int nameEnd = scanName();
+      attributeCount = 0;
+      boolean emptyElement = false;
+      boolean tagClosed = false;
+      while( !tagClosed ) {
+        boolean whitespace = skipWhitespace();
+        if( text.startsWith( "/>", position ) ) {
+          position += 2;
+          emptyElement = true;
+          tagClosed = true;
+        } else if( text.startsWith( ">", position ) ) {
+          position++;
+          tagClosed = true;
+        } else if( whitespace ) {
+          scanAttribute();
+        } else {
+          fail();
+        }
+      }
+      checkDuplicateAttributes();
+      String elementName = checkSupportedElement( nameStart, nameEnd );
+      checkSupportedAttributes( elementName );
+      checkMandatoryAttributes( elementName );
+      if( !emptyElement ) {
+        pushElement( nameStart, nameEnd );
+      }
+    }
+
+    private void scanAttribute() {
+      int nameStart = position;
+      int nameEnd = scanName();
+      skipWhitespace();
+      expect( '=' );
+      skipWhitespace();
+      if( position >= length ) {
+        fail();
+      }
+      char quote = text.charAt( position );
+      if( quote != '"' && quote != '\'' ) {
+        fail();
+      }
+      position++;
+      int valueStart = position;
+      while( position < length && text.charAt( position ) != quote ) {
+        char ch = text.charAt( position );
+        if( ch == '<' ) {
+          fail();
+        } else if( ch == '&' ) {
+          scanReference();
+        } else {
+          skipChar();
+        }
+      }
+      int valueEnd = position;
+      expect( quote );
+      addAttribute( nameStart, nameEnd, valueStart, valueEnd );
+    }
+
+    private void scanEndTag() {
+      position += 2;
+      int nameStart = position;
+      int nameEnd = scanName();
+      skipWhitespace();
+      expect( '>' );
+      if( openElementCount == 0 ) {
+        fail();
+      }
+      openElementCount--;
+      int openStart = openElements[ openElementCount * 2 ];
+      int openEnd = openElements[ openElementCount * 2 + 1 ];
+      int nameLength = nameEnd - nameStart;
+      if( openEnd - openStart != nameLength
+          || !text.regionMatches( nameStart, text, openStart, nameLength ) )
+      {
+        fail();
+      }
+    }
+
+    private void scanReference() {
+      int end = text.indexOf( ';', position );
+      if( end == -1 ) {
+        fail();
+      }
+      if( text.startsWith( "&#", position ) ) {
+        checkCodePoint( parseCharacterReference( position, end ) );
+      } else if( findEntity( position + 1, end ) == -1 ) {
+        fail();
+      }
+      position = end + 1;
+    }
+
+    private int parseCharacterReference( int start, int end ) {
+      int radix = 10;
+      int digitsStart = start + 2;
+      if( digitsStart < end && text.charAt( digitsStart ) == 'x' ) {
+        radix = 16;
+        digitsStart++;
+      }
+      if( digitsStart == end ) {
+        fail();
+      }
+      int result = 0;
+      for( int i = digitsStart; i < end; i++ ) {
+        int digit = getDigit( text.charAt( i ), radix );
+        if( digit == -1 ) {
+          fail();
+        }
+        result = result * radix + digit;
+        if( result > Character.MAX_CODE_POINT ) {
+          fail();
+        }
+      }
+      return result;
+    }
+
+    private int findEntity( int start, int end ) {
+      for( int i = 0; i < ENTITY_NAMES.length; i++ ) {
+        if( matches( start, end, ENTITY_NAMES[ i ] ) ) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void checkDuplicateAttributes() {
+      for( int i = 1; i < attributeCount; i++ ) {
+        int nameStart = attributes[ i * ATTRIBUTE_SLOTS ];
+        int nameEnd = attributes[ i * ATTRIBUTE_SLOTS + 1 ];
+        for( int j = 0; j < i; j++ ) {
+          int otherStart = attributes[ j * ATTRIBUTE_SLOTS ];
+          int otherEnd = attributes[ j * ATTRIBUTE_SLOTS + 1 ];
+          int nameLength = nameEnd - nameStart;
+          if( otherEnd - otherStart == nameLength
+              && text.regionMatches( nameStart, text, otherStart, nameLength ) )
+          {
+            fail();
           }
-          index++;
-          attributeName = attributes.getQName( index );
         }
       }
     }
 
-    private static void checkMandatoryAttributes( String elementName, Attributes attributes ) {
-      checkIntAttribute( elementName, attributes, "img", "width" );
-      checkIntAttribute( elementName, attributes, "img", "height" );
+    private String checkSupportedElement( int nameStart, int nameEnd ) {
+      for( String elementName : SUPPORTED_ELEMENT_NAMES ) {
+        if( matches( nameStart, nameEnd, elementName ) ) {
+          return elementName;
+        }
+      }
+      String elementName = text.substring( nameStart, nameEnd );
+      throw new IllegalArgumentException( "Unsupported element in markup text: " + elementName );
+    }
+
+    private void checkSupportedAttributes( String elementName ) {
+      String[] supportedAttributes = SUPPORTED_ELEMENTS.get( elementName );
+      for( int i = 0; i < attributeCount; i++ ) {
+        int nameStart = attributes[ i * ATTRIBUTE_SLOTS ];
+        int nameEnd = attributes[ i * ATTRIBUTE_SLOTS + 1 ];
+        boolean supported = false;
+        for( int j = 0; !supported && j < supportedAttributes.length; j++ ) {
+          supported = matches( nameStart, nameEnd, supportedAttributes[ j ] );
+        }
+        if( !supported ) {
+          String attributeName = text.substring( nameStart, nameEnd );
+          String message = "Unsupported attribute \"{0}\" for element \"{1}\" in markup text";
+          message = MessageFormat.format( message, new Object[] { attributeName, elementName } );
+          throw new IllegalArgumentException( message );
+        }
+      }
     }
 
-    private static void checkIntAttribute( String elementName,
-                                           Attributes attributes,
-                                           String checkedElementName,
-                                           String checkedAttributeName )
+    private void checkMandatoryAttributes( String elementName ) {
+      checkIntAttribute( elementName, "img", "width" );
+      checkIntAttribute( elementName, "img", "height" );
+    }
+
+    private void checkIntAttribute( String elementName,
+                                    String checkedElementName,
+                                    String checkedAttributeName )
     {
       if( checkedElementName.equals( elementName ) ) {
-        String attribute = attributes.getValue( checkedAttributeName );
+        String attribute = getAttributeValue( checkedAttributeName );
         try {
           Integer.parseInt( attribute );
         } catch( @SuppressWarnings( "unused" ) NumberFormatException exception ) {
@@ -179,6 +408,166 @@ public class MarkupValidator implements SerializableCompatibility {
       }
     }
 
+    /*
+     * Returns the normalized attribute value, i.e. with resolved references and whitespace
+     * characters replaced by spaces.
+     */
+    private String getAttributeValue( String attributeName ) {
+      for( int i = 0; i < attributeCount; i++ ) {
+        int offset = i * ATTRIBUTE_SLOTS;
+        if( matches( attributes[ offset ], attributes[ offset + 1 ], attributeName ) ) {
+          return normalizeValue( attributes[ offset + 2 ], attributes[ offset + 3 ] );
+        }
+      }
+      return null;
+    }
+
+    private String normalizeValue( int start, int end ) {
+      StringBuilder result = new StringBuilder( end - start );
+      int index = start;
+      while( index < end ) {
+        char ch = text.charAt( index );
+        if( ch == '&' ) {
+          int referenceEnd = text.indexOf( ';', index );
+          if( text.startsWith( "&#", index ) ) {
+            result.appendCodePoint( parseCharacterReference( index, referenceEnd ) );
+          } else {
+            result.append( ENTITY_VALUES[ findEntity( index + 1, referenceEnd ) ] );
+          }
+          index = referenceEnd + 1;
+        } else {
+          result.append( isWhitespace( ch ) ? ' ' : ch );
+          index++;
+        }
+      }
+      return result.toString();
+    }
+
+    private int scanName() {
+      if( position >= length || !isNameStartChar( text.charAt( position ) ) ) {
+        fail();
+      }
+      position++;
+      while( position < length && isNameChar( text.charAt( position ) ) ) {
+        position++;
+      }
+      return position;
+    }
+
+    private boolean skipWhitespace() {
+      int start = position;
+      while( position < length && isWhitespace( text.charAt( position ) ) ) {
+        position++;
+      }
+      return position > start;
+    }
+
+    private void skipUntil( String delimiter ) {
+      int end = text.indexOf( delimiter, position );
+      if( end == -1 ) {
+        fail();
+      }
+      while( position < end ) {
+        skipChar();
+      }
+      position = end + delimiter.length();
+    }
+
+    private void skipChar() {
+      char ch = text.charAt( position );
+      if( Character.isHighSurrogate( ch ) ) {
+        if( position + 1 >= length || !Character.isLowSurrogate( text.charAt( position + 1 ) ) ) {
+          fail();
+        }
+        position += 2;
+      } else {
+        checkCodePoint( ch );
+        position++;
+      }
+    }
+
+    private void expect( char ch ) {
+      if( position >= length || text.charAt( position ) != ch ) {
+        fail();
+      }
+      position++;
+    }
+
+    private void pushElement( int nameStart, int nameEnd ) {
+      if( openElements == null ) {
+        openElements = new int[ 16 ];
+      } else if( openElements.length == openElementCount * 2 ) {
+        int[] newOpenElements = new int[ openElements.length * 2 ];
+        System.arraycopy( openElements, 0, newOpenElements, 0, openElements.length );
+        openElements = newOpenElements;
+      }
+      openElements[ openElementCount * 2 ] = nameStart;
+      openElements[ openElementCount * 2 + 1 ] = nameEnd;
+      openElementCount++;
+    }
+
+    private void addAttribute( int nameStart, int nameEnd, int valueStart, int valueEnd ) {
+      if( attributes == null ) {
+        attributes = new int[ ATTRIBUTE_SLOTS * 4 ];
+      } else if( attributes.length == attributeCount * ATTRIBUTE_SLOTS ) {
+        int[] newAttributes = new int[ attributes.length * 2 ];
+        System.arraycopy( attributes, 0, newAttributes, 0, attributes.length );
+        attributes = newAttributes;
+      }
+      int offset = attributeCount * ATTRIBUTE_SLOTS;
+      attributes[ offset ] = nameStart;
+      attributes[ offset + 1 ] = nameEnd;
+      attributes[ offset + 2 ] = valueStart;
+      attributes[ offset + 3 ] = valueEnd;
+      attributeCount++;
+    }
+
+    private boolean matches( int start, int end, String name ) {
+      return end - start == name.length() && text.startsWith( name, start );
+    }
+
+    private static void checkCodePoint( int codePoint ) {
+      boolean valid = codePoint >= 0x20
+                    ? codePoint <= 0xD7FF
+                      || codePoint >= 0xE000 && codePoint <= 0xFFFD
+                      || codePoint >= 0x10000 && codePoint <= 0x10FFFF
+                    : codePoint == 0x9 || codePoint == 0xA || codePoint == 0xD;
+      if( !valid ) {
+        fail();
+      }
+    }
+
+    private static int getDigit( char ch, int radix ) {
+      int result = -1;
+      if( ch >= '0' && ch <= '9' ) {
+        result = ch - '0';
+      } else if( radix == 16 && ch >= 'a' && ch <= 'f' ) {
+        result = ch - 'a' + 10;
+      } else if( radix == 16 && ch >= 'A' && ch <= 'F' ) {
+        result = ch - 'A' + 10;
+      }
+      return result;
+    }
+
+    private static boolean isWhitespace( char ch ) {
+      return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+    }
+
+    private static boolean isNameStartChar( char ch ) {
+      return Character.isLetter( ch ) || ch == '_' || ch == ':';
+    }
+
+    private static boolean isNameChar( char ch ) {
+      int type = Character.getType( ch );
+      return Character.isLetterOrDigit( ch ) || ch == '-' || ch == '.' || ch == '_' || ch == ':'
+          || ch == '\u00B7' || type == Character.NON_SPACING_MARK
+          || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static void fail() {
+      throw new IllegalArgumentException( PARSE_ERROR );
+    }
+
   }
 
 }
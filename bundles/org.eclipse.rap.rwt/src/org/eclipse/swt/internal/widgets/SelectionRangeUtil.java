@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.widgets;
+
+import org.eclipse.rap.json.JsonArray;
+
+
+/**
+ * Encodes the selection of a table or tree as ranges of item indices. A range of top-level items
+ * is rendered as <code>[ start, end ]</code>, a range of child items as
+ * <code>[ parentItemId, start, end ]</code>. Both bounds are inclusive.
+ */
+public final class SelectionRangeUtil {
+
+  /**
+   * Adds the ranges of the given item indices to the array.
+   *
+   * @param result the array to add the ranges to
+   * @param parentId the id of the parent item or <code>null</code> for top-level items
+   * @param indices the selected item indices in ascending order
+   */
+  public static void addRanges( JsonArray result, String parentId, int[] indices ) {
+    int position = 0;
+    while( position < indices.length ) {
+      int start = indices[ position ];
+      int end = start;
+      position++;
+      while( position < indices.length && indices[ position ] == end + 1 ) {
+        end++;
+        position++;
+      }
+      JsonArray range = new JsonArray();
+      if( parentId != null ) {
+        range.add( parentId );
+      }
+      result.add( range.add( start ).add( end ) );
+    }
+  }
+
+  private SelectionRangeUtil() {
+    // prevent instantiation
+  }
+
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.widgets;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Executes the tasks scheduled with <code>Display#timerExec()</code> for all displays of an
+ * application. A single daemon thread is shared by all UI sessions, it is started on the first
+ * scheduled task.
+ */
+public class TimerExecExecutor {
+
+  private static final String THREAD_NAME = "RWT timerExec scheduler";
+
+  private final Object lock;
+  private ScheduledThreadPoolExecutor executor;
+
+  public TimerExecExecutor() {
+    lock = new Object();
+  }
+
+  public ScheduledFuture<?> schedule( Runnable task, long delay ) {
+    return getExecutor().schedule( task, delay, TimeUnit.MILLISECONDS );
+  }
+
+  /**
+   * Returns the number of tasks that are scheduled but not yet executed or cancelled.
+   */
+  public int getPendingTaskCount() {
+    synchronized( lock ) {
+      return executor == null ? 0 : executor.getQueue().size();
+    }
+  }
+
+  public void shutdown() {
+    synchronized( lock ) {
+      if( executor != null ) {
+        executor.shutdownNow();
+        executor = null;
+      }
+    }
+  }
+
+  private ScheduledThreadPoolExecutor getExecutor() {
+    synchronized( lock ) {
+      if( executor == null ) {
+        executor = createExecutor();
+      }
+      return executor;
+    }
+  }
+
+  private static ScheduledThreadPoolExecutor createExecutor() {
+    ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor( 1, new ThreadFactory() {
+      @Override
+      public Thread newThread( Runnable runnable ) {
+        Thread thread = new Thread( runnable, THREAD_NAME );
+        thread.setDaemon( true );
+        return thread;
+      }
+    } );
+    // Cancelled tasks must not remain in the queue until their delay has elapsed
+    result.setRemoveOnCancelPolicy( true );
+    return result;
+  }
+
+}
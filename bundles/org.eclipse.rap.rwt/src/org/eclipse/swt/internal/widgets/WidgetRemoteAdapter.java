@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,8 +14,11 @@ package org.eclipse.swt.internal.widgets;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.lifecycle.DisposedWidgets;
 import org.eclipse.rap.rwt.internal.lifecycle.RemoteAdapter;
+import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
+import org.eclipse.rap.rwt.internal.lifecycle.WidgetUtil;
 import org.eclipse.rap.rwt.internal.protocol.RemoteObjectFactory;
 import org.eclipse.rap.rwt.remote.RemoteObject;
 import org.eclipse.swt.internal.SerializableCompatibility;
@@ -28,6 +31,7 @@ public class WidgetRemoteAdapter implements RemoteAdapter, SerializableCompatibi
   private static final int DATA = 1;
   private static final int LISTENERS = 2;
   private static final int VARIANT = 3;
+  private static final int VALUES = 4;
 
   private final String id;
   private Widget parent;
@@ -120,6 +124,35 @@ public class WidgetRemoteAdapter implements RemoteAdapter, SerializableCompatibi
     return variant;
   }
 
+  public void markValuesPreserved() {
+    markPreserved( VALUES );
+  }
+
+  public boolean hasPreservedValues() {
+    return hasPreserved( VALUES );
+  }
+
+  /**
+   * Must be called by widgets whose LCA supports change tracking before a value that is
+   * preserved by the LCA is changed. Preserves the values of the given widget on the first
+   * change within a request.
+   *
+   * @param widget the widget this adapter belongs to
+   */
+  public void markDirty( Widget widget ) {
+    if( initialized && !hasPreservedValues() && RWTProperties.isChangeTrackingEnabled() ) {
+      WidgetLCA<Widget> lca = WidgetUtil.getLCA( widget );
+      if( lca.supportsChangeTracking() ) {
+        lca.preserveValues( widget );
+        markValuesPreserved();
+      }
+    }
+  }
+
+  public boolean isDirty() {
+    return preserved != 0 || !preservedValues.isEmpty() || renderRunnables != null;
+  }
+
   public void clearPreserved() {
     preserved = 0;
     preservedValues.clear();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -17,6 +17,7 @@ import java.util.List;
 import org.eclipse.rap.rwt.internal.lifecycle.ProcessActionRunner;
 import org.eclipse.rap.rwt.internal.lifecycle.RemoteAdapter;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
+import org.eclipse.rap.rwt.internal.textsize.TextSizeUtil;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Point;
@@ -566,7 +567,12 @@ public class Composite extends Scrollable {
       boolean changed = hasState( LAYOUT_CHANGED );
       removeState( LAYOUT_NEEDED | LAYOUT_CHANGED );
 // if (resize) setResizeChildren (false);
-      layout.layout( this, changed );
+      Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+      try {
+        layout.layout( this, changed );
+      } finally {
+        TextSizeUtil.setCurrentOwner( previousOwner );
+      }
 // if (resize) setResizeChildren (true);
     }
     if( all ) {
@@ -590,7 +596,12 @@ public class Composite extends Scrollable {
       if( wHint == SWT.DEFAULT || hHint == SWT.DEFAULT ) {
         hasChanged |= hasState( LAYOUT_CHANGED );
         removeState( LAYOUT_CHANGED );
-        size = layout.computeSize( this, wHint, hHint, hasChanged );
+        Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+        try {
+          size = layout.computeSize( this, wHint, hHint, hasChanged );
+        } finally {
+          TextSizeUtil.setCurrentOwner( previousOwner );
+        }
       } else {
         size = new Point( wHint, hHint );
       }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,6 +19,7 @@ import static org.eclipse.swt.internal.widgets.MarkupValidator.isValidationDisab
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.lifecycle.RemoteAdapter;
 import org.eclipse.rap.rwt.internal.lifecycle.ReparentedControls;
+import org.eclipse.rap.rwt.internal.textsize.TextSizeUtil;
 import org.eclipse.rap.rwt.internal.theme.ThemeAdapter;
 import org.eclipse.rap.rwt.internal.util.ActiveKeysUtil;
 import org.eclipse.rap.rwt.theme.BoxDimensions;
@@ -1223,7 +1224,12 @@ public abstract class Control extends Widget implements Drawable {
    */
   public void pack( boolean changed ) {
     checkWidget();
-    setSize( computeSize( SWT.DEFAULT, SWT.DEFAULT, changed ) );
+    Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+    try {
+      setSize( computeSize( SWT.DEFAULT, SWT.DEFAULT, changed ) );
+    } finally {
+      TextSizeUtil.setCurrentOwner( previousOwner );
+    }
     packed = true;
   }
 
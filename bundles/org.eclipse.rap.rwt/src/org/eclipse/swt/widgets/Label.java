@@ -156,6 +156,7 @@ public class Label extends Control {
       if( isMarkupEnabledFor( this ) && !isValidationDisabledFor( this ) ) {
         MarkupValidator.getInstance().validate( text );
       }
+      markDirty();
       this.text = text;
       image = null;
     }
@@ -197,6 +198,7 @@ public class Label extends Control {
   public void setImage( Image image ) {
     checkWidget();
     if( ( style & SWT.SEPARATOR ) == 0 ) {
+      markDirty();
       this.image = image;
       text = "";
     }
@@ -236,6 +238,7 @@ public class Label extends Control {
     if(    ( style & SWT.SEPARATOR ) == 0
         && ( alignment & ( SWT.LEFT | SWT.RIGHT | SWT.CENTER ) ) != 0 )
     {
+      markDirty();
       style &= ~( SWT.LEFT | SWT.RIGHT | SWT.CENTER );
       style |= alignment & ( SWT.LEFT | SWT.RIGHT | SWT.CENTER );
     }
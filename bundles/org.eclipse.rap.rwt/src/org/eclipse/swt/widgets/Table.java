@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -18,6 +18,8 @@ import static org.eclipse.swt.internal.widgets.MarkupUtil.isToolTipMarkupEnabled
 import static org.eclipse.swt.internal.widgets.MarkupUtil.MarkupTarget.TEXT;
 import static org.eclipse.swt.internal.widgets.MarkupValidator.isValidationDisabledFor;
 
+import java.util.BitSet;
+
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.lifecycle.ProcessActionRunner;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
@@ -289,6 +291,11 @@ public class Table extends Composite {
     public boolean isFixedColumn( TableColumn column ) {
       return Table.this.isFixedColumn( Table.this.indexOf( column ) );
     }
+
+    @Override
+    public int getItemsVersion() {
+      return itemsVersion;
+    }
   }
 
   /**
@@ -300,7 +307,6 @@ public class Table extends Composite {
   public static final String ALWAYS_HIDE_SELECTION = Table.class.getName() + "#alwaysHideSelection";
 
   private static final int GRID_WIDTH = 1;
-  private static final int[] EMPTY_SELECTION = new int[ 0 ];
 
   private transient CompositeItemHolder itemHolder;
   private final ITableAdapter tableAdapter;
@@ -310,7 +316,8 @@ public class Table extends Composite {
   private final ItemHolder<TableColumn> columnHolder;
   private int[] columnImageCount;
   private int[] columnOrder;
-  private int[] selection;
+  private final BitSet selection;
+  private int itemsVersion;
   private boolean linesVisible;
   private boolean headerVisible;
   private Color headerBackground;
@@ -367,7 +374,7 @@ public class Table extends Composite {
     tableAdapter = new TableAdapter();
     columnHolder = new ItemHolder<>( TableColumn.class );
     setTableEmpty();
-    selection = EMPTY_SELECTION;
+    selection = new BitSet();
     customItemHeight = -1;
     bufferedCellSpacing = -1;
   }
@@ -1071,20 +1078,9 @@ public class Table extends Composite {
    */
   public int getSelectionIndex() {
     checkWidget();
-    int result = -1;
-    int topSelectedIndex = -1;
-    for( int i = 0; i < selection.length; i++ ) {
-      if( focusIndex == selection[ i ] ) {
-        result = selection[ i ];
-      }
-      if( topSelectedIndex == -1 ) {
-        topSelectedIndex = selection[ i ];
-      } else {
-        topSelectedIndex = Math.min( topSelectedIndex, selection[ i ] );
-      }
-    }
-    if( result == -1 ) {
-      result = topSelectedIndex;
+    int result = selection.nextSetBit( 0 );
+    if( focusIndex >= 0 && selection.get( focusIndex ) ) {
+      result = focusIndex;
     }
     return result;
   }
@@ -1123,7 +1119,7 @@ public class Table extends Composite {
    */
   public int getSelectionCount() {
     checkWidget();
-    return selection.length;
+    return selection.cardinality();
   }
 
   /**
@@ -1176,10 +1172,10 @@ public class Table extends Composite {
    */
   public TableItem[] getSelection() {
     checkWidget();
-    int length = selection.length;
-    TableItem[] result = new TableItem[ length ];
-    for( int i = 0; i < selection.length; i++ ) {
-      result[ i ] = _getItem( selection[ i ] );
+    int[] indices = getSelectedIndices();
+    TableItem[] result = new TableItem[ indices.length ];
+    for( int i = 0; i < indices.length; i++ ) {
+      result[ i ] = _getItem( indices[ i ] );
     }
     return result;
   }
@@ -1300,13 +1296,7 @@ public class Table extends Composite {
    */
   public int[] getSelectionIndices() {
     checkWidget();
-    // TODO [rh] directly return a copy of the selection array
-    TableItem[] currentSelection = getSelection();
-    int[] result = new int[ currentSelection.length ];
-    for( int i = 0; i < currentSelection.length; i++ ) {
-      result[ i ] = indexOf( currentSelection[ i ] );
-    }
-    return result;
+    return getSelectedIndices();
   }
 
   /**
@@ -1324,13 +1314,7 @@ public class Table extends Composite {
    */
   public boolean isSelected( int index ) {
     checkWidget();
-    boolean result = false;
-    if( index >= 0 && index < itemCount ) {
-      for( int i = 0; !result && i < selection.length; i++ ) {
-        result = selection[ i ] == index;
-      }
-    }
-    return result;
+    return index >= 0 && index < itemCount && selection.get( index );
   }
 
   /**
@@ -1349,16 +1333,9 @@ public class Table extends Composite {
     checkWidget();
     if( index >= 0 && index < itemCount ) {
       if( ( style & SWT.SINGLE ) != 0 ) {
-        selection = new int[] { index };
-      } else {
-        if( !isSelected( index ) ) {
-          int length = selection.length;
-          int[] newSelection = new int[ length + 1 ];
-          System.arraycopy( selection, 0, newSelection, 0, length );
-          newSelection[ length ] = index;
-          selection = newSelection;
-        }
+        selection.clear();
       }
+      selection.set( index );
     }
   }
 
@@ -1391,12 +1368,12 @@ public class Table extends Composite {
       if( itemCount != 0 && start < itemCount ) {
         int adjustedStart = Math.max( 0, start );
         int adjustedEnd = Math.min( end, itemCount - 1 );
-        if( adjustedStart == 0 && adjustedEnd == itemCount - 1 ) {
+        if( ( style & SWT.SINGLE ) != 0 ) {
+          select( adjustedStart );
+        } else if( adjustedStart == 0 && adjustedEnd == itemCount - 1 ) {
           selectAll();
         } else {
-          for( int i = adjustedStart; i <= adjustedEnd; i++ ) {
-            select( i );
-          }
+          selection.set( adjustedStart, adjustedEnd + 1 );
         }
       }
     }
@@ -1449,12 +1426,14 @@ public class Table extends Composite {
    *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
    * </ul>
    */
-  // TODO [rh] revise: a VIRTUAL table would resolve all its items when
-  //      selectAll is called. Compare how SWT handles this.
   public void selectAll() {
     checkWidget();
     if( ( style & SWT.SINGLE ) == 0 ) {
-      setSelection( getItems() );
+      selection.set( 0, itemCount );
+      if( itemCount > 0 ) {
+        setFocusIndex( 0 );
+      }
+      showSelection();
     }
   }
 
@@ -1492,13 +1471,10 @@ public class Table extends Composite {
    */
   public void deselect( int start, int end ) {
     checkWidget();
-    if( start == 0 && end == itemCount - 1 ) {
-      deselectAll();
-    } else {
-      int actualStart = Math.max( 0, start );
-      for( int i = actualStart; i <= end; i++ ) {
-        removeFromSelection( i );
-      }
+    int actualStart = Math.max( 0, start );
+    int actualEnd = Math.min( end, itemCount - 1 );
+    if( actualStart <= actualEnd ) {
+      selection.clear( actualStart, actualEnd + 1 );
     }
   }
 
@@ -1539,7 +1515,7 @@ public class Table extends Composite {
    */
   public void deselectAll() {
     checkWidget();
-    selection = EMPTY_SELECTION;
+    selection.clear();
   }
 
   //////////////////////////////////
@@ -2307,13 +2283,9 @@ public class Table extends Composite {
     System.arraycopy( items, index, items, index + 1, itemCount - index );
     items[ index ] = item;
     itemCount++;
+    itemsVersion++;
     adjustItemIndices( index );
-    // adjust the selection indices
-    for( int i = 0; i < selection.length; i++ ) {
-      if( selection[ i ] >= index ) {
-        selection[ i ] = selection[ i ] + 1;
-      }
-    }
+    shiftSelectionUp( index );
     // advance focusIndex when an item is inserted before the focused item
     if( index <= focusIndex ) {
       focusIndex++;
@@ -2324,7 +2296,8 @@ public class Table extends Composite {
   final void destroyItem( TableItem item, int index ) {
     if( !isInDispose() ) {
       removeFromSelection( index );
-      adjustSelectionIdices( index );
+      shiftSelectionDown( index );
+      itemsVersion++;
       if( item != null ) {
         int columnCount = Math.max( 1, columnHolder.size() );
         for( int i = 0; i < columnCount; i++ ) {
@@ -2671,27 +2644,44 @@ public class Table extends Composite {
 
   private void removeFromSelection( int index ) {
     if( index >= 0 && index < itemCount ) {
-      boolean found = false;
-      for( int i = 0; !found && i < selection.length; i++ ) {
-        if( index == selection[ i ] ) {
-          int length = selection.length;
-          int[] newSel = new int[ length - 1 ];
-          System.arraycopy( selection, 0, newSel, 0, i );
-          if( i < length - 1 ) {
-            System.arraycopy( selection, i + 1, newSel, i, length - i - 1 );
-          }
-          selection = newSel;
-          found = true;
-        }
-      }
+      selection.clear( index );
     }
   }
 
-  private void adjustSelectionIdices( int removedIndex ) {
-    for( int i = 0; i < selection.length; i++ ) {
-      if( selection[ i ] >= removedIndex ) {
-        selection[ i ] = selection[ i ] - 1;
-      }
+  private int[] getSelectedIndices() {
+    int[] result = new int[ selection.cardinality() ];
+    int index = selection.nextSetBit( 0 );
+    for( int i = 0; i < result.length; i++ ) {
+      result[ i ] = index;
+      index = selection.nextSetBit( index + 1 );
+    }
+    return result;
+  }
+
+  /*
+   * Moves the selected indices starting at the given index up by one. Every run of consecutive
+   * indices is moved by clearing its first and setting the index behind its last bit.
+   */
+  private void shiftSelectionUp( int insertedIndex ) {
+    int start = selection.nextSetBit( insertedIndex );
+    while( start >= 0 ) {
+      int end = selection.nextClearBit( start );
+      selection.clear( start );
+      selection.set( end );
+      start = selection.nextSetBit( end + 1 );
+    }
+  }
+
+  /*
+   * Moves the selected indices behind the given (already deselected) index down by one.
+   */
+  private void shiftSelectionDown( int removedIndex ) {
+    int start = selection.nextSetBit( removedIndex + 1 );
+    while( start >= 0 ) {
+      int end = selection.nextClearBit( start );
+      selection.set( start - 1 );
+      selection.clear( end - 1 );
+      start = selection.nextSetBit( end );
     }
   }
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -287,7 +287,13 @@ public class TableColumn extends Item {
    */
   public void pack() {
     checkWidget();
-    int width = getPreferredWidth();
+    int width;
+    Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+    try {
+      width = getPreferredWidth();
+    } finally {
+      TextSizeUtil.setCurrentOwner( previousOwner );
+    }
     if( width != getWidth() ) {
       setWidth( width );
     }
@@ -15,42 +15,48 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectInputValidation;
 import java.io.ObjectOutputStream;
-import java.util.Collection;
-import java.util.Date;
-import java.util.LinkedList;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.engine.PostDeserialization;
 import org.eclipse.rap.rwt.internal.serverpush.ServerPushManager;
 import org.eclipse.rap.rwt.service.UISession;
 import org.eclipse.swt.internal.SerializableCompatibility;
 import org.eclipse.swt.internal.widgets.IDisplayAdapter;
+import org.eclipse.swt.internal.widgets.TimerExecExecutor;
 
 
 class TimerExecScheduler implements SerializableCompatibility {
 
   final Display display;
   final ServerPushManager serverPushManager;
-  private final Collection<TimerExecTask> tasks;
-  private transient Timer timer;
+  // Runnables are identified by identity, see Display#timerExec()
+  private final Map<Runnable, TimerExecTask> tasks;
+  private transient TimerExecExecutor executor;
 
   TimerExecScheduler( Display display ) {
     this.display = display;
     serverPushManager = ServerPushManager.getInstance();
-    tasks = new LinkedList<>();
+    tasks = new IdentityHashMap<>();
   }
 
   void schedule( int milliseconds, Runnable runnable ) {
     synchronized( display.getDeviceLock() ) {
-      initializeTimer();
-      TimerExecTask task = findOrAddTask( runnable );
-      timer.schedule( task, milliseconds );
+      TimerExecTask task = createTask( runnable );
+      TimerExecTask replacedTask = tasks.put( runnable, task );
+      if( replacedTask != null ) {
+        replacedTask.cancel();
+      }
+      task.schedule( getExecutor(), milliseconds );
     }
   }
 
   void cancel( Runnable runnable ) {
-    TimerExecTask task = findAndRemoveTask( runnable );
+    TimerExecTask task;
+    synchronized( display.getDeviceLock() ) {
+      task = tasks.remove( runnable );
+    }
     if( task != null ) {
       task.cancel();
     }
@@ -58,67 +64,47 @@ class TimerExecScheduler implements SerializableCompatibility {
 
   void dispose() {
     synchronized( display.getDeviceLock() ) {
-      if( timer != null ) {
-        timer.cancel();
+      for( TimerExecTask task : tasks.values() ) {
+        task.cancel();
       }
       tasks.clear();
     }
   }
 
-  private void initializeTimer() {
-    if( timer == null ) {
-      timer = createTimer();
+  TimerExecExecutor getExecutor() {
+    if( executor == null ) {
+      executor = getApplicationContext().getTimerExecExecutor();
     }
+    return executor;
   }
 
-  Timer createTimer() {
-    return new Timer( "RWT timerExec scheduler", true );
+  TimerExecTask createTask( Runnable runnable ) {
+    return new TimerExecTask( this, runnable );
   }
 
-  private TimerExecTask findOrAddTask( Runnable runnable ) {
+  void removeTask( TimerExecTask task ) {
     synchronized( display.getDeviceLock() ) {
-      for( TimerExecTask task : tasks ) {
-        if( task.getRunnable() == runnable ) {
-          return task;
-        }
+      if( tasks.get( task.getRunnable() ) == task ) {
+        tasks.remove( task.getRunnable() );
       }
-      TimerExecTask task = createTask( runnable );
-      tasks.add( task );
-      return task;
     }
   }
 
-  TimerExecTask createTask( Runnable runnable ) {
-    return new TimerExecTask( this, runnable );
-  }
-
-  private TimerExecTask findAndRemoveTask( Runnable runnable ) {
+  private void rescheduleTasks() {
     synchronized( display.getDeviceLock() ) {
-      for( TimerExecTask task : tasks ) {
-        if( task.getRunnable() == runnable ) {
-          tasks.remove( task );
-          return task;
-        }
+      for( TimerExecTask task : tasks.values() ) {
+        task.reschedule( getExecutor() );
       }
     }
-    return null;
   }
 
-  void removeTask( TimerTask task ) {
-    synchronized( display.getDeviceLock() ) {
-      tasks.remove( task );
-    }
+  private UISession getUISession() {
+    IDisplayAdapter adapter = display.getAdapter( IDisplayAdapter.class );
+    return adapter.getUISession();
   }
 
-  private void rescheduleTasks() {
-    synchronized( display.getDeviceLock() ) {
-      if( tasks.size() > 0 ) {
-        initializeTimer();
-        for( TimerExecTask task : tasks ) {
-          timer.schedule( task, new Date( task.scheduledExecutionTime() ) );
-        }
-      }
-    }
+  private ApplicationContextImpl getApplicationContext() {
+    return ( ApplicationContextImpl )getUISession().getApplicationContext();
   }
 
   private void writeObject( ObjectOutputStream stream ) throws IOException {
@@ -135,18 +121,12 @@ class TimerExecScheduler implements SerializableCompatibility {
   private class PostDeserializationValidation implements ObjectInputValidation {
     @Override
     public void validateObject() throws InvalidObjectException {
-      UISession uiSession = getUISession();
-      PostDeserialization.addProcessor( uiSession, new Runnable() {
+      PostDeserialization.addProcessor( getUISession(), new Runnable() {
         @Override
         public void run() {
           rescheduleTasks();
         }
       } );
     }
-
-    private UISession getUISession() {
-      IDisplayAdapter adapter = display.getAdapter( IDisplayAdapter.class );
-      return adapter.getUISession();
-    }
   }
 }
@@ -10,15 +10,19 @@
  ******************************************************************************/
 package org.eclipse.swt.widgets;
 
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledFuture;
 
 import org.eclipse.swt.internal.SerializableCompatibility;
+import org.eclipse.swt.internal.widgets.TimerExecExecutor;
 
 
-class TimerExecTask extends TimerTask implements SerializableCompatibility {
+class TimerExecTask implements Runnable, SerializableCompatibility {
 
   private final TimerExecScheduler scheduler;
   private final Runnable runnable;
+  private long executionTime;
+  private volatile boolean cancelled;
+  private transient volatile ScheduledFuture<?> future;
 
   TimerExecTask( TimerExecScheduler scheduler, Runnable runnable ) {
     this.scheduler = scheduler;
@@ -26,21 +30,31 @@ class TimerExecTask extends TimerTask implements SerializableCompatibility {
     scheduler.serverPushManager.activateServerPushFor( this );
   }
 
+  void schedule( TimerExecExecutor executor, long delay ) {
+    executionTime = System.currentTimeMillis() + delay;
+    future = executor.schedule( this, delay );
+  }
+
+  void reschedule( TimerExecExecutor executor ) {
+    long delay = Math.max( 0, executionTime - System.currentTimeMillis() );
+    future = executor.schedule( this, delay );
+  }
+
   @Override
   public void run() {
     synchronized( scheduler.display.getDeviceLock() ) {
       scheduler.removeTask( this );
-      if( !scheduler.display.isDisposed() ) {
+      if( !cancelled && !scheduler.display.isDisposed() ) {
         scheduler.display.asyncExec( runnable );
       }
     }
     scheduler.serverPushManager.deactivateServerPushFor( this );
   }
 
-  @Override
-  public boolean cancel() {
+  boolean cancel() {
+    cancelled = true;
     scheduler.serverPushManager.deactivateServerPushFor( this );
-    return super.cancel();
+    return future != null && future.cancel( false );
   }
 
   Runnable getRunnable() {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -19,8 +19,9 @@ import static org.eclipse.swt.internal.widgets.MarkupUtil.MarkupTarget.TEXT;
 import static org.eclipse.swt.internal.widgets.MarkupValidator.isValidationDisabledFor;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
@@ -116,7 +117,6 @@ import org.eclipse.swt.internal.widgets.treekit.TreeThemeAdapter;
  */
 public class Tree extends Composite {
 
-  private static final TreeItem[] EMPTY_SELECTION = new TreeItem[ 0 ];
   // This values must be kept in sync with appearance of list items
   private static final int MIN_ITEM_HEIGHT = 16;
   private static final int GRID_WIDTH = 1;
@@ -127,7 +127,8 @@ public class Tree extends Composite {
   private int customItemHeight;
   private TreeItem[] items;
   final ItemHolder<TreeColumn> columnHolder;
-  private TreeItem[] selection;
+  private final Set<TreeItem> selection;
+  private int itemsVersion;
   private boolean linesVisible;
   private int[] columnOrder;
   private int itemImageCount;
@@ -185,7 +186,7 @@ public class Tree extends Composite {
     treeAdapter = new InternalTreeAdapter();
     setTreeEmpty();
     sortDirection = SWT.NONE;
-    selection = EMPTY_SELECTION;
+    selection = new LinkedHashSet<>();
     customItemHeight = -1;
     layoutCache = new LayoutCache();
   }
@@ -435,7 +436,7 @@ public class Tree extends Composite {
       }
     }
     setTreeEmpty();
-    selection = EMPTY_SELECTION;
+    selection.clear();
   }
 
   /**
@@ -630,10 +631,10 @@ public class Tree extends Composite {
    */
   public void showSelection() {
     checkWidget();
-    if( selection.length == 0 ) {
+    if( selection.isEmpty() ) {
       return;
     }
-    showItem( selection[ 0 ] );
+    showItem( selection.iterator().next() );
   }
 
   // ///////////////////////////////////
@@ -656,9 +657,7 @@ public class Tree extends Composite {
    */
   public TreeItem[] getSelection() {
     checkWidget();
-    TreeItem[] result = new TreeItem[ selection.length ];
-    System.arraycopy( selection, 0, result, 0, selection.length );
-    return result;
+    return selection.toArray( new TreeItem[ selection.size() ] );
   }
 
   /**
@@ -673,7 +672,7 @@ public class Tree extends Composite {
    */
   public int getSelectionCount() {
     checkWidget();
-    return selection.length;
+    return selection.size();
   }
 
   /**
@@ -740,7 +739,8 @@ public class Tree extends Composite {
           if( item.isDisposed() ) {
             SWT.error( SWT.ERROR_INVALID_ARGUMENT );
           }
-          this.selection = new TreeItem[]{ item };
+          this.selection.clear();
+          this.selection.add( item );
         }
       }
     } else {
@@ -760,9 +760,10 @@ public class Tree extends Composite {
           }
         }
         if( validLength > 0 ) {
-          // Copy the above created array to its 'final destination'
-          this.selection = new TreeItem[ validLength ];
-          System.arraycopy( validSelection, 0, this.selection, 0, validLength );
+          this.selection.clear();
+          for( int i = 0; i < validLength; i++ ) {
+            this.selection.add( validSelection[ i ] );
+          }
         }
       }
     }
@@ -796,12 +797,7 @@ public class Tree extends Composite {
     if( ( style & SWT.SINGLE ) != 0 ) {
       setSelection( item );
     } else {
-      List<TreeItem> selItems = new ArrayList<>( Arrays.asList( selection ) );
-      if( !selItems.contains( item ) ) {
-        selItems.add( item );
-        selection = new TreeItem[ selItems.size() ];
-        selItems.toArray( selection );
-      }
+      selection.add( item );
     }
   }
 
@@ -820,18 +816,16 @@ public class Tree extends Composite {
   public void selectAll() {
     checkWidget();
     if( ( style & SWT.MULTI ) != 0 ) {
-      final java.util.List<TreeItem> allItems = new ArrayList<>();
+      selection.clear();
       WidgetTreeUtil.accept( this, new WidgetTreeVisitor() {
         @Override
         public boolean visit( Widget widget ) {
           if( widget instanceof TreeItem ) {
-            allItems.add( ( TreeItem )widget );
+            selection.add( ( TreeItem )widget );
           }
           return true;
         }
       } );
-      selection = new TreeItem[ allItems.size() ];
-      allItems.toArray( selection );
     }
   }
 
@@ -860,12 +854,7 @@ public class Tree extends Composite {
     if( item.isDisposed() ) {
       error( SWT.ERROR_INVALID_ARGUMENT );
     }
-    List<TreeItem> selItems = new ArrayList<>( Arrays.asList( selection ) );
-    if( selItems.contains( item ) ) {
-      selItems.remove( item );
-      selection = new TreeItem[ selItems.size() ];
-      selItems.toArray( selection );
-    }
+    selection.remove( item );
   }
 
   /**
@@ -879,7 +868,7 @@ public class Tree extends Composite {
    */
   public void deselectAll() {
     checkWidget();
-    selection = EMPTY_SELECTION;
+    selection.clear();
   }
 
   /**
@@ -1737,21 +1726,11 @@ public class Tree extends Composite {
   }
 
   void removeFromSelection( TreeItem item ) {
-    int index = -1;
-    for( int i = 0; index == -1 && i < selection.length; i++ ) {
-      if( selection[ i ] == item ) {
-        index = i;
-      }
-    }
-    if( index != -1 ) {
-      TreeItem[] newSelection = new TreeItem[ selection.length - 1 ];
-      System.arraycopy( selection, 0, newSelection, 0, index );
-      if( index < selection.length - 1 ) {
-        int length = selection.length - index - 1;
-        System.arraycopy( selection, index + 1, newSelection, index, length );
-      }
-      selection = newSelection;
-    }
+    selection.remove( item );
+  }
+
+  void updateItemsVersion() {
+    itemsVersion++;
   }
 
   /////////////////////
@@ -2624,6 +2603,11 @@ public class Tree extends Composite {
       return Tree.this.isFixedColumn( Tree.this.indexOf( column ) );
     }
 
+    @Override
+    public int getItemsVersion() {
+      return itemsVersion;
+    }
+
   }
 
   static final class LayoutCache implements SerializableCompatibility {
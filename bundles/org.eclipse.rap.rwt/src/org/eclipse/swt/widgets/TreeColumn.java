@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -415,9 +415,14 @@ public class TreeColumn extends Item {
    */
   public void pack() {
     checkWidget();
-    int newWidth = getPreferredWidth();
-    int contentWidth = parent.getMaxContentWidth( this );
-    newWidth = Math.max( newWidth, contentWidth );
+    int newWidth;
+    Widget previousOwner = TextSizeUtil.setCurrentOwner( this );
+    try {
+      int contentWidth = parent.getMaxContentWidth( this );
+      newWidth = Math.max( getPreferredWidth(), contentWidth );
+    } finally {
+      TextSizeUtil.setCurrentOwner( previousOwner );
+    }
     // Mimic Windows behaviour that has a minimal width
     if( newWidth < 12 ) {
       newWidth = 12;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2019 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,9 +14,9 @@ package org.eclipse.swt.widgets;
 import static org.eclipse.swt.internal.widgets.MarkupUtil.isMarkupEnabledFor;
 import static org.eclipse.swt.internal.widgets.MarkupValidator.isValidationDisabledFor;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
 import org.eclipse.swt.SWT;
@@ -241,6 +241,7 @@ public class TreeItem extends Item {
       } else {
         parent.createItem( this, index );
       }
+      parent.updateItemsVersion();
       parent.updateScrollBars();
     }
   }
@@ -1453,6 +1454,7 @@ public class TreeItem extends Item {
     }
     if( !parent.isInDispose() ) {
       parent.invalidateFlatIndex();
+      parent.updateItemsVersion();
       parent.removeFromSelection( this );
       parent.updateScrollBars();
     }
@@ -1614,7 +1616,7 @@ public class TreeItem extends Item {
 
   private void updateSelection() {
     TreeItem[] selection = parent.getSelection();
-    List<TreeItem> selectedItems = new ArrayList<>( Arrays.asList( selection ) );
+    Set<TreeItem> selectedItems = new LinkedHashSet<>( Arrays.asList( selection ) );
     if( deselectChildren( selectedItems ) ) {
       if( ( parent.getStyle() & SWT.SINGLE ) != 0 ) {
         selectedItems.add( this );
@@ -1626,13 +1628,12 @@ public class TreeItem extends Item {
     }
   }
 
-  boolean deselectChildren( List<TreeItem> selectedItems ) {
+  boolean deselectChildren( Set<TreeItem> selectedItems ) {
     boolean result = false;
     for( int i = 0; i < itemCount; i++ ) {
       TreeItem item = items[ i ];
       if( item != null ) {
-        if( selectedItems.contains( item ) ) {
-          selectedItems.remove( item );
+        if( selectedItems.remove( item ) ) {
           result = true;
         }
         if( item.deselectChildren( selectedItems ) ) {
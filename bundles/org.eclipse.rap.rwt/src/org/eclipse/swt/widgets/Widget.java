@@ -1030,6 +1030,17 @@ public abstract class Widget implements Adaptable, SerializableCompatibility {
     state &= ~flag;
   }
 
+  /*
+   * Must be called by widgets whose LCA supports change tracking before a value that is
+   * preserved by the LCA is changed.
+   */
+  void markDirty() {
+    // A widget without a WidgetRemoteAdapter has not been rendered yet
+    if( remoteAdapter instanceof WidgetRemoteAdapter ) {
+      ( ( WidgetRemoteAdapter )remoteAdapter ).markDirty( this );
+    }
+  }
+
   private void preserveListeners() {
     WidgetRemoteAdapter adapter = ( WidgetRemoteAdapter )ensureRemoteAdapter();
     if( !( adapter ).hasPreservedListeners() ) {
@@ -29,6 +29,7 @@ import java.util.Map;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.client.WebClient;
 import org.eclipse.rap.rwt.client.service.ExitConfirmation;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.lifecycle.DisposedWidgets;
 import org.eclipse.rap.rwt.internal.lifecycle.EntryPointManager;
@@ -36,6 +37,8 @@ import org.eclipse.rap.rwt.internal.lifecycle.EntryPointRegistration;
 import org.eclipse.rap.rwt.internal.lifecycle.RemoteAdapter;
 import org.eclipse.rap.rwt.internal.lifecycle.ReparentedControls;
 import org.eclipse.rap.rwt.internal.lifecycle.UITestUtil;
+import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
+import org.eclipse.rap.rwt.internal.metrics.RequestTrace;
 import org.eclipse.rap.rwt.internal.protocol.ClientMessage;
 import org.eclipse.rap.rwt.internal.protocol.Operation;
 import org.eclipse.rap.rwt.internal.protocol.ProtocolUtil;
@@ -48,6 +51,7 @@ import org.eclipse.rap.rwt.remote.OperationHandler;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.internal.widgets.ControlRemoteAdapter;
 import org.eclipse.swt.internal.widgets.IDisplayAdapter;
+import org.eclipse.swt.internal.widgets.ItemDataBatch;
 import org.eclipse.swt.internal.widgets.WidgetRemoteAdapter;
 import org.eclipse.swt.internal.widgets.WidgetTreeUtil;
 import org.eclipse.swt.internal.widgets.WidgetTreeVisitor;
@@ -80,11 +84,15 @@ public class DisplayLCA {
     ActiveKeysUtil.preserveCancelKeys( display );
     ActiveKeysUtil.preserveMnemonicActivator( display );
     if( adapter.isInitialized() ) {
+      final boolean changeTracking = RWTProperties.isChangeTrackingEnabled();
       for( Shell shell : getShells( display ) ) {
         WidgetTreeUtil.accept( shell, new WidgetTreeVisitor() {
           @Override
           public boolean visit( Widget widget ) {
-            getLCA( widget ).preserveValues( widget );
+            WidgetLCA<Widget> lca = getLCA( widget );
+            if( !changeTracking || !lca.supportsChangeTracking() ) {
+              lca.preserveValues( widget );
+            }
             return true;
           }
         } );
@@ -99,6 +107,7 @@ public class DisplayLCA {
     renderExitConfirmation( display );
     renderEnableUiTests( display );
     renderShells( display );
+    ItemDataBatch.render();
     renderFocus( display );
     renderBeep( display );
     renderResizeListener( display );
@@ -114,11 +123,15 @@ public class DisplayLCA {
 
   public void clearPreserved( Display display ) {
     ( ( WidgetRemoteAdapter )getAdapter( display ) ).clearPreserved();
+    final boolean changeTracking = RWTProperties.isChangeTrackingEnabled();
     for( Shell shell : getShells( display ) ) {
       WidgetTreeUtil.accept( shell, new WidgetTreeVisitor() {
         @Override
         public boolean visit( Widget widget ) {
-          ( ( WidgetRemoteAdapter )getAdapter( widget ) ).clearPreserved();
+          WidgetRemoteAdapter adapter = ( WidgetRemoteAdapter )getAdapter( widget );
+          if( !changeTracking || adapter.isDirty() ) {
+            adapter.clearPreserved();
+          }
           return true;
         }
       } );
@@ -170,7 +183,8 @@ public class DisplayLCA {
   }
 
   private static void renderShells( Display display ) throws IOException {
-    RenderVisitor visitor = new RenderVisitor();
+    RenderVisitor visitor = new RenderVisitor( RWTProperties.isChangeTrackingEnabled(),
+                                               RequestTrace.getCurrent() );
     for( Shell shell : getShells( display ) ) {
       WidgetTreeUtil.accept( shell, visitor );
       visitor.reThrowProblem();
@@ -293,14 +307,34 @@ public class DisplayLCA {
 
   private static final class RenderVisitor implements WidgetTreeVisitor {
 
+    private final boolean changeTracking;
+    private final RequestTrace trace;
+    private final boolean widgetTiming;
     private IOException ioProblem;
 
+    RenderVisitor( boolean changeTracking, RequestTrace trace ) {
+      this.changeTracking = changeTracking;
+      this.trace = trace;
+      widgetTiming = trace != null && trace.isWidgetTimingEnabled();
+    }
+
     @Override
     public boolean visit( Widget widget ) {
       ioProblem = null;
       try {
-        render( widget );
-        runRenderRunnables( widget );
+        if( trace != null ) {
+          trace.widgetVisited();
+        }
+        WidgetLCA<Widget> lca = getLCA( widget );
+        if( needsRendering( widget, lca ) ) {
+          if( widgetTiming ) {
+            long startTime = System.nanoTime();
+            render( widget, lca );
+            trace.widgetRendered( widget, getId( widget ), System.nanoTime() - startTime );
+          } else {
+            render( widget, lca );
+          }
+        }
       } catch( IOException ioe ) {
         ioProblem = ioe;
         return false;
@@ -308,14 +342,33 @@ public class DisplayLCA {
       return true;
     }
 
+    private static void render( Widget widget, WidgetLCA<Widget> lca ) throws IOException {
+      lca.render( widget );
+      runRenderRunnables( widget );
+    }
+
     private void reThrowProblem() throws IOException {
       if( ioProblem != null ) {
         throw ioProblem;
       }
     }
 
-    private static void render( Widget widget ) throws IOException {
-      getLCA( widget ).render( widget );
+    private boolean needsRendering( Widget widget, WidgetLCA<Widget> lca ) {
+      if( changeTracking && lca.supportsChangeTracking() ) {
+        WidgetRemoteAdapter adapter = ( WidgetRemoteAdapter )getAdapter( widget );
+        if( adapter.isInitialized() ) {
+          if( !adapter.isDirty() ) {
+            return false;
+          }
+          // Only generic control properties have been changed, values specific to the LCA are
+          // known to be unchanged
+          if( !adapter.hasPreservedValues() ) {
+            lca.preserveValues( widget );
+            adapter.markValuesPreserved();
+          }
+        }
+      }
+      return true;
     }
 
     private static void runRenderRunnables( Widget widget ) {
@@ -28,6 +28,11 @@ public class LabelLCA extends WidgetLCA<Label> {
     getDelegate( label ).preserveValues( label );
   }
 
+  @Override
+  public boolean supportsChangeTracking() {
+    return true;
+  }
+
   @Override
   public void renderInitialization( Label label ) throws IOException {
     getDelegate( label ).renderInitialization( label );
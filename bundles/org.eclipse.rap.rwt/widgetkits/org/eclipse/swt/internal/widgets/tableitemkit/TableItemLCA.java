@@ -11,6 +11,7 @@
  ******************************************************************************/
 package org.eclipse.swt.internal.widgets.tableitemkit;
 
+import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.hasChanged;
 import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.preserveProperty;
 import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.renderProperty;
 import static org.eclipse.rap.rwt.internal.protocol.RemoteObjectFactory.createRemoteObject;
@@ -30,6 +31,7 @@ import org.eclipse.swt.internal.widgets.ITableAdapter;
 import org.eclipse.swt.internal.widgets.ITableItemAdapter;
 import org.eclipse.swt.internal.widgets.IWidgetColorAdapter;
 import org.eclipse.swt.internal.widgets.IWidgetFontAdapter;
+import org.eclipse.swt.internal.widgets.ItemDataBatch;
 import org.eclipse.swt.internal.widgets.WidgetRemoteAdapter;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableItem;
@@ -104,8 +106,12 @@ public final class TableItemLCA extends WidgetLCA<TableItem> {
   }
 
   private static void renderProperties( TableItem item ) {
-    renderProperty( item, PROP_TEXTS, getTexts( item ), null );
-    renderProperty( item, PROP_IMAGES, getImages( item ), null );
+    if( ItemDataBatch.isEnabled() ) {
+      renderItemData( item );
+    } else {
+      renderProperty( item, PROP_TEXTS, getTexts( item ), null );
+      renderProperty( item, PROP_IMAGES, getImages( item ), null );
+    }
     WidgetLCAUtil.renderBackground( item, getUserBackground( item ) );
     WidgetLCAUtil.renderForeground( item, getUserForeground( item ) );
     WidgetLCAUtil.renderFont( item, getUserFont( item ) );
@@ -114,8 +120,24 @@ public final class TableItemLCA extends WidgetLCA<TableItem> {
     renderProperty( item, PROP_CELL_BACKGROUNDS, getCellBackgrounds( item ), null );
     renderProperty( item, PROP_CELL_FOREGROUNDS, getCellForegrounds( item ), null );
     renderProperty( item, PROP_CELL_FONTS, getCellFonts( item ), null );
-    renderProperty( item, PROP_CHECKED, item.getChecked(), false );
-    renderProperty( item, PROP_GRAYED, item.getGrayed(), false );
+    if( !ItemDataBatch.isEnabled() ) {
+      renderProperty( item, PROP_CHECKED, item.getChecked(), false );
+      renderProperty( item, PROP_GRAYED, item.getGrayed(), false );
+    }
+  }
+
+  private static void renderItemData( TableItem item ) {
+    String[] texts = getTexts( item );
+    Image[] images = getImages( item );
+    boolean checked = item.getChecked();
+    boolean grayed = item.getGrayed();
+    if(    hasChanged( item, PROP_TEXTS, texts, null )
+        || hasChanged( item, PROP_IMAGES, images, null )
+        || hasChanged( item, PROP_CHECKED, Boolean.valueOf( checked ), Boolean.FALSE )
+        || hasChanged( item, PROP_GRAYED, Boolean.valueOf( grayed ), Boolean.FALSE ) )
+    {
+      ItemDataBatch.add( item.getParent(), item, texts, images, checked, grayed );
+    }
   }
 
   private static void renderClear( TableItem item ) {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2018 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -38,6 +38,7 @@ import org.eclipse.swt.internal.widgets.CellToolTipUtil;
 import org.eclipse.swt.internal.widgets.ICellToolTipAdapter;
 import org.eclipse.swt.internal.widgets.IItemHolderAdapter;
 import org.eclipse.swt.internal.widgets.ITableAdapter;
+import org.eclipse.swt.internal.widgets.SelectionRangeUtil;
 import org.eclipse.swt.internal.widgets.WidgetRemoteAdapter;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Item;
@@ -79,6 +80,8 @@ public final class TableLCA extends WidgetLCA<Table> {
   private static final String PROP_FOCUS_ITEM = "focusItem";
   private static final String PROP_SCROLL_LEFT = "scrollLeft";
   private static final String PROP_SELECTION = "selection";
+  // not rendered, used to detect selections that keep their indices but not their items
+  private static final String PROP_ITEMS_VERSION = "itemsVersion";
   private static final String PROP_SORT_DIRECTION = "sortDirection";
   private static final String PROP_SORT_COLUMN = "sortColumn";
   private static final String PROP_SETDATA_LISTENER = "SetData";
@@ -88,7 +91,8 @@ public final class TableLCA extends WidgetLCA<Table> {
   private static final String PROP_MARKUP_ENABLED = "markupEnabled";
 
   private static final int ZERO = 0 ;
-  private static final String[] DEFAULT_SELECTION = new String[ 0 ];
+  private static final JsonArray DEFAULT_SELECTION
+    = JsonArray.unmodifiableArray( new JsonArray() );
   private static final String[] DEFAULT_COLUMN_ORDER = new String[ 0 ];
   private static final String DEFAULT_SORT_DIRECTION = "none";
 
@@ -109,6 +113,7 @@ public final class TableLCA extends WidgetLCA<Table> {
     preserveProperty( table, PROP_FOCUS_ITEM, getFocusItem( table ) );
     preserveProperty( table, PROP_SCROLL_LEFT, getScrollLeft( table ) );
     preserveProperty( table, PROP_SELECTION, getSelection( table ) );
+    preserveProperty( table, PROP_ITEMS_VERSION, getItemsVersion( table ) );
     preserveProperty( table, PROP_SORT_DIRECTION, getSortDirection( table ) );
     preserveProperty( table, PROP_SORT_COLUMN, table.getSortColumn() );
     preserveProperty( table, PROP_ALWAYS_HIDE_SELECTION, hasAlwaysHideSelection( table ) );
@@ -162,7 +167,7 @@ public final class TableLCA extends WidgetLCA<Table> {
         renderProperty( table, PROP_TOP_ITEM_INDEX, table.getTopIndex(), ZERO );
         renderProperty( table, PROP_SCROLL_LEFT, getScrollLeft( table ), ZERO );
         renderProperty( table, PROP_FOCUS_ITEM, getFocusItem( table ), null );
-        renderProperty( table, PROP_SELECTION, getSelection( table ), DEFAULT_SELECTION );
+        renderSelection( table );
         renderProperty( table, PROP_SORT_COLUMN, table.getSortColumn(), null );
       }
     } );
@@ -190,12 +195,27 @@ public final class TableLCA extends WidgetLCA<Table> {
     return ( table.getStyle() & SWT.VIRTUAL ) != 0;
   }
 
-  private static String[] getSelection( Table table ) {
-    TableItem[] selection = table.getSelection();
-    String[] result = new String[ selection.length ];
-    for( int i = 0; i < result.length; i++ ) {
-      result[ i ] = getId( selection[ i ] );
+  /*
+   * The selection is rendered as index ranges. When items have been created or destroyed, the
+   * same ranges may denote other items on the client, hence a non-empty selection is rendered
+   * again.
+   */
+  private static void renderSelection( Table table ) {
+    JsonArray selection = getSelection( table );
+    if(    hasChanged( table, PROP_SELECTION, selection, DEFAULT_SELECTION )
+        || !selection.isEmpty() && hasChanged( table, PROP_ITEMS_VERSION, getItemsVersion( table ) ) )
+    {
+      getRemoteObject( table ).set( PROP_SELECTION, selection );
     }
+  }
+
+  private static Integer getItemsVersion( Table table ) {
+    return Integer.valueOf( getTableAdapter( table ).getItemsVersion() );
+  }
+
+  private static JsonArray getSelection( Table table ) {
+    JsonArray result = new JsonArray();
+    SelectionRangeUtil.addRanges( result, null, table.getSelectionIndices() );
     return result;
   }
 
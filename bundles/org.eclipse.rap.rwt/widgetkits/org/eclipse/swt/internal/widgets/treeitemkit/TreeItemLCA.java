@@ -11,6 +11,7 @@
  ******************************************************************************/
 package org.eclipse.swt.internal.widgets.treeitemkit;
 
+import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.hasChanged;
 import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.preserveProperty;
 import static org.eclipse.rap.rwt.internal.lifecycle.WidgetLCAUtil.renderProperty;
 import static org.eclipse.rap.rwt.internal.protocol.RemoteObjectFactory.createRemoteObject;
@@ -31,6 +32,7 @@ import org.eclipse.swt.internal.widgets.ITreeAdapter;
 import org.eclipse.swt.internal.widgets.ITreeItemAdapter;
 import org.eclipse.swt.internal.widgets.IWidgetColorAdapter;
 import org.eclipse.swt.internal.widgets.IWidgetFontAdapter;
+import org.eclipse.swt.internal.widgets.ItemDataBatch;
 import org.eclipse.swt.internal.widgets.WidgetRemoteAdapter;
 import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.swt.widgets.Widget;
@@ -110,8 +112,12 @@ public final class TreeItemLCA extends WidgetLCA<TreeItem> {
 
   private static void renderProperties( TreeItem item ) {
     renderProperty( item, PROP_ITEM_COUNT, item.getItemCount(), DEFAULT_ITEM_COUNT );
-    renderProperty( item, PROP_TEXTS, getTexts( item ), null );
-    renderProperty( item, PROP_IMAGES, getImages( item ), null );
+    if( ItemDataBatch.isEnabled() ) {
+      renderItemData( item );
+    } else {
+      renderProperty( item, PROP_TEXTS, getTexts( item ), null );
+      renderProperty( item, PROP_IMAGES, getImages( item ), null );
+    }
     WidgetLCAUtil.renderBackground( item, getUserBackground( item ) );
     WidgetLCAUtil.renderForeground( item, getUserForeground( item ) );
     WidgetLCAUtil.renderFont( item, getUserFont( item ) );
@@ -121,8 +127,24 @@ public final class TreeItemLCA extends WidgetLCA<TreeItem> {
     renderProperty( item, PROP_CELL_FOREGROUNDS, getCellForegrounds( item ), null );
     renderProperty( item, PROP_CELL_FONTS, getCellFonts( item ), null );
     renderProperty( item, PROP_EXPANDED, item.getExpanded(), false );
-    renderProperty( item, PROP_CHECKED, item.getChecked(), false );
-    renderProperty( item, PROP_GRAYED, item.getGrayed(), false );
+    if( !ItemDataBatch.isEnabled() ) {
+      renderProperty( item, PROP_CHECKED, item.getChecked(), false );
+      renderProperty( item, PROP_GRAYED, item.getGrayed(), false );
+    }
+  }
+
+  private static void renderItemData( TreeItem item ) {
+    String[] texts = getTexts( item );
+    Image[] images = getImages( item );
+    boolean checked = item.getChecked();
+    boolean grayed = item.getGrayed();
+    if(    hasChanged( item, PROP_TEXTS, texts, null )
+        || hasChanged( item, PROP_IMAGES, images, null )
+        || hasChanged( item, PROP_CHECKED, Boolean.valueOf( checked ), Boolean.FALSE )
+        || hasChanged( item, PROP_GRAYED, Boolean.valueOf( grayed ), Boolean.FALSE ) )
+    {
+      ItemDataBatch.add( item.getParent(), item, texts, images, checked, grayed );
+    }
   }
 
   @Override
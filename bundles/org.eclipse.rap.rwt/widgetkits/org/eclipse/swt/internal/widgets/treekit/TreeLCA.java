@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2018 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,11 @@ import static org.eclipse.rap.rwt.internal.protocol.RemoteObjectFactory.getRemot
 import static org.eclipse.swt.internal.widgets.MarkupUtil.isMarkupEnabledFor;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.rwt.internal.lifecycle.ControlLCAUtil;
@@ -38,6 +43,7 @@ import org.eclipse.swt.internal.widgets.CellToolTipUtil;
 import org.eclipse.swt.internal.widgets.ICellToolTipAdapter;
 import org.eclipse.swt.internal.widgets.IItemHolderAdapter;
 import org.eclipse.swt.internal.widgets.ITreeAdapter;
+import org.eclipse.swt.internal.widgets.SelectionRangeUtil;
 import org.eclipse.swt.internal.widgets.WidgetRemoteAdapter;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Item;
@@ -77,6 +83,8 @@ public final class TreeLCA extends WidgetLCA<Tree> {
   private static final String PROP_FOCUS_ITEM = "focusItem";
   private static final String PROP_SCROLL_LEFT = "scrollLeft";
   private static final String PROP_SELECTION = "selection";
+  // not rendered, used to detect selections that keep their indices but not their items
+  private static final String PROP_ITEMS_VERSION = "itemsVersion";
   private static final String PROP_SORT_DIRECTION = "sortDirection";
   private static final String PROP_SORT_COLUMN = "sortColumn";
   private static final String PROP_SETDATA_LISTENER = "SetData";
@@ -87,7 +95,8 @@ public final class TreeLCA extends WidgetLCA<Tree> {
   private static final String PROP_MARKUP_ENABLED = "markupEnabled";
 
   private static final int ZERO = 0 ;
-  private static final String[] DEFAULT_SELECTION = new String[ 0 ];
+  private static final JsonArray DEFAULT_SELECTION
+    = JsonArray.unmodifiableArray( new JsonArray() );
   private static final String[] DEFAULT_COLUMN_ORDER = new String[ 0 ];
   private static final String DEFAULT_SORT_DIRECTION = "none";
 
@@ -109,6 +118,7 @@ public final class TreeLCA extends WidgetLCA<Tree> {
     preserveProperty( tree, PROP_FOCUS_ITEM, getFocusItem( tree ) );
     preserveProperty( tree, PROP_SCROLL_LEFT, getScrollLeft( tree ) );
     preserveProperty( tree, PROP_SELECTION, getSelection( tree ) );
+    preserveProperty( tree, PROP_ITEMS_VERSION, getItemsVersion( tree ) );
     preserveProperty( tree, PROP_SORT_DIRECTION, getSortDirection( tree ) );
     preserveProperty( tree, PROP_SORT_COLUMN, tree.getSortColumn() );
     preserveProperty( tree, PROP_ENABLE_CELL_TOOLTIP, CellToolTipUtil.isEnabledFor( tree ) );
@@ -174,7 +184,7 @@ public final class TreeLCA extends WidgetLCA<Tree> {
         if( tree.getSelectionCount() > 0 ) {
           renderProperty( tree, PROP_FOCUS_ITEM, getFocusItem( tree ), null );
         }
-        renderProperty( tree, PROP_SELECTION, getSelection( tree ), DEFAULT_SELECTION );
+        renderSelection( tree );
         renderProperty( tree, PROP_SORT_COLUMN, tree.getSortColumn(), null );
       }
     } );
@@ -201,12 +211,55 @@ public final class TreeLCA extends WidgetLCA<Tree> {
     return ( tree.getStyle() & SWT.VIRTUAL ) != 0;
   }
 
-  private static String[] getSelection( Tree tree ) {
-    TreeItem[] selection = tree.getSelection();
-    String[] result = new String[ selection.length ];
+  /*
+   * The selection is rendered as index ranges. When items have been created or destroyed, the
+   * same ranges may denote other items on the client, hence a non-empty selection is rendered
+   * again.
+   */
+  private static void renderSelection( Tree tree ) {
+    JsonArray selection = getSelection( tree );
+    if(    hasChanged( tree, PROP_SELECTION, selection, DEFAULT_SELECTION )
+        || !selection.isEmpty() && hasChanged( tree, PROP_ITEMS_VERSION, getItemsVersion( tree ) ) )
+    {
+      getRemoteObject( tree ).set( PROP_SELECTION, selection );
+    }
+  }
+
+  private static Integer getItemsVersion( Tree tree ) {
+    return Integer.valueOf( getTreeAdapter( tree ).getItemsVersion() );
+  }
+
+  /*
+   * The selected items are grouped by their parent item, in the order the parents first occur in
+   * the selection. Within a group, the ranges are rendered in ascending order.
+   */
+  private static JsonArray getSelection( Tree tree ) {
+    Map<TreeItem, List<Integer>> indicesByParent = new LinkedHashMap<>();
+    for( TreeItem item : tree.getSelection() ) {
+      TreeItem parentItem = item.getParentItem();
+      int index = parentItem == null ? tree.indexOf( item ) : parentItem.indexOf( item );
+      List<Integer> indices = indicesByParent.get( parentItem );
+      if( indices == null ) {
+        indices = new ArrayList<>();
+        indicesByParent.put( parentItem, indices );
+      }
+      indices.add( Integer.valueOf( index ) );
+    }
+    JsonArray result = new JsonArray();
+    for( Map.Entry<TreeItem, List<Integer>> entry : indicesByParent.entrySet() ) {
+      TreeItem parentItem = entry.getKey();
+      String parentId = parentItem == null ? null : getId( parentItem );
+      SelectionRangeUtil.addRanges( result, parentId, toSortedArray( entry.getValue() ) );
+    }
+    return result;
+  }
+
+  private static int[] toSortedArray( List<Integer> list ) {
+    int[] result = new int[ list.size() ];
     for( int i = 0; i < result.length; i++ ) {
-      result[ i ] = getId( selection[ i ] );
+      result[ i ] = list.get( i ).intValue();
     }
+    Arrays.sort( result );
     return result;
   }
 
@@ -24,6 +24,7 @@ import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.dynamichelpers.ExtensionTracker;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionChangeHandler;
 import org.eclipse.core.runtime.dynamichelpers.IExtensionTracker;
+import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.SingletonUtil;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.contexts.IContextService;
@@ -33,6 +34,15 @@ import org.eclipse.ui.internal.WorkbenchPlugin;
  * The registry of action set extensions.
  */
 public class ActionSetRegistry implements IExtensionChangeHandler {
+
+    // RAP [rst]: action set descriptors are shared between sessions
+    private static final SharedExtensionRegistry.IDescriptorFactory DESCRIPTOR_FACTORY
+            = new SharedExtensionRegistry.IDescriptorFactory() {
+        public Object createDescriptor(IConfigurationElement element)
+                throws CoreException {
+            return new ActionSetDescriptor(element);
+        }
+    };
     
     /** 
      */
@@ -223,14 +233,21 @@ public class ActionSetRegistry implements IExtensionChangeHandler {
      * Reads the registry.
      */
     private void readFromRegistry() {      
-        IExtension[] extensions = getActionSetExtensionPoint().getExtensions();
+        // RAP [rst]: share the extensions between sessions
+        SharedExtensionRegistry sharedRegistry = SharedExtensionRegistry.getInstance();
+        IExtension[] extensions = sharedRegistry.getExtensions(
+                Platform.getExtensionRegistry(),
+                PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+                IWorkbenchRegistryConstants.PL_ACTION_SETS);
         for (int i = 0; i < extensions.length; i++) {
             addActionSets(PlatformUI.getWorkbench().getExtensionTracker(),
                     extensions[i]);
         }
 
-        extensions = getActionSetPartAssociationExtensionPoint()
-                .getExtensions();
+        extensions = sharedRegistry.getExtensions(
+                Platform.getExtensionRegistry(),
+                PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+                IWorkbenchRegistryConstants.PL_ACTION_SET_PART_ASSOCIATIONS);
         for (int i = 0; i < extensions.length; i++) {
             addActionSetPartAssociations(PlatformUI.getWorkbench()
                     .getExtensionTracker(), extensions[i]);
@@ -255,7 +272,8 @@ public class ActionSetRegistry implements IExtensionChangeHandler {
      * @param extension
      */
     private void addActionSetPartAssociations(IExtensionTracker tracker, IExtension extension) {
-        IConfigurationElement [] elements = extension.getConfigurationElements();
+        IConfigurationElement [] elements = SharedExtensionRegistry.getInstance()
+                .getConfigurationElements(extension);
         for (int i = 0; i < elements.length; i++) {
             IConfigurationElement element = elements[i];
             if (element.getName().equals(IWorkbenchRegistryConstants.TAG_ACTION_SET_PART_ASSOCIATION)) {
@@ -293,12 +311,16 @@ public class ActionSetRegistry implements IExtensionChangeHandler {
      * @param extension
      */
     private void addActionSets(IExtensionTracker tracker, IExtension extension) {
-        IConfigurationElement [] elements = extension.getConfigurationElements();
+        IConfigurationElement [] elements = SharedExtensionRegistry.getInstance()
+                .getConfigurationElements(extension);
         for (int i = 0; i < elements.length; i++) {
             IConfigurationElement element = elements[i];
             if (element.getName().equals(IWorkbenchRegistryConstants.TAG_ACTION_SET)) {
                 try {
-                    ActionSetDescriptor desc = new ActionSetDescriptor(element);
+                    // RAP [rst]: share the descriptors between sessions of the same locale
+                    ActionSetDescriptor desc = (ActionSetDescriptor) SharedExtensionRegistry
+                            .getInstance().getDescriptor(element,
+                                    DESCRIPTOR_FACTORY, RWT.getLocale());
                     addActionSet(desc);
                     tracker.registerObject(extension, desc, IExtensionTracker.REF_WEAK);
 
@@ -18,6 +18,7 @@ import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
 import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
 import org.eclipse.ui.internal.WorkbenchPlugin;
 
 /**
@@ -152,7 +153,13 @@ public abstract class RegistryReader {
      * configuration elements.
      */
     protected void readExtension(IExtension extension) {
-        readElements(extension.getConfigurationElements());
+        // RAP [rst]: share configuration elements between sessions
+        if (ContextProvider.hasContext()) {
+            readElements(SharedExtensionRegistry.getInstance()
+                    .getConfigurationElements(extension));
+        } else {
+            readElements(extension.getConfigurationElements());
+        }
     }
 
     /**
@@ -165,13 +172,19 @@ public abstract class RegistryReader {
      */
     public void readRegistry(IExtensionRegistry registry, String pluginId,
             String extensionPoint) {
-        IExtensionPoint point = registry.getExtensionPoint(pluginId,
-                extensionPoint);
-        if (point == null) {
-			return;
-		}
-        IExtension[] extensions = point.getExtensions();
-        extensions = orderExtensions(extensions);
+        // RAP [rst]: share the ordered extensions between sessions
+        IExtension[] extensions;
+        if (ContextProvider.hasContext()) {
+            extensions = SharedExtensionRegistry.getInstance()
+                    .getOrderedExtensions(registry, pluginId, extensionPoint);
+        } else {
+            IExtensionPoint point = registry.getExtensionPoint(pluginId,
+                    extensionPoint);
+            if (point == null) {
+                return;
+            }
+            extensions = orderExtensions(point.getExtensions());
+        }
         for (int i = 0; i < extensions.length; i++) {
 			readExtension(extensions[i]);
 		}
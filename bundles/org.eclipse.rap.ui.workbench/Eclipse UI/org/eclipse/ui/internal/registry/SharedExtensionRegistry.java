@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.ui.internal.registry;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IRegistryChangeEvent;
+import org.eclipse.core.runtime.IRegistryChangeListener;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.SingletonUtil;
+import org.eclipse.rap.rwt.service.ApplicationContext;
+import org.eclipse.rap.rwt.service.ApplicationContextEvent;
+import org.eclipse.rap.rwt.service.ApplicationContextListener;
+
+/**
+ * Application scoped cache of the extensions, configuration elements and
+ * descriptors that the workbench registries read from the platform extension
+ * registry.
+ * <p>
+ * The workbench registries (action sets, views, editors, wizards, property
+ * pages) are session singletons. Without this cache, every new UI session
+ * looks up the extension points, sorts their extensions, creates new handles
+ * for all configuration elements and parses them into descriptors again. The
+ * cached data is built once per application context and shared by all
+ * sessions. Descriptors that resolve translated attributes when they are
+ * created are cached per locale. The registries themselves remain per session,
+ * as they register the descriptors with session scoped services.
+ * </p>
+ * <p>
+ * The cache is cleared whenever the extension registry changes.
+ * </p>
+ */
+public final class SharedExtensionRegistry implements IRegistryChangeListener {
+
+	private static final IExtension[] NO_EXTENSIONS = new IExtension[0];
+
+	private final Map extensionsMap;
+	private final Map orderedExtensionsMap;
+	private final Map elementsMap;
+	private final Map descriptorsMap;
+	private final AtomicInteger generation;
+	private final IExtensionRegistry registry;
+
+	/**
+	 * Returns the instance that is shared by all sessions of the current
+	 * application context.
+	 *
+	 * @return the application scoped instance
+	 */
+	public static SharedExtensionRegistry getInstance() {
+		ApplicationContext applicationContext = RWT.getApplicationContext();
+		return SingletonUtil.getUniqueInstance(SharedExtensionRegistry.class,
+				applicationContext);
+	}
+
+	private SharedExtensionRegistry() {
+		extensionsMap = new ConcurrentHashMap();
+		orderedExtensionsMap = new ConcurrentHashMap();
+		elementsMap = new ConcurrentHashMap();
+		descriptorsMap = new ConcurrentHashMap();
+		generation = new AtomicInteger();
+		registry = Platform.getExtensionRegistry();
+		if (registry != null) {
+			registry.addRegistryChangeListener(this);
+			RWT.getApplicationContext().addApplicationContextListener(
+					new ApplicationContextListener() {
+						public void beforeDestroy(ApplicationContextEvent event) {
+							registry.removeRegistryChangeListener(
+									SharedExtensionRegistry.this);
+							clear();
+						}
+					});
+		}
+	}
+
+	/**
+	 * Returns the extensions of the given extension point in the order provided
+	 * by the extension registry.
+	 *
+	 * @param extensionRegistry the registry to read from
+	 * @param namespace the namespace of the extension point
+	 * @param extensionPointName the simple name of the extension point
+	 * @return the extensions, never <code>null</code>. The returned array must
+	 *         not be modified.
+	 */
+	public IExtension[] getExtensions(IExtensionRegistry extensionRegistry,
+			String namespace, String extensionPointName) {
+		if (extensionRegistry != registry) {
+			return readExtensions(extensionRegistry, namespace, extensionPointName);
+		}
+		String key = namespace + '.' + extensionPointName;
+		IExtension[] result = (IExtension[]) extensionsMap.get(key);
+		if (result == null) {
+			int expectedGeneration = generation.get();
+			result = readExtensions(extensionRegistry, namespace, extensionPointName);
+			store(extensionsMap, key, result, expectedGeneration);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the extensions of the given extension point in the order applied
+	 * by {@link RegistryReader#orderExtensions(IExtension[])}.
+	 *
+	 * @param extensionRegistry the registry to read from
+	 * @param namespace the namespace of the extension point
+	 * @param extensionPointName the simple name of the extension point
+	 * @return the ordered extensions, never <code>null</code>. The returned
+	 *         array must not be modified.
+	 */
+	public IExtension[] getOrderedExtensions(IExtensionRegistry extensionRegistry,
+			String namespace, String extensionPointName) {
+		if (extensionRegistry != registry) {
+			return RegistryReader.orderExtensions(readExtensions(
+					extensionRegistry, namespace, extensionPointName));
+		}
+		String key = namespace + '.' + extensionPointName;
+		IExtension[] result = (IExtension[]) orderedExtensionsMap.get(key);
+		if (result == null) {
+			int expectedGeneration = generation.get();
+			IExtension[] extensions = getExtensions(extensionRegistry, namespace,
+					extensionPointName);
+			result = RegistryReader.orderExtensions(extensions);
+			store(orderedExtensionsMap, key, result, expectedGeneration);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the configuration elements of the given extension.
+	 *
+	 * @param extension the extension
+	 * @return the configuration elements. The returned array must not be
+	 *         modified.
+	 */
+	public IConfigurationElement[] getConfigurationElements(IExtension extension) {
+		IConfigurationElement[] result = (IConfigurationElement[]) elementsMap
+				.get(extension);
+		if (result == null) {
+			int expectedGeneration = generation.get();
+			result = extension.getConfigurationElements();
+			store(elementsMap, extension, result, expectedGeneration);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the descriptor for the given configuration element. The
+	 * descriptor is created with the given factory if it is not cached yet.
+	 * Descriptors are cached per factory, the same configuration element may be
+	 * read into different kinds of descriptors.
+	 *
+	 * @param element the configuration element to read the descriptor from
+	 * @param factory the factory to create the descriptor with
+	 * @param locale the locale in which the descriptor resolves translated
+	 *        attributes when it is created, or <code>null</code> if it does not
+	 *        resolve translated attributes eagerly
+	 * @return the shared descriptor, never <code>null</code>
+	 * @throws CoreException if the descriptor could not be created. Failures are
+	 *         not cached.
+	 */
+	public Object getDescriptor(IConfigurationElement element,
+			IDescriptorFactory factory, Locale locale) throws CoreException {
+		Object key = new DescriptorKey(element, factory, locale);
+		Object result = descriptorsMap.get(key);
+		if (result == null) {
+			int expectedGeneration = generation.get();
+			result = factory.createDescriptor(element);
+			store(descriptorsMap, key, result, expectedGeneration);
+		}
+		return result;
+	}
+
+	/**
+	 * Clears the cache when bundles contribute or withdraw extensions.
+	 */
+	public void registryChanged(IRegistryChangeEvent event) {
+		clear();
+	}
+
+	private void clear() {
+		generation.incrementAndGet();
+		extensionsMap.clear();
+		orderedExtensionsMap.clear();
+		elementsMap.clear();
+		descriptorsMap.clear();
+	}
+
+	private void store(Map map, Object key, Object value, int expectedGeneration) {
+		// Do not cache values that were read while the registry was changing
+		if (generation.get() == expectedGeneration) {
+			map.put(key, value);
+			if (generation.get() != expectedGeneration) {
+				map.remove(key);
+			}
+		}
+	}
+
+	private static IExtension[] readExtensions(IExtensionRegistry extensionRegistry,
+			String namespace, String extensionPointName) {
+		IExtensionPoint point = extensionRegistry.getExtensionPoint(namespace,
+				extensionPointName);
+		return point == null ? NO_EXTENSIONS : point.getExtensions();
+	}
+
+	/**
+	 * Creates the descriptors that are shared between sessions. Implementations
+	 * are used as part of the cache key and should be constants.
+	 */
+	public interface IDescriptorFactory {
+
+		/**
+		 * Creates a descriptor from the given configuration element.
+		 *
+		 * @param element the configuration element
+		 * @return the descriptor, never <code>null</code>
+		 * @throws CoreException if the configuration element is invalid
+		 */
+		Object createDescriptor(IConfigurationElement element)
+				throws CoreException;
+	}
+
+	private static final class DescriptorKey {
+
+		private final IConfigurationElement element;
+		private final IDescriptorFactory factory;
+		private final Locale locale;
+
+		DescriptorKey(IConfigurationElement element, IDescriptorFactory factory,
+				Locale locale) {
+			this.element = element;
+			this.factory = factory;
+			this.locale = locale;
+		}
+
+		public boolean equals(Object object) {
+			if (!(object instanceof DescriptorKey)) {
+				return false;
+			}
+			DescriptorKey other = (DescriptorKey) object;
+			return element.equals(other.element) && factory == other.factory
+					&& (locale == null ? other.locale == null : locale
+							.equals(other.locale));
+		}
+
+		public int hashCode() {
+			int result = element.hashCode() * 31 + factory.hashCode();
+			return locale == null ? result : result * 31 + locale.hashCode();
+		}
+	}
+
+}
@@ -26,6 +26,24 @@ public class ViewRegistryReader extends RegistryReader {
 	 */
 	public static String GENERAL_VIEW_ID = "org.eclipse.ui";	//$NON-NLS-1$
 	
+	// RAP [rst]: view descriptors do not resolve translated attributes on
+	// creation and are shared between all sessions
+	private static final SharedExtensionRegistry.IDescriptorFactory VIEW_FACTORY
+			= new SharedExtensionRegistry.IDescriptorFactory() {
+		public Object createDescriptor(IConfigurationElement element)
+				throws CoreException {
+			return new ViewDescriptor(element);
+		}
+	};
+
+	private static final SharedExtensionRegistry.IDescriptorFactory STICKY_VIEW_FACTORY
+			= new SharedExtensionRegistry.IDescriptorFactory() {
+		public Object createDescriptor(IConfigurationElement element)
+				throws CoreException {
+			return new StickyViewDescriptor(element);
+		}
+	};
+
 	private ViewRegistry viewRegistry;
 
     /**
@@ -75,7 +93,10 @@ public class ViewRegistryReader extends RegistryReader {
      */
     protected void readSticky(IConfigurationElement element) {
         try {
-            viewRegistry.add(new StickyViewDescriptor(element));
+            // RAP [rst]: share the sticky view descriptors between sessions
+            viewRegistry.add((StickyViewDescriptor) SharedExtensionRegistry
+                    .getInstance().getDescriptor(element, STICKY_VIEW_FACTORY,
+                            null));
         } catch (CoreException e) {
             // log an error since its not safe to open a dialog here
             WorkbenchPlugin.log(
@@ -89,7 +110,9 @@ public class ViewRegistryReader extends RegistryReader {
      */
     protected void readView(IConfigurationElement element) {
         try {
-            viewRegistry.add(new ViewDescriptor(element));
+            // RAP [rst]: share the view descriptors between sessions
+            viewRegistry.add((ViewDescriptor) SharedExtensionRegistry
+                    .getInstance().getDescriptor(element, VIEW_FACTORY, null));
         } catch (CoreException e) {
             // log an error since its not safe to open a dialog here
             WorkbenchPlugin.log(
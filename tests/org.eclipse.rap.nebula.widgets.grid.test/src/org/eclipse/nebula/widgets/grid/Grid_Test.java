@@ -281,6 +281,17 @@ public class Grid_Test {
     assertEquals( 2, grid.indexOf( items[ 4 ] ) );
   }
 
+  @Test
+  public void testIndexOf_AfterInsert() {
+    GridItem[] items = createGridItems( grid, 3, 1 );
+
+    new GridItem( grid, SWT.NONE, 1 );
+
+    assertEquals( 0, grid.indexOf( items[ 0 ] ) );
+    assertEquals( 3, grid.indexOf( items[ 2 ] ) );
+    assertEquals( 6, grid.indexOf( items[ 5 ] ) );
+  }
+
   @Test
   public void testGetColumnCount() {
     createGridColumns( grid, 5, SWT.NONE );
@@ -721,6 +732,17 @@ public class Grid_Test {
     assertEquals( 1, grid.getSelectionCount() );
   }
 
+  @Test
+  public void testGetSelectionCount_WithCellSelection() {
+    grid.setCellSelectionEnabled( true );
+    createGridItems( grid, 3, 0 );
+    createGridColumns( grid, 3, SWT.NONE );
+
+    grid.select( new int[] { 0, 2 } );
+
+    assertEquals( 2, grid.getSelectionCount() );
+  }
+
   @Test
   public void testGetCellSelectionCount_Initial() {
     grid.setCellSelectionEnabled( true );
@@ -843,6 +865,18 @@ public class Grid_Test {
     assertSame( grid.getItem( 2 ), grid.getSelection()[ 0 ] );
   }
 
+  @Test
+  public void testGetSelection_WithCellSelection_MultipleCellsOfItems() {
+    GridItem[] items = createGridItems( grid, 3, 0 );
+    createGridColumns( grid, 3, 0 );
+    grid.setCellSelectionEnabled( true );
+
+    grid.selectCells( new Point[] { new Point( 0, 2 ), new Point( 1, 0 ), new Point( 2, 2 ) } );
+
+    GridItem[] expected = new GridItem[] { items[ 2 ], items[ 0 ] };
+    assertTrue( Arrays.equals( expected, grid.getSelection() ) );
+  }
+
   @Test
   public void testSelectByIndex_Single() {
     grid = new Grid( shell, SWT.SINGLE );
@@ -2617,6 +2651,19 @@ public class Grid_Test {
     assertEquals( 6, grid.getTopIndex() );
   }
 
+  @Test
+  public void testSetTopIndex_AfterCollapse() {
+    createGridItems( grid, 20, 3 );
+    grid.getItem( 0 ).setExpanded( true );
+    grid.getItem( 4 ).setExpanded( true );
+    grid.setTopIndex( 6 );
+
+    grid.getItem( 0 ).setExpanded( false );
+    grid.setTopIndex( 6 );
+
+    assertEquals( 6, grid.getTopIndex() );
+  }
+
   @Test
   public void testSetTopIndex_AdjustTopIndex() {
     createGridItems( grid, 20, 0 );
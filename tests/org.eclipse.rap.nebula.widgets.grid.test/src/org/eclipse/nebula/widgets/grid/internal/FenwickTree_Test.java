@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.nebula.widgets.grid.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+
+public class FenwickTree_Test {
+
+  @Test
+  public void testSize() {
+    assertEquals( 0, new FenwickTree( new int[ 0 ] ).size() );
+    assertEquals( 3, new FenwickTree( new int[ 3 ] ).size() );
+  }
+
+  @Test
+  public void testSum() {
+    FenwickTree tree = new FenwickTree( new int[] { 1, 0, 1, 1, 0 } );
+
+    assertEquals( 0, tree.sum( 0 ) );
+    assertEquals( 1, tree.sum( 2 ) );
+    assertEquals( 3, tree.sum( 4 ) );
+    assertEquals( 3, tree.sum( 5 ) );
+  }
+
+  @Test
+  public void testSum_exceedingSize() {
+    FenwickTree tree = new FenwickTree( new int[] { 1, 1 } );
+
+    assertEquals( 2, tree.sum( 10 ) );
+  }
+
+  @Test
+  public void testAdd() {
+    FenwickTree tree = new FenwickTree( new int[] { 1, 0, 1, 1, 0 } );
+
+    tree.add( 1, 1 );
+    tree.add( 3, -1 );
+
+    assertEquals( 2, tree.sum( 2 ) );
+    assertEquals( 3, tree.sum( 5 ) );
+  }
+
+  @Test
+  public void testFind() {
+    FenwickTree tree = new FenwickTree( new int[] { 0, 1, 0, 0, 1, 1 } );
+
+    assertEquals( 1, tree.find( 1 ) );
+    assertEquals( 4, tree.find( 2 ) );
+    assertEquals( 5, tree.find( 3 ) );
+  }
+
+  @Test
+  public void testFind_exceedingSum() {
+    FenwickTree tree = new FenwickTree( new int[] { 0, 1, 0 } );
+
+    assertEquals( -1, tree.find( 2 ) );
+    assertEquals( -1, tree.find( 0 ) );
+  }
+
+  @Test
+  public void testFind_afterAdd() {
+    FenwickTree tree = new FenwickTree( new int[] { 1, 1, 1 } );
+
+    tree.add( 0, -1 );
+
+    assertEquals( 2, tree.find( 2 ) );
+  }
+
+}
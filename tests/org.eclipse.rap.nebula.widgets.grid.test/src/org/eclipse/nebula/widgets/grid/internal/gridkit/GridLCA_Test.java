@@ -799,6 +799,22 @@ public class GridLCA_Test {
     assertEquals( expected, message.findSetProperty( grid, "selection" ) );
   }
 
+  @Test
+  public void testRenderSelection_withCellSelection() throws IOException {
+    grid.setCellSelectionEnabled( true );
+    createGridColumns( grid, 3, SWT.NONE );
+    GridItem[] items = createGridItems( grid, 3, 3 );
+
+    grid.setSelection( new int[] { 0, 4 } );
+    lca.renderChanges( grid );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    Object expected = new JsonArray()
+      .add( getId( items[ 0 ] ) )
+      .add( getId( items[ 4 ] ) );
+    assertEquals( expected, message.findSetProperty( grid, "selection" ) );
+  }
+
   @Test
   public void testRenderSelectionUnchanged() throws IOException {
     createGridItems( grid, 3, 3 );
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that allocation rates are reported along
+ * with the execution times. Accepts the same command line options as the JMH main class, e.g.
+ * <code>java -jar benchmarks.jar LifeCycle -p widgetCount=1000</code>.
+ */
+public class BenchmarkRunner {
+
+  public static void main( String[] args ) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions commandLineOptions = new CommandLineOptions( args );
+    Options options = new OptionsBuilder()
+      .parent( commandLineOptions )
+      .addProfiler( GCProfiler.class )
+      .build();
+    new Runner( options ).run();
+  }
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.json.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures parsing and serializing of protocol messages of typical size.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class JsonBenchmark {
+
+  @Param( { "10", "1000" } )
+  public int operationCount;
+
+  private String text;
+  private JsonObject message;
+
+  @Setup
+  public void setUp() {
+    message = createMessage( operationCount );
+    text = message.toString();
+  }
+
+  @Benchmark
+  public JsonValue parse() {
+    return JsonValue.readFrom( text );
+  }
+
+  @Benchmark
+  public String write() {
+    return message.toString();
+  }
+
+  static JsonObject createMessage( int operationCount ) {
+    JsonArray operations = new JsonArray();
+    for( int i = 0; i < operationCount; i++ ) {
+      JsonObject properties = new JsonObject()
+        .add( "parent", "w" + ( i / 10 ) )
+        .add( "style", new JsonArray().add( "BORDER" ) )
+        .add( "bounds", new JsonArray().add( i ).add( 2 * i ).add( 100 ).add( 24 ) )
+        .add( "text", "Item " + i + " with \"quotes\" and unicode \u00e4\u00f6\u00fc" )
+        .add( "visibility", true );
+      operations.add( new JsonArray().add( "create" ).add( "w" + i ).add( "rwt.widgets.Label" )
+                                     .add( properties ) );
+    }
+    return new JsonObject()
+      .add( "head", new JsonObject().add( "requestCounter", 42 ) )
+      .add( "operations", operations );
+  }
+
+}
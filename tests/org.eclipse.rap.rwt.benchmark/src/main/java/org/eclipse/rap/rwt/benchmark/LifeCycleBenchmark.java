@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.benchmark;
+
+import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.rwt.internal.lifecycle.LifeCycle;
+import org.eclipse.rap.rwt.internal.lifecycle.SimpleLifeCycle;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures complete request cycles (read data, process action, render) for a synthetic widget
+ * tree. The tree is rendered once during setup, so the measured requests only transfer the
+ * changes made while processing the request.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class LifeCycleBenchmark {
+
+  private static final int CHILDREN_PER_COMPOSITE = 10;
+
+  @Param( { "1000", "10000" } )
+  public int widgetCount;
+
+  private LifeCycle lifeCycle;
+  private Display display;
+  private List<Label> labels;
+  private int counter;
+
+  @Setup
+  public void setUp() throws IOException {
+    Fixture.setUp();
+    lifeCycle = new SimpleLifeCycle( getApplicationContext() );
+    display = new Display();
+    Shell shell = new Shell( display );
+    shell.setLayout( new GridLayout() );
+    labels = new ArrayList<>();
+    createWidgets( shell, widgetCount );
+    shell.open();
+    Fixture.fakeNewRequest();
+    lifeCycle.execute();
+  }
+
+  @TearDown
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Benchmark
+  public void requestWithoutChanges() throws IOException {
+    Fixture.fakeNewRequest();
+    lifeCycle.execute();
+  }
+
+  @Benchmark
+  public void requestWithChangedTexts() throws IOException {
+    Fixture.fakeNewRequest();
+    final String text = "Label " + counter++;
+    // runs in the process action phase, after the widget values have been preserved
+    display.asyncExec( new Runnable() {
+      @Override
+      public void run() {
+        for( Label label : labels ) {
+          label.setText( text );
+        }
+      }
+    } );
+    lifeCycle.execute();
+  }
+
+  private void createWidgets( Composite parent, int count ) {
+    int created = 0;
+    while( created < count ) {
+      Composite composite = new Composite( parent, SWT.NONE );
+      composite.setLayout( new GridLayout( 2, false ) );
+      created++;
+      for( int i = 0; i < CHILDREN_PER_COMPOSITE - 1 && created < count; i += 2 ) {
+        Label label = new Label( composite, SWT.NONE );
+        label.setText( "Label " + created );
+        labels.add( label );
+        created++;
+        if( created < count ) {
+          Button button = new Button( composite, SWT.PUSH );
+          button.setText( "Button " + created );
+          created++;
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.protocol.ProtocolMessageWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures assembling a response message with the protocol writer and writing it out.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ProtocolMessageWriterBenchmark {
+
+  @Param( { "10", "1000" } )
+  public int widgetCount;
+
+  @Benchmark
+  public String createAndWrite() throws IOException {
+    ProtocolMessageWriter writer = new ProtocolMessageWriter();
+    writer.appendHead( "requestCounter", 42 );
+    for( int i = 0; i < widgetCount; i++ ) {
+      String id = "w" + i;
+      writer.appendCreate( id, "rwt.widgets.Button" );
+      writer.appendSet( id, "parent", "w" + ( i / 10 ) );
+      writer.appendSet( id, "bounds", new JsonArray().add( i ).add( 0 ).add( 80 ).add( 24 ) );
+      writer.appendSet( id, "text", "Button " + i );
+      writer.appendListen( id, "Selection", true );
+      writer.appendCall( id, "focus", new JsonObject().add( "index", i ) );
+    }
+    StringWriter result = new StringWriter();
+    writer.createMessage().writeTo( result );
+    return result.toString();
+  }
+
+}
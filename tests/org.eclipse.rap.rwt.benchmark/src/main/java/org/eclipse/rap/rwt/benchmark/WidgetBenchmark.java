@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.rwt.internal.textsize.TextSizeUtil;
+import org.eclipse.rap.rwt.internal.theme.CssValue;
+import org.eclipse.rap.rwt.internal.theme.SimpleSelector;
+import org.eclipse.rap.rwt.internal.theme.ThemeUtil;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.internal.widgets.ITableAdapter;
+import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Text;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Measures server side widget operations that run for many widgets in every request: theme
+ * lookups, text measurement, resolving virtual table items and layouting.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class WidgetBenchmark {
+
+  private static final int TABLE_ITEM_COUNT = 10000;
+  private static final int LAYOUT_CHILD_COUNT = 200;
+
+  private Font font;
+  private Table table;
+  private ITableAdapter tableAdapter;
+  private Composite layoutComposite;
+  private int counter;
+
+  @Setup
+  public void setUp() {
+    Fixture.setUp();
+    Display display = new Display();
+    Shell shell = new Shell( display );
+    font = display.getSystemFont();
+    createTable( shell );
+    createLayoutComposite( shell );
+  }
+
+  @TearDown
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Benchmark
+  public CssValue themeUtil_getCssValue() {
+    return ThemeUtil.getCssValue( "Button", "color", SimpleSelector.DEFAULT );
+  }
+
+  @Benchmark
+  public Point textSizeUtil_stringExtent_known() {
+    return TextSizeUtil.stringExtent( font, "Some text" );
+  }
+
+  @Benchmark
+  public Point textSizeUtil_stringExtent_unknown() {
+    return TextSizeUtil.stringExtent( font, "Some text " + counter++ );
+  }
+
+  @Benchmark
+  public void table_checkData() {
+    table.clearAll();
+    tableAdapter.checkData();
+  }
+
+  @Benchmark
+  public void gridLayout_layout() {
+    layoutComposite.layout( true, true );
+  }
+
+  private void createTable( Shell shell ) {
+    table = new Table( shell, SWT.VIRTUAL );
+    table.setSize( 400, 2000 );
+    table.addListener( SWT.SetData, new Listener() {
+      @Override
+      public void handleEvent( Event event ) {
+        TableItem item = ( TableItem )event.item;
+        item.setText( "Item " + event.index );
+      }
+    } );
+    table.setItemCount( TABLE_ITEM_COUNT );
+    tableAdapter = table.getAdapter( ITableAdapter.class );
+  }
+
+  private void createLayoutComposite( Shell shell ) {
+    layoutComposite = new Composite( shell, SWT.NONE );
+    layoutComposite.setSize( 800, 600 );
+    layoutComposite.setLayout( new GridLayout( 4, false ) );
+    for( int i = 0; i < LAYOUT_CHILD_COUNT; i++ ) {
+      if( i % 2 == 0 ) {
+        Button button = new Button( layoutComposite, SWT.PUSH );
+        button.setText( "Button " + i );
+      } else {
+        Text text = new Text( layoutComposite, SWT.BORDER );
+        text.setLayoutData( new GridData( SWT.FILL, SWT.CENTER, true, false ) );
+      }
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.cluster.testfixture.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rap.rwt.cluster.testfixture.load.ClientScript.Step;
+import org.junit.Test;
+
+
+public class ClientScript_Test {
+
+  @Test
+  public void read_ignoresCommentsAndEmptyLines() throws IOException {
+    ClientScript script = read( "# comment\n\n   \n" );
+
+    assertTrue( script.getSteps().isEmpty() );
+  }
+
+  @Test
+  public void read_requestStep() throws IOException {
+    String line = "[[\"notify\",\"w5\",\"Selection\",{}],[\"set\",\"w3\",{\"text\":\"a\"}]]";
+
+    ClientScript script = read( line );
+
+    Step step = script.getSteps().get( 0 );
+    assertEquals( Step.Type.REQUEST, step.getType() );
+    List<String> expected = Arrays.asList( "[\"notify\",\"w5\",\"Selection\",{}]",
+                                           "[\"set\",\"w3\",{\"text\":\"a\"}]" );
+    assertEquals( expected, step.getOperations() );
+  }
+
+  @Test
+  public void read_pauseAndPushSteps() throws IOException {
+    ClientScript script = read( "pause 200\npush 5000" );
+
+    List<Step> steps = script.getSteps();
+    assertEquals( 2, steps.size() );
+    assertEquals( Step.Type.PAUSE, steps.get( 0 ).getType() );
+    assertEquals( 200, steps.get( 0 ).getTime() );
+    assertEquals( Step.Type.PUSH, steps.get( 1 ).getType() );
+    assertEquals( 5000, steps.get( 1 ).getTime() );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void read_failsWithInvalidJson() throws IOException {
+    read( "[[\"notify\"" );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void read_failsWithUnknownCommand() throws IOException {
+    read( "sleep 100" );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void read_failsWithInvalidNumber() throws IOException {
+    read( "pause soon" );
+  }
+
+  private static ClientScript read( String content ) throws IOException {
+    return ClientScript.read( new StringReader( content ) );
+  }
+
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.cluster.testfixture.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class LoadReport_Test {
+
+  private LoadReport report;
+
+  @Before
+  public void setUp() {
+    report = new LoadReport();
+  }
+
+  @Test
+  public void getRequestLatency_withoutRequests() {
+    assertEquals( 0, report.getRequestLatency( 0.5 ) );
+  }
+
+  @Test
+  public void getRequestLatency_returnsNearestRank() {
+    for( int i = 1000; i > 0; i-- ) {
+      report.recordRequest( i, 10 );
+    }
+
+    assertEquals( 500, report.getRequestLatency( 0.5 ) );
+    assertEquals( 990, report.getRequestLatency( 0.99 ) );
+    assertEquals( 999, report.getRequestLatency( 0.999 ) );
+    assertEquals( 1000, report.getRequestLatency( 1 ) );
+  }
+
+  @Test
+  public void getRequestLatency_afterFurtherRecording() {
+    report.recordRequest( 5, 0 );
+    report.getRequestLatency( 0.5 );
+
+    report.recordRequest( 1, 0 );
+    report.recordRequest( 3, 0 );
+
+    assertEquals( 3, report.getRequestLatency( 0.5 ) );
+  }
+
+  @Test
+  public void recordRequest_sumsResponseBytes() {
+    report.recordRequest( 1, 100 );
+    report.recordRequest( 1, 23 );
+
+    assertEquals( 2, report.getRequestCount() );
+    assertEquals( 123, report.getResponseBytes() );
+  }
+
+  @Test
+  public void recordPush() {
+    report.recordPush( 7 );
+
+    assertEquals( 1, report.getPushCount() );
+    assertEquals( 7, report.getPushLatency( 0.99 ) );
+  }
+
+  @Test
+  public void getThroughput() {
+    report.recordRequest( 1, 0 );
+    report.recordRequest( 1, 0 );
+    report.setDuration( TimeUnit.SECONDS.toNanos( 1 ) );
+
+    assertEquals( 2, report.getThroughput(), 0.001 );
+  }
+
+  @Test
+  public void toString_containsPercentiles() {
+    report.recordRequest( TimeUnit.MILLISECONDS.toNanos( 2 ), 0 );
+
+    String string = report.toString();
+
+    assertTrue( string.contains( "p50 2.00 ms" ) );
+    assertTrue( string.contains( "p999 2.00 ms" ) );
+  }
+
+}
@@ -147,7 +147,7 @@ public class RWTClient {
     return new Response( connection );
   }
 
-  Response sendPostRequest( JsonMessage message ) throws IOException {
+  public Response sendPostRequest( JsonMessage message ) throws IOException {
     if( requestCounter >= 0 ) {
       message.setRequestCounter( requestCounter );
     }
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.cluster.testfixture.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonValue;
+import org.eclipse.rap.json.ParseException;
+
+
+/**
+ * A recorded sequence of client interactions that is replayed by every simulated client.
+ * <p>
+ * Scripts are line based. Empty lines and lines starting with <code>#</code> are ignored. Every
+ * other line is one of:
+ * </p>
+ * <ul>
+ * <li>a JSON array of protocol operations, sent as one request, e.g.
+ * <code>[["notify","w5","Selection",{}]]</code></li>
+ * <li><code>pause &lt;millis&gt;</code> to simulate think time</li>
+ * <li><code>push &lt;timeout&gt;</code> to wait for a server push response</li>
+ * </ul>
+ */
+public class ClientScript {
+
+  private static final String PAUSE = "pause";
+  private static final String PUSH = "push";
+
+  private final List<Step> steps;
+
+  public static ClientScript read( Reader reader ) throws IOException {
+    List<Step> steps = new ArrayList<Step>();
+    BufferedReader bufferedReader = new BufferedReader( reader );
+    int lineNumber = 0;
+    String line = bufferedReader.readLine();
+    while( line != null ) {
+      lineNumber++;
+      String trimmed = line.trim();
+      if( trimmed.length() > 0 && !trimmed.startsWith( "#" ) ) {
+        steps.add( parseStep( trimmed, lineNumber ) );
+      }
+      line = bufferedReader.readLine();
+    }
+    return new ClientScript( steps );
+  }
+
+  public ClientScript( List<Step> steps ) {
+    this.steps = Collections.unmodifiableList( new ArrayList<Step>( steps ) );
+  }
+
+  public List<Step> getSteps() {
+    return steps;
+  }
+
+  private static Step parseStep( String line, int lineNumber ) {
+    if( line.startsWith( "[" ) ) {
+      return parseRequest( line, lineNumber );
+    }
+    String[] parts = line.split( "\\s+" );
+    if( parts.length == 2 && PAUSE.equals( parts[ 0 ] ) ) {
+      return new Step( Step.Type.PAUSE, null, parseNumber( parts[ 1 ], lineNumber ) );
+    }
+    if( parts.length == 2 && PUSH.equals( parts[ 0 ] ) ) {
+      return new Step( Step.Type.PUSH, null, parseNumber( parts[ 1 ], lineNumber ) );
+    }
+    throw new IllegalArgumentException( "Invalid script line " + lineNumber + ": " + line );
+  }
+
+  private static Step parseRequest( String line, int lineNumber ) {
+    List<String> operations = new ArrayList<String>();
+    try {
+      JsonArray array = JsonArray.readFrom( line );
+      for( JsonValue operation : array ) {
+        operations.add( operation.toString() );
+      }
+    } catch( ParseException exception ) {
+      String message = "Invalid operations in script line " + lineNumber + ": " + line;
+      throw new IllegalArgumentException( message, exception );
+    } catch( UnsupportedOperationException exception ) {
+      String message = "Operations must be a JSON array in script line " + lineNumber;
+      throw new IllegalArgumentException( message, exception );
+    }
+    return new Step( Step.Type.REQUEST, operations, 0 );
+  }
+
+  private static int parseNumber( String value, int lineNumber ) {
+    try {
+      return Integer.parseInt( value );
+    } catch( NumberFormatException exception ) {
+      String message = "Invalid number in script line " + lineNumber;
+      throw new IllegalArgumentException( message, exception );
+    }
+  }
+
+  public static class Step {
+
+    public enum Type {
+      REQUEST, PAUSE, PUSH
+    }
+
+    private final Type type;
+    private final List<String> operations;
+    private final int time;
+
+    Step( Type type, List<String> operations, int time ) {
+      this.type = type;
+      this.operations = operations == null
+                      ? Collections.<String>emptyList()
+                      : Collections.unmodifiableList( operations );
+      this.time = time;
+    }
+
+    public Type getType() {
+      return type;
+    }
+
+    /**
+     * The protocol operations of a <code>REQUEST</code> step.
+     */
+    public List<String> getOperations() {
+      return operations;
+    }
+
+    /**
+     * The pause duration or server push timeout in milliseconds.
+     */
+    public int getTime() {
+      return time;
+    }
+
+  }
+
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.cluster.testfixture.load;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.rwt.application.EntryPoint;
+import org.eclipse.rap.rwt.cluster.testfixture.client.JsonMessage;
+import org.eclipse.rap.rwt.cluster.testfixture.client.RWTClient;
+import org.eclipse.rap.rwt.cluster.testfixture.client.Response;
+import org.eclipse.rap.rwt.cluster.testfixture.load.ClientScript.Step;
+import org.eclipse.rap.rwt.cluster.testfixture.server.IServletEngine;
+import org.eclipse.rap.rwt.cluster.testfixture.server.JettyFactory;
+
+
+/**
+ * Replays a client script from a number of simulated clients against a running servlet engine.
+ * <p>
+ * Every client starts its own UI session. When all sessions are initialized, the increase of the
+ * used heap is recorded. Then all clients replay the script concurrently for the given number of
+ * iterations. Since the engine runs in the same VM, the heap measurement covers the server side
+ * state of the sessions.
+ * </p>
+ */
+public class LoadGenerator {
+
+  private final IServletEngine servletEngine;
+  private final ClientScript script;
+  private int clientCount;
+  private int iterations;
+
+  public LoadGenerator( IServletEngine servletEngine, ClientScript script ) {
+    this.servletEngine = servletEngine;
+    this.script = script;
+    clientCount = 1;
+    iterations = 1;
+  }
+
+  public LoadGenerator setClientCount( int clientCount ) {
+    this.clientCount = clientCount;
+    return this;
+  }
+
+  public LoadGenerator setIterations( int iterations ) {
+    this.iterations = iterations;
+    return this;
+  }
+
+  public LoadReport run() throws InterruptedException {
+    LoadReport report = new LoadReport();
+    long heapBefore = getUsedHeap();
+    CountDownLatch initialized = new CountDownLatch( clientCount );
+    CountDownLatch started = new CountDownLatch( 1 );
+    CountDownLatch finished = new CountDownLatch( clientCount );
+    ExecutorService executor = Executors.newFixedThreadPool( clientCount );
+    try {
+      for( int i = 0; i < clientCount; i++ ) {
+        executor.execute( new SimulatedClient( report, initialized, started, finished ) );
+      }
+      initialized.await();
+      long heapAfter = getUsedHeap();
+      report.setSessions( clientCount, Math.max( 0, heapAfter - heapBefore ) / clientCount );
+      long startTime = System.nanoTime();
+      started.countDown();
+      finished.await();
+      report.setDuration( System.nanoTime() - startTime );
+    } finally {
+      executor.shutdownNow();
+    }
+    return report;
+  }
+
+  private void replay( RWTClient client, LoadReport report ) throws IOException {
+    for( Step step : script.getSteps() ) {
+      switch( step.getType() ) {
+        case REQUEST:
+          sendRequest( client, step, report );
+        break;
+        case PUSH:
+          sendServerPushRequest( client, step, report );
+        break;
+        case PAUSE:
+          pause( step.getTime() );
+        break;
+      }
+    }
+  }
+
+  private static void sendRequest( RWTClient client, Step step, LoadReport report )
+    throws IOException
+  {
+    JsonMessage message = new JsonMessage();
+    for( String operation : step.getOperations() ) {
+      message.addOperation( operation );
+    }
+    long start = System.nanoTime();
+    Response response = client.sendPostRequest( message );
+    long latency = System.nanoTime() - start;
+    if( response.isValidJsonResponse() ) {
+      report.recordRequest( latency, response.getContent().length );
+    } else {
+      report.recordError();
+    }
+  }
+
+  private static void sendServerPushRequest( RWTClient client, Step step, LoadReport report )
+    throws IOException
+  {
+    long start = System.nanoTime();
+    Response response = client.sendServerPushRequest( step.getTime() );
+    long latency = System.nanoTime() - start;
+    if( response.getResponseCode() == 200 ) {
+      report.recordPush( latency );
+    } else {
+      report.recordError();
+    }
+  }
+
+  private static void pause( int millis ) {
+    try {
+      Thread.sleep( millis );
+    } catch( InterruptedException exception ) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static long getUsedHeap() {
+    MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    for( int i = 0; i < 3; i++ ) {
+      System.gc();
+    }
+    return memoryBean.getHeapMemoryUsage().getUsed();
+  }
+
+  private class SimulatedClient implements Runnable {
+
+    private final LoadReport report;
+    private final CountDownLatch initialized;
+    private final CountDownLatch started;
+    private final CountDownLatch finished;
+
+    SimulatedClient( LoadReport report,
+                     CountDownLatch initialized,
+                     CountDownLatch started,
+                     CountDownLatch finished )
+    {
+      this.report = report;
+      this.initialized = initialized;
+      this.started = started;
+      this.finished = finished;
+    }
+
+    public void run() {
+      boolean counted = false;
+      try {
+        RWTClient client = new RWTClient( servletEngine );
+        boolean ready = initialize( client );
+        initialized.countDown();
+        counted = true;
+        started.await();
+        for( int i = 0; ready && i < iterations; i++ ) {
+          replay( client, report );
+        }
+      } catch( IOException exception ) {
+        report.recordError();
+      } catch( InterruptedException exception ) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if( !counted ) {
+          initialized.countDown();
+        }
+        finished.countDown();
+      }
+    }
+
+    private boolean initialize( RWTClient client ) {
+      try {
+        client.sendStartupRequest();
+        Response response = client.sendInitializationRequest();
+        if( response.isValidJsonResponse() ) {
+          return true;
+        }
+      } catch( IOException exception ) {
+        // recorded below
+      }
+      report.recordError();
+      return false;
+    }
+
+  }
+
+  /**
+   * Runs a script against an embedded Jetty engine.
+   * <p>
+   * Arguments: <code>&lt;entry point class&gt; &lt;script file&gt; [clients] [iterations]</code>
+   * </p>
+   */
+  public static void main( String[] args ) throws Exception {
+    if( args.length < 2 ) {
+      System.err.println( "Usage: LoadGenerator <entry point class> <script file>"
+                          + " [clients] [iterations]" );
+      System.exit( 1 );
+    }
+    Class<? extends EntryPoint> entryPointClass
+      = Class.forName( args[ 0 ] ).asSubclass( EntryPoint.class );
+    ClientScript script = readScript( args[ 1 ] );
+    int clients = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 10;
+    int iterations = args.length > 3 ? Integer.parseInt( args[ 3 ] ) : 10;
+    IServletEngine servletEngine = new JettyFactory().createServletEngine();
+    servletEngine.start( entryPointClass );
+    try {
+      LoadGenerator generator = new LoadGenerator( servletEngine, script )
+        .setClientCount( clients )
+        .setIterations( iterations );
+      long start = System.nanoTime();
+      LoadReport report = generator.run();
+      System.out.print( report );
+      long elapsed = TimeUnit.NANOSECONDS.toSeconds( System.nanoTime() - start );
+      System.out.println( "total time:        " + elapsed + " s" );
+    } finally {
+      servletEngine.stop();
+    }
+  }
+
+  private static ClientScript readScript( String fileName ) throws IOException {
+    Reader reader = new InputStreamReader( new FileInputStream( fileName ), "UTF-8" );
+    try {
+      return ClientScript.read( reader );
+    } finally {
+      reader.close();
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.cluster.testfixture.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Collects the measurements of a load run. Recording methods are thread safe, latencies are
+ * recorded in nanoseconds.
+ */
+public class LoadReport {
+
+  private final Samples requestLatencies;
+  private final Samples pushLatencies;
+  private long responseBytes;
+  private int errorCount;
+  private int sessionCount;
+  private long heapPerSession;
+  private long duration;
+
+  public LoadReport() {
+    requestLatencies = new Samples();
+    pushLatencies = new Samples();
+  }
+
+  public synchronized void recordRequest( long latency, int bytes ) {
+    requestLatencies.add( latency );
+    responseBytes += bytes;
+  }
+
+  public synchronized void recordPush( long latency ) {
+    pushLatencies.add( latency );
+  }
+
+  public synchronized void recordError() {
+    errorCount++;
+  }
+
+  synchronized void setSessions( int sessionCount, long heapPerSession ) {
+    this.sessionCount = sessionCount;
+    this.heapPerSession = heapPerSession;
+  }
+
+  synchronized void setDuration( long duration ) {
+    this.duration = duration;
+  }
+
+  public synchronized int getRequestCount() {
+    return requestLatencies.size;
+  }
+
+  /**
+   * Returns the request latency in nanoseconds below which the given fraction (e.g.
+   * <code>0.99</code>) of all requests completed.
+   */
+  public synchronized long getRequestLatency( double percentile ) {
+    return requestLatencies.getPercentile( percentile );
+  }
+
+  public synchronized int getPushCount() {
+    return pushLatencies.size;
+  }
+
+  public synchronized long getPushLatency( double percentile ) {
+    return pushLatencies.getPercentile( percentile );
+  }
+
+  public synchronized long getResponseBytes() {
+    return responseBytes;
+  }
+
+  public synchronized int getErrorCount() {
+    return errorCount;
+  }
+
+  public synchronized int getSessionCount() {
+    return sessionCount;
+  }
+
+  /**
+   * Returns the increase of the used server heap after all sessions have been initialized
+   * divided by the number of sessions, in bytes.
+   */
+  public synchronized long getHeapPerSession() {
+    return heapPerSession;
+  }
+
+  /**
+   * Returns the duration of the replay phase in nanoseconds.
+   */
+  public synchronized long getDuration() {
+    return duration;
+  }
+
+  public synchronized double getThroughput() {
+    if( duration == 0 ) {
+      return 0;
+    }
+    return requestLatencies.size * ( double )TimeUnit.SECONDS.toNanos( 1 ) / duration;
+  }
+
+  @Override
+  public synchronized String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append( "sessions:          " ).append( sessionCount ).append( '\n' );
+    result.append( "heap per session:  " ).append( heapPerSession / 1024 ).append( " KB\n" );
+    result.append( "requests:          " ).append( requestLatencies.size );
+    result.append( " (" ).append( errorCount ).append( " errors)\n" );
+    result.append( "throughput:        " );
+    result.append( String.format( "%.1f req/s\n", Double.valueOf( getThroughput() ) ) );
+    result.append( "response bytes:    " ).append( responseBytes );
+    if( requestLatencies.size > 0 ) {
+      long bytesPerRequest = responseBytes / requestLatencies.size;
+      result.append( " (" ).append( bytesPerRequest ).append( " per request)" );
+    }
+    result.append( '\n' );
+    appendLatencies( result, "request latency:   ", requestLatencies );
+    appendLatencies( result, "push latency:      ", pushLatencies );
+    return result.toString();
+  }
+
+  private static void appendLatencies( StringBuilder builder, String label, Samples samples ) {
+    builder.append( label );
+    if( samples.size == 0 ) {
+      builder.append( "-\n" );
+    } else {
+      builder.append( "p50 " ).append( toMillis( samples.getPercentile( 0.5 ) ) );
+      builder.append( " ms, p99 " ).append( toMillis( samples.getPercentile( 0.99 ) ) );
+      builder.append( " ms, p999 " ).append( toMillis( samples.getPercentile( 0.999 ) ) );
+      builder.append( " ms\n" );
+    }
+  }
+
+  private static String toMillis( long nanos ) {
+    return String.format( "%.2f", Double.valueOf( nanos / 1000000d ) );
+  }
+
+  private static class Samples {
+
+    private long[] values = new long[ 1024 ];
+    private int size;
+    private boolean sorted = true;
+
+    void add( long value ) {
+      if( size == values.length ) {
+        values = Arrays.copyOf( values, size * 2 );
+      }
+      values[ size++ ] = value;
+      sorted = false;
+    }
+
+    long getPercentile( double percentile ) {
+      if( size == 0 ) {
+        return 0;
+      }
+      if( !sorted ) {
+        Arrays.sort( values, 0, size );
+        sorted = true;
+      }
+      // nearest rank
+      int rank = ( int )Math.ceil( percentile * size );
+      return values[ Math.min( size, Math.max( 1, rank ) ) - 1 ];
+    }
+
+  }
+
+}
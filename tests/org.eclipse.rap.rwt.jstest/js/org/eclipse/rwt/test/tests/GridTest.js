@@ -527,6 +527,41 @@ rwt.qx.Class.define( "org.eclipse.rwt.test.tests.GridTest", {
       widget.destroy();
     },
 
+    testSetSelectionRangesByProtocol : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [ "MULTI" ] );
+      widget.setItemCount( 5 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+
+      TestUtil.protocolSet( "w3", { "selection" : [ [ 1, 2 ], [ 4, 4 ] ] } );
+
+      var root = widget.getRootItem();
+      assertFalse( widget.isItemSelected( item1 ) );
+      assertTrue( widget.isItemSelected( root.getChild( 1 ) ) );
+      assertTrue( widget.isItemSelected( root.getChild( 2 ) ) );
+      assertFalse( widget.isItemSelected( root.getChild( 3 ) ) );
+      assertTrue( widget.isItemSelected( root.getChild( 4 ) ) );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetSelectionRangesOfSubItemsByProtocol : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [ "MULTI" ] );
+      widget.setItemCount( 1 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      TestUtil.protocolSet( "w4", { "itemCount" : 3 } );
+
+      TestUtil.protocolSet( "w3", { "selection" : [ [ "w4", 1, 2 ] ] } );
+
+      assertFalse( widget.isItemSelected( item1 ) );
+      assertFalse( widget.isItemSelected( item1.getChild( 0 ) ) );
+      assertTrue( widget.isItemSelected( item1.getChild( 1 ) ) );
+      assertTrue( widget.isItemSelected( item1.getChild( 2 ) ) );
+      shell.destroy();
+      widget.destroy();
+    },
+
     testSetSelectionWithDisposeByProtocol : function() {
       var shell = TestUtil.createShellByProtocol( "w2" );
       var widget = this._createDefaultTreeByProtocol( "w3", "w2", [ "MULTI" ] );
@@ -563,6 +598,159 @@ rwt.qx.Class.define( "org.eclipse.rwt.test.tests.GridTest", {
       widget.destroy();
     },
 
+    testSetItemDataByProtocol : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
+      widget.setItemCount( 3 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      var item2 = this._createTreeItemByProtocol( "w5", "w3", 1 );
+      var item3 = this._createTreeItemByProtocol( "w6", "w3", 2 );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4", "w5", "w6" ],
+        "strings" : [ "foo", "bar" ],
+        "texts" : [ [ 0, 1, 0 ], [ 1, -1, 0 ] ],
+        "imageList" : [ [ "foo.png", 10, 10 ] ],
+        "images" : [ [ -1, 0, -1 ] ]
+      } );
+
+      assertEquals( "foo", item1.getText( 0 ) );
+      assertEquals( "bar", item1.getText( 1 ) );
+      assertEquals( "bar", item2.getText( 0 ) );
+      assertFalse( item2.hasText( 1 ) );
+      assertEquals( "foo", item3.getText( 0 ) );
+      assertEquals( "foo", item3.getText( 1 ) );
+      assertNull( item1.getImage( 0 ) );
+      assertEquals( [ "foo.png", 10, 10 ], item2.getImage( 0 ) );
+      assertNull( item3.getImage( 0 ) );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetItemDataByProtocol_withCheckStates : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [ "CHECK" ] );
+      widget.setItemCount( 2 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      var item2 = this._createTreeItemByProtocol( "w5", "w3", 1 );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4", "w5" ],
+        "strings" : [],
+        "texts" : [],
+        "imageList" : [],
+        "images" : [],
+        "checked" : [ true, false ],
+        "grayed" : [ false, true ]
+      } );
+
+      assertTrue( item1.isChecked() );
+      assertFalse( item1.isGrayed() );
+      assertFalse( item2.isChecked() );
+      assertTrue( item2.isGrayed() );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetItemDataByProtocol_skipsItemsNotCreated : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
+      widget.setItemCount( 3 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      var item3 = this._createTreeItemByProtocol( "w6", "w3", 2 );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4", "w5", "w6" ],
+        "strings" : [ "foo", "bar", "baz" ],
+        "texts" : [ [ 0, 1, 2 ] ],
+        "imageList" : [],
+        "images" : []
+      } );
+
+      assertEquals( "foo", item1.getText( 0 ) );
+      assertEquals( "baz", item3.getText( 0 ) );
+      assertFalse( widget.getRootItem().isChildCreated( 1 ) );
+      assertTrue( ObjectRegistry.getObject( "w5" ) == null );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetItemDataByProtocol_withPlaceholderItem : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
+      widget.setItemCount( 2 );
+      var placeholder = widget.getRootItem().getChild( 0 );
+      var uncachedItem = widget.getRootItem().getChild( 1 );
+      var item = this._createTreeItemByProtocol( "w4", "w3", 0 );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4" ],
+        "strings" : [ "foo" ],
+        "texts" : [ [ 0 ] ],
+        "imageList" : [],
+        "images" : []
+      } );
+
+      assertIdentical( placeholder, item );
+      assertTrue( item.isCached() );
+      assertEquals( "foo", item.getText( 0 ) );
+      assertFalse( uncachedItem.isCached() );
+      assertEquals( "...", uncachedItem.getText( 0 ) );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetItemDataByProtocol_keepsDataOfOtherCachedItems : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
+      widget.setItemCount( 2 );
+      var item1 = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      var item2 = this._createTreeItemByProtocol( "w5", "w3", 1 );
+      TestUtil.protocolSet( "w4", { "texts" : [ "old1" ] } );
+      TestUtil.protocolSet( "w5", {
+        "texts" : [ "old2" ],
+        "images" : [ [ "foo.png", 10, 10 ] ]
+      } );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4" ],
+        "strings" : [ "new1" ],
+        "texts" : [ [ 0 ] ],
+        "imageList" : [],
+        "images" : [ [ -1 ] ]
+      } );
+
+      assertEquals( "new1", item1.getText( 0 ) );
+      assertEquals( "old2", item2.getText( 0 ) );
+      assertEquals( [ "foo.png", 10, 10 ], item2.getImage( 0 ) );
+      shell.destroy();
+      widget.destroy();
+    },
+
+    testSetItemDataByProtocol_afterItemProperties : function() {
+      var shell = TestUtil.createShellByProtocol( "w2" );
+      var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
+      widget.setItemCount( 1 );
+      var item = this._createTreeItemByProtocol( "w4", "w3", 0 );
+      TestUtil.protocolSet( "w4", {
+        "texts" : [ "old" ],
+        "background" : [ 255, 0, 0, 255 ]
+      } );
+
+      TestUtil.protocolCall( "w3", "setItemData", {
+        "items" : [ "w4" ],
+        "strings" : [ "new" ],
+        "texts" : [ [ 0 ] ],
+        "imageList" : [],
+        "images" : []
+      } );
+
+      assertEquals( "new", item.getText( 0 ) );
+      assertEquals( "rgb(255,0,0)", item.getBackground() );
+      shell.destroy();
+      widget.destroy();
+    },
+
     testSetScrollBarsVisibleByProtocol : function() {
       var shell = TestUtil.createShellByProtocol( "w2" );
       var widget = this._createDefaultTreeByProtocol( "w3", "w2", [] );
@@ -10,12 +10,16 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.engine;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.endsWith;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -23,13 +27,17 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpSession;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.service.UISessionImpl;
 import org.eclipse.rap.rwt.service.ApplicationContext;
 import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
 import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 
 public class RWTClusterSupport_Test {
@@ -50,6 +58,11 @@ public class RWTClusterSupport_Test {
     rwtClusterSupport = new RWTClusterSupport();
   }
 
+  @After
+  public void tearDown() {
+    System.clearProperty( RWTProperties.INCREMENTAL_REPLICATION );
+  }
+
   @Test
   public void testDoFilter_passesParametersToFilterChain() throws Exception {
     rwtClusterSupport.doFilter( request, response, chain );
@@ -128,6 +141,40 @@ public class RWTClusterSupport_Test {
     verify( httpSession ).setAttribute( endsWith( "foo" ), same( deserializedUISession ) );
   }
 
+  @Test
+  public void testDoFilter_incrementalReplication_skipsUnchangedUISession() throws Exception {
+    System.setProperty( RWTProperties.INCREMENTAL_REPLICATION, "true" );
+    HttpSession httpSession = mockHttpSession();
+    request.setSession( httpSession );
+    UISessionImpl deserializedUISession = new UISessionImpl( null, httpSession );
+    setUISession( httpSession, deserializedUISession );
+
+    rwtClusterSupport.doFilter( request, response, chain );
+
+    verify( httpSession, never() ).setAttribute( anyString(), any() );
+  }
+
+  @Test
+  public void testDoFilter_incrementalReplication_replicatesChangedUISession() throws Exception {
+    System.setProperty( RWTProperties.INCREMENTAL_REPLICATION, "true" );
+    HttpSession httpSession = mockHttpSession();
+    request.setSession( httpSession );
+    final UISessionImpl deserializedUISession = new UISessionImpl( null, httpSession );
+    setUISession( httpSession, deserializedUISession );
+    doAnswer( new Answer<Void>() {
+      @Override
+      public Void answer( InvocationOnMock invocation ) {
+        deserializedUISession.setAttribute( "foo", "bar" );
+        return null;
+      }
+    } ).when( chain ).doFilter( request, response );
+
+    rwtClusterSupport.doFilter( request, response, chain );
+
+    verify( httpSession ).setAttribute( anyString(), same( deserializedUISession ) );
+    assertFalse( deserializedUISession.isChanged() );
+  }
+
   private static HttpSession mockHttpSession() {
     return mockHttpSession( mock( ServletContext.class ) );
   }
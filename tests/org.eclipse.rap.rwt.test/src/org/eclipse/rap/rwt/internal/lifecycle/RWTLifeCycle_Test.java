@@ -39,6 +39,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.application.EntryPoint;
 import org.eclipse.rap.rwt.client.WebClient;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.lifecycle.IPhase.IInterruptible;
 import org.eclipse.rap.rwt.internal.service.ContextProvider;
@@ -89,6 +90,7 @@ public class RWTLifeCycle_Test {
   @After
   public void tearDown() {
     Fixture.tearDown();
+    System.getProperties().remove( RWTProperties.VIRTUAL_UI_THREADS );
   }
 
   @Test
@@ -114,6 +116,20 @@ public class RWTLifeCycle_Test {
     assertEquals( DISPLAY_CREATED, log.toString() );
   }
 
+  @Test
+  public void testDefaultEntryPoint_withVirtualUIThreads() throws IOException {
+    System.setProperty( RWTProperties.VIRTUAL_UI_THREADS, "true" );
+    entryPointManager.register( TestRequest.DEFAULT_SERVLET_PATH,
+                                TestEntryPointWithLog.class,
+                                null );
+    RWTLifeCycle lifeCycle = getLifeCycle();
+
+    lifeCycle.execute();
+
+    assertEquals( DISPLAY_CREATED, log.toString() );
+    assertTrue( RWTLifeCycle.getUIThreadHolder() instanceof VirtualUIThread );
+  }
+
   @Test
   public void testParamOfExistingEntryPoint() throws IOException {
     fakeServletPath( MY_ENTRY_POINT );
@@ -252,6 +268,22 @@ public class RWTLifeCycle_Test {
     }
   }
 
+  @Test
+  public void testErrorInLifeCycle_withVirtualUIThreads() throws IOException {
+    System.setProperty( RWTProperties.VIRTUAL_UI_THREADS, "true" );
+    Class<TestErrorInLifeCycleEntryPoint> type = TestErrorInLifeCycleEntryPoint.class;
+    entryPointManager.register( TestRequest.DEFAULT_SERVLET_PATH, type, null );
+    RWTLifeCycle lifeCycle = getLifeCycle();
+    LifeCycleUtil.setSessionDisplay( null );
+    try {
+      lifeCycle.execute();
+      fail();
+    } catch( RuntimeException e ) {
+      assertEquals( type.getName(), e.getMessage() );
+      assertTrue( RWTLifeCycle.getUIThreadHolder().getThread().isAlive() );
+    }
+  }
+
   @Test
   public void testExceptionInPhaseListener() throws IOException {
     entryPointManager.register( TestRequest.DEFAULT_SERVLET_PATH,
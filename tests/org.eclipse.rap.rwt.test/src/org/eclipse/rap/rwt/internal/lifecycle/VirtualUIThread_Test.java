@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.lifecycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.rap.rwt.internal.lifecycle.UIThread.UIThreadTerminatedError;
+import org.eclipse.rap.rwt.internal.service.ContextProvider;
+import org.eclipse.rap.rwt.internal.service.ServiceContext;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.rap.rwt.testfixture.internal.NoOpRunnable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class VirtualUIThread_Test {
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testGetThread_hasName() {
+    VirtualUIThread uiThread = new VirtualUIThread( new NoOpRunnable(), "UIThread [foo]" );
+
+    assertEquals( "UIThread [foo]", uiThread.getThread().getName() );
+    assertFalse( uiThread.getThread().isAlive() );
+  }
+
+  @Test
+  public void testGetLock_isReentrantLock() {
+    VirtualUIThread uiThread = new VirtualUIThread( new NoOpRunnable(), "UIThread" );
+
+    assertTrue( uiThread.getLock() instanceof ReentrantLock );
+  }
+
+  @Test
+  public void testGetCurrent_outsideOfUIThread() {
+    assertNull( VirtualUIThread.getCurrent() );
+  }
+
+  @Test
+  public void testGetCurrent_insideOfUIThread() throws InterruptedException {
+    final AtomicReference<VirtualUIThread> current = new AtomicReference<>();
+    VirtualUIThread uiThread = new VirtualUIThread( new Runnable() {
+      @Override
+      public void run() {
+        current.set( VirtualUIThread.getCurrent() );
+      }
+    }, "UIThread" );
+
+    uiThread.getThread().start();
+    uiThread.getThread().join();
+
+    assertSame( uiThread, current.get() );
+  }
+
+  @Test
+  public void testSwitchThread() {
+    final StringBuffer log = new StringBuffer();
+    final AtomicReference<VirtualUIThread> holder = new AtomicReference<>();
+    VirtualUIThread uiThread = new VirtualUIThread( new Runnable() {
+      @Override
+      public void run() {
+        ReentrantLock lock = ( ReentrantLock )holder.get().getLock();
+        lock.lock();
+        try {
+          log.append( "ui|" );
+          holder.get().switchThread();
+        } catch( @SuppressWarnings( "unused" ) UIThreadTerminatedError error ) {
+          log.append( "terminated|" );
+        } finally {
+          lock.unlock();
+        }
+      }
+    }, "UIThread" );
+    holder.set( uiThread );
+    uiThread.setUISession( ContextProvider.getUISession() );
+    ReentrantLock lock = ( ReentrantLock )uiThread.getLock();
+
+    lock.lock();
+    try {
+      uiThread.getThread().start();
+      uiThread.switchThread();
+      log.append( "request|" );
+    } finally {
+      lock.unlock();
+    }
+    uiThread.terminateThread();
+
+    assertEquals( "ui|request|terminated|", log.toString() );
+    assertFalse( uiThread.getThread().isAlive() );
+  }
+
+  @Test
+  public void testUpdateServiceContext() {
+    VirtualUIThread uiThread = new VirtualUIThread( new NoOpRunnable(), "UIThread" );
+    ServiceContext context = ContextProvider.getContext();
+    uiThread.setServiceContext( context );
+
+    uiThread.updateServiceContext();
+
+    assertSame( context, ContextProvider.getContext() );
+  }
+
+}
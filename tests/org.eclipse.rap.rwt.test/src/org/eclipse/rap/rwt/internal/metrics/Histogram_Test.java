@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.rap.json.JsonObject;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class Histogram_Test {
+
+  private Histogram histogram;
+
+  @Before
+  public void setUp() {
+    histogram = new Histogram();
+  }
+
+  @Test
+  public void testInitialValues() {
+    assertEquals( 0, histogram.getCount() );
+    assertEquals( 0, histogram.getSum() );
+    assertEquals( 0, histogram.getMax() );
+    assertEquals( 0, histogram.getMean(), 0 );
+    assertEquals( 0, histogram.getPercentile( 0.99 ) );
+  }
+
+  @Test
+  public void testRecord() {
+    histogram.record( 3 );
+    histogram.record( 7 );
+
+    assertEquals( 2, histogram.getCount() );
+    assertEquals( 10, histogram.getSum() );
+    assertEquals( 7, histogram.getMax() );
+    assertEquals( 5, histogram.getMean(), 0 );
+  }
+
+  @Test
+  public void testRecord_negativeValueIsRecordedAsZero() {
+    histogram.record( -5 );
+
+    assertEquals( 1, histogram.getCount() );
+    assertEquals( 0, histogram.getSum() );
+  }
+
+  @Test
+  public void testGetPercentile_smallValuesAreExact() {
+    histogram.record( 1 );
+    histogram.record( 2 );
+    histogram.record( 3 );
+
+    assertEquals( 1, histogram.getPercentile( 0.3 ) );
+    assertEquals( 2, histogram.getPercentile( 0.5 ) );
+    assertEquals( 3, histogram.getPercentile( 1 ) );
+  }
+
+  @Test
+  public void testGetPercentile_isUpperBoundWithinTolerance() {
+    for( int i = 1; i <= 1000; i++ ) {
+      histogram.record( i );
+    }
+
+    long p50 = histogram.getPercentile( 0.5 );
+    long p90 = histogram.getPercentile( 0.9 );
+    assertTrue( p50 >= 500 && p50 <= 625 );
+    assertTrue( p90 >= 900 && p90 <= 1000 );
+  }
+
+  @Test
+  public void testGetPercentile_doesNotExceedMax() {
+    histogram.record( 1000 );
+
+    assertEquals( 1000, histogram.getPercentile( 0.99 ) );
+  }
+
+  @Test
+  public void testBucketBoundsCoverValues() {
+    int previousIndex = 0;
+    for( long value = 0; value < 100000; value++ ) {
+      int index = Histogram.getBucketIndex( value );
+      assertTrue( index == previousIndex || index == previousIndex + 1 );
+      assertTrue( Histogram.getBucketUpperBound( index ) >= value );
+      assertTrue( Histogram.getBucketUpperBound( index ) <= value * 1.25 + 1 );
+      previousIndex = index;
+    }
+  }
+
+  @Test
+  public void testRecord_maxValue() {
+    histogram.record( Long.MAX_VALUE );
+
+    assertEquals( Long.MAX_VALUE, histogram.getPercentile( 1 ) );
+  }
+
+  @Test
+  public void testToJson() {
+    histogram.record( 2 );
+
+    JsonObject json = histogram.toJson();
+
+    assertEquals( 1, json.get( "count" ).asLong() );
+    assertEquals( 2, json.get( "p99" ).asLong() );
+    assertEquals( 2, json.get( "max" ).asLong() );
+  }
+
+}
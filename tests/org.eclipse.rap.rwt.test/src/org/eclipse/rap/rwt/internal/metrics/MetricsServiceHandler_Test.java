@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.textsize.TextSizeStorage;
+import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class MetricsServiceHandler_Test {
+
+  private Metrics metrics;
+  private TestRequest request;
+  private TestResponse response;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics( true, 0, new TextSizeStorage() );
+    request = new TestRequest();
+    response = new TestResponse();
+  }
+
+  @Test
+  public void testIsAccessible_withoutTokenAndDevelopmentMode() {
+    assertFalse( MetricsServiceHandler.isAccessible( null, false ) );
+  }
+
+  @Test
+  public void testIsAccessible_withToken() {
+    assertTrue( MetricsServiceHandler.isAccessible( "secret", false ) );
+  }
+
+  @Test
+  public void testIsAccessible_inDevelopmentMode() {
+    assertTrue( MetricsServiceHandler.isAccessible( null, true ) );
+  }
+
+  @Test
+  public void testService_withoutToken_writesMetrics() throws IOException {
+    MetricsServiceHandler handler = new MetricsServiceHandler( metrics, null );
+
+    handler.service( request, response );
+
+    assertEquals( 0, response.getErrorStatus() );
+    assertEquals( "no-store", response.getHeader( "Cache-Control" ) );
+    assertEquals( metrics.toJson(), JsonObject.readFrom( response.getContent() ) );
+  }
+
+  @Test
+  public void testService_withMissingToken_isForbidden() throws IOException {
+    MetricsServiceHandler handler = new MetricsServiceHandler( metrics, "secret" );
+
+    handler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_FORBIDDEN, response.getErrorStatus() );
+    assertFalse( response.getContent().contains( "activeUISessions" ) );
+  }
+
+  @Test
+  public void testService_withWrongToken_isForbidden() throws IOException {
+    MetricsServiceHandler handler = new MetricsServiceHandler( metrics, "secret" );
+    request.setHeader( MetricsServiceHandler.TOKEN_HEADER, "guess" );
+
+    handler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_FORBIDDEN, response.getErrorStatus() );
+    assertFalse( response.getContent().contains( "activeUISessions" ) );
+  }
+
+  @Test
+  public void testService_withToken_writesMetrics() throws IOException {
+    MetricsServiceHandler handler = new MetricsServiceHandler( metrics, "secret" );
+    request.setHeader( MetricsServiceHandler.TOKEN_HEADER, "secret" );
+
+    handler.service( request, response );
+
+    assertEquals( 0, response.getErrorStatus() );
+    assertEquals( metrics.toJson(), JsonObject.readFrom( response.getContent() ) );
+  }
+
+}
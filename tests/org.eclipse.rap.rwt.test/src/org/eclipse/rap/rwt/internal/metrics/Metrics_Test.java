@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
+import org.eclipse.rap.rwt.internal.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.internal.textsize.TextSizeStorage;
+import org.eclipse.rap.rwt.service.UISession;
+import org.eclipse.rap.rwt.service.UISessionEvent;
+import org.eclipse.rap.rwt.service.UISessionListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+
+@SuppressWarnings( "deprecation" )
+public class Metrics_Test {
+
+  private Metrics metrics;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics( true, 0, new TextSizeStorage() );
+  }
+
+  @After
+  public void tearDown() {
+    metrics.unregister();
+  }
+
+  @Test
+  public void testRecordPhase() {
+    metrics.recordPhase( PhaseId.READ_DATA, 10 );
+    metrics.recordPhase( PhaseId.PROCESS_ACTION, 20 );
+    metrics.recordPhase( PhaseId.RENDER, 30 );
+
+    assertEquals( 10, metrics.getReadDataTimeP99() );
+    assertEquals( 20, metrics.getProcessActionTimeP99() );
+    assertEquals( 30, metrics.getRenderTimeP99() );
+  }
+
+  @Test
+  public void testRecordPhase_ignoresOtherPhases() {
+    metrics.recordPhase( PhaseId.PREPARE_UI_ROOT, 10 );
+
+    JsonObject phaseTime = metrics.toJson().get( "phaseTime" ).asObject();
+    assertEquals( 0, phaseTime.get( "readData" ).asObject().get( "count" ).asLong() );
+  }
+
+  @Test
+  public void testRecordPhase_whenDisabled() {
+    metrics = new Metrics( false, 0, null );
+
+    metrics.recordPhase( PhaseId.RENDER, 30 );
+
+    assertEquals( 0, metrics.getRenderTimeP99() );
+  }
+
+  @Test
+  public void testRequestsInProcessAction() {
+    metrics.enterProcessAction();
+    metrics.enterProcessAction();
+    metrics.leaveProcessAction();
+
+    assertEquals( 1, metrics.getRequestsInProcessAction() );
+  }
+
+  @Test
+  public void testUISessionCreated() {
+    UISession uiSession = mockUISession();
+
+    metrics.uiSessionCreated( uiSession );
+
+    assertEquals( 1, metrics.getActiveUISessions() );
+  }
+
+  @Test
+  public void testUISessionCreated_decrementsOnDestroy() {
+    UISession uiSession = mockUISession();
+    ApplicationContextImpl applicationContext = mock( ApplicationContextImpl.class );
+    when( applicationContext.getMetrics() ).thenReturn( metrics );
+    when( uiSession.getApplicationContext() ).thenReturn( applicationContext );
+    metrics.uiSessionCreated( uiSession );
+    ArgumentCaptor<UISessionListener> captor = ArgumentCaptor.forClass( UISessionListener.class );
+    verify( uiSession ).addUISessionListener( captor.capture() );
+
+    captor.getValue().beforeDestroy( new UISessionEvent( uiSession ) );
+
+    assertEquals( 0, metrics.getActiveUISessions() );
+  }
+
+  @Test
+  public void testUISessionCreated_whenDisabled() {
+    metrics = new Metrics( false, 0, null );
+    UISession uiSession = mockUISession();
+
+    metrics.uiSessionCreated( uiSession );
+
+    assertEquals( 0, metrics.getActiveUISessions() );
+    verify( uiSession, never() ).addUISessionListener( any( UISessionListener.class ) );
+  }
+
+  @Test
+  public void testRecordPushWait() {
+    metrics.recordPushWait( 500 );
+
+    assertEquals( 500, metrics.getPushWaitTimeP99() );
+  }
+
+  @Test
+  public void testToJson() {
+    metrics.recordPushWait( 500 );
+
+    JsonObject json = metrics.toJson();
+
+    assertEquals( 1, json.get( "pushWaitTime" ).asObject().get( "count" ).asLong() );
+    assertNotNull( json.get( "phaseTime" ).asObject().get( "render" ) );
+    assertNotNull( json.get( "textSizeStorage" ).asObject().get( "hits" ) );
+  }
+
+  @Test
+  public void testRegister() throws Exception {
+    metrics.register( "metrics-test" );
+
+    ObjectName name = metrics.getObjectName();
+    assertEquals( "metrics-test", ObjectName.unquote( name.getKeyProperty( "context" ) ) );
+    assertTrue( getMBeanServer().isRegistered( name ) );
+    Object requestsInProcessAction = getMBeanServer().getAttribute( name,
+                                                                    "RequestsInProcessAction" );
+    assertEquals( Integer.valueOf( 0 ), requestsInProcessAction );
+  }
+
+  @Test
+  public void testRegister_withSameContextName() {
+    Metrics otherMetrics = new Metrics( true, 0, null );
+    metrics.register( "metrics-test" );
+
+    try {
+      otherMetrics.register( "metrics-test" );
+
+      assertTrue( getMBeanServer().isRegistered( metrics.getObjectName() ) );
+      assertTrue( getMBeanServer().isRegistered( otherMetrics.getObjectName() ) );
+      assertFalse( metrics.getObjectName().equals( otherMetrics.getObjectName() ) );
+    } finally {
+      otherMetrics.unregister();
+    }
+  }
+
+  @Test
+  public void testUnregister() throws Exception {
+    metrics.register( "metrics-test" );
+    ObjectName name = metrics.getObjectName();
+
+    metrics.unregister();
+
+    assertFalse( getMBeanServer().isRegistered( name ) );
+    assertNull( metrics.getObjectName() );
+  }
+
+  @Test
+  public void testRegister_whenDisabled() throws Exception {
+    metrics = new Metrics( false, 0, null );
+
+    metrics.register( "metrics-test" );
+
+    assertNull( metrics.getObjectName() );
+    String pattern = "org.eclipse.rap.rwt:type=Metrics,context=\"metrics-test\",*";
+    assertTrue( getMBeanServer().queryNames( new ObjectName( pattern ), null ).isEmpty() );
+  }
+
+  private static UISession mockUISession() {
+    UISession uiSession = mock( UISession.class );
+    when( Boolean.valueOf( uiSession.addUISessionListener( any( UISessionListener.class ) ) ) )
+      .thenReturn( Boolean.TRUE );
+    return uiSession;
+  }
+
+  private static MBeanServer getMBeanServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+
+}
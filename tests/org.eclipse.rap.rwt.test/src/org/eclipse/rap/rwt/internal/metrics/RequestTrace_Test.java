@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.rwt.internal.lifecycle.PhaseId;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+@SuppressWarnings( "deprecation" )
+public class RequestTrace_Test {
+
+  private Metrics metrics;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    metrics = new Metrics( true, 0, null );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testStart_attachesTraceToRequest() {
+    RequestTrace trace = RequestTrace.start( metrics );
+
+    assertSame( trace, RequestTrace.getCurrent() );
+  }
+
+  @Test
+  public void testStart_whenDisabled() {
+    RequestTrace trace = RequestTrace.start( new Metrics( false, 0, null ) );
+
+    assertNull( trace );
+    assertNull( RequestTrace.getCurrent() );
+  }
+
+  @Test
+  public void testStart_withoutMetrics() {
+    assertNull( RequestTrace.start( null ) );
+  }
+
+  @Test
+  public void testFinish_recordsRequest() {
+    RequestTrace trace = RequestTrace.start( metrics );
+    trace.setRequest( 100, 2 );
+    trace.setResponse( 300, 5 );
+    trace.widgetVisited();
+
+    trace.finish();
+
+    assertEquals( 1, metrics.getRequestCount() );
+    assertEquals( 300, metrics.getResponseBytesP99() );
+    assertEquals( 5, metrics.getResponseOperationsP99() );
+    assertEquals( 1, metrics.getWidgetsVisitedP99() );
+  }
+
+  @Test
+  public void testPhases() {
+    RequestTrace trace = RequestTrace.start( metrics );
+
+    trace.beforePhase( PhaseId.RENDER );
+    trace.afterPhase( PhaseId.RENDER );
+
+    assertEquals( 1, metrics.toJson().get( "phaseTime" ).asObject()
+      .get( "render" ).asObject().get( "count" ).asLong() );
+  }
+
+  @Test
+  public void testAfterPhase_withoutBeforePhase() {
+    RequestTrace trace = RequestTrace.start( metrics );
+
+    trace.afterPhase( PhaseId.RENDER );
+
+    assertEquals( 0, metrics.toJson().get( "phaseTime" ).asObject()
+      .get( "render" ).asObject().get( "count" ).asLong() );
+  }
+
+  @Test
+  public void testProcessAction_countsRequest() {
+    RequestTrace trace = RequestTrace.start( metrics );
+
+    trace.beforePhase( PhaseId.PROCESS_ACTION );
+
+    assertEquals( 1, metrics.getRequestsInProcessAction() );
+    trace.afterPhase( PhaseId.PROCESS_ACTION );
+    assertEquals( 0, metrics.getRequestsInProcessAction() );
+  }
+
+  @Test
+  public void testFinish_leavesProcessAction() {
+    RequestTrace trace = RequestTrace.start( metrics );
+    trace.beforePhase( PhaseId.PROCESS_ACTION );
+
+    trace.finish();
+
+    assertEquals( 0, metrics.getRequestsInProcessAction() );
+  }
+
+  @Test
+  public void testIsWidgetTimingEnabled() {
+    assertFalse( RequestTrace.start( metrics ).isWidgetTimingEnabled() );
+    assertTrue( RequestTrace.start( new Metrics( true, 100, null ) ).isWidgetTimingEnabled() );
+  }
+
+  @Test
+  public void testWidgetRendered_keepsHeaviestWidgets() {
+    RequestTrace trace = new RequestTrace( new Metrics( true, 100, null ), System.nanoTime() );
+    for( int i = 0; i < 20; i++ ) {
+      trace.widgetRendered( "widget" + i, "w" + i, TimeUnit.MILLISECONDS.toNanos( i ) );
+    }
+
+    String message = trace.createSlowRequestMessage();
+
+    assertTrue( message.indexOf( "widget19 [w19]" ) < message.indexOf( "widget10 [w10]" ) );
+    assertFalse( message.contains( "widget9 [w9]" ) );
+  }
+
+  @Test
+  public void testFinish_countsSlowRequest() {
+    Metrics slowMetrics = new Metrics( true, 100, null );
+    long startTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos( 200 );
+    RequestTrace trace = new RequestTrace( slowMetrics, startTime );
+
+    trace.finish();
+
+    assertEquals( 1, slowMetrics.getSlowRequestCount() );
+  }
+
+  @Test
+  public void testFinish_doesNotCountFastRequest() {
+    Metrics slowMetrics = new Metrics( true, 100000, null );
+    RequestTrace trace = new RequestTrace( slowMetrics, System.nanoTime() );
+
+    trace.finish();
+
+    assertEquals( 0, slowMetrics.getSlowRequestCount() );
+  }
+
+}
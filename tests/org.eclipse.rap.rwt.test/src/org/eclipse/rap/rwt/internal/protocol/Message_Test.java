@@ -17,6 +17,8 @@ import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -179,6 +181,30 @@ public class Message_Test {
     assertEquals( JsonObject.readFrom( json ), JsonObject.readFrom( string ) );
   }
 
+  @Test
+  public void testWriteTo_writesSameJsonAsToJson() throws IOException {
+    String json = "{ \"head\" : { \"foo\" : 23 }, \"operations\" : ["
+        + "[ \"set\", \"w3\", { \"foo\" : 23 } ],"
+        + "[ \"call\", \"w4\", \"bar\", {} ]"
+        + "] }";
+    Message message = new Message( JsonObject.readFrom( json ) );
+    StringWriter writer = new StringWriter();
+
+    message.writeTo( writer );
+
+    assertEquals( message.toJson().toString(), writer.toString() );
+  }
+
+  @Test
+  public void testWriteTo_withoutOperations() throws IOException {
+    Message message = new Message( new JsonObject(), new ArrayList<Operation>() );
+    StringWriter writer = new StringWriter();
+
+    message.writeTo( writer );
+
+    assertEquals( "{\"head\":{},\"operations\":[]}", writer.toString() );
+  }
+
   @Test
   public void testSerialize() throws Exception {
     JsonObject head = new JsonObject().add( "foo", 23 );
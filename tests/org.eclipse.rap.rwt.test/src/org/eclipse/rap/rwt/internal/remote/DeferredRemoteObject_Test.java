@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2015 EclipseSource and others.
+ * Copyright (c) 2012, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,15 +14,20 @@ import static org.eclipse.rap.rwt.internal.service.ContextProvider.getProtocolWr
 import static org.eclipse.rap.rwt.testfixture.internal.SerializationTestUtil.serializeAndDeserialize;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.internal.protocol.ProtocolMessageWriter;
@@ -31,6 +36,7 @@ import org.eclipse.rap.rwt.testfixture.internal.TestMessage;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 
 public class DeferredRemoteObject_Test {
@@ -239,6 +245,170 @@ public class DeferredRemoteObject_Test {
     verify( remoteObjectSpy ).checkState();
   }
 
+  @Test
+  public void testCreateIsRenderedOnlyOnce() {
+    remoteObject.render( writer );
+    remoteObject.set( "property", 23 );
+    remoteObject.render( writer );
+
+    verify( writer, times( 1 ) ).appendCreate( eq( objectId ), eq( "type" ) );
+  }
+
+  @Test
+  public void testSet_sameProperty_rendersLastValueOnly() {
+    remoteObject.set( "property", 23 );
+    remoteObject.set( "property", 42 );
+
+    remoteObject.render( writer );
+
+    verify( writer, never() ).appendSet( eq( objectId ), eq( "property" ), eq( 23 ) );
+    verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 42 ) );
+  }
+
+  @Test
+  public void testSet_sameProperty_keepsOnePendingOperation() {
+    for( int i = 0; i < 100; i++ ) {
+      remoteObject.set( "property", i );
+    }
+
+    assertEquals( 1, remoteObject.getPendingOperationCount() );
+  }
+
+  @Test
+  public void testSet_sameProperty_withDifferentTypes() {
+    remoteObject.set( "property", 23 );
+    remoteObject.set( "property", "foo" );
+
+    remoteObject.render( writer );
+
+    verify( writer, never() ).appendSet( anyString(), anyString(), anyInt() );
+    verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( "foo" ) );
+  }
+
+  @Test
+  public void testSet_nullString_isRendered() {
+    remoteObject.set( "property", ( String )null );
+
+    remoteObject.render( writer );
+
+    verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( ( String )null ) );
+  }
+
+  @Test
+  public void testSet_sameProperty_rendersLastValueInPositionOfLastChange() {
+    JsonArray items = new JsonArray().add( "a" );
+    JsonArray otherItems = new JsonArray().add( "b" );
+    remoteObject.set( "items", items );
+    remoteObject.set( "selection", 0 );
+    remoteObject.set( "items", otherItems );
+
+    remoteObject.render( writer );
+
+    InOrder inOrder = inOrder( writer );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "selection" ), eq( 0 ) );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "items" ), eq( otherItems ) );
+    verify( writer, never() ).appendSet( eq( objectId ), eq( "items" ), eq( items ) );
+  }
+
+  @Test
+  public void testListen_sameEvent_rendersLastValueOnly() {
+    remoteObject.listen( "event", true );
+    remoteObject.listen( "event", false );
+
+    remoteObject.render( writer );
+
+    verify( writer, times( 1 ) ).appendListen( anyString(), anyString(), anyBoolean() );
+    verify( writer ).appendListen( eq( objectId ), eq( "event" ), eq( false ) );
+  }
+
+  @Test
+  public void testListen_sameEvent_rendersLastValueInPositionOfLastChange() {
+    remoteObject.listen( "event", true );
+    remoteObject.set( "property", 23 );
+    remoteObject.listen( "event", false );
+
+    remoteObject.render( writer );
+
+    InOrder inOrder = inOrder( writer );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 23 ) );
+    inOrder.verify( writer ).appendListen( eq( objectId ), eq( "event" ), eq( false ) );
+  }
+
+  @Test
+  public void testCall_isNotMerged() {
+    remoteObject.call( "method", null );
+    remoteObject.call( "method", null );
+
+    remoteObject.render( writer );
+
+    verify( writer, times( 2 ) ).appendCall( eq( objectId ),
+                                             eq( "method" ),
+                                             any( JsonObject.class ) );
+  }
+
+  @Test
+  public void testCall_separatesPropertyChanges() {
+    remoteObject.set( "property", 23 );
+    remoteObject.call( "method", null );
+    remoteObject.set( "property", 42 );
+
+    remoteObject.render( writer );
+
+    InOrder inOrder = inOrder( writer );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 23 ) );
+    inOrder.verify( writer ).appendCall( eq( objectId ), eq( "method" ), any( JsonObject.class ) );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 42 ) );
+  }
+
+  @Test
+  public void testDestroy_omitsPendingPropertiesAndListeners() {
+    remoteObject.render( writer );
+    reset( writer );
+    remoteObject.set( "property", 23 );
+    remoteObject.listen( "event", true );
+
+    remoteObject.destroy();
+    remoteObject.render( writer );
+
+    verify( writer, never() ).appendSet( anyString(), anyString(), anyInt() );
+    verify( writer, never() ).appendListen( anyString(), anyString(), anyBoolean() );
+    verify( writer ).appendDestroy( eq( objectId ) );
+  }
+
+  @Test
+  public void testDestroy_keepsPendingCalls() {
+    remoteObject.render( writer );
+    reset( writer );
+    remoteObject.call( "method", null );
+
+    remoteObject.destroy();
+    remoteObject.render( writer );
+
+    InOrder inOrder = inOrder( writer );
+    inOrder.verify( writer ).appendCall( eq( objectId ), eq( "method" ), any( JsonObject.class ) );
+    inOrder.verify( writer ).appendDestroy( eq( objectId ) );
+  }
+
+  @Test
+  public void testDestroy_keepsPropertiesSetBeforePendingCalls() {
+    remoteObject.render( writer );
+    reset( writer );
+    remoteObject.set( "url", "file.txt" );
+    remoteObject.call( "download", null );
+    remoteObject.set( "property", 23 );
+
+    remoteObject.destroy();
+    remoteObject.render( writer );
+
+    InOrder inOrder = inOrder( writer );
+    inOrder.verify( writer ).appendSet( eq( objectId ), eq( "url" ), eq( "file.txt" ) );
+    inOrder.verify( writer ).appendCall( eq( objectId ),
+                                         eq( "download" ),
+                                         any( JsonObject.class ) );
+    inOrder.verify( writer ).appendDestroy( eq( objectId ) );
+    verify( writer, never() ).appendSet( anyString(), anyString(), anyInt() );
+  }
+
   @Test
   public void testRenderQueueIsClearedAfterRender() {
     remoteObject.set( "property", 23 );
@@ -268,6 +438,18 @@ public class DeferredRemoteObject_Test {
     verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 23 ) );
   }
 
+  @Test
+  public void testIsSerializable_keepsMergingProperties() throws Exception {
+    remoteObject.set( "property", 23 );
+
+    DeferredRemoteObject deserializedRemoteObject = serializeAndDeserialize( remoteObject );
+    deserializedRemoteObject.set( "property", 42 );
+    deserializedRemoteObject.render( writer );
+
+    verify( writer, times( 1 ) ).appendSet( anyString(), anyString(), anyInt() );
+    verify( writer ).appendSet( eq( objectId ), eq( "property" ), eq( 42 ) );
+  }
+
   private static TestMessage getMessage() {
     return new TestMessage( getProtocolWriter().createMessage().toJson() );
   }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2014 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,11 +26,13 @@ import static org.mockito.Mockito.verify;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
 
 import org.eclipse.rap.rwt.service.ResourceLoader;
 import org.eclipse.rap.rwt.testfixture.internal.FileUtil;
@@ -391,6 +393,126 @@ public class ResourceManagerImpl_Test {
     }
   }
 
+  @Test
+  public void testGetContentHash_withoutPrecompression() {
+    resourceManager.register( "resource.js", createInputStream() );
+
+    assertNull( resourceManager.getContentHash( "resource.js" ) );
+    assertNull( resourceManager.getGzipFile( "resource.js" ) );
+  }
+
+  @Test
+  public void testGetContentHash_withPrecompression() {
+    resourceManager = createPrecompressingResourceManager();
+
+    resourceManager.register( "resource.js", createInputStream() );
+
+    assertEquals( 16, resourceManager.getContentHash( "resource.js" ).length() );
+  }
+
+  @Test
+  public void testGetContentHash_changesWithContent() {
+    resourceManager = createPrecompressingResourceManager();
+    resourceManager.register( "resource.js", createInputStream() );
+    String hash = resourceManager.getContentHash( "resource.js" );
+
+    resourceManager.register( "resource.js", new ByteArrayInputStream( new byte[] { 4, 5 } ) );
+
+    assertFalse( hash.equals( resourceManager.getContentHash( "resource.js" ) ) );
+  }
+
+  @Test
+  public void testGetGzipFile_forCompressibleResource() throws IOException {
+    resourceManager = createPrecompressingResourceManager();
+    byte[] content = createCompressibleContent();
+
+    resourceManager.register( "resource.js", new ByteArrayInputStream( content ) );
+
+    File gzipFile = resourceManager.getGzipFile( "resource.js" );
+    assertTrue( gzipFile.exists() );
+    assertTrue( gzipFile.length() < content.length );
+    assertArrayEquals( content, readGzip( gzipFile ) );
+  }
+
+  @Test
+  public void testGetGzipFile_forIncompressibleResource() {
+    resourceManager = createPrecompressingResourceManager();
+
+    resourceManager.register( "image.gif", createCompressibleInputStream() );
+
+    assertNull( resourceManager.getGzipFile( "image.gif" ) );
+  }
+
+  @Test
+  public void testGetGzipFile_omittedIfNotSmaller() {
+    resourceManager = createPrecompressingResourceManager();
+
+    resourceManager.register( "resource.js", createInputStream() );
+
+    assertNull( resourceManager.getGzipFile( "resource.js" ) );
+  }
+
+  @Test
+  public void testUnregister_deletesGzipFile() {
+    resourceManager = createPrecompressingResourceManager();
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+    File gzipFile = resourceManager.getGzipFile( "resource.js" );
+
+    resourceManager.unregister( "resource.js" );
+
+    assertFalse( gzipFile.exists() );
+    assertNull( resourceManager.getContentHash( "resource.js" ) );
+  }
+
+  @Test
+  public void testUnregister_withoutPrecompression_keepsGzipResource() throws IOException {
+    byte[] gzipContent = new byte[] { 4, 5, 6 };
+    resourceManager.register( "resource.js.gz", new ByteArrayInputStream( gzipContent ) );
+    resourceManager.register( "resource.js", createInputStream() );
+
+    resourceManager.unregister( "resource.js" );
+
+    assertTrue( resourceManager.isRegistered( "resource.js.gz" ) );
+    assertArrayEquals( gzipContent, read( getResourceCopyFile( "resource.js.gz" ) ) );
+  }
+
+  @Test
+  public void testUnregister_forIncompressibleResource_keepsGzipResource() throws IOException {
+    resourceManager = createPrecompressingResourceManager();
+    byte[] gzipContent = new byte[] { 4, 5, 6 };
+    resourceManager.register( "image.gif.gz", new ByteArrayInputStream( gzipContent ) );
+    resourceManager.register( "image.gif", createInputStream() );
+
+    resourceManager.unregister( "image.gif" );
+
+    assertArrayEquals( gzipContent, read( getResourceCopyFile( "image.gif.gz" ) ) );
+  }
+
+  @Test
+  public void testRegister_doesNotOverwriteGzipResource() throws IOException {
+    resourceManager = createPrecompressingResourceManager();
+    byte[] gzipContent = new byte[] { 4, 5, 6 };
+    resourceManager.register( "resource.js.gz", new ByteArrayInputStream( gzipContent ) );
+
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+
+    assertNull( resourceManager.getGzipFile( "resource.js" ) );
+    assertArrayEquals( gzipContent, read( getResourceCopyFile( "resource.js.gz" ) ) );
+  }
+
+  @Test
+  public void testRegister_gzipResourceReplacesCompressedVariant() throws IOException {
+    resourceManager = createPrecompressingResourceManager();
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+    byte[] gzipContent = new byte[] { 4, 5, 6 };
+
+    resourceManager.register( "resource.js.gz", new ByteArrayInputStream( gzipContent ) );
+    resourceManager.unregister( "resource.js" );
+
+    assertTrue( resourceManager.isRegistered( "resource.js.gz" ) );
+    assertArrayEquals( gzipContent, read( getResourceCopyFile( "resource.js.gz" ) ) );
+  }
+
   private static byte[] read( File file ) throws IOException {
     FileInputStream inputStream = new FileInputStream( file );
     try {
@@ -400,6 +522,38 @@ public class ResourceManagerImpl_Test {
     }
   }
 
+  private static ResourceManagerImpl createPrecompressingResourceManager() {
+    ResourceDirectory resourceDirectory = getApplicationContext().getResourceDirectory();
+    return new ResourceManagerImpl( resourceDirectory, true );
+  }
+
+  private static byte[] readGzip( File file ) throws IOException {
+    InputStream inputStream = new GZIPInputStream( new FileInputStream( file ) );
+    try {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      int read = inputStream.read();
+      while( read != -1 ) {
+        outputStream.write( read );
+        read = inputStream.read();
+      }
+      return outputStream.toByteArray();
+    } finally {
+      inputStream.close();
+    }
+  }
+
+  private static InputStream createCompressibleInputStream() {
+    return new ByteArrayInputStream( createCompressibleContent() );
+  }
+
+  private static byte[] createCompressibleContent() {
+    StringBuilder builder = new StringBuilder();
+    for( int i = 0; i < 100; i++ ) {
+      builder.append( "var foo = 'bar';\n" );
+    }
+    return builder.toString().getBytes();
+  }
+
   private InputStream createInputStream() {
     return new ByteArrayInputStream( new byte[] { 1, 2, 3 } );
   }
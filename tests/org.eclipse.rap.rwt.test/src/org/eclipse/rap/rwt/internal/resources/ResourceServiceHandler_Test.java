@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.resources;
+
+import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rap.rwt.testfixture.internal.FileUtil;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ResourceServiceHandler_Test {
+
+  private static final String CONTENT = "0123456789";
+
+  private ResourceManagerImpl resourceManager;
+  private ResourceServiceHandler serviceHandler;
+  private TestRequest request;
+  private TestResponse response;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    ResourceDirectory resourceDirectory = getApplicationContext().getResourceDirectory();
+    resourceManager = new ResourceManagerImpl( resourceDirectory, true );
+    resourceManager.register( "resource.txt", new ByteArrayInputStream( CONTENT.getBytes() ) );
+    serviceHandler = new ResourceServiceHandler( resourceManager );
+    request = new TestRequest();
+    response = new TestResponse();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtil.delete( new File( Fixture.WEB_CONTEXT_DIR, ResourceDirectory.DIRNAME ) );
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testGetLocation() {
+    String location = ResourceServiceHandler.getLocation( "path/to/file.js", "abc" );
+
+    assertEquals( "?servicehandler=org.eclipse.rap.resource&name=path%2Fto%2Ffile.js&v=abc",
+                  location );
+  }
+
+  @Test
+  public void testService_unknownResource() throws IOException {
+    request.setParameter( "name", "unknown.txt" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_NOT_FOUND, response.getErrorStatus() );
+  }
+
+  @Test
+  public void testService_writesContent() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( CONTENT, response.getContent() );
+    assertEquals( getETag(), response.getHeader( "ETag" ) );
+  }
+
+  @Test
+  public void testService_withCurrentVersion_isImmutable() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setParameter( "v", resourceManager.getContentHash( "resource.txt" ) );
+
+    serviceHandler.service( request, response );
+
+    assertTrue( response.getHeader( "Cache-Control" ).contains( "immutable" ) );
+  }
+
+  @Test
+  public void testService_withOutdatedVersion_requiresRevalidation() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setParameter( "v", "outdated" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( "no-cache", response.getHeader( "Cache-Control" ) );
+  }
+
+  @Test
+  public void testService_withMatchingETag() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "If-None-Match", getETag() );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_NOT_MODIFIED, response.getStatus() );
+    assertEquals( "", response.getContent() );
+  }
+
+  @Test
+  public void testService_withRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=2-4" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus() );
+    assertEquals( "bytes 2-4/10", response.getHeader( "Content-Range" ) );
+    assertEquals( "234", response.getContent() );
+  }
+
+  @Test
+  public void testService_withUnsatisfiableRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=20-" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE,
+                  response.getErrorStatus() );
+  }
+
+  @Test
+  public void testService_servesGzipVariant() throws IOException {
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+    request.setParameter( "name", "resource.js" );
+    request.setHeader( "Accept-Encoding", "gzip, deflate" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+  }
+
+  @Test
+  public void testService_withoutAcceptedGzip() throws IOException {
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+    request.setParameter( "name", "resource.js" );
+
+    serviceHandler.service( request, response );
+
+    assertNull( response.getHeader( "Content-Encoding" ) );
+  }
+
+  @Test
+  public void testService_gzipVariantHasOwnETag() throws IOException {
+    registerCompressibleResource();
+    request.setParameter( "name", "resource.js" );
+    request.setHeader( "Accept-Encoding", "gzip" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( getGzipETag( "resource.js" ), response.getHeader( "ETag" ) );
+  }
+
+  @Test
+  public void testService_withoutAcceptedGzip_hasIdentityETag() throws IOException {
+    registerCompressibleResource();
+    request.setParameter( "name", "resource.js" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( getETag( "resource.js" ), response.getHeader( "ETag" ) );
+  }
+
+  @Test
+  public void testService_withMatchingGzipETag() throws IOException {
+    registerCompressibleResource();
+    request.setParameter( "name", "resource.js" );
+    request.setHeader( "Accept-Encoding", "gzip" );
+    request.setHeader( "If-None-Match", getGzipETag( "resource.js" ) );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_NOT_MODIFIED, response.getStatus() );
+  }
+
+  @Test
+  public void testService_withETagOfOtherVariant() throws IOException {
+    registerCompressibleResource();
+    request.setParameter( "name", "resource.js" );
+    request.setHeader( "Accept-Encoding", "gzip" );
+    request.setHeader( "If-None-Match", getETag( "resource.js" ) );
+
+    serviceHandler.service( request, response );
+
+    assertFalse( response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED );
+    assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+  }
+
+  @Test
+  public void testService_withRange_servesIdentityVariant() throws IOException {
+    registerCompressibleResource();
+    request.setParameter( "name", "resource.js" );
+    request.setHeader( "Accept-Encoding", "gzip" );
+    request.setHeader( "Range", "bytes=0-2" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus() );
+    assertNull( response.getHeader( "Content-Encoding" ) );
+    assertEquals( getETag( "resource.js" ), response.getHeader( "ETag" ) );
+  }
+
+  @Test
+  public void testService_withMatchingIfRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=2-4" );
+    request.setHeader( "If-Range", getETag() );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus() );
+    assertEquals( "234", response.getContent() );
+  }
+
+  @Test
+  public void testService_withOutdatedIfRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=2-4" );
+    request.setHeader( "If-Range", "\"outdated\"" );
+
+    serviceHandler.service( request, response );
+
+    assertFalse( response.getStatus() == HttpServletResponse.SC_PARTIAL_CONTENT );
+    assertNull( response.getHeader( "Content-Range" ) );
+    assertEquals( CONTENT, response.getContent() );
+  }
+
+  @Test
+  public void testService_withWeakIfRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=2-4" );
+    request.setHeader( "If-Range", "W/" + getETag() );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( CONTENT, response.getContent() );
+  }
+
+  @Test
+  public void testService_withDateIfRange() throws IOException {
+    request.setParameter( "name", "resource.txt" );
+    request.setHeader( "Range", "bytes=2-4" );
+    request.setHeader( "If-Range", "Wed, 21 Oct 2015 07:28:00 GMT" );
+
+    serviceHandler.service( request, response );
+
+    assertEquals( CONTENT, response.getContent() );
+  }
+
+  @Test
+  public void testParseRange() {
+    assertArrayEquals( new long[] { 2, 4 }, ResourceServiceHandler.parseRange( "bytes=2-4", 10 ) );
+    assertArrayEquals( new long[] { 2, 9 }, ResourceServiceHandler.parseRange( "bytes=2-", 10 ) );
+    assertArrayEquals( new long[] { 7, 9 }, ResourceServiceHandler.parseRange( "bytes=-3", 10 ) );
+    assertNull( ResourceServiceHandler.parseRange( "bytes=1-2,4-5", 10 ) );
+    assertNull( ResourceServiceHandler.parseRange( "items=1-2", 10 ) );
+    assertNull( ResourceServiceHandler.parseRange( "bytes=a-b", 10 ) );
+  }
+
+  @Test
+  public void testMatchesETag() {
+    assertTrue( ResourceServiceHandler.matchesETag( "\"foo\"", "\"foo\"" ) );
+    assertTrue( ResourceServiceHandler.matchesETag( "\"bar\", W/\"foo\"", "\"foo\"" ) );
+    assertTrue( ResourceServiceHandler.matchesETag( "*", "\"foo\"" ) );
+    assertFalse( ResourceServiceHandler.matchesETag( "\"bar\"", "\"foo\"" ) );
+    assertFalse( ResourceServiceHandler.matchesETag( null, "\"foo\"" ) );
+  }
+
+  private String getETag() {
+    return getETag( "resource.txt" );
+  }
+
+  private String getETag( String name ) {
+    return "\"" + resourceManager.getContentHash( name ) + "\"";
+  }
+
+  private String getGzipETag( String name ) {
+    return "\"" + resourceManager.getContentHash( name ) + "-gzip\"";
+  }
+
+  private void registerCompressibleResource() {
+    resourceManager.register( "resource.js", createCompressibleInputStream() );
+  }
+
+  private static InputStream createCompressibleInputStream() {
+    return new ByteArrayInputStream( createCompressibleContent() );
+  }
+
+  private static byte[] createCompressibleContent() {
+    StringBuilder builder = new StringBuilder();
+    for( int i = 0; i < 100; i++ ) {
+      builder.append( "var foo = 'bar';\n" );
+    }
+    return builder.toString().getBytes();
+  }
+
+}
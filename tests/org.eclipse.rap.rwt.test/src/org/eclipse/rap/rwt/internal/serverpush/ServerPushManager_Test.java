@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2017 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2007, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,13 +12,17 @@
 package org.eclipse.rap.rwt.internal.serverpush;
 
 import static org.eclipse.rap.rwt.testfixture.internal.ConcurrencyTestUtil.runInThread;
+import static org.eclipse.rap.rwt.testfixture.internal.SerializationTestUtil.serializeAndDeserialize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
@@ -28,6 +32,11 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import javax.servlet.http.HttpSessionBindingListener;
 
@@ -41,8 +50,10 @@ import org.eclipse.rap.rwt.internal.service.UISessionImpl;
 import org.eclipse.rap.rwt.service.UISession;
 import org.eclipse.rap.rwt.testfixture.internal.Fixture;
 import org.eclipse.rap.rwt.testfixture.internal.NoOpRunnable;
+import org.eclipse.rap.rwt.testfixture.internal.TestHttpSession;
 import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
 import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.eclipse.rap.rwt.testfixture.internal.TestServletContext;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.widgets.Display;
 import org.junit.After;
@@ -563,6 +574,184 @@ public class ServerPushManager_Test {
     assertNotNull( response.getHeader( "Expires" ) );
   }
 
+  @Test
+  public void testProcessRequest_suspendsAsyncRequest() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    HttpServletRequest request = mockAsyncRequest( asyncContext );
+    manager.activateServerPushFor( HANDLE_1 );
+
+    manager.processRequest( request, ContextProvider.getResponse() );
+
+    verify( request ).startAsync( any( ServletRequest.class ), any( ServletResponse.class ) );
+    verify( asyncContext ).addListener( any( AsyncListener.class ) );
+    verify( asyncContext, never() ).complete();
+    assertTrue( manager.isCallBackRequestBlocked() );
+  }
+
+  @Test
+  public void testProcessRequest_doesNotSuspendAsyncRequestWithoutServerPush() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    HttpServletRequest request = mockAsyncRequest( asyncContext );
+
+    manager.processRequest( request, ContextProvider.getResponse() );
+
+    verify( request, never() ).startAsync( any( ServletRequest.class ),
+                                           any( ServletResponse.class ) );
+    assertFalse( manager.isCallBackRequestBlocked() );
+  }
+
+  @Test
+  public void testProcessRequest_doesNotSuspendOnServlet2Container() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    HttpServletRequest request = mockAsyncRequest( asyncContext );
+    ( ( TestServletContext )Fixture.getServletContext() ).setVersion( 2, 5 );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.setHasRunnables( true );
+
+    manager.processRequest( request, ContextProvider.getResponse() );
+
+    verify( request, never() ).isAsyncSupported();
+    verify( request, never() ).startAsync( any( ServletRequest.class ),
+                                           any( ServletResponse.class ) );
+  }
+
+  @Test
+  public void testWakeClient_completesAsyncRequest() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+
+    manager.setHasRunnables( true );
+    manager.wakeClient();
+
+    verify( asyncContext ).complete();
+    assertFalse( manager.isCallBackRequestBlocked() );
+  }
+
+  @Test
+  public void testWakeClient_doesNotCompleteAsyncRequestWhileUIThreadRunning() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+    manager.notifyUIThreadStart();
+
+    manager.setHasRunnables( true );
+    manager.wakeClient();
+
+    verify( asyncContext, never() ).complete();
+  }
+
+  @Test
+  public void testNotifyUIThreadEnd_completesAsyncRequestWithPendingRunnables() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+    manager.notifyUIThreadStart();
+    manager.setHasRunnables( true );
+
+    manager.notifyUIThreadEnd();
+
+    verify( asyncContext ).complete();
+  }
+
+  @Test
+  public void testDeactivateServerPush_completesAsyncRequest() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+
+    manager.deactivateServerPushFor( HANDLE_1 );
+
+    verify( asyncContext ).complete();
+    assertFalse( manager.isCallBackRequestBlocked() );
+  }
+
+  @Test
+  public void testProcessRequest_completesPreviousAsyncRequest() {
+    AsyncContext asyncContext1 = mock( AsyncContext.class );
+    AsyncContext asyncContext2 = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext1 ), ContextProvider.getResponse() );
+
+    manager.processRequest( mockAsyncRequest( asyncContext2 ), ContextProvider.getResponse() );
+
+    verify( asyncContext1 ).complete();
+    verify( asyncContext2, never() ).complete();
+  }
+
+  @Test
+  public void testUISessionShutdown_completesAsyncRequest() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+
+    ( ( UISessionImpl )ContextProvider.getUISession() ).shutdown();
+
+    verify( asyncContext ).complete();
+    assertFalse( manager.isCallBackRequestBlocked() );
+  }
+
+  @Test
+  public void testAsyncRequest_completesOnlyOnce() {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+
+    manager.releaseBlockedRequest();
+    manager.releaseBlockedRequest();
+
+    verify( asyncContext ).complete();
+  }
+
+  @Test
+  public void testDeactivateServerPush_marksUISessionChanged() {
+    manager.activateServerPushFor( HANDLE_1 );
+    UISessionImpl uiSession = ( UISessionImpl )ContextProvider.getUISession();
+    uiSession.attachToHttpSession();
+
+    manager.deactivateServerPushFor( HANDLE_1 );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testSuspendedAsyncRequest_isNotSerializedWithUISession() throws Exception {
+    AsyncContext asyncContext = mock( AsyncContext.class );
+    manager.activateServerPushFor( "serializableHandle" );
+    manager.processRequest( mockAsyncRequest( asyncContext ), ContextProvider.getResponse() );
+    UISessionImpl uiSession = ( UISessionImpl )ContextProvider.getUISession();
+
+    UISessionImpl deserializedUISession = serializeAndDeserialize( uiSession );
+    HttpSession newHttpSession = new TestHttpSession();
+    deserializedUISession.setHttpSession( newHttpSession );
+    deserializedUISession.attachToHttpSession();
+    newHttpSession.invalidate();
+
+    verify( asyncContext, never() ).complete();
+  }
+
+  @Test
+  public void testUISessionShutdown_completesAsyncRequestSuspendedTwice() {
+    AsyncContext asyncContext1 = mock( AsyncContext.class );
+    AsyncContext asyncContext2 = mock( AsyncContext.class );
+    manager.activateServerPushFor( HANDLE_1 );
+    manager.processRequest( mockAsyncRequest( asyncContext1 ), ContextProvider.getResponse() );
+    manager.processRequest( mockAsyncRequest( asyncContext2 ), ContextProvider.getResponse() );
+
+    ( ( UISessionImpl )ContextProvider.getUISession() ).shutdown();
+
+    verify( asyncContext2 ).complete();
+  }
+
+  private static HttpServletRequest mockAsyncRequest( AsyncContext asyncContext ) {
+    ( ( TestServletContext )Fixture.getServletContext() ).setVersion( 3, 0 );
+    HttpServletRequest request = mock( HttpServletRequest.class );
+    when( request.isAsyncSupported() ).thenReturn( Boolean.TRUE );
+    when( request.startAsync( any( ServletRequest.class ), any( ServletResponse.class ) ) )
+      .thenReturn( asyncContext );
+    return request;
+  }
+
   private void simulateBackgroundAddition( final ServiceContext serviceContext ) throws Throwable {
     Runnable runnable = new Runnable() {
       @Override
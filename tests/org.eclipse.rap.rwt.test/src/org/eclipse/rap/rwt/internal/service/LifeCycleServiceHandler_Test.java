@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -26,9 +26,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -54,6 +58,7 @@ import org.eclipse.rap.rwt.testfixture.internal.TestMessage;
 import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
 import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
 import org.eclipse.rap.rwt.testfixture.internal.TestResponseMessage;
+import org.eclipse.rap.rwt.testfixture.internal.TestServletOutputStream;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -63,6 +68,8 @@ import org.mockito.ArgumentCaptor;
 public class LifeCycleServiceHandler_Test {
 
   private static final int THREAD_COUNT = 10;
+  private static final String LAST_RESPONSE_MESSAGE
+    = LifeCycleServiceHandler.class.getName() + "#lastResponseMessage";
   private static final String ENTER = "enter|";
   private static final String EXIT = "exit|";
 
@@ -184,6 +191,18 @@ public class LifeCycleServiceHandler_Test {
     assertEquals( 2, requestCounter.currentRequestId() );
   }
 
+  @Test
+  public void testMarksUISessionChanged() throws IOException {
+    UISessionImpl uiSession = ( UISessionImpl )getUISession();
+    uiSession.attachToHttpSession();
+    RequestCounter.getInstance().nextRequestId();
+    simulateUiRequest();
+
+    service( serviceHandler );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
   @Test
   public void testFinishesProtocolWriter() throws IOException {
     simulateUiRequest();
@@ -279,6 +298,68 @@ public class LifeCycleServiceHandler_Test {
     assertEquals( firstResponse, secondResponse );
   }
 
+  @Test
+  public void testBuffersResponseMessage() throws IOException {
+    simulateUiRequest();
+
+    service( serviceHandler );
+
+    ResponseMessage buffered = getBufferedMessage();
+    assertEquals( buffered.toJson(), JsonObject.readFrom( getResponse().getContent() ) );
+  }
+
+  @Test
+  public void testWritesErrorToOutputStream() throws IOException {
+    simulateUiRequestWithIllegalCounter();
+
+    service( serviceHandler );
+
+    TestServletOutputStream stream = ( TestServletOutputStream )getResponse().getOutputStream();
+    String content = new String( stream.getContent().toByteArray(), "UTF-8" );
+    assertEquals( "invalid request counter", getError( JsonObject.readFrom( content ) ) );
+  }
+
+  @Test
+  public void testCompressesResponse_ifAccepted() throws IOException {
+    serviceHandler = new LifeCycleServiceHandler( messageChainReference,
+                                                  new ResponseCompressor( true, 0 ) );
+    simulateUiRequest();
+    getRequest().setHeader( "Accept-Encoding", "gzip, deflate" );
+
+    service( serviceHandler );
+
+    ResponseMessage buffered = getBufferedMessage();
+    assertEquals( "gzip", getResponse().getHeader( "Content-Encoding" ) );
+    assertEquals( "Accept-Encoding", getResponse().getHeader( "Vary" ) );
+    String content = new String( getDecompressedContent(), "UTF-8" );
+    assertEquals( buffered.toJson(), JsonObject.readFrom( content ) );
+  }
+
+  @Test
+  public void testDoesNotCompressResponse_ifNotAccepted() throws IOException {
+    serviceHandler = new LifeCycleServiceHandler( messageChainReference,
+                                                  new ResponseCompressor( true, 0 ) );
+    simulateUiRequest();
+
+    service( serviceHandler );
+
+    assertNull( getResponse().getHeader( "Content-Encoding" ) );
+    JsonObject.readFrom( getResponse().getContent() );
+  }
+
+  @Test
+  public void testDoesNotCompressResponse_ifDisabled() throws IOException {
+    serviceHandler = new LifeCycleServiceHandler( messageChainReference,
+                                                  new ResponseCompressor( false, 0 ) );
+    simulateUiRequest();
+    getRequest().setHeader( "Accept-Encoding", "gzip" );
+
+    service( serviceHandler );
+
+    assertNull( getResponse().getHeader( "Content-Encoding" ) );
+    assertNull( getResponse().getHeader( "Vary" ) );
+  }
+
   @Test
   public void testWritesValidJson() throws IOException {
     simulateUiRequest();
@@ -365,7 +446,7 @@ public class LifeCycleServiceHandler_Test {
   public void testUIRequest_shutsDownUISession_ifIOException() throws IOException {
     simulateUiRequest();
     HttpServletResponse response = mock( HttpServletResponse.class );
-    doThrow( new IOException() ).when( response ).getWriter();
+    doThrow( new IOException() ).when( response ).getOutputStream();
 
     try {
       serviceHandler.service( getRequest(), response );
@@ -422,6 +503,25 @@ public class LifeCycleServiceHandler_Test {
     return ( TestResponse )ContextProvider.getResponse();
   }
 
+  private static byte[] getDecompressedContent() throws IOException {
+    TestServletOutputStream stream = ( TestServletOutputStream )getResponse().getOutputStream();
+    byte[] content = stream.getContent().toByteArray();
+    InputStream inputStream = new GZIPInputStream( new ByteArrayInputStream( content ) );
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    byte[] buffer = new byte[ 1024 ];
+    int count = inputStream.read( buffer );
+    while( count != -1 ) {
+      result.write( buffer, 0, count );
+      count = inputStream.read( buffer );
+    }
+    inputStream.close();
+    return result.toByteArray();
+  }
+
+  private static ResponseMessage getBufferedMessage() {
+    return ( ResponseMessage )getUISession().getAttribute( LAST_RESPONSE_MESSAGE );
+  }
+
   private static String getError( JsonObject message ) {
     return message.get( "head" ).asObject().get( "error" ).asString();
   }
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.rap.rwt.internal.service.ResponseCompressor.ResponseStream;
+import org.eclipse.rap.rwt.testfixture.internal.TestResponse;
+import org.eclipse.rap.rwt.testfixture.internal.TestServletOutputStream;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ResponseCompressor_Test {
+
+  private ResponseCompressor compressor;
+
+  @Before
+  public void setUp() {
+    compressor = new ResponseCompressor( true, 100 );
+  }
+
+  @Test
+  public void testCanCompress() {
+    HttpServletRequest request = mockRequest( "gzip, deflate" );
+
+    assertTrue( compressor.canCompress( request ) );
+  }
+
+  @Test
+  public void testCanCompress_withoutAcceptEncoding() {
+    HttpServletRequest request = mockRequest( null );
+
+    assertFalse( compressor.canCompress( request ) );
+  }
+
+  @Test
+  public void testCanCompress_withGzipRejected() {
+    HttpServletRequest request = mockRequest( "gzip;q=0, deflate" );
+
+    assertFalse( compressor.canCompress( request ) );
+  }
+
+  @Test
+  public void testCanCompress_whenDisabled() {
+    compressor = new ResponseCompressor( false, 100 );
+    HttpServletRequest request = mockRequest( "gzip" );
+
+    assertFalse( compressor.canCompress( request ) );
+  }
+
+  @Test
+  public void testCreateStream_setsVaryHeader() {
+    TestResponse response = new TestResponse();
+
+    compressor.createStream( mockRequest( null ), response );
+
+    assertEquals( "Accept-Encoding", response.getHeader( "Vary" ) );
+  }
+
+  @Test
+  public void testCreateStream_whenDisabled_doesNotSetVaryHeader() {
+    compressor = new ResponseCompressor( false, 100 );
+    TestResponse response = new TestResponse();
+
+    compressor.createStream( mockRequest( "gzip" ), response );
+
+    assertNull( response.getHeader( "Vary" ) );
+  }
+
+  @Test
+  public void testWrite_compressesContent() throws IOException {
+    TestResponse response = new TestResponse();
+    byte[] content = createContent( 100000 );
+
+    ResponseStream stream = compressor.createStream( mockRequest( "gzip" ), response );
+    stream.write( content );
+    stream.finish();
+
+    byte[] compressed = getContent( response );
+    assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+    assertTrue( compressed.length < content.length / 10 );
+    assertArrayEquals( content, decompress( compressed ) );
+    assertEquals( content.length, stream.getSize() );
+  }
+
+  @Test
+  public void testWrite_compressesContentWrittenInChunks() throws IOException {
+    TestResponse response = new TestResponse();
+    byte[] content = createContent( 1000 );
+
+    ResponseStream stream = compressor.createStream( mockRequest( "gzip" ), response );
+    for( int i = 0; i < content.length; i += 30 ) {
+      stream.write( content, i, Math.min( 30, content.length - i ) );
+    }
+    stream.finish();
+
+    assertEquals( "gzip", response.getHeader( "Content-Encoding" ) );
+    assertArrayEquals( content, decompress( getContent( response ) ) );
+  }
+
+  @Test
+  public void testWrite_belowThreshold() throws IOException {
+    TestResponse response = new TestResponse();
+    byte[] content = createContent( 1 );
+
+    ResponseStream stream = compressor.createStream( mockRequest( "gzip" ), response );
+    stream.write( content );
+    stream.finish();
+
+    assertNull( response.getHeader( "Content-Encoding" ) );
+    assertArrayEquals( content, getContent( response ) );
+  }
+
+  @Test
+  public void testWrite_withoutAcceptEncoding() throws IOException {
+    TestResponse response = new TestResponse();
+    byte[] content = createContent( 1000 );
+
+    ResponseStream stream = compressor.createStream( mockRequest( null ), response );
+    stream.write( content );
+    stream.finish();
+
+    assertNull( response.getHeader( "Content-Encoding" ) );
+    assertArrayEquals( content, getContent( response ) );
+  }
+
+  @Test
+  public void testWrite_emptyContent() throws IOException {
+    TestResponse response = new TestResponse();
+
+    ResponseStream stream = compressor.createStream( mockRequest( "gzip" ), response );
+    stream.finish();
+
+    assertNull( response.getHeader( "Content-Encoding" ) );
+    assertEquals( 0, getContent( response ).length );
+  }
+
+  @Test
+  public void testWrite_reusesDeflater() throws IOException {
+    byte[] first = createContent( 1000 );
+    byte[] second = createContent( 2000 );
+    TestResponse response = new TestResponse();
+
+    ResponseStream stream = compressor.createStream( mockRequest( "gzip" ), new TestResponse() );
+    stream.write( first );
+    stream.finish();
+    stream = compressor.createStream( mockRequest( "gzip" ), response );
+    stream.write( second );
+    stream.finish();
+
+    assertEquals( 1, compressor.getPooledDeflaterCount() );
+    assertArrayEquals( second, decompress( getContent( response ) ) );
+  }
+
+  private static HttpServletRequest mockRequest( String acceptEncoding ) {
+    HttpServletRequest request = mock( HttpServletRequest.class );
+    when( request.getHeader( "Accept-Encoding" ) ).thenReturn( acceptEncoding );
+    return request;
+  }
+
+  private static byte[] createContent( int count ) {
+    StringBuilder builder = new StringBuilder();
+    for( int i = 0; i < count; i++ ) {
+      builder.append( "[\"set\",\"w" ).append( i % 50 ).append( "\",{\"text\":\"foo\"}]," );
+    }
+    return builder.toString().getBytes();
+  }
+
+  private static byte[] getContent( TestResponse response ) throws IOException {
+    return ( ( TestServletOutputStream )response.getOutputStream() ).getContent().toByteArray();
+  }
+
+  private static byte[] decompress( byte[] content ) throws IOException {
+    InputStream inputStream = new GZIPInputStream( new ByteArrayInputStream( content ) );
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    byte[] buffer = new byte[ 1024 ];
+    int count = inputStream.read( buffer );
+    while( count != -1 ) {
+      result.write( buffer, 0, count );
+      count = inputStream.read( buffer );
+    }
+    inputStream.close();
+    return result.toByteArray();
+  }
+
+}
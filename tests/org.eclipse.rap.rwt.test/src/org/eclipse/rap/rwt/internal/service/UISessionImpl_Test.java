@@ -139,6 +139,36 @@ public class UISessionImpl_Test {
     assertNull( result );
   }
 
+  @Test
+  public void testIsChanged_falseAfterAttachToHttpSession() {
+    uiSession.setAttribute( "foo", "bar" );
+
+    uiSession.attachToHttpSession();
+
+    assertFalse( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testIsChanged_afterSetAttribute() {
+    uiSession.setAttribute( "foo", "bar" );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testIsChanged_afterRemoveAttribute() {
+    uiSession.removeAttribute( "foo" );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testIsChanged_afterMarkChanged() {
+    uiSession.markChanged();
+
+    assertTrue( uiSession.isChanged() );
+  }
+
   @Test
   public void testShutdown() {
     uiSession.shutdown();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2015 Frank Appel and others.
+ * Copyright (c) 2011, 2020 Frank Appel and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -25,6 +25,7 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -41,8 +42,11 @@ import org.eclipse.rap.rwt.testfixture.internal.TestMessage;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 import org.junit.After;
@@ -128,6 +132,39 @@ public class MeasurementOperator_Test {
     verify( listener, times( 2 ) ).handleEvent( any( Event.class ) );
   }
 
+  @Test
+  public void testOperationHandler_handleCall_recalculatesOnlyOwners() {
+    Fixture.fakePhase( PhaseId.PROCESS_ACTION );
+    Shell shell = new Shell( display );
+    shell.setLayout( new GridLayout() );
+    Composite composite = new Composite( shell, SWT.NONE );
+    composite.setLayout( new GridLayout() );
+    Label label = new Label( composite, SWT.NONE );
+    label.setFont( new Font( display, FONT_DATA_1 ) );
+    label.setText( TEXT_TO_MEASURE );
+    shell.layout();
+    Listener listener = mock( Listener.class );
+    shell.addListener( SWT.Resize, listener );
+
+    JsonObject results = new JsonObject().add( getId( FONT_DATA_1 ), createJsonArray( 3, 4 ) );
+    for( MeasurementItem item : operator.getItems() ) {
+      results.add( getId( item ), createJsonArray( 12, 4 ) );
+    }
+    JsonObject parameters = new JsonObject().add( PARAM_RESULTS, results );
+    getOperationHandler( TYPE ).handleCall( METHOD_STORE_MEASUREMENTS, parameters );
+
+    verify( listener, never() ).handleEvent( any( Event.class ) );
+  }
+
+  @Test
+  public void testAddItemToMeasure_withOwner() {
+    Shell shell = new Shell( display );
+
+    operator.addItemToMeasure( MEASUREMENT_ITEM_1, shell );
+
+    assertTrue( operator.getItemOwners( MEASUREMENT_ITEM_1 ).contains( shell ) );
+  }
+
   @Test
   public void testAddItemToMeasure() {
     operator.addItemToMeasure( MEASUREMENT_ITEM_1 );
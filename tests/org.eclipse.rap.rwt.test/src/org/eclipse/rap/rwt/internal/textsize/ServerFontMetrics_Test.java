@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.textsize;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.rap.rwt.internal.RWTProperties;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.Point;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ServerFontMetrics_Test {
+
+  // the logical java.awt font is available in every JRE
+  private static final String FAMILY = "Dialog";
+  private static final FontData FONT_DATA = new FontData( FAMILY, 12, SWT.NORMAL );
+
+  private ServerFontMetrics fontMetrics;
+
+  @Before
+  public void setUp() {
+    fontMetrics = new ServerFontMetrics( Arrays.asList( FAMILY ) );
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty( RWTProperties.SERVER_TEXT_MEASUREMENT );
+  }
+
+  @Test
+  public void testGetInstance_isDisabledByDefault() {
+    assertNull( ServerFontMetrics.getInstance() );
+  }
+
+  @Test
+  public void testGetInstance_whenEnabled() {
+    System.setProperty( RWTProperties.SERVER_TEXT_MEASUREMENT, "true" );
+
+    assertTrue( ServerFontMetrics.getInstance() != null );
+  }
+
+  @Test
+  public void testGetInstance_doesNotMeasureLogicalFonts() {
+    System.setProperty( RWTProperties.SERVER_TEXT_MEASUREMENT, "true" );
+
+    assertFalse( ServerFontMetrics.getInstance().canMeasure( FONT_DATA ) );
+  }
+
+  @Test
+  public void testCanMeasure_withAvailableFamily() {
+    assertTrue( fontMetrics.canMeasure( new FontData( "dialog", 10, SWT.BOLD ) ) );
+  }
+
+  @Test
+  public void testCanMeasure_withUnknownFamily() {
+    assertFalse( fontMetrics.canMeasure( new FontData( "Bogus", 10, SWT.NORMAL ) ) );
+  }
+
+  @Test
+  public void testCanMeasure_usesFirstFamilyOnly() {
+    assertTrue( fontMetrics.canMeasure( new FontData( "Dialog, Bogus", 10, SWT.NORMAL ) ) );
+    assertFalse( fontMetrics.canMeasure( new FontData( "Bogus, Dialog", 10, SWT.NORMAL ) ) );
+  }
+
+  @Test( expected = IllegalArgumentException.class )
+  public void testStringExtent_withUnknownFamily() {
+    fontMetrics.stringExtent( new FontData( "Bogus", 10, SWT.NORMAL ), "text" );
+  }
+
+  @Test
+  public void testStringExtent() {
+    Point size = fontMetrics.stringExtent( FONT_DATA, "text" );
+
+    assertTrue( size.x > 0 );
+    assertEquals( fontMetrics.getCharHeight( FONT_DATA ), size.y );
+  }
+
+  @Test
+  public void testStringExtent_growsWithText() {
+    Point shortSize = fontMetrics.stringExtent( FONT_DATA, "text" );
+    Point longSize = fontMetrics.stringExtent( FONT_DATA, "text text" );
+
+    assertTrue( longSize.x > shortSize.x );
+  }
+
+  @Test
+  public void testStringExtent_forEmptyString() {
+    Point size = fontMetrics.stringExtent( FONT_DATA, "" );
+
+    assertEquals( new Point( 0, fontMetrics.getCharHeight( FONT_DATA ) ), size );
+  }
+
+  @Test
+  public void testStringExtent_withNonLatinText() {
+    Point size = fontMetrics.stringExtent( FONT_DATA, "text \u20ac\u0416" );
+
+    assertTrue( size.x >= fontMetrics.stringExtent( FONT_DATA, "text " ).x );
+  }
+
+  @Test
+  public void testStringExtent_withBoldFont() {
+    FontData boldFontData = new FontData( FAMILY, 12, SWT.BOLD );
+
+    Point normalSize = fontMetrics.stringExtent( FONT_DATA, "Some text" );
+    Point boldSize = fontMetrics.stringExtent( boldFontData, "Some text" );
+
+    assertTrue( boldSize.x >= normalSize.x );
+  }
+
+  @Test
+  public void testStringExtent_withLargerFont() {
+    FontData largeFontData = new FontData( FAMILY, 24, SWT.NORMAL );
+
+    Point normalSize = fontMetrics.stringExtent( FONT_DATA, "Some text" );
+    Point largeSize = fontMetrics.stringExtent( largeFontData, "Some text" );
+
+    assertTrue( largeSize.x > normalSize.x );
+    assertTrue( largeSize.y > normalSize.y );
+  }
+
+  @Test
+  public void testTextExtent_withoutWrapping() {
+    Point textSize = fontMetrics.textExtent( FONT_DATA, "Some text", SWT.DEFAULT );
+
+    assertEquals( fontMetrics.stringExtent( FONT_DATA, "Some text" ), textSize );
+  }
+
+  @Test
+  public void testTextExtent_respectsLineBreaks() {
+    int lineHeight = fontMetrics.getCharHeight( FONT_DATA );
+
+    Point size = fontMetrics.textExtent( FONT_DATA, "First line\nSecond line", SWT.DEFAULT );
+
+    assertEquals( fontMetrics.stringExtent( FONT_DATA, "Second line" ).x, size.x );
+    assertEquals( 2 * lineHeight, size.y );
+  }
+
+  @Test
+  public void testTextExtent_wrapsAtSpaces() {
+    int lineHeight = fontMetrics.getCharHeight( FONT_DATA );
+    int wordWidth = fontMetrics.stringExtent( FONT_DATA, "aaaa" ).x;
+
+    Point size = fontMetrics.textExtent( FONT_DATA, "aaaa aaaa aaaa", wordWidth + 2 );
+
+    assertEquals( new Point( wordWidth, 3 * lineHeight ), size );
+  }
+
+  @Test
+  public void testTextExtent_keepsWordsThatFitOnOneLine() {
+    int lineHeight = fontMetrics.getCharHeight( FONT_DATA );
+    int lineWidth = fontMetrics.stringExtent( FONT_DATA, "aaaa aaaa" ).x;
+
+    Point size = fontMetrics.textExtent( FONT_DATA, "aaaa aaaa aaaa", lineWidth );
+
+    assertEquals( new Point( lineWidth, 2 * lineHeight ), size );
+  }
+
+  @Test
+  public void testTextExtent_doesNotBreakLongWords() {
+    int lineHeight = fontMetrics.getCharHeight( FONT_DATA );
+    int wordWidth = fontMetrics.stringExtent( FONT_DATA, "aaaaaaaa" ).x;
+
+    Point size = fontMetrics.textExtent( FONT_DATA, "aaaaaaaa aa", 10 );
+
+    assertEquals( new Point( wordWidth, 2 * lineHeight ), size );
+  }
+
+  @Test
+  public void testGetAvgCharWidth() {
+    String probeText = Probe.DEFAULT_PROBE_STRING;
+    float probeWidth = fontMetrics.stringExtent( FONT_DATA, probeText ).x;
+
+    float avgCharWidth = fontMetrics.getAvgCharWidth( FONT_DATA );
+
+    assertEquals( probeWidth / probeText.length(), avgCharWidth, 0.1 );
+  }
+
+  @Test
+  public void testCachesMetricsPerFont() {
+    fontMetrics.stringExtent( FONT_DATA, "text" );
+    fontMetrics.textExtent( FONT_DATA, "text", SWT.DEFAULT );
+    fontMetrics.stringExtent( new FontData( FAMILY, 14, SWT.NORMAL ), "text" );
+
+    assertEquals( 2, fontMetrics.getCachedFontCount() );
+  }
+
+  @Test
+  public void testLimitsCachedFonts() {
+    for( int i = 1; i <= ServerFontMetrics.MAX_CACHED_FONTS + 1; i++ ) {
+      fontMetrics.stringExtent( new FontData( FAMILY, i, SWT.NORMAL ), "text" );
+    }
+
+    assertTrue( fontMetrics.getCachedFontCount() <= ServerFontMetrics.MAX_CACHED_FONTS );
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2017 Frank Appel and others.
+ * Copyright (c) 2011, 2020 Frank Appel and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -14,7 +14,10 @@ package org.eclipse.rap.rwt.internal.textsize;
 import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.rap.rwt.internal.lifecycle.PhaseId;
@@ -35,12 +38,15 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
+import org.eclipse.swt.widgets.Widget;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -196,6 +202,210 @@ public class TextSizeRecalculation_Test {
     assertEquals( "false|", resizeListener.getResizeLog() );
   }
 
+  @Test
+  public void testExecuteWithOwners_layoutsOwner() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    Label label = createLabel( composite );
+    shell.layout();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( new Point( 100, 22 ), label.getSize() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_layoutsAncestors() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+    shell.layout();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( composite.computeSize( SWT.DEFAULT, SWT.DEFAULT ), composite.getSize() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_doesNotResizeShell() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+    shell.layout();
+    ResizeListener resizeListener = new ResizeListener();
+    shell.addControlListener( resizeListener );
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( 0, resizeListener.resizeCount() );
+    assertEquals( getInitialShellBounds(), shell.getBounds() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_skipsUnrelatedComposites() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+    Composite unrelated = new Composite( shell, SWT.NONE );
+    LayoutCounter layoutCounter = new LayoutCounter();
+    unrelated.setLayout( layoutCounter );
+    shell.layout();
+    layoutCounter.count = 0;
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( 0, layoutCounter.count );
+  }
+
+  @Test
+  public void testExecuteWithOwners_skipsOtherShells() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+    Shell otherShell = new Shell( display );
+    LayoutCounter layoutCounter = new LayoutCounter();
+    otherShell.setLayout( layoutCounter );
+    ResizeListener resizeListener = new ResizeListener();
+    otherShell.addControlListener( resizeListener );
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( 0, layoutCounter.count );
+    assertEquals( 0, resizeListener.resizeCount() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_rePacksPackedOwners() {
+    turnOnImmediateResizeEventHandling();
+    Label label = createLabel( shell );
+    label.pack();
+    createPackedColumns( shell );
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Arrays.<Widget>asList( label,
+                                                          packedTableColumn,
+                                                          packedTreeColumn ) );
+
+    assertEquals( new Point( 100, 22 ), label.getSize() );
+    assertEquals( 107, packedTableColumn.getWidth() );
+    assertEquals( 117, packedTreeColumn.getWidth() );
+    assertFalse( ControlUtil.getControlAdapter( label ).isPacked() );
+    assertFalse( packedTableColumn.getAdapter( IColumnAdapter.class ).isPacked() );
+    assertFalse( packedTreeColumn.getAdapter( IColumnAdapter.class ).isPacked() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_rePacksPackedAncestors() {
+    turnOnImmediateResizeEventHandling();
+    Composite packedComposite = createCompositeWithLayout( shell );
+    Composite composite = createCompositeWithLayout( packedComposite );
+    Label label = createLabel( composite );
+    packedComposite.pack();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( label ) );
+
+    assertEquals( packedComposite.computeSize( SWT.DEFAULT, SWT.DEFAULT ),
+                  packedComposite.getSize() );
+    assertEquals( new Point( 100, 22 ), label.getSize() );
+    assertFalse( ControlUtil.getControlAdapter( packedComposite ).isPacked() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_rePacksPackedAncestorsOfColumns() {
+    turnOnImmediateResizeEventHandling();
+    Composite packedComposite = createCompositeWithLayout( shell );
+    createPackedColumns( packedComposite );
+    packedComposite.pack();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( packedTableColumn ) );
+
+    assertEquals( packedComposite.computeSize( SWT.DEFAULT, SWT.DEFAULT ),
+                  packedComposite.getSize() );
+    assertFalse( ControlUtil.getControlAdapter( packedComposite ).isPacked() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_rePacksPackedShell() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+    shell.pack();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( shell.computeSize( SWT.DEFAULT, SWT.DEFAULT ), shell.getSize() );
+    assertFalse( ControlUtil.getControlAdapter( shell ).isPacked() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_recalculatesShellWithScrolledComposite() {
+    createWidgetTree();
+    registerResizeListeners();
+    turnOnImmediateResizeEventHandling();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( packedControl ) );
+
+    checkResizeTookPlace();
+    checkRePackTookPlace();
+  }
+
+  @Test
+  public void testExecuteWithOwners_ignoresDisposedOwners() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    composite.dispose();
+    ResizeListener resizeListener = new ResizeListener();
+    shell.addControlListener( resizeListener );
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( composite ) );
+
+    assertEquals( 0, resizeListener.resizeCount() );
+  }
+
+  @Test
+  public void testExecuteWithOwners_clearsBufferedItemWidths() {
+    turnOnImmediateResizeEventHandling();
+    createShellWithLayout();
+    Table table = createVirtualTable( shell );
+    shell.layout();
+    fakeMeasurementResults();
+
+    TextSizeRecalculation.execute( Collections.<Widget>singletonList( shell ) );
+
+    assertEquals( 116, table.getSize().x );
+  }
+
+  @Test
+  public void testLayout_recordsOwnerOfEstimatedTextSizes() {
+    createShellWithLayout();
+    Composite composite = createCompositeWithLayout( shell );
+    createLabel( composite );
+
+    shell.layout();
+
+    MeasurementOperator operator = MeasurementUtil.getMeasurementOperator();
+    assertTrue( operator.getItemCount() > 0 );
+    for( MeasurementItem item : operator.getItems() ) {
+      assertTrue( operator.getItemOwners( item ).contains( composite ) );
+    }
+  }
+
   private void checkResizeTookPlace() {
     assertEquals( getInitialShellBounds(), shell.getBounds() );
     assertEquals( getInitialContentBounds(), scrolledCompositeContent.getBounds() );
@@ -233,14 +443,18 @@ public class TextSizeRecalculation_Test {
   }
 
   private void createPackedColumns() {
-    Table table = new Table( scrolledCompositeContent, SWT.NONE );
+    createPackedColumns( scrolledCompositeContent );
+  }
+
+  private void createPackedColumns( Composite parent ) {
+    Table table = new Table( parent, SWT.NONE );
     table.setHeaderVisible( true );
     table.setFont( new Font( display, FONT_DATA ) );
     packedTableColumn = new TableColumn( table, SWT.NONE );
     packedTableColumn.setText( TEXT_TO_MEASURE );
     packedTableColumn.pack();
 
-    Tree tree = new Tree( scrolledCompositeContent, SWT.NONE );
+    Tree tree = new Tree( parent, SWT.NONE );
     tree.setHeaderVisible( true );
     tree.setFont( new Font( display, FONT_DATA ) );
     packedTreeColumn = new TreeColumn( tree, SWT.NONE );
@@ -272,6 +486,32 @@ public class TextSizeRecalculation_Test {
     return result;
   }
 
+  private static Composite createCompositeWithLayout( Composite parent ) {
+    Composite result = new Composite( parent, SWT.NONE );
+    result.setLayout( new GridLayout() );
+    return result;
+  }
+
+  private Table createVirtualTable( Composite parent ) {
+    Table result = new Table( parent, SWT.VIRTUAL );
+    result.setFont( new Font( display, FONT_DATA ) );
+    result.addListener( SWT.SetData, new Listener() {
+      @Override
+      public void handleEvent( Event event ) {
+        ( ( TableItem )event.item ).setText( TEXT_TO_MEASURE );
+      }
+    } );
+    result.setItemCount( 1 );
+    return result;
+  }
+
+  private Label createLabel( Composite parent ) {
+    Label result = new Label( parent, SWT.NONE );
+    result.setFont( new Font( display, FONT_DATA ) );
+    result.setText( TEXT_TO_MEASURE );
+    return result;
+  }
+
   private void registerResizeListeners() {
     shellResizeListener = new ResizeListener();
     scrolledCompositeContentResizeListener = new ResizeListener();
@@ -298,6 +538,20 @@ public class TextSizeRecalculation_Test {
                                new Point( 100, 20 ) );
   }
 
+  private static final class LayoutCounter extends Layout {
+    private int count;
+
+    @Override
+    protected Point computeSize( Composite composite, int wHint, int hHint, boolean flushCache ) {
+      return new Point( 10, 10 );
+    }
+
+    @Override
+    protected void layout( Composite composite, boolean flushCache ) {
+      count++;
+    }
+  }
+
   private final class ResizeListener implements ControlListener {
     private int resizeCount;
     private final StringBuilder resizeLog = new StringBuilder();
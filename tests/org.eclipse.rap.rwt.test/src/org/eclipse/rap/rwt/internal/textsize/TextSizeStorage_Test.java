@@ -11,12 +11,16 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.internal.textsize;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 
 import org.eclipse.rap.rwt.testfixture.internal.Fixture;
@@ -117,6 +121,59 @@ public class TextSizeStorage_Test {
     assertEquals( 20000, storage.getMaximumStoreSize() );
   }
 
+  @Test
+  public void testStatistics() {
+    storage.storeTextSize( KEY_FIRST, SIZE_FIRST );
+
+    storage.lookupTextSize( KEY_FIRST );
+    storage.lookupTextSize( KEY_OVERFLOW );
+
+    assertEquals( 1, storage.getHitCount() );
+    assertEquals( 1, storage.getMissCount() );
+    assertEquals( 0, storage.getEvictionCount() );
+  }
+
+  @Test
+  public void testStatistics_countsEvictions() {
+    populateUntilOverflowThresholdIsReached();
+
+    forceOverflow();
+
+    assertEquals( 100, storage.getEvictionCount() );
+    assertEquals( TextSizeStorage.MIN_STORE_SIZE - 100, storage.getSize() );
+  }
+
+  @Test
+  public void testStoreTextSize_replacesExistingEntry() {
+    storage.storeTextSize( KEY_FIRST, SIZE_FIRST );
+
+    storage.storeTextSize( KEY_FIRST, SIZE_OVERFLOW );
+
+    assertEquals( SIZE_OVERFLOW, storage.lookupTextSize( KEY_FIRST ) );
+    assertEquals( 1, storage.getSize() );
+  }
+
+  @Test
+  public void testSaveAndLoad() throws IOException {
+    storage.storeFont( FONT_DATA_1 );
+    storage.storeTextSize( KEY_FIRST, new Point( 1, 2 ) );
+    storage.storeTextSize( KEY_OVERFLOW, new Point( 3, 4 ) );
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    storage.save( outputStream );
+    TextSizeStorage loadedStorage = new TextSizeStorage();
+    loadedStorage.load( new ByteArrayInputStream( outputStream.toByteArray() ) );
+
+    assertArrayEquals( new FontData[] { FONT_DATA_1 }, loadedStorage.getFontList() );
+    assertEquals( new Point( 1, 2 ), loadedStorage.lookupTextSize( KEY_FIRST ) );
+    assertEquals( new Point( 3, 4 ), loadedStorage.lookupTextSize( KEY_OVERFLOW ) );
+  }
+
+  @Test( expected = IOException.class )
+  public void testLoad_withUnknownFormat() throws IOException {
+    storage.load( new ByteArrayInputStream( new byte[] { 0, 0, 0, 99 } ) );
+  }
+
   private void populateUntilOverflowThresholdIsReached() {
     storage.setMaximumStoreSize( TextSizeStorage.MIN_STORE_SIZE );
     for( int i = 0; i < TextSizeStorage.MIN_STORE_SIZE - 1; i++ ) {
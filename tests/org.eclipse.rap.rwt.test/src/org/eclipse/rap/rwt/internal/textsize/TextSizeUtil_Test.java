@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2014 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -15,6 +15,7 @@ import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicatio
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.service.ContextProvider;
 import org.eclipse.rap.rwt.internal.service.ServiceStore;
 import org.eclipse.rap.rwt.testfixture.internal.Fixture;
@@ -42,6 +43,7 @@ public class TextSizeUtil_Test {
 
   @After
   public void tearDown() {
+    System.clearProperty( RWTProperties.SERVER_TEXT_MEASUREMENT );
     Fixture.tearDown();
   }
 
@@ -89,6 +91,17 @@ public class TextSizeUtil_Test {
     assertEquals( storedSize, determinedSize );
   }
 
+  @Test
+  public void testStringExtent_withServerTextMeasurement_assignsUnknownFamilyToMeasuring() {
+    System.setProperty( RWTProperties.SERVER_TEXT_MEASUREMENT, "true" );
+    Font font = new Font( display, "Bogus Font Name", 10, SWT.NORMAL );
+
+    TextSizeUtil.stringExtent( font, TEST_STRING );
+
+    assertEquals( 1, getMeasurementItems().length );
+    assertEquals( 1, getProbes().length );
+  }
+
   @Test
   public void testStringExtent_forEmptyString() {
     Point emptyStringSize = TextSizeUtil.stringExtent( getFont(), "" );
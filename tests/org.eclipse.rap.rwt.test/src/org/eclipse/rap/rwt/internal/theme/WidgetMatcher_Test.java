@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.theme;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.theme.WidgetMatcher.Constraint;
+import org.eclipse.rap.rwt.internal.theme.css.ConditionalValue;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Widget;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class WidgetMatcher_Test {
+
+  private static final CssValue RED = CssColor.valueOf( "red" );
+  private static final CssValue GREEN = CssColor.valueOf( "green" );
+  private static final CssValue BLUE = CssColor.valueOf( "blue" );
+  private static final CssValue BLACK = CssColor.valueOf( "black" );
+
+  private Shell shell;
+  private WidgetMatcher matcher;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    shell = new Shell( new Display() );
+    matcher = new WidgetMatcher();
+    matcher.addStyle( "BORDER", SWT.BORDER );
+    matcher.addState( "disabled", new Constraint() {
+      @Override
+      public boolean matches( Widget widget ) {
+        return !( ( Button )widget ).isEnabled();
+      }
+    } );
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testSelect_withStyle() {
+    ConditionalValue[] values = createValues();
+
+    assertSame( GREEN, matcher.select( new Button( shell, SWT.BORDER ), values ) );
+    assertSame( BLACK, matcher.select( new Button( shell, SWT.NONE ), values ) );
+  }
+
+  @Test
+  public void testSelect_withState() {
+    ConditionalValue[] values = createValues();
+    Button button = new Button( shell, SWT.BORDER );
+
+    button.setEnabled( false );
+
+    assertSame( RED, matcher.select( button, values ) );
+  }
+
+  @Test
+  public void testSelect_withVariant() {
+    ConditionalValue[] values = createValues();
+    Button button = new Button( shell, SWT.NONE );
+
+    button.setData( RWT.CUSTOM_VARIANT, "special" );
+
+    assertSame( BLUE, matcher.select( button, values ) );
+  }
+
+  @Test
+  public void testSelect_reflectsChangedState() {
+    ConditionalValue[] values = createValues();
+    Button button = new Button( shell, SWT.BORDER );
+    matcher.select( button, values );
+
+    button.setEnabled( false );
+
+    assertSame( RED, matcher.select( button, values ) );
+  }
+
+  @Test
+  public void testSelect_withUnknownConstraint() {
+    ConditionalValue[] values = new ConditionalValue[] {
+      new ConditionalValue( RED, ":unknown" ),
+      new ConditionalValue( BLACK )
+    };
+
+    assertSame( BLACK, matcher.select( new Button( shell, SWT.NONE ), values ) );
+  }
+
+  @Test
+  public void testSelect_withoutMatchingValue() {
+    ConditionalValue[] values = new ConditionalValue[] {
+      new ConditionalValue( RED, "[BORDER" )
+    };
+
+    assertNull( matcher.select( new Button( shell, SWT.NONE ), values ) );
+    assertNull( matcher.select( new Button( shell, SWT.NONE ), values ) );
+  }
+
+  @Test
+  public void testSelect_withManyConstraints() {
+    ConditionalValue[] values = new ConditionalValue[ 70 ];
+    for( int i = 0; i < values.length - 1; i++ ) {
+      values[ i ] = new ConditionalValue( RED, ".variant" + i );
+    }
+    values[ values.length - 1 ] = new ConditionalValue( BLACK );
+    Button button = new Button( shell, SWT.NONE );
+    button.setData( RWT.CUSTOM_VARIANT, "variant68" );
+
+    assertSame( RED, matcher.select( button, values ) );
+    assertSame( BLACK, matcher.select( new Button( shell, SWT.NONE ), values ) );
+  }
+
+  private static ConditionalValue[] createValues() {
+    return new ConditionalValue[] {
+      new ConditionalValue( RED, "[BORDER", ":disabled" ),
+      new ConditionalValue( GREEN, "[BORDER" ),
+      new ConditionalValue( BLUE, ".special" ),
+      new ConditionalValue( BLACK )
+    };
+  }
+
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.rap.rwt.internal.util;
+
+import static org.eclipse.rap.rwt.internal.util.HTTP.acceptsGzip;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class HTTP_Test {
+
+  private TestRequest request;
+
+  @Before
+  public void setUp() {
+    request = new TestRequest();
+  }
+
+  @Test
+  public void testAcceptsGzip_withoutHeader() {
+    assertFalse( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withGzip() {
+    request.setHeader( "Accept-Encoding", "gzip, deflate" );
+
+    assertTrue( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withQuality() {
+    request.setHeader( "Accept-Encoding", "deflate, GZIP;q=0.8" );
+
+    assertTrue( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withZeroQuality() {
+    request.setHeader( "Accept-Encoding", "gzip; q=0.0" );
+
+    assertFalse( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withZeroQualityWithoutFraction() {
+    request.setHeader( "Accept-Encoding", "gzip;q=0" );
+
+    assertFalse( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withZeroQualityAndTrailingDot() {
+    request.setHeader( "Accept-Encoding", "gzip;q=0." );
+
+    assertFalse( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withSmallQuality() {
+    request.setHeader( "Accept-Encoding", "gzip;q=0.001" );
+
+    assertTrue( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withMalformedQuality() {
+    request.setHeader( "Accept-Encoding", "gzip;q=00" );
+
+    assertTrue( acceptsGzip( request ) );
+  }
+
+  @Test
+  public void testAcceptsGzip_withOtherEncoding() {
+    request.setHeader( "Accept-Encoding", "br" );
+
+    assertFalse( acceptsGzip( request ) );
+  }
+
+}
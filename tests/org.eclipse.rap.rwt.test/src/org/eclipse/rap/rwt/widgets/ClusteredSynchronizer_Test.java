@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2011, 2014 EclipseSource and others.
+ * Copyright (c) 2011, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,16 +10,46 @@
  ******************************************************************************/
 package org.eclipse.rap.rwt.widgets;
 
+import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.servlet.http.Cookie;
 
+import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.service.UISessionImpl;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
 import org.eclipse.rap.rwt.testfixture.internal.TestRequest;
+import org.eclipse.rap.rwt.widgets.ClusteredSynchronizer.RequestExecutor;
+import org.eclipse.swt.widgets.Display;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 
 public class ClusteredSynchronizer_Test {
 
+  private List<Runnable> scheduledTasks;
+  private Display display;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    display = new Display();
+    scheduledTasks = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    Fixture.tearDown();
+  }
+
   @Test
   public void testExtractRequestCookiesWithSingleCookie() {
     TestRequest request = new TestRequest();
@@ -49,4 +79,147 @@ public class ClusteredSynchronizer_Test {
 
     assertEquals( "", cookies );
   }
+
+  @Test
+  public void testRunnableAdded_sendsRequestInBackground() {
+    CountingSynchronizer synchronizer = new CountingSynchronizer( display, createExecutor() );
+
+    synchronizer.runnableAdded( createRunnable() );
+
+    assertEquals( 1, scheduledTasks.size() );
+    assertEquals( 0, synchronizer.requestCount );
+    runScheduledTasks();
+    assertEquals( 1, synchronizer.requestCount );
+  }
+
+  @Test
+  public void testRunnableAdded_coalescesPendingRequests() {
+    CountingSynchronizer synchronizer = new CountingSynchronizer( display, createExecutor() );
+
+    for( int i = 0; i < 500; i++ ) {
+      synchronizer.runnableAdded( createRunnable() );
+    }
+    runScheduledTasks();
+
+    assertEquals( 1, synchronizer.requestCount );
+  }
+
+  @Test
+  public void testRunnableAdded_duringRequest_sendsFollowUpRequest() {
+    final CountingSynchronizer synchronizer
+      = new CountingSynchronizer( display, createExecutor() ) {
+        @Override
+        void notifyAsyncExecServiceHandler() {
+          super.notifyAsyncExecServiceHandler();
+          if( requestCount == 1 ) {
+            runnableAdded( createRunnable() );
+          }
+        }
+      };
+
+    synchronizer.runnableAdded( createRunnable() );
+    runScheduledTasks();
+
+    assertEquals( 2, synchronizer.requestCount );
+  }
+
+  @Test
+  public void testRunnableAdded_afterRequest_sendsNewRequest() {
+    CountingSynchronizer synchronizer = new CountingSynchronizer( display, createExecutor() );
+    synchronizer.runnableAdded( createRunnable() );
+    runScheduledTasks();
+
+    synchronizer.runnableAdded( createRunnable() );
+    runScheduledTasks();
+
+    assertEquals( 2, synchronizer.requestCount );
+  }
+
+  @Test
+  public void testRunnableAdded_marksUISessionChanged() {
+    UISessionImpl uiSession = ( UISessionImpl )RWT.getUISession( display );
+    uiSession.attachToHttpSession();
+    CountingSynchronizer synchronizer = new CountingSynchronizer( display, createExecutor() );
+
+    synchronizer.runnableAdded( createRunnable() );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testAsyncExecServiceHandler_marksUISessionChanged() {
+    UISessionImpl uiSession = ( UISessionImpl )RWT.getUISession();
+    uiSession.attachToHttpSession();
+
+    new ClusteredSynchronizer.AsyncExecServiceHandler().service( null, null );
+
+    assertTrue( uiSession.isChanged() );
+  }
+
+  @Test
+  public void testGetRequestExecutor_isSharedWithinApplication() {
+    RequestExecutor executor = ClusteredSynchronizer.getRequestExecutor( display );
+
+    assertSame( executor, ClusteredSynchronizer.getRequestExecutor( display ) );
+    assertFalse( executor.isShutdown() );
+  }
+
+  @Test
+  public void testGetRequestExecutor_isShutDownWithApplicationContext() {
+    RequestExecutor executor = ClusteredSynchronizer.getRequestExecutor( display );
+
+    getApplicationContext().deactivate();
+
+    assertTrue( executor.isShutdown() );
+  }
+
+  @Test
+  public void testRunnableAdded_afterShutdown() {
+    RequestExecutor executor = ClusteredSynchronizer.getRequestExecutor( display );
+    CountingSynchronizer synchronizer = new CountingSynchronizer( display, executor );
+    executor.shutdown();
+
+    synchronizer.runnableAdded( createRunnable() );
+
+    assertEquals( 0, synchronizer.requestCount );
+  }
+
+  private Executor createExecutor() {
+    return new Executor() {
+      @Override
+      public void execute( Runnable command ) {
+        scheduledTasks.add( command );
+      }
+    };
+  }
+
+  private void runScheduledTasks() {
+    while( !scheduledTasks.isEmpty() ) {
+      scheduledTasks.remove( 0 ).run();
+    }
+  }
+
+  private static Runnable createRunnable() {
+    return new Runnable() {
+      @Override
+      public void run() {
+      }
+    };
+  }
+
+  private static class CountingSynchronizer extends ClusteredSynchronizer {
+
+    int requestCount;
+
+    CountingSynchronizer( Display display, Executor executor ) {
+      super( display, executor );
+    }
+
+    @Override
+    void notifyAsyncExecServiceHandler() {
+      requestCount++;
+    }
+
+  }
+
 }
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.graphics;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.swt.graphics.Image;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ImageStore_Test {
+
+  private ImageStore store;
+
+  @Before
+  public void setUp() {
+    store = new ImageStore( 2 );
+  }
+
+  @Test
+  public void testGet_withUnknownResource() {
+    assertNull( store.get( "unknown" ) );
+  }
+
+  @Test
+  public void testGet_afterPut() {
+    InternalImage internalImage = createInternalImage( "a" );
+
+    store.put( internalImage );
+
+    assertSame( internalImage, store.get( "a" ) );
+  }
+
+  @Test
+  public void testPut_doesNotEvictNewImages() {
+    store = new ImageStore( 0 );
+
+    List<InternalImage> evicted = store.put( createInternalImage( "a" ) );
+
+    assertTrue( evicted.isEmpty() );
+    assertEquals( 1, store.size() );
+  }
+
+  @Test
+  public void testRemoveReference_keepsUnusedImages() {
+    Image image = createImage( "a" );
+
+    List<InternalImage> evicted = store.removeReference( image );
+
+    assertTrue( evicted.isEmpty() );
+    assertSame( image.internalImage, store.get( "a" ) );
+  }
+
+  @Test
+  public void testRemoveReference_evictsLeastRecentlyUnusedImages() {
+    Image imageA = createImage( "a" );
+    Image imageB = createImage( "b" );
+    Image imageC = createImage( "c" );
+    store.removeReference( imageA );
+    store.removeReference( imageB );
+
+    List<InternalImage> evicted = store.removeReference( imageC );
+
+    assertEquals( asList( imageA.internalImage ), evicted );
+    assertNull( store.get( "a" ) );
+    assertEquals( 2, store.size() );
+  }
+
+  @Test
+  public void testRemoveReference_doesNotEvictReferencedImages() {
+    store = new ImageStore( 0 );
+    Image image = createImage( "a" );
+    Image otherImage = createImage( "a" );
+
+    List<InternalImage> evicted = store.removeReference( image );
+
+    assertTrue( evicted.isEmpty() );
+    assertSame( otherImage.internalImage, store.get( "a" ) );
+  }
+
+  @Test
+  public void testRemoveReference_evictsImageWhenLastReferenceIsRemoved() {
+    store = new ImageStore( 0 );
+    Image image = createImage( "a" );
+    Image otherImage = createImage( "a" );
+    store.removeReference( image );
+
+    List<InternalImage> evicted = store.removeReference( otherImage );
+
+    assertEquals( asList( image.internalImage ), evicted );
+    assertEquals( 0, store.size() );
+  }
+
+  @Test
+  public void testRemoveReference_doesNotEvictPinnedImages() {
+    store = new ImageStore( 0 );
+    Image image = createImage( "a" );
+    store.pin( image.internalImage );
+
+    List<InternalImage> evicted = store.removeReference( image );
+
+    assertTrue( evicted.isEmpty() );
+    assertSame( image.internalImage, store.get( "a" ) );
+  }
+
+  @Test
+  public void testGet_reservesUnusedImage() {
+    Image imageA = createImage( "a" );
+    store.removeReference( imageA );
+    store.removeReference( createImage( "b" ) );
+
+    store.get( "a" );
+    List<InternalImage> evicted = store.removeReference( createImage( "c" ) );
+
+    assertTrue( evicted.isEmpty() );
+    assertEquals( 2, store.getUnusedCount() );
+  }
+
+  @Test
+  public void testAddReference_withUnknownImage() {
+    InternalImage internalImage = createInternalImage( "a" );
+
+    store.addReference( ImageFactory.createImageInstance( null, internalImage ) );
+
+    assertSame( internalImage, store.get( "a" ) );
+  }
+
+  @Test
+  public void testAddReference_marksImageAsUsed() {
+    Image image = createImage( "a" );
+    store.removeReference( image );
+
+    store.addReference( image );
+
+    assertEquals( 0, store.getUnusedCount() );
+  }
+
+  @Test
+  public void testGarbageCollectedImagesAreUnused() throws InterruptedException {
+    store.addReference( createImageInstance( "a" ) );
+
+    for( int i = 0; i < 20 && store.getUnusedCount() == 0; i++ ) {
+      System.gc();
+      Thread.sleep( 10 );
+    }
+
+    assertEquals( 1, store.getUnusedCount() );
+  }
+
+  private Image createImage( String resourceName ) {
+    InternalImage internalImage = store.get( resourceName );
+    if( internalImage == null ) {
+      internalImage = createInternalImage( resourceName );
+      store.put( internalImage );
+    }
+    Image result = ImageFactory.createImageInstance( null, internalImage );
+    store.addReference( result );
+    return result;
+  }
+
+  private static Image createImageInstance( String resourceName ) {
+    return ImageFactory.createImageInstance( null, createInternalImage( resourceName ) );
+  }
+
+  private static InternalImage createInternalImage( String resourceName ) {
+    return new InternalImage( resourceName, 10, 10, false );
+  }
+
+}
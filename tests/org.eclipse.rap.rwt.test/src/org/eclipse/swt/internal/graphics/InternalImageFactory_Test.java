@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2014 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -12,8 +12,11 @@
  ******************************************************************************/
 package org.eclipse.swt.internal.graphics;
 
+import static org.eclipse.rap.rwt.internal.service.ContextProvider.getApplicationContext;
+import static org.eclipse.rap.rwt.testfixture.internal.ConcurrencyTestUtil.runInThread;
 import static org.eclipse.rap.rwt.testfixture.internal.TestUtil.createImage;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -52,7 +55,8 @@ public class InternalImageFactory_Test {
   public void setUp() {
     Fixture.createApplicationContext( true );
     Fixture.createServiceContext();
-    internalImageFactory = new InternalImageFactory();
+    internalImageFactory = new InternalImageFactory( getApplicationContext().getResourceManager(),
+                                                     getApplicationContext().getImageDataFactory() );
   }
 
   @After
@@ -215,6 +219,125 @@ public class InternalImageFactory_Test {
     assertTrue( internalImage.getResourceName().endsWith( ".png" ) );
   }
 
+  @Test
+  public void testGeneratedImageNameHasLongHash() {
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+
+    assertEquals( "generated/".length() + 32 + ".png".length(),
+                  internalImage.getResourceName().length() );
+  }
+
+  @Test
+  public void testRemoveReference_keepsResourceOfUsedImage() {
+    internalImageFactory = createInternalImageFactory( 0 );
+    Display display = new Display();
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+    Image image1 = createReferencedImage( display, internalImage );
+    createReferencedImage( display, internalImage );
+
+    internalImageFactory.removeReference( image1 );
+
+    assertTrue( RWT.getResourceManager().isRegistered( internalImage.getResourceName() ) );
+  }
+
+  @Test
+  public void testRemoveReference_unregistersResourceOfEvictedImage() {
+    internalImageFactory = createInternalImageFactory( 0 );
+    Display display = new Display();
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+    Image image = createReferencedImage( display, internalImage );
+
+    internalImageFactory.removeReference( image );
+
+    assertFalse( RWT.getResourceManager().isRegistered( internalImage.getResourceName() ) );
+  }
+
+  @Test
+  public void testRemoveReference_keepsUnusedImagesUpToCacheSize() {
+    internalImageFactory = createInternalImageFactory( 1 );
+    Display display = new Display();
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+    Image image = createReferencedImage( display, internalImage );
+
+    internalImageFactory.removeReference( image );
+
+    assertTrue( RWT.getResourceManager().isRegistered( internalImage.getResourceName() ) );
+    assertSame( internalImage, internalImageFactory.findInternalImage( imageData ) );
+  }
+
+  @Test
+  public void testRemoveReference_recreatesEvictedImage() {
+    internalImageFactory = createInternalImageFactory( 0 );
+    Display display = new Display();
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+    internalImageFactory.removeReference( createReferencedImage( display, internalImage ) );
+
+    InternalImage recreatedImage = internalImageFactory.findInternalImage( imageData );
+
+    assertNotSame( internalImage, recreatedImage );
+    assertTrue( RWT.getResourceManager().isRegistered( recreatedImage.getResourceName() ) );
+  }
+
+  @Test
+  public void testRemoveReference_doesNotEvictImagesFromKey() throws IOException {
+    internalImageFactory = createInternalImageFactory( 0 );
+    Display display = new Display();
+    InputStream stream = CLASS_LOADER.getResourceAsStream( Fixture.IMAGE1 );
+    InternalImage internalImage = internalImageFactory.findInternalImage( "key", stream );
+    stream.close();
+    Image image = createReferencedImage( display, internalImage );
+
+    internalImageFactory.removeReference( image );
+
+    assertTrue( RWT.getResourceManager().isRegistered( internalImage.getResourceName() ) );
+  }
+
+  @Test
+  public void testRemoveReference_fromBackgroundThread() throws Throwable {
+    internalImageFactory = createInternalImageFactory( 0 );
+    Display display = new Display();
+    ImageData imageData = createImageDataWithoutType();
+    InternalImage internalImage = internalImageFactory.findInternalImage( imageData );
+    final Image image = createReferencedImage( display, internalImage );
+
+    runInThread( new Runnable() {
+      @Override
+      public void run() {
+        internalImageFactory.removeReference( image );
+      }
+    } );
+
+    assertFalse( RWT.getResourceManager().isRegistered( internalImage.getResourceName() ) );
+  }
+
+  @Test
+  public void testImageDispose_releasesInternalImage() {
+    Display display = new Display();
+    Image image = new Image( display, createImageDataWithoutType() );
+    ImageStore store = getApplicationContext().getInternalImageFactory().getStore();
+
+    image.dispose();
+
+    assertEquals( 1, store.getUnusedCount() );
+  }
+
+  private static InternalImageFactory createInternalImageFactory( int cacheSize ) {
+    return new InternalImageFactory( getApplicationContext().getResourceManager(),
+                                     getApplicationContext().getImageDataFactory(),
+                                     cacheSize );
+  }
+
+  private Image createReferencedImage( Display display, InternalImage internalImage ) {
+    Image result = ImageFactory.createImageInstance( display, internalImage );
+    internalImageFactory.addReference( result );
+    return result;
+  }
+
   private ImageData createImageDataWithoutType() {
     PaletteData paletteData = new PaletteData( new RGB[]{
       new RGB( 255, 0, 0 ), new RGB( 0, 255, 0 )
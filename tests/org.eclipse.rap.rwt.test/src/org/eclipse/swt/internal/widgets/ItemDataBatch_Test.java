@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.widgets;
+
+import static org.eclipse.rap.rwt.internal.lifecycle.WidgetUtil.getId;
+import static org.eclipse.rap.rwt.testfixture.internal.TestUtil.createImage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.rap.json.JsonArray;
+import org.eclipse.rap.json.JsonObject;
+import org.eclipse.rap.rwt.internal.RWTProperties;
+import org.eclipse.rap.rwt.internal.protocol.Operation.CallOperation;
+import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.rap.rwt.testfixture.internal.TestMessage;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+import org.eclipse.swt.widgets.TableItem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class ItemDataBatch_Test {
+
+  private Display display;
+  private Table table;
+  private TableItem item1;
+  private TableItem item2;
+
+  @Before
+  public void setUp() {
+    Fixture.setUp();
+    display = new Display();
+    table = new Table( new Shell( display ), SWT.CHECK );
+    item1 = new TableItem( table, SWT.NONE );
+    item2 = new TableItem( table, SWT.NONE );
+    Fixture.fakeNewRequest();
+  }
+
+  @After
+  public void tearDown() {
+    System.clearProperty( RWTProperties.BULK_ITEM_RENDERING );
+    Fixture.tearDown();
+  }
+
+  @Test
+  public void testIsEnabled() {
+    assertFalse( ItemDataBatch.isEnabled() );
+
+    System.setProperty( RWTProperties.BULK_ITEM_RENDERING, "true" );
+
+    assertTrue( ItemDataBatch.isEnabled() );
+  }
+
+  @Test
+  public void testRender_withoutItems() {
+    ItemDataBatch.render();
+
+    assertNull( Fixture.getProtocolMessage().findCallOperation( table, "setItemData" ) );
+  }
+
+  @Test
+  public void testRender_rendersSingleCall() {
+    ItemDataBatch.add( table, item1, new String[] { "a" }, null, false, false );
+    ItemDataBatch.add( table, item2, new String[] { "b" }, null, true, false );
+
+    ItemDataBatch.render();
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertEquals( 1, message.getOperationCount() );
+    JsonObject parameters = message.findCallOperation( table, "setItemData" ).getParameters();
+    assertEquals( new JsonArray().add( getId( item1 ) ).add( getId( item2 ) ),
+                  parameters.get( "items" ) );
+    assertEquals( new JsonArray().add( false ).add( true ), parameters.get( "checked" ) );
+    assertEquals( new JsonArray().add( false ).add( false ), parameters.get( "grayed" ) );
+  }
+
+  @Test
+  public void testRender_sharesStrings() {
+    ItemDataBatch.add( table, item1, new String[] { "a", "b" }, null, false, false );
+    ItemDataBatch.add( table, item2, new String[] { "b", null }, null, false, false );
+
+    ItemDataBatch.render();
+
+    JsonObject parameters = getParameters();
+    assertEquals( new JsonArray().add( "a" ).add( "b" ), parameters.get( "strings" ) );
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( 0 ).add( 1 ) )
+      .add( new JsonArray().add( 1 ).add( -1 ) );
+    assertEquals( expected, parameters.get( "texts" ) );
+  }
+
+  @Test
+  public void testRender_sharesImages() throws IOException {
+    Image image = createImage( display, Fixture.IMAGE1 );
+    ItemDataBatch.add( table, item1, new String[] { "" }, new Image[] { image }, false, false );
+    ItemDataBatch.add( table, item2, new String[] { "" }, new Image[] { image }, false, false );
+
+    ItemDataBatch.render();
+
+    JsonObject parameters = getParameters();
+    assertEquals( 1, parameters.get( "imageList" ).asArray().size() );
+    JsonArray expected = new JsonArray().add( new JsonArray().add( 0 ).add( 0 ) );
+    assertEquals( expected, parameters.get( "images" ) );
+  }
+
+  @Test
+  public void testRender_withoutCheckStyle() {
+    table = new Table( new Shell( display ), SWT.NONE );
+    item1 = new TableItem( table, SWT.NONE );
+
+    ItemDataBatch.add( table, item1, new String[] { "a" }, null, false, false );
+    ItemDataBatch.render();
+
+    assertNull( getParameters().get( "checked" ) );
+  }
+
+  @Test
+  public void testRender_clearsBatch() {
+    ItemDataBatch.add( table, item1, new String[] { "a" }, null, false, false );
+    ItemDataBatch.render();
+    Fixture.fakeNewRequest();
+
+    ItemDataBatch.render();
+
+    assertEquals( 0, Fixture.getProtocolMessage().getOperationCount() );
+  }
+
+  private JsonObject getParameters() {
+    TestMessage message = Fixture.getProtocolMessage();
+    CallOperation operation = message.findCallOperation( table, "setItemData" );
+    return operation.getParameters();
+  }
+
+}
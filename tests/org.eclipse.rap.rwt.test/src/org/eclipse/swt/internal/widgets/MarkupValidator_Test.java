@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2012, 2018 EclipseSource and others.
+ * Copyright (c) 2012, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,14 @@
 package org.eclipse.swt.internal.widgets;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+
 import org.eclipse.swt.widgets.Widget;
 import org.junit.Before;
 import org.junit.Test;
@@ -164,6 +167,141 @@ public class MarkupValidator_Test {
     }
   }
 
+  @Test
+  public void testValidate_withCommentAndCData() {
+    String markup = "<b><!-- comment --><![CDATA[<foo>]]></b>";
+
+    try {
+      validator.validate( markup );
+    } catch( Exception ex ) {
+      fail( ex.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_withCharacterReferences() {
+    String markup = "&#65;&#x42;<span title=\"&#x43;\">bar</span>";
+
+    try {
+      validator.validate( markup );
+    } catch( Exception ex ) {
+      fail( ex.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_UndefinedEntity() {
+    String markup = "<b>&foo;</b>";
+
+    try {
+      validator.validate( markup );
+      fail( "validation should throw an exception" );
+    } catch( Exception expected ) {
+      assertTrue( expected instanceof IllegalArgumentException );
+      assertEquals( "Failed to parse markup text", expected.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_InvalidCharacterReference() {
+    String markup = "<b>&#1114112;</b>";
+
+    try {
+      validator.validate( markup );
+      fail( "validation should throw an exception" );
+    } catch( Exception expected ) {
+      assertTrue( expected instanceof IllegalArgumentException );
+      assertEquals( "Failed to parse markup text", expected.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_MismatchedEndTag() {
+    String markup = "<b><i>foo</b></i>";
+
+    try {
+      validator.validate( markup );
+      fail( "validation should throw an exception" );
+    } catch( Exception expected ) {
+      assertTrue( expected instanceof IllegalArgumentException );
+      assertEquals( "Failed to parse markup text", expected.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_DuplicateAttribute() {
+    String markup = "<span id=\"foo\" id=\"bar\">bar</span>";
+
+    try {
+      validator.validate( markup );
+      fail( "validation should throw an exception" );
+    } catch( Exception expected ) {
+      assertTrue( expected instanceof IllegalArgumentException );
+      assertEquals( "Failed to parse markup text", expected.getMessage() );
+    }
+  }
+
+  @Test
+  public void testValidate_cachesValidatedText() {
+    String markup = "<b>foo</b>";
+
+    validator.validate( markup );
+
+    assertTrue( validator.isCached( markup ) );
+  }
+
+  @Test
+  public void testValidate_doesNotCacheInvalidText() {
+    String markup = "<ul>foo</ul>";
+
+    try {
+      validator.validate( markup );
+      fail( "validation should throw an exception" );
+    } catch( IllegalArgumentException expected ) {
+    }
+
+    assertFalse( validator.isCached( markup ) );
+  }
+
+  @Test
+  public void testValidate_doesNotCacheLongText() {
+    char[] content = new char[ MarkupValidator.MAX_CACHED_LENGTH ];
+    Arrays.fill( content, 'a' );
+    String markup = "<b>" + new String( content ) + "</b>";
+
+    validator.validate( markup );
+
+    assertFalse( validator.isCached( markup ) );
+  }
+
+  @Test
+  public void testValidate_withCacheDisabled() {
+    validator = new MarkupValidator( 0 );
+    String markup = "<b>foo</b>";
+
+    validator.validate( markup );
+
+    assertFalse( validator.isCached( markup ) );
+  }
+
+  @Test
+  public void testValidate_evictsWhenCacheIsFull() {
+    validator = new MarkupValidator( 10 );
+
+    for( int i = 0; i < 11; i++ ) {
+      validator.validate( "<b>" + i + "</b>" );
+    }
+
+    int cachedCount = 0;
+    for( int i = 0; i < 11; i++ ) {
+      if( validator.isCached( "<b>" + i + "</b>" ) ) {
+        cachedCount++;
+      }
+    }
+    assertTrue( validator.isCached( "<b>10</b>" ) );
+    assertEquals( 10, cachedCount );
+  }
+
   @Test
     public void testIsValidationDisabledFor() {
       Widget widget = mock( Widget.class );
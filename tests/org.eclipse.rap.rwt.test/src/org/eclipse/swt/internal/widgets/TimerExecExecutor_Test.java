@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.swt.internal.widgets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rap.rwt.testfixture.internal.NoOpRunnable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TimerExecExecutor_Test {
+
+  private TimerExecExecutor executor;
+
+  @Before
+  public void setUp() {
+    executor = new TimerExecExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void testGetPendingTaskCount_initial() {
+    assertEquals( 0, executor.getPendingTaskCount() );
+  }
+
+  @Test
+  public void testSchedule_executesTask() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch( 1 );
+
+    executor.schedule( new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    }, 1 );
+
+    assertTrue( latch.await( 5, TimeUnit.SECONDS ) );
+  }
+
+  @Test
+  public void testSchedule_increasesPendingTaskCount() {
+    executor.schedule( new NoOpRunnable(), 10000 );
+    executor.schedule( new NoOpRunnable(), 10000 );
+
+    assertEquals( 2, executor.getPendingTaskCount() );
+  }
+
+  @Test
+  public void testCancel_removesPendingTask() {
+    ScheduledFuture<?> future = executor.schedule( new NoOpRunnable(), 10000 );
+
+    future.cancel( false );
+
+    assertEquals( 0, executor.getPendingTaskCount() );
+  }
+
+  @Test
+  public void testShutdown_discardsPendingTasks() {
+    executor.schedule( new NoOpRunnable(), 10000 );
+
+    executor.shutdown();
+
+    assertEquals( 0, executor.getPendingTaskCount() );
+  }
+
+  @Test
+  public void testSchedule_afterShutdown() {
+    executor.shutdown();
+
+    executor.schedule( new NoOpRunnable(), 10000 );
+
+    assertEquals( 1, executor.getPendingTaskCount() );
+  }
+
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -20,13 +20,17 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.lifecycle.DisposedWidgets;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetUtil;
 import org.eclipse.rap.rwt.testfixture.TestContext;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Widget;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -46,6 +50,11 @@ public class WidgetRemoteAdapter_Test {
     adapter = new WidgetRemoteAdapter( "id" );
   }
 
+  @After
+  public void tearDown() {
+    System.getProperties().remove( RWTProperties.CHANGE_TRACKING );
+  }
+
   @Test
   public void testGetId() {
     String id = adapter.getId();
@@ -267,6 +276,105 @@ public class WidgetRemoteAdapter_Test {
     assertNull( adapter.getPreservedVariant() );
   }
 
+  @Test
+  public void testMarkValuesPreserved() {
+    adapter.markValuesPreserved();
+
+    assertTrue( adapter.hasPreservedValues() );
+  }
+
+  @Test
+  public void testMarkValuesPreserved_isCleared() {
+    adapter.markValuesPreserved();
+
+    adapter.clearPreserved();
+
+    assertFalse( adapter.hasPreservedValues() );
+  }
+
+  @Test
+  public void testIsDirty_isFalseByDefault() {
+    assertFalse( adapter.isDirty() );
+  }
+
+  @Test
+  public void testIsDirty_withPreservedProperty() {
+    adapter.preserve( "foo", "bar" );
+
+    assertTrue( adapter.isDirty() );
+  }
+
+  @Test
+  public void testIsDirty_withPreservedVariant() {
+    adapter.preserveVariant( "foo" );
+
+    assertTrue( adapter.isDirty() );
+  }
+
+  @Test
+  public void testIsDirty_withRenderRunnable() {
+    adapter.addRenderRunnable( mock( Runnable.class ) );
+
+    assertTrue( adapter.isDirty() );
+  }
+
+  @Test
+  public void testIsDirty_afterClearPreserved() {
+    adapter.preserve( "foo", "bar" );
+    adapter.preserveVariant( "foo" );
+
+    adapter.clearPreserved();
+
+    assertFalse( adapter.isDirty() );
+  }
+
+  @Test
+  public void testMarkDirty_preservesValues() {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Label label = new Label( new Shell( display ), SWT.NONE );
+    WidgetRemoteAdapter labelAdapter = ( WidgetRemoteAdapter )WidgetUtil.getAdapter( label );
+    labelAdapter.setInitialized( true );
+
+    labelAdapter.markDirty( label );
+
+    assertTrue( labelAdapter.hasPreservedValues() );
+    assertTrue( labelAdapter.isDirty() );
+  }
+
+  @Test
+  public void testMarkDirty_withoutChangeTracking() {
+    Label label = new Label( new Shell( display ), SWT.NONE );
+    WidgetRemoteAdapter labelAdapter = ( WidgetRemoteAdapter )WidgetUtil.getAdapter( label );
+    labelAdapter.setInitialized( true );
+
+    labelAdapter.markDirty( label );
+
+    assertFalse( labelAdapter.hasPreservedValues() );
+  }
+
+  @Test
+  public void testMarkDirty_onUninitializedAdapter() {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Label label = new Label( new Shell( display ), SWT.NONE );
+    WidgetRemoteAdapter labelAdapter = ( WidgetRemoteAdapter )WidgetUtil.getAdapter( label );
+
+    labelAdapter.markDirty( label );
+
+    assertFalse( labelAdapter.hasPreservedValues() );
+  }
+
+  @Test
+  public void testMarkDirty_withLCAWithoutChangeTracking() {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    WidgetRemoteAdapter shellAdapter = ( WidgetRemoteAdapter )WidgetUtil.getAdapter( shell );
+    shellAdapter.setInitialized( true );
+
+    shellAdapter.markDirty( shell );
+
+    assertFalse( shellAdapter.hasPreservedValues() );
+  }
+
   @Test
   public void testSerializableFields() throws Exception {
     adapter.setInitialized( true );
@@ -45,6 +45,7 @@ import org.eclipse.rap.rwt.RWT;
 import org.eclipse.rap.rwt.application.EntryPoint;
 import org.eclipse.rap.rwt.client.WebClient;
 import org.eclipse.rap.rwt.client.service.ExitConfirmation;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.application.ApplicationContextImpl;
 import org.eclipse.rap.rwt.internal.lifecycle.DisplayUtil;
 import org.eclipse.rap.rwt.internal.lifecycle.EntryPointManager;
@@ -79,6 +80,7 @@ import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Widget;
@@ -107,6 +109,7 @@ public class DisplayLCA_Test {
   public void tearDown() {
     Fixture.tearDown();
     setEnableUiTests( false );
+    System.getProperties().remove( RWTProperties.CHANGE_TRACKING );
   }
 
   @Test
@@ -631,6 +634,105 @@ public class DisplayLCA_Test {
     assertNull( message.findSetOperation( displayId, "overflow" ) );
   }
 
+  @Test
+  public void testPreserveValues_withChangeTracking_skipsTrackedWidgets() {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Label label = new Label( shell, SWT.NONE );
+    label.setText( "foo" );
+    Fixture.markInitialized( display );
+
+    Fixture.preserveWidgets();
+
+    assertNull( getAdapter( label ).getPreserved( "text" ) );
+  }
+
+  @Test
+  public void testRender_withChangeTracking_skipsUnchangedWidget() throws IOException {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Label label = new Label( shell, SWT.NONE );
+    label.setText( "foo" );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( shell );
+    Fixture.markInitialized( label );
+    Fixture.preserveWidgets();
+
+    displayLCA.render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertNull( message.findSetOperation( label, "text" ) );
+    assertNull( message.findSetOperation( label, "bounds" ) );
+    assertFalse( ( ( WidgetRemoteAdapter )getAdapter( label ) ).hasPreservedValues() );
+  }
+
+  @Test
+  public void testRender_withChangeTracking_rendersChangedWidget() throws IOException {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Label label = new Label( shell, SWT.NONE );
+    label.setText( "foo" );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( shell );
+    Fixture.markInitialized( label );
+    Fixture.preserveWidgets();
+
+    label.setText( "bar" );
+    displayLCA.render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertEquals( "bar", message.findSetProperty( label, "text" ).asString() );
+  }
+
+  @Test
+  public void testRender_withChangeTracking_rendersControlChangesOnly() throws IOException {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Label label = new Label( shell, SWT.NONE );
+    label.setText( "foo" );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( shell );
+    Fixture.markInitialized( label );
+    Fixture.preserveWidgets();
+
+    label.setBounds( 1, 2, 3, 4 );
+    displayLCA.render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertNotNull( message.findSetOperation( label, "bounds" ) );
+    assertNull( message.findSetOperation( label, "text" ) );
+  }
+
+  @Test
+  public void testRender_withChangeTracking_rendersNewWidget() throws IOException {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( shell );
+    Fixture.preserveWidgets();
+
+    Label label = new Label( shell, SWT.NONE );
+    displayLCA.render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertNotNull( message.findCreateOperation( label ) );
+  }
+
+  @Test
+  public void testClearPreserved_withChangeTracking() {
+    System.setProperty( RWTProperties.CHANGE_TRACKING, "true" );
+    Shell shell = new Shell( display );
+    Label label = new Label( shell, SWT.NONE );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( label );
+    Fixture.preserveWidgets();
+    label.setText( "bar" );
+
+    Fixture.clearPreserved();
+
+    assertFalse( ( ( WidgetRemoteAdapter )getAdapter( label ) ).isDirty() );
+  }
+
   private static void setEnableUiTests( boolean value ) {
     Field field;
     try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2007, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -28,6 +28,7 @@ import org.eclipse.rap.json.JsonArray;
 import org.eclipse.rap.json.JsonObject;
 import org.eclipse.rap.json.JsonValue;
 import org.eclipse.rap.rwt.RWT;
+import org.eclipse.rap.rwt.internal.RWTProperties;
 import org.eclipse.rap.rwt.internal.lifecycle.RemoteAdapter;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetLCA;
 import org.eclipse.rap.rwt.internal.lifecycle.WidgetUtil;
@@ -44,6 +45,7 @@ import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.internal.widgets.ITableAdapter;
+import org.eclipse.swt.internal.widgets.ItemDataBatch;
 import org.eclipse.swt.internal.widgets.buttonkit.ButtonOperationHandler;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Display;
@@ -77,6 +79,7 @@ public class TableItemLCA_Test {
 
   @After
   public void tearDown() {
+    System.clearProperty( RWTProperties.BULK_ITEM_RENDERING );
     Fixture.tearDown();
   }
 
@@ -390,6 +393,38 @@ public class TableItemLCA_Test {
     assertEquals( expected, message.findSetProperty( item, "texts" ) );
   }
 
+  @Test
+  public void testRenderTexts_withBulkItemRendering() throws IOException {
+    System.setProperty( RWTProperties.BULK_ITEM_RENDERING, "true" );
+    new TableColumn( table, SWT.NONE );
+    new TableColumn( table, SWT.NONE );
+
+    item.setText( new String[] { "item 0.0", "item 0.1" } );
+    lca.renderChanges( item );
+    ItemDataBatch.render();
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertNull( message.findSetOperation( item, "texts" ) );
+    JsonObject parameters = message.findCallOperation( table, "setItemData" ).getParameters();
+    assertEquals( new JsonArray().add( getId( item ) ), parameters.get( "items" ) );
+    assertEquals( new JsonArray().add( "item 0.0" ).add( "item 0.1" ), parameters.get( "strings" ) );
+  }
+
+  @Test
+  public void testRenderTextsUnchanged_withBulkItemRendering() throws IOException {
+    System.setProperty( RWTProperties.BULK_ITEM_RENDERING, "true" );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( item );
+
+    item.setText( "item 0.0" );
+    Fixture.preserveWidgets();
+    lca.renderChanges( item );
+    ItemDataBatch.render();
+
+    TestMessage message = Fixture.getProtocolMessage();
+    assertNull( message.findCallOperation( table, "setItemData" ) );
+  }
+
   @Test
   public void testRenderTextsUnchanged() throws IOException {
     new TableColumn( table, SWT.NONE );
@@ -445,7 +480,8 @@ public class TableItemLCA_Test {
     TestMessage message = Fixture.getProtocolMessage();
     JsonArray expected = new JsonArray();
     expected.add( JsonValue.NULL );
-    expected.add( new JsonArray().add( "rwt-resources/generated/90fb0bfe.gif" ).add( 58 ).add( 12 ) );
+    String imageLocation = "rwt-resources/generated/2fba020966a93e163f41eaf68bf50db0.gif";
+    expected.add( new JsonArray().add( imageLocation ).add( 58 ).add( 12 ) );
     assertEquals( expected, message.findSetProperty( item, "images" ) );
   }
 
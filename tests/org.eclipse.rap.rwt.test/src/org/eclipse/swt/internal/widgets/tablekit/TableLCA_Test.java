@@ -1034,9 +1034,25 @@ public class TableLCA_Test {
     getLCA( display ).render( display );
 
     TestMessage message = Fixture.getProtocolMessage();
-    JsonArray expected = new JsonArray();
-    expected.add( getId( table.getItem( 2 ) ) );
-    expected.add( getId( table.getItem( 0 ) ) );
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( 0 ).add( 0 ) )
+      .add( new JsonArray().add( 2 ).add( 2 ) );
+    assertEquals( expected, message.findSetProperty( table, "selection" ) );
+  }
+
+  @Test
+  public void testRenderSelection_asRanges() throws IOException {
+    table = new Table( shell, SWT.MULTI | SWT.VIRTUAL );
+    table.setItemCount( 1000 );
+
+    table.selectAll();
+    table.deselect( 10, 19 );
+    getLCA( display ).render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( 0 ).add( 9 ) )
+      .add( new JsonArray().add( 20 ).add( 999 ) );
     assertEquals( expected, message.findSetProperty( table, "selection" ) );
   }
 
@@ -1055,6 +1071,24 @@ public class TableLCA_Test {
     assertNull( message.findSetOperation( table, "selection" ) );
   }
 
+  @Test
+  public void testRenderSelection_withRecreatedItems() throws IOException {
+    createTableItems( table, 3 );
+    table.select( 0 );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( table );
+    Fixture.preserveWidgets();
+
+    table.removeAll();
+    createTableItems( table, 3 );
+    table.select( 0 );
+    getLCA( display ).render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    JsonArray expected = new JsonArray().add( new JsonArray().add( 0 ).add( 0 ) );
+    assertEquals( expected, message.findSetProperty( table, "selection" ) );
+  }
+
   @Test
   public void testRenderInitialSortDirection() throws IOException {
     lca.render( table );
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2002, 2015 Innoopract Informationssysteme GmbH and others.
+ * Copyright (c) 2002, 2020 Innoopract Informationssysteme GmbH and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -478,9 +478,10 @@ public class TreeItemLCA_Test {
     lca.renderChanges( item );
 
     TestMessage message = Fixture.getProtocolMessage();
+    String imageLocation = "rwt-resources/generated/2fba020966a93e163f41eaf68bf50db0.gif";
     JsonArray expected = new JsonArray()
       .add( JsonValue.NULL )
-      .add( new JsonArray().add( "rwt-resources/generated/90fb0bfe.gif" ).add( 58 ).add( 12 ) );
+      .add( new JsonArray().add( imageLocation ).add( 58 ).add( 12 ) );
     assertEquals( expected, message.findSetProperty( item, "images" ) );
   }
 
@@ -1069,9 +1069,30 @@ public class TreeLCA_Test {
     getLCA( display ).render( display );
 
     TestMessage message = Fixture.getProtocolMessage();
-    JsonArray expected = new JsonArray();
-    expected.add( getId( item1 ) );
-    expected.add( getId( item3 ) );
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( 0 ).add( 0 ) )
+      .add( new JsonArray().add( 2 ).add( 2 ) );
+    assertEquals( expected, message.findSetProperty( tree, "selection" ) );
+  }
+
+  @Test
+  public void testRenderSelection_withSubItems() throws IOException {
+    Tree tree = new Tree( shell, SWT.MULTI );
+    TreeItem item = new TreeItem( tree, SWT.NONE );
+    new TreeItem( tree, SWT.NONE );
+    TreeItem subItem1 = new TreeItem( item, SWT.NONE );
+    TreeItem subItem2 = new TreeItem( item, SWT.NONE );
+    new TreeItem( item, SWT.NONE );
+    TreeItem subItem4 = new TreeItem( item, SWT.NONE );
+
+    tree.setSelection( new TreeItem[] { subItem4, tree.getItem( 1 ), subItem2, subItem1, item } );
+    getLCA( display ).render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( getId( item ) ).add( 0 ).add( 1 ) )
+      .add( new JsonArray().add( getId( item ) ).add( 3 ).add( 3 ) )
+      .add( new JsonArray().add( 0 ).add( 1 ) );
     assertEquals( expected, message.findSetProperty( tree, "selection" ) );
   }
 
@@ -1092,6 +1113,25 @@ public class TreeLCA_Test {
     assertNull( message.findSetOperation( tree, "selection" ) );
   }
 
+  @Test
+  public void testRenderSelection_withReplacedItem() throws IOException {
+    TreeItem item = new TreeItem( tree, SWT.NONE );
+    TreeItem subItem = new TreeItem( item, SWT.NONE );
+    tree.setSelection( subItem );
+    Fixture.markInitialized( display );
+    Fixture.markInitialized( tree );
+    Fixture.preserveWidgets();
+
+    subItem.dispose();
+    tree.setSelection( new TreeItem( item, SWT.NONE ) );
+    getLCA( display ).render( display );
+
+    TestMessage message = Fixture.getProtocolMessage();
+    JsonArray expected = new JsonArray()
+      .add( new JsonArray().add( getId( item ) ).add( 0 ).add( 0 ) );
+    assertEquals( expected, message.findSetProperty( tree, "selection" ) );
+  }
+
   @Test
   public void testRenderAddSelectionListener() throws Exception {
     Fixture.markInitialized( display );
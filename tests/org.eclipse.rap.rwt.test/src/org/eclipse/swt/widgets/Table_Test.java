@@ -1241,6 +1241,62 @@ public class Table_Test {
     assertTrue( table.isSelected( 1 ) );
   }
 
+  @Test
+  public void testSelectAll_VIRTUAL() {
+    Table table = createTable( SWT.MULTI | SWT.VIRTUAL, 1 );
+    table.setItemCount( 1000 );
+
+    table.selectAll();
+
+    assertEquals( 1000, table.getSelectionCount() );
+    assertTrue( table.isSelected( 900 ) );
+    assertTrue( getTableAdapter( table ).isItemVirtual( 900 ) );
+  }
+
+  @Test
+  public void testGetSelectionIndices_ascending() {
+    Table table = createTable( SWT.MULTI, 1 );
+    createTableItems( table, 10 );
+
+    table.select( new int[] { 7, 2, 5 } );
+    table.select( 3, 4 );
+
+    assertArrayEquals( new int[] { 2, 3, 4, 5, 7 }, table.getSelectionIndices() );
+  }
+
+  @Test
+  public void testSelectionShiftedOnInsert() {
+    Table table = createTable( SWT.MULTI, 1 );
+    createTableItems( table, 10 );
+    table.select( new int[] { 1, 4, 5, 6, 9 } );
+
+    new TableItem( table, SWT.NONE, 4 );
+
+    assertArrayEquals( new int[] { 1, 5, 6, 7, 10 }, table.getSelectionIndices() );
+  }
+
+  @Test
+  public void testSelectionShiftedOnRemove() {
+    Table table = createTable( SWT.MULTI, 1 );
+    createTableItems( table, 10 );
+    table.select( new int[] { 1, 3, 4, 5, 8, 9 } );
+
+    table.remove( 3 );
+
+    assertArrayEquals( new int[] { 1, 3, 4, 7, 8 }, table.getSelectionIndices() );
+  }
+
+  @Test
+  public void testDeselectRange() {
+    Table table = createTable( SWT.MULTI, 1 );
+    createTableItems( table, 10 );
+    table.selectAll();
+
+    table.deselect( 2, 7 );
+
+    assertArrayEquals( new int[] { 0, 1, 8, 9 }, table.getSelectionIndices() );
+  }
+
   @Test
   public void testDeselectAll() {
     Table table = createTable( SWT.SINGLE, 1 );
@@ -14,14 +14,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.util.concurrent.ScheduledFuture;
+
 import org.eclipse.rap.rwt.internal.serverpush.ServerPushManager;
 import org.eclipse.rap.rwt.testfixture.internal.Fixture;
+import org.eclipse.swt.internal.widgets.TimerExecExecutor;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -94,6 +100,40 @@ public class TimerExecTask_Test {
     verify( display, times( 0 ) ).asyncExec( any( Runnable.class ) );
   }
 
+  @Test
+  public void testRun_doesNotAddRunnableWhenCancelled() {
+    Runnable runnable = mock( Runnable.class );
+    TimerExecTask task = new TimerExecTask( scheduler, runnable );
+    task.cancel();
+
+    task.run();
+
+    verify( display, times( 0 ) ).asyncExec( any( Runnable.class ) );
+  }
+
+  @Test
+  public void testSchedule_schedulesOnExecutor() {
+    TimerExecExecutor executor = mock( TimerExecExecutor.class );
+    TimerExecTask task = new TimerExecTask( scheduler, mock( Runnable.class ) );
+
+    task.schedule( executor, 23 );
+
+    verify( executor ).schedule( same( task ), eq( 23L ) );
+  }
+
+  @Test
+  public void testCancel_cancelsScheduledFuture() {
+    TimerExecExecutor executor = mock( TimerExecExecutor.class );
+    ScheduledFuture<?> future = mock( ScheduledFuture.class );
+    doReturn( future ).when( executor ).schedule( any( Runnable.class ), anyLong() );
+    TimerExecTask task = new TimerExecTask( scheduler, mock( Runnable.class ) );
+    task.schedule( executor, 23 );
+
+    task.cancel();
+
+    verify( future ).cancel( false );
+  }
+
   @Test
   public void testRun_deactivatesServerPush() {
     Runnable runnable = mock( Runnable.class );
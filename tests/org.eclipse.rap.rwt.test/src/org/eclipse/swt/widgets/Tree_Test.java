@@ -462,6 +462,18 @@ public class Tree_Test {
     }
   }
 
+  @Test
+  public void testSetSelection_ignoresDuplicates() {
+    tree = new Tree( shell, SWT.MULTI );
+    TreeItem item1 = new TreeItem( tree, SWT.NONE );
+    TreeItem item2 = new TreeItem( tree, SWT.NONE );
+
+    tree.setSelection( new TreeItem[] { item2, item1, item2 } );
+
+    assertEquals( 2, tree.getSelectionCount() );
+    assertTrue( Arrays.equals( new TreeItem[] { item2, item1 }, tree.getSelection() ) );
+  }
+
   @Test
   public void testSelectAllForSingle() {
     tree = new Tree( shell, SWT.SINGLE );
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2011 EclipseSource and others.
+ * Copyright (c) 2010, 2020 EclipseSource and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,7 +11,11 @@
 package org.eclipse.rap.ui.tests;
 
 import org.eclipse.jface.internal.util.SerializableEventManagerTest;
+import org.eclipse.jface.internal.util.SharedResourceDefaultsTest;
+import org.eclipse.jface.internal.util.SortExecutorTest;
+import org.eclipse.jface.resource.FontRegistryTest;
 import org.eclipse.jface.tests.viewers.Bug264226TableViewerTest;
+import org.eclipse.ui.internal.registry.SharedExtensionRegistryTest;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -29,9 +33,13 @@ public class AllTests {
       // RAP UI Tests
       suite.addTestSuite( ServiceHandlerExtensionTest.class );
       suite.addTestSuite( RWTConfigurationWrapper.class );
+      suite.addTestSuite( SharedExtensionRegistryTest.class );
       // RAP JFace Tests
       suite.addTestSuite( Bug264226TableViewerTest.class );
       suite.addTestSuite(SerializableEventManagerTest.class );
+      suite.addTestSuite( SharedResourceDefaultsTest.class );
+      suite.addTestSuite( SortExecutorTest.class );
+      suite.addTestSuite( FontRegistryTest.class );
       // Cleanup
       suite.addTestSuite( Cleanup.class );
       return suite;
@@ -58,5 +58,6 @@ public class DynamicPluginsTestSuite extends TestSuite {
 		addTest(new TestSuite(DynamicSupportTests.class));
 		addTest(new TestSuite(DynamicContributionTest.class));
 		addTest(new TestSuite(DynamicInvalidContributionTest.class));
+		addTest(new TestSuite(SharedExtensionRegistryTests.class));
 	}
 }
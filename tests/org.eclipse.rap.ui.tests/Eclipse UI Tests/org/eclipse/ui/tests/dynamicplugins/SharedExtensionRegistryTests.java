@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.ui.tests.dynamicplugins;
+
+import java.util.Locale;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.registry.IWorkbenchRegistryConstants;
+import org.eclipse.ui.internal.registry.SharedExtensionRegistry;
+import org.eclipse.ui.internal.registry.SharedExtensionRegistry.IDescriptorFactory;
+
+/**
+ * Tests that the application scoped cache of the workbench registries is
+ * cleared when dynamic plug-ins are added or removed.
+ */
+public class SharedExtensionRegistryTests extends DynamicTestCase {
+
+	private static final String EXTENSION_ID = "newActionSet1.testDynamicActionSetAddition";
+
+	private CountingFactory factory;
+
+	public SharedExtensionRegistryTests(String testName) {
+		super(testName);
+	}
+
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		factory = new CountingFactory();
+	}
+
+	public void testBundleAdded_invalidatesExtensions() {
+		assertNull(findExtension(getActionSetExtensions()));
+
+		getBundle();
+		waitForExtension(true);
+
+		assertNotNull(findExtension(getActionSetExtensions()));
+		assertNotNull(findExtension(getOrderedActionSetExtensions()));
+	}
+
+	public void testBundleRemoved_invalidatesExtensions() {
+		getBundle();
+		waitForExtension(true);
+
+		removeBundle();
+		waitForExtension(false);
+
+		assertNull(findExtension(getActionSetExtensions()));
+		assertNull(findExtension(getOrderedActionSetExtensions()));
+	}
+
+	public void testBundleAdded_invalidatesDescriptors() throws CoreException {
+		IConfigurationElement element = getStaticActionSetElement();
+		Object descriptor = getDescriptor(element, Locale.ENGLISH);
+
+		getBundle();
+		waitForExtension(true);
+
+		assertNotSame(descriptor, getDescriptor(element, Locale.ENGLISH));
+		assertEquals(2, factory.count);
+	}
+
+	public void testBundleRemoved_invalidatesDescriptors() throws CoreException {
+		getBundle();
+		waitForExtension(true);
+		IConfigurationElement element = getStaticActionSetElement();
+		Object descriptor = getDescriptor(element, Locale.ENGLISH);
+
+		removeBundle();
+		waitForExtension(false);
+
+		assertNotSame(descriptor, getDescriptor(element, Locale.ENGLISH));
+		assertEquals(2, factory.count);
+	}
+
+	protected String getExtensionId() {
+		return EXTENSION_ID;
+	}
+
+	protected String getExtensionPoint() {
+		return IWorkbenchRegistryConstants.PL_ACTION_SETS;
+	}
+
+	protected String getInstallLocation() {
+		return "data/org.eclipse.newActionSet1";
+	}
+
+	private Object getDescriptor(IConfigurationElement element, Locale locale)
+			throws CoreException {
+		return SharedExtensionRegistry.getInstance().getDescriptor(element,
+				factory, locale);
+	}
+
+	/*
+	 * Returns an action set element that is not contributed by the dynamic
+	 * plug-in.
+	 */
+	private IConfigurationElement getStaticActionSetElement() {
+		IExtension[] extensions = getActionSetExtensions();
+		for (int i = 0; i < extensions.length; i++) {
+			if (!EXTENSION_ID.equals(extensions[i].getUniqueIdentifier())) {
+				IConfigurationElement[] elements = SharedExtensionRegistry
+						.getInstance().getConfigurationElements(extensions[i]);
+				if (elements.length > 0) {
+					return elements[0];
+				}
+			}
+		}
+		fail("No action set found");
+		return null;
+	}
+
+	/*
+	 * The shared registry receives the registry change event independently of
+	 * this test case, wait until it has been processed.
+	 */
+	private void waitForExtension(boolean present) {
+		long endTime = System.currentTimeMillis() + 5000;
+		while ((findExtension(getActionSetExtensions()) != null) != present
+				&& System.currentTimeMillis() < endTime) {
+			processEvents();
+			Thread.yield();
+		}
+		assertEquals(present, findExtension(getActionSetExtensions()) != null);
+	}
+
+	private static IExtension[] getActionSetExtensions() {
+		return SharedExtensionRegistry.getInstance().getExtensions(
+				Platform.getExtensionRegistry(),
+				PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+				IWorkbenchRegistryConstants.PL_ACTION_SETS);
+	}
+
+	private static IExtension[] getOrderedActionSetExtensions() {
+		return SharedExtensionRegistry.getInstance().getOrderedExtensions(
+				Platform.getExtensionRegistry(),
+				PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+				IWorkbenchRegistryConstants.PL_ACTION_SETS);
+	}
+
+	private static IExtension findExtension(IExtension[] extensions) {
+		for (int i = 0; i < extensions.length; i++) {
+			if (EXTENSION_ID.equals(extensions[i].getUniqueIdentifier())) {
+				return extensions[i];
+			}
+		}
+		return null;
+	}
+
+	private static final class CountingFactory implements IDescriptorFactory {
+
+		int count;
+
+		public Object createDescriptor(IConfigurationElement element) {
+			count++;
+			return new Object();
+		}
+	}
+
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal.util;
+
+import java.util.Map;
+import java.util.MissingResourceException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.dialogs.Dialog;
+import org.eclipse.jface.dialogs.PopupDialog;
+import org.eclipse.jface.dialogs.TitleAreaDialog;
+import org.eclipse.jface.preference.PreferenceDialog;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.wizard.Wizard;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.FontData;
+
+public class SharedResourceDefaultsTest extends TestCase {
+
+	private static final String FONT_LOCATION = "org.eclipse.jface.resource.testfonts";
+
+	public void testGetInstance_isSharedWithinApplication() {
+		assertSame(SharedResourceDefaults.getInstance(),
+				SharedResourceDefaults.getInstance());
+	}
+
+	public void testGetImageDescriptors_containsDefaultImages() {
+		Map descriptors = SharedResourceDefaults.getInstance().getImageDescriptors();
+
+		String[] keys = new String[] { Wizard.DEFAULT_IMAGE,
+				Dialog.DLG_IMG_MESSAGE_INFO, Dialog.DLG_IMG_MESSAGE_WARNING,
+				Dialog.DLG_IMG_MESSAGE_ERROR, Dialog.DLG_IMG_HELP,
+				TitleAreaDialog.DLG_IMG_TITLE_BANNER,
+				PreferenceDialog.PREF_DLG_TITLE_IMG, PopupDialog.POPUP_IMG_MENU,
+				PopupDialog.POPUP_IMG_MENU_DISABLED };
+		assertEquals(keys.length, descriptors.size());
+		for (int i = 0; i < keys.length; i++) {
+			assertNotNull(keys[i], descriptors.get(keys[i]));
+		}
+	}
+
+	public void testGetImageDescriptors_resolveImageData() {
+		// descriptors are either found in the bundle or fall back to the
+		// images next to the declaring classes
+		Map descriptors = SharedResourceDefaults.getInstance().getImageDescriptors();
+
+		ImageDescriptor descriptor = (ImageDescriptor) descriptors.get(Dialog.DLG_IMG_HELP);
+
+		assertNotNull(descriptor.getImageData());
+	}
+
+	public void testGetImageDescriptors_returnsSameDescriptors() {
+		SharedResourceDefaults defaults = SharedResourceDefaults.getInstance();
+
+		Object descriptor1 = defaults.getImageDescriptors().get(Dialog.DLG_IMG_HELP);
+		Object descriptor2 = defaults.getImageDescriptors().get(Dialog.DLG_IMG_HELP);
+
+		assertSame(descriptor1, descriptor2);
+	}
+
+	public void testGetImageDescriptors_isUnmodifiable() {
+		Map descriptors = SharedResourceDefaults.getInstance().getImageDescriptors();
+
+		try {
+			descriptors.remove(Dialog.DLG_IMG_HELP);
+			fail();
+		} catch (UnsupportedOperationException expected) {
+		}
+	}
+
+	public void testGetFontData_parsesFontData() {
+		Map fontData = SharedResourceDefaults.getInstance().getFontData(FONT_LOCATION);
+
+		FontData font = (FontData) fontData.get("test.font");
+		assertEquals("adobe-courier", font.getName());
+		assertEquals(14, font.getHeight());
+		assertEquals(SWT.BOLD, font.getStyle());
+	}
+
+	public void testGetFontData_keepsIndexedKeys() {
+		Map fontData = SharedResourceDefaults.getInstance().getFontData(FONT_LOCATION);
+
+		assertNotNull(fontData.get("test.multifont.0"));
+		assertNotNull(fontData.get("test.multifont.1"));
+		assertNotNull(fontData.get("org.eclipse.jface.headerfont.1"));
+		assertFalse(fontData.containsKey("test.multifont"));
+	}
+
+	public void testGetFontData_returnsCopies() {
+		SharedResourceDefaults defaults = SharedResourceDefaults.getInstance();
+		Map fontData1 = defaults.getFontData(FONT_LOCATION);
+		FontData font1 = (FontData) fontData1.get("test.font");
+		font1.setHeight(20);
+		fontData1.remove("test.font");
+
+		Map fontData2 = defaults.getFontData(FONT_LOCATION);
+
+		FontData font2 = (FontData) fontData2.get("test.font");
+		assertNotSame(font1, font2);
+		assertEquals(14, font2.getHeight());
+	}
+
+	public void testGetFontData_withMissingBundle() {
+		try {
+			SharedResourceDefaults.getInstance().getFontData("does.not.exist");
+			fail();
+		} catch (MissingResourceException expected) {
+		}
+	}
+
+}
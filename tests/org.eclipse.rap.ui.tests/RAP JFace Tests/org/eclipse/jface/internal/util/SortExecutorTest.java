@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.internal.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.rap.rwt.service.UISession;
+
+public class SortExecutorTest extends TestCase {
+
+	private static final long TIMEOUT = 5000;
+
+	private SortExecutor executor;
+	private List log;
+
+	protected void setUp() throws Exception {
+		executor = new SortExecutor(2);
+		log = Collections.synchronizedList(new ArrayList());
+	}
+
+	protected void tearDown() throws Exception {
+		executor.shutdown();
+	}
+
+	public void testExecute_runsTask() throws Exception {
+		Gate done = new Gate();
+
+		boolean accepted = executor.execute(new TestSession().proxy,
+				new LoggingTask("a", null, done));
+
+		assertTrue(accepted);
+		assertTrue(done.await());
+		assertEquals(Collections.singletonList("a"), log);
+	}
+
+	public void testExecute_queuesTasksOfSameSession() throws Exception {
+		UISession session = new TestSession().proxy;
+		Gate release = new Gate();
+		Gate done = new Gate();
+		executor.execute(session, new LoggingTask("a", release, null));
+
+		executor.execute(session, new LoggingTask("b", null, done));
+
+		assertEquals(1, executor.getQueuedTaskCount(session));
+		release.open();
+		assertTrue(done.await());
+		assertEquals(2, log.size());
+		assertEquals("a", log.get(0));
+		assertEquals("b", log.get(1));
+	}
+
+	public void testExecute_runsTasksOfOtherSessions() throws Exception {
+		Gate release = new Gate();
+		Gate done = new Gate();
+		executor.execute(new TestSession().proxy, new LoggingTask("a", release, null));
+
+		executor.execute(new TestSession().proxy, new LoggingTask("b", null, done));
+
+		try {
+			assertTrue(done.await());
+			assertEquals(Collections.singletonList("b"), log);
+		} finally {
+			release.open();
+		}
+	}
+
+	public void testExecute_doesNotRegisterWithSession() throws Exception {
+		TestSession session = new TestSession();
+		Gate done = new Gate();
+
+		executor.execute(session.proxy, new LoggingTask("a", null, done));
+
+		assertTrue(done.await());
+		waitForIdle();
+		// a listener registered with the session would prevent its serialization
+		assertFalse(session.invokedMethods().contains("addUISessionListener"));
+	}
+
+	public void testExecute_forgetsIdleSessions() throws Exception {
+		Gate done = new Gate();
+
+		executor.execute(new TestSession().proxy, new LoggingTask("a", null, done));
+
+		assertTrue(done.await());
+		waitForIdle();
+		assertEquals(0, executor.getSessionCount());
+	}
+
+	public void testCancel_removesQueuedTask() throws Exception {
+		UISession session = new TestSession().proxy;
+		Gate release = new Gate();
+		executor.execute(session, new LoggingTask("a", release, null));
+		Runnable task = new LoggingTask("b", null, null);
+		executor.execute(session, task);
+
+		executor.cancel(session, task);
+
+		assertEquals(0, executor.getQueuedTaskCount(session));
+		release.open();
+		waitForIdle();
+		assertEquals(Collections.singletonList("a"), log);
+	}
+
+	public void testUnboundSession_discardsQueuedTasks() throws Exception {
+		TestSession session = new TestSession();
+		Gate release = new Gate();
+		executor.execute(session.proxy, new LoggingTask("a", release, null));
+		executor.execute(session.proxy, new LoggingTask("b", null, null));
+
+		session.bound = false;
+		release.open();
+
+		waitForIdle();
+		assertEquals(Collections.singletonList("a"), log);
+		assertEquals(0, executor.getQueuedTaskCount(session.proxy));
+	}
+
+	public void testShutdown_rejectsTasks() {
+		UISession session = new TestSession().proxy;
+		executor.shutdown();
+
+		boolean accepted = executor.execute(session, new LoggingTask("a", null, null));
+
+		assertFalse(accepted);
+		assertEquals(0, executor.getSessionCount());
+	}
+
+	private void waitForIdle() throws InterruptedException {
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (executor.getSessionCount() > 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(10);
+		}
+	}
+
+	private final class LoggingTask implements Runnable {
+
+		private final String name;
+		private final Gate release;
+		private final Gate done;
+
+		LoggingTask(String name, Gate release, Gate done) {
+			this.name = name;
+			this.release = release;
+			this.done = done;
+		}
+
+		public void run() {
+			try {
+				if (release != null) {
+					release.await();
+				}
+			} catch (InterruptedException exception) {
+				// continue with the task
+			}
+			log.add(name);
+			if (done != null) {
+				done.open();
+			}
+		}
+	}
+
+	private static final class Gate {
+
+		private boolean open;
+
+		synchronized void open() {
+			open = true;
+			notifyAll();
+		}
+
+		synchronized boolean await() throws InterruptedException {
+			long end = System.currentTimeMillis() + TIMEOUT;
+			while (!open) {
+				long remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				wait(remaining);
+			}
+			return true;
+		}
+	}
+
+	private static final class TestSession implements InvocationHandler {
+
+		final UISession proxy;
+		volatile boolean bound = true;
+		private final List invokedMethods;
+
+		TestSession() {
+			invokedMethods = Collections.synchronizedList(new ArrayList());
+			proxy = (UISession) Proxy.newProxyInstance(UISession.class.getClassLoader(),
+					new Class[] { UISession.class }, this);
+		}
+
+		List invokedMethods() {
+			return new ArrayList(invokedMethods);
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if ("hashCode".equals(name)) {
+				return new Integer(System.identityHashCode(proxy));
+			}
+			if ("equals".equals(name)) {
+				return Boolean.valueOf(proxy == args[0]);
+			}
+			if ("toString".equals(name)) {
+				return "TestSession";
+			}
+			invokedMethods.add(name);
+			if ("isBound".equals(name)) {
+				return Boolean.valueOf(bound);
+			}
+			return null;
+		}
+	}
+
+}
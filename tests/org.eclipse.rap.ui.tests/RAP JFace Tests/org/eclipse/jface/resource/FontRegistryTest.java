@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.jface.resource;
+
+import junit.framework.TestCase;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.FontData;
+
+public class FontRegistryTest extends TestCase {
+
+	private static final String FONT_LOCATION = "org.eclipse.jface.resource.testfonts";
+
+	public void testCreate_readsSingleFont() {
+		FontRegistry registry = new FontRegistry(FONT_LOCATION);
+
+		FontData[] fontData = registry.getFontData("test.font");
+
+		assertEquals(1, fontData.length);
+		assertEquals("adobe-courier", fontData[0].getName());
+		assertEquals(14, fontData[0].getHeight());
+		assertEquals(SWT.BOLD, fontData[0].getStyle());
+	}
+
+	public void testCreate_mergesIndexedKeys() {
+		FontRegistry registry = new FontRegistry(FONT_LOCATION);
+
+		FontData[] fontData = registry.getFontData("test.multifont");
+
+		assertEquals("Arial", fontData[0].getName());
+		assertEquals("Helvetica", fontData[1].getName());
+		assertEquals(SWT.ITALIC, fontData[1].getStyle());
+	}
+
+	public void testCreate_mergesIndexedKeysIntoDefaults() {
+		FontRegistry registry = new FontRegistry(FONT_LOCATION);
+
+		FontData[] fontData = registry.getFontData(JFaceResources.HEADER_FONT);
+
+		assertNotNull(fontData[0]);
+		assertEquals(SWT.BOLD, fontData[0].getStyle());
+		assertEquals("Arial", fontData[1].getName());
+		assertEquals(20, fontData[1].getHeight());
+	}
+
+	public void testCreate_keepsDefaults() {
+		FontRegistry registry = new FontRegistry(FONT_LOCATION);
+
+		assertTrue(registry.hasValueFor(JFaceResources.TEXT_FONT));
+		assertTrue(registry.hasValueFor(JFaceResources.BANNER_FONT));
+	}
+
+	public void testCreate_doesNotShareFontData() {
+		FontRegistry registry1 = new FontRegistry(FONT_LOCATION);
+		FontRegistry registry2 = new FontRegistry(FONT_LOCATION);
+
+		FontData[] fontData1 = registry1.getFontData("test.multifont");
+		FontData[] fontData2 = registry2.getFontData("test.multifont");
+
+		assertNotSame(fontData1, fontData2);
+		assertNotSame(fontData1[0], fontData2[0]);
+	}
+
+}
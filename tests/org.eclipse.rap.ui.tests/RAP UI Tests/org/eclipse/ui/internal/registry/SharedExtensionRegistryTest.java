@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2020 EclipseSource and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    EclipseSource - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.ui.internal.registry;
+
+import java.util.Locale;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.internal.registry.SharedExtensionRegistry.IDescriptorFactory;
+
+public class SharedExtensionRegistryTest extends TestCase {
+
+	private SharedExtensionRegistry sharedRegistry;
+	private CountingFactory factory;
+
+	protected void setUp() throws Exception {
+		sharedRegistry = SharedExtensionRegistry.getInstance();
+		factory = new CountingFactory();
+	}
+
+	public void testGetInstance_isSharedWithinApplication() {
+		assertSame(sharedRegistry, SharedExtensionRegistry.getInstance());
+	}
+
+	public void testGetExtensions_returnsCachedArray() {
+		IExtension[] extensions1 = getActionSetExtensions();
+		IExtension[] extensions2 = getActionSetExtensions();
+
+		assertTrue(extensions1.length > 0);
+		assertSame(extensions1, extensions2);
+	}
+
+	public void testGetExtensions_withUnknownExtensionPoint() {
+		IExtension[] extensions = sharedRegistry.getExtensions(
+				Platform.getExtensionRegistry(),
+				PlatformUI.PLUGIN_EXTENSION_NAME_SPACE, "does.not.exist");
+
+		assertEquals(0, extensions.length);
+	}
+
+	public void testGetOrderedExtensions_returnsCachedArray() {
+		IExtension[] extensions1 = getOrderedActionSetExtensions();
+		IExtension[] extensions2 = getOrderedActionSetExtensions();
+
+		assertSame(extensions1, extensions2);
+	}
+
+	public void testGetOrderedExtensions_containsAllExtensions() {
+		IExtension[] extensions = getActionSetExtensions();
+		IExtension[] orderedExtensions = getOrderedActionSetExtensions();
+
+		assertEquals(extensions.length, orderedExtensions.length);
+	}
+
+	public void testGetConfigurationElements_returnsCachedArray() {
+		IExtension extension = getActionSetExtensions()[0];
+
+		IConfigurationElement[] elements1 = sharedRegistry
+				.getConfigurationElements(extension);
+		IConfigurationElement[] elements2 = sharedRegistry
+				.getConfigurationElements(extension);
+
+		assertSame(elements1, elements2);
+	}
+
+	public void testGetDescriptor_createsDescriptorOnce() throws CoreException {
+		IConfigurationElement element = getActionSetElement();
+
+		Object descriptor1 = getDescriptor(element, Locale.ENGLISH);
+		Object descriptor2 = getDescriptor(element, Locale.ENGLISH);
+
+		assertSame(descriptor1, descriptor2);
+		assertEquals(1, factory.count);
+	}
+
+	public void testGetDescriptor_cachesPerFactory() throws CoreException {
+		IConfigurationElement element = getActionSetElement();
+		CountingFactory otherFactory = new CountingFactory();
+
+		Object descriptor1 = getDescriptor(element, Locale.ENGLISH);
+		Object descriptor2 = sharedRegistry.getDescriptor(element,
+				otherFactory, Locale.ENGLISH);
+
+		assertNotSame(descriptor1, descriptor2);
+		assertEquals(1, otherFactory.count);
+	}
+
+	public void testGetDescriptor_doesNotCacheFailures() {
+		IConfigurationElement element = getActionSetElement();
+		factory.fail = true;
+
+		try {
+			getDescriptor(element, null);
+			fail();
+		} catch (CoreException expected) {
+		}
+		try {
+			getDescriptor(element, null);
+			fail();
+		} catch (CoreException expected) {
+		}
+		assertEquals(2, factory.count);
+	}
+
+	public void testGetDescriptor_isolatesSessionLocales() throws CoreException {
+		IConfigurationElement element = getActionSetElement();
+
+		Object englishDescriptor = getDescriptor(element, Locale.ENGLISH);
+		Object germanDescriptor = getDescriptor(element, Locale.GERMAN);
+
+		assertNotSame(englishDescriptor, germanDescriptor);
+		assertSame(englishDescriptor, getDescriptor(element, Locale.ENGLISH));
+		assertSame(germanDescriptor, getDescriptor(element, Locale.GERMAN));
+		assertEquals(2, factory.count);
+	}
+
+	public void testGetDescriptor_withoutLocale() throws CoreException {
+		IConfigurationElement element = getActionSetElement();
+
+		Object descriptor1 = getDescriptor(element, null);
+		Object descriptor2 = getDescriptor(element, null);
+
+		assertSame(descriptor1, descriptor2);
+		assertNotSame(descriptor1, getDescriptor(element, Locale.ENGLISH));
+	}
+
+	public void testRegistryChanged_clearsExtensions() {
+		IExtension[] extensions = getActionSetExtensions();
+		IExtension[] orderedExtensions = getOrderedActionSetExtensions();
+
+		sharedRegistry.registryChanged(null);
+
+		assertNotSame(extensions, getActionSetExtensions());
+		assertNotSame(orderedExtensions, getOrderedActionSetExtensions());
+	}
+
+	public void testRegistryChanged_clearsConfigurationElements() {
+		IExtension extension = getActionSetExtensions()[0];
+		IConfigurationElement[] elements = sharedRegistry
+				.getConfigurationElements(extension);
+
+		sharedRegistry.registryChanged(null);
+
+		assertNotSame(elements, sharedRegistry
+				.getConfigurationElements(extension));
+	}
+
+	public void testRegistryChanged_clearsDescriptors() throws CoreException {
+		IConfigurationElement element = getActionSetElement();
+		Object descriptor = getDescriptor(element, Locale.ENGLISH);
+
+		sharedRegistry.registryChanged(null);
+
+		assertNotSame(descriptor, getDescriptor(element, Locale.ENGLISH));
+		assertEquals(2, factory.count);
+	}
+
+	private Object getDescriptor(IConfigurationElement element, Locale locale)
+			throws CoreException {
+		return sharedRegistry.getDescriptor(element, factory, locale);
+	}
+
+	private IConfigurationElement getActionSetElement() {
+		return sharedRegistry.getConfigurationElements(getActionSetExtensions()[0])[0];
+	}
+
+	private IExtension[] getActionSetExtensions() {
+		return sharedRegistry.getExtensions(Platform.getExtensionRegistry(),
+				PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+				IWorkbenchRegistryConstants.PL_ACTION_SETS);
+	}
+
+	private IExtension[] getOrderedActionSetExtensions() {
+		return sharedRegistry.getOrderedExtensions(
+				Platform.getExtensionRegistry(),
+				PlatformUI.PLUGIN_EXTENSION_NAME_SPACE,
+				IWorkbenchRegistryConstants.PL_ACTION_SETS);
+	}
+
+	private static final class CountingFactory implements IDescriptorFactory {
+
+		int count;
+		boolean fail;
+
+		public Object createDescriptor(IConfigurationElement element)
+				throws CoreException {
+			count++;
+			if (fail) {
+				throw new CoreException(Status.CANCEL_STATUS);
+			}
+			return new Object();
+		}
+	}
+
+}